@@ -0,0 +1,123 @@
+package sml;
+
+import sml.analysis.BasicBlock;
+import sml.instructions.*;
+
+import java.util.List;
+
+/**
+ * The straight-line runs of a method's basic blocks, pre-decoded for basic-block dispatch.
+ *
+ * <p>A run is a sequence of instructions within one {@link BasicBlock} that only work on the
+ * frame - {@code push}, {@code load}, {@code store}, arithmetic, {@code print} and the
+ * non-branching {@code not_eq} - and always fall through to the next. The interpreter dispatches
+ * each of them through a virtual {@link Instruction#step(Machine, Frame)} call, then counts it,
+ * moves and bounds-checks the program counter and tests for a back edge before fetching the next.
+ * {@link #run(Frame)} executes a whole run back to back: {@code push}, {@code load} and
+ * {@code store} are decoded up front and run inline, the rest call
+ * {@link Instruction#performInBlock(Frame)} directly, and the program counter is moved and the
+ * instructions counted once at the end.</p>
+ *
+ * <p>Runs stop before anything else - branches, {@code invoke}, {@code return}, array and input
+ * instructions - and before the method's last instruction, whose fall-through ends the program.
+ * Those execute in the interpreter as usual. Variables are accessed by slot, so {@code load} and
+ * {@code store} need no lookup by name.</p>
+ *
+ * <p>Instances are immutable and are shared by every machine running the method.</p>
+ *
+ * @author Ricki Angel
+ * @see ExecutionMode#BASIC_BLOCK
+ */
+final class BlockCode {
+    private static final int OTHER = 0;
+    private static final int PUSH = 1;
+    private static final int LOAD = 2;
+    private static final int STORE = 3;
+    private static final int FRAME = 4;
+
+    private final Instruction[] instructions;
+    private final int[] kinds;
+    private final int[] operands;
+    private final int[] runEnds;
+
+    private BlockCode(Instruction[] instructions, int[] kinds, int[] operands, int[] runEnds) {
+        this.instructions = instructions;
+        this.kinds = kinds;
+        this.operands = operands;
+        this.runEnds = runEnds;
+    }
+
+    /**
+     * Decodes the straight-line runs of a method.
+     *
+     * @param method the method
+     * @return the block code
+     */
+    static BlockCode of(Method method) {
+        Instruction[] instructions = method.instructions().toArray(Instruction[]::new);
+        List<Variable.Identifier> slots = method.variableSlots();
+        int size = instructions.length;
+        int[] kinds = new int[size];
+        int[] operands = new int[size];
+        for (int pc = 0; pc < size; pc++) {
+            Instruction instruction = instructions[pc];
+            Class<?> type = instruction.getClass();
+            if (type == PushInstruction.class) {
+                kinds[pc] = PUSH;
+                operands[pc] = ((PushInstruction) instruction).value();
+            } else if (type == LoadInstruction.class || type == StoreInstruction.class) {
+                kinds[pc] = type == LoadInstruction.class ? LOAD : STORE;
+                operands[pc] = slots.indexOf(((AbstractVarInstruction) instruction).variable());
+            } else if (type == AddInstruction.class || type == SubInstruction.class || type == MulInstruction.class
+                    || type == DivInstruction.class || type == ModInstruction.class || type == PrintInstruction.class
+                    || type == SqrtInstruction.class || type == NumCharInstruction.class
+                    || (type == NotEqInstruction.class && ((NotEqInstruction) instruction).jumpLabel() == null)) {
+                kinds[pc] = FRAME;
+            }
+        }
+
+        int[] runEnds = new int[size];
+        for (BasicBlock block : method.controlFlowGraph().blocks()) {
+            int limit = Math.min(block.end(), size - 1);
+            int end = limit;
+            for (int pc = limit - 1; pc >= block.start(); pc--) {
+                if (kinds[pc] == OTHER) end = pc;
+                runEnds[pc] = end;
+            }
+            for (int pc = limit; pc < block.end(); pc++)
+                runEnds[pc] = pc;
+        }
+        return new BlockCode(instructions, kinds, operands, runEnds);
+    }
+
+    /**
+     * Executes the straight-line run starting at the frame's program counter, if there is one.
+     *
+     * <p>On return the program counter is at the first instruction not executed: the end of the
+     * run, or the instruction that threw. Callers count the instructions executed from the
+     * difference.</p>
+     *
+     * @param frame the frame to run
+     */
+    void run(Frame frame) {
+        int pc = frame.programCounter();
+        int end = runEnds[pc];
+        if (end == pc) return;
+        try {
+            for (; pc < end; pc++) {
+                switch (kinds[pc]) {
+                    case PUSH -> frame.push(operands[pc]);
+                    case LOAD -> {
+                        int value = frame.variableAt(operands[pc]).load();
+                        frame.push(value);
+                        System.out.println(value);
+                    }
+                    case STORE -> frame.variableAt(operands[pc]).store(frame.pop());
+                    default -> instructions[pc].performInBlock(frame);
+                }
+            }
+        } finally {
+            frame.resumeAt(pc);
+        }
+    }
+}
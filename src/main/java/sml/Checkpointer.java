@@ -0,0 +1,171 @@
+package sml;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs a {@link Machine} to completion while periodically checkpointing it to disk.
+ *
+ * <p>The machine is driven in quanta through {@link Machine#run(long)}. Between quanta the
+ * checkpointer captures a {@link MachineSnapshot} when the interval has elapsed or a checkpoint has
+ * been requested, then hands the encoded bytes to a background writer so the machine resumes as
+ * soon as the frames have been copied.</p>
+ *
+ * <p>Key features:</p>
+ * <ul>
+ *   <li>Time-based checkpoints, plus on-demand ones via {@link #requestCheckpoint()} from any
+ *       thread</li>
+ *   <li>Writes happen in order on a single daemon thread and always replace the file atomically</li>
+ *   <li>A failed write is reported on {@code System.err} as it happens; the run and later
+ *       checkpoints carry on, so the file holds the last checkpoint that succeeded</li>
+ *   <li>The checkpoint file is removed once the program terminates normally</li>
+ * </ul>
+ *
+ * @author Ricki Angel
+ */
+public final class Checkpointer {
+    /** Default number of instructions run between checkpoint opportunities. */
+    public static final long DEFAULT_QUANTUM = 100_000;
+
+    private final Machine machine;
+    private final Path file;
+    private final long intervalNanos;
+    private final long quantum;
+    private final AtomicLong checkpointsWritten = new AtomicLong();
+    private final AtomicLong checkpointsFailed = new AtomicLong();
+    private volatile boolean checkpointRequested;
+
+    /**
+     * Creates a checkpointer with the default quantum.
+     *
+     * @param machine  the machine to run, with its program loaded
+     * @param file     where to write checkpoints
+     * @param interval the time between periodic checkpoints
+     */
+    public Checkpointer(Machine machine, Path file, Duration interval) {
+        this(machine, file, interval, DEFAULT_QUANTUM);
+    }
+
+    /**
+     * Creates a checkpointer.
+     *
+     * @param machine  the machine to run, with its program loaded
+     * @param file     where to write checkpoints
+     * @param interval the time between periodic checkpoints
+     * @param quantum  the number of instructions to run between checkpoint opportunities
+     * @throws IllegalArgumentException if the interval is negative or the quantum is not positive
+     */
+    public Checkpointer(Machine machine, Path file, Duration interval, long quantum) {
+        this.machine = Objects.requireNonNull(machine);
+        this.file = Objects.requireNonNull(file);
+        if (interval.isNegative())
+            throw new IllegalArgumentException("Interval must not be negative: " + interval);
+        if (quantum <= 0)
+            throw new IllegalArgumentException("Quantum must be positive: " + quantum);
+        this.intervalNanos = interval.toNanos();
+        this.quantum = quantum;
+    }
+
+    /**
+     * Runs the machine until its program terminates, checkpointing along the way.
+     *
+     * <p>Checkpoint writes that fail do not stop the run; see {@link #checkpointsFailed()}.</p>
+     *
+     * @throws IOException                     if the checkpoint file could not be removed at the end
+     * @throws ExecutionLimitExceededException if one of the machine's limits is exceeded
+     */
+    public void run() throws IOException {
+        ExecutorService writer = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "sml-checkpoint-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        CompletableFuture<Void> pending = CompletableFuture.completedFuture(null);
+        try {
+            long lastCheckpoint = System.nanoTime();
+            while (machine.run(quantum) == ExecutionStatus.SUSPENDED) {
+                long now = System.nanoTime();
+                if (checkpointRequested || now - lastCheckpoint >= intervalNanos) {
+                    checkpointRequested = false;
+                    lastCheckpoint = now;
+                    MachineSnapshot snapshot = MachineSnapshot.capture(machine);
+                    pending = pending.thenRunAsync(() -> write(snapshot), writer)
+                            .exceptionally(this::reportFailure);
+                }
+            }
+            pending.join();
+            Files.deleteIfExists(file);
+        } finally {
+            writer.shutdown();
+        }
+    }
+
+    /**
+     * Asks for a checkpoint at the end of the current quantum, regardless of the interval.
+     *
+     * <p>Safe to call from any thread.</p>
+     */
+    public void requestCheckpoint() {
+        checkpointRequested = true;
+    }
+
+    /**
+     * Returns the number of checkpoints written so far.
+     *
+     * @return the checkpoint count
+     */
+    public long checkpointsWritten() {
+        return checkpointsWritten.get();
+    }
+
+    /**
+     * Returns the number of checkpoints whose write failed so far.
+     *
+     * @return the failed checkpoint count
+     */
+    public long checkpointsFailed() {
+        return checkpointsFailed.get();
+    }
+
+    /**
+     * Resumes a machine from a checkpoint file, if one exists.
+     *
+     * @param machine the machine, with the checkpointed program already loaded
+     * @param file    the checkpoint file
+     * @return whether a checkpoint was found and restored
+     * @throws IOException           if the file exists but cannot be read as a snapshot
+     * @throws IllegalStateException if the checkpoint belongs to a different program
+     */
+    public static boolean resume(Machine machine, Path file) throws IOException {
+        if (!Files.exists(file)) return false;
+        MachineSnapshot.readFrom(file, machine.heap().maxBytes()).restoreInto(machine);
+        return true;
+    }
+
+    private void write(MachineSnapshot snapshot) {
+        try {
+            snapshot.writeTo(file);
+            checkpointsWritten.incrementAndGet();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Void reportFailure(Throwable failure) {
+        checkpointsFailed.incrementAndGet();
+        Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                ? failure.getCause() : failure;
+        if (cause instanceof UncheckedIOException io) cause = io.getCause();
+        System.err.println("Error: Checkpoint to " + file + " failed - " + cause.getMessage());
+        return null;
+    }
+}
@@ -0,0 +1,92 @@
+package sml;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An exception raised when an execution crosses one of its {@link ExecutionLimits}.
+ *
+ * <p>Captures the state of the machine at the safepoint where the limit was detected, so callers
+ * can report where a runaway program was stopped without re-running it.</p>
+ *
+ * <p>Key features:</p>
+ * <ul>
+ *   <li>Identifies which limit was exceeded and its configured threshold</li>
+ *   <li>Records the frame chain, innermost first, as {@code method:pc} entries</li>
+ *   <li>Records the number of instructions executed before the limit was hit</li>
+ * </ul>
+ *
+ * @author Ricki Angel
+ */
+public class ExecutionLimitExceededException extends RuntimeException {
+    /**
+     * The kinds of limit that can be exceeded.
+     */
+    public enum Limit {
+        INSTRUCTIONS, WALL_TIME, CALL_DEPTH
+    }
+
+    private final Limit limit;
+    private final long threshold;
+    private final long instructionsExecuted;
+    private final List<String> frameChain;
+
+    /**
+     * Constructs a new ExecutionLimitExceededException.
+     *
+     * @param limit                the limit that was exceeded
+     * @param threshold            the configured value of that limit
+     * @param instructionsExecuted the number of instructions executed so far
+     * @param frame                the frame that was about to run when the limit was detected
+     */
+    public ExecutionLimitExceededException(Limit limit, long threshold, long instructionsExecuted, Frame frame) {
+        super(limit + " limit of " + threshold + " exceeded at " + frame);
+        this.limit = limit;
+        this.threshold = threshold;
+        this.instructionsExecuted = instructionsExecuted;
+
+        List<String> chain = new ArrayList<>();
+        for (Frame f = frame; f != null; f = f.invoker().orElse(null))
+            chain.add(f.method().name() + ":" + f.programCounter());
+        this.frameChain = Collections.unmodifiableList(chain);
+    }
+
+    /**
+     * Retrieves the limit that was exceeded.
+     *
+     * @return the exceeded limit
+     */
+    public Limit getLimit() {
+        return limit;
+    }
+
+    /**
+     * Retrieves the configured threshold of the exceeded limit.
+     *
+     * <p>Instructions are counted, wall time is in nanoseconds and call depth is in frames.</p>
+     *
+     * @return the threshold value
+     */
+    public long getThreshold() {
+        return threshold;
+    }
+
+    /**
+     * Retrieves the number of instructions executed before the limit was detected.
+     *
+     * @return the instruction count
+     */
+    public long getInstructionsExecuted() {
+        return instructionsExecuted;
+    }
+
+    /**
+     * Retrieves the frame chain at the point of failure, innermost frame first.
+     *
+     * @return an unmodifiable list of {@code method:pc} entries
+     */
+    public List<String> getFrameChain() {
+        return frameChain;
+    }
+}
@@ -0,0 +1,91 @@
+package sml;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Per-execution resource limits enforced by the {@link Machine}.
+ *
+ * <p>Limits are checked cooperatively at safepoints rather than on every instruction. A safepoint
+ * is any control transfer that does not simply fall through to the next instruction: a backward
+ * branch, a method invocation or a return. Straight-line code between two safepoints is always
+ * finite, so a runaway program is caught within one basic block of crossing a limit.</p>
+ *
+ * <p>Key features:</p>
+ * <ul>
+ *   <li>Instruction budget counting every executed instruction</li>
+ *   <li>Wall-time budget accumulated only while the machine is actually running</li>
+ *   <li>Maximum call depth measured in frames</li>
+ * </ul>
+ *
+ * @param maxInstructions the maximum number of instructions an execution may run
+ * @param maxWallTime     the maximum time an execution may spend running
+ * @param maxCallDepth    the maximum number of frames on the call chain, including {@code @main}
+ * @author Ricki Angel
+ */
+public record ExecutionLimits(long maxInstructions, Duration maxWallTime, int maxCallDepth) {
+    // Largest Duration whose nanosecond value still fits in a long:
+    private static final Duration UNBOUNDED_WALL_TIME = Duration.ofNanos(Long.MAX_VALUE);
+    private static final ExecutionLimits UNLIMITED =
+            new ExecutionLimits(Long.MAX_VALUE, UNBOUNDED_WALL_TIME, Integer.MAX_VALUE);
+
+    /**
+     * Validates the limits during instantiation.
+     *
+     * @throws IllegalArgumentException if any limit is not positive
+     * @throws NullPointerException     if maxWallTime is null
+     */
+    public ExecutionLimits {
+        Objects.requireNonNull(maxWallTime, "Wall time limit cannot be null");
+        if (maxInstructions <= 0 || maxCallDepth <= 0 || maxWallTime.isNegative() || maxWallTime.isZero())
+            throw new IllegalArgumentException("Execution limits must be positive");
+    }
+
+    /**
+     * Returns limits that never trigger, matching the historical behaviour of {@link Machine#execute()}.
+     *
+     * @return the unlimited execution limits
+     */
+    public static ExecutionLimits unlimited() {
+        return UNLIMITED;
+    }
+
+    /**
+     * Returns a copy of these limits with a different instruction budget.
+     *
+     * @param maxInstructions the new instruction budget
+     * @return the updated limits
+     */
+    public ExecutionLimits withMaxInstructions(long maxInstructions) {
+        return new ExecutionLimits(maxInstructions, maxWallTime, maxCallDepth);
+    }
+
+    /**
+     * Returns a copy of these limits with a different wall-time budget.
+     *
+     * @param maxWallTime the new wall-time budget
+     * @return the updated limits
+     */
+    public ExecutionLimits withMaxWallTime(Duration maxWallTime) {
+        return new ExecutionLimits(maxInstructions, maxWallTime, maxCallDepth);
+    }
+
+    /**
+     * Returns a copy of these limits with a different maximum call depth.
+     *
+     * @param maxCallDepth the new maximum call depth
+     * @return the updated limits
+     */
+    public ExecutionLimits withMaxCallDepth(int maxCallDepth) {
+        return new ExecutionLimits(maxInstructions, maxWallTime, maxCallDepth);
+    }
+
+    /**
+     * Checks whether a wall-time limit is in force, so the machine can skip reading the clock otherwise.
+     *
+     * @return {@code true} if the wall time is bounded
+     */
+    public boolean hasWallTimeLimit() {
+        return !maxWallTime.equals(UNBOUNDED_WALL_TIME);
+    }
+}
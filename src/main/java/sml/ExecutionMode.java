@@ -0,0 +1,30 @@
+package sml;
+
+/**
+ * How a {@link Machine} executes the methods of its program.
+ *
+ * @author Ricki Angel
+ * @see Machine#setExecutionMode(ExecutionMode)
+ */
+public enum ExecutionMode {
+    /**
+     * Every instruction is run by the interpreter.
+     */
+    INTERPRETED,
+
+    /**
+     * Hot loops are compiled and entered mid-method by on-stack replacement; everything else is
+     * interpreted.
+     *
+     * @see sml.compiler.OsrCompiler
+     */
+    OSR,
+
+    /**
+     * Every instruction is interpreted, but the straight-line instructions of each basic block run
+     * back to back, with one program counter update and bounds check per block.
+     *
+     * @see sml.analysis.ControlFlowGraph
+     */
+    BASIC_BLOCK
+}
@@ -0,0 +1,19 @@
+package sml;
+
+/**
+ * Outcome of running a {@link Machine} for a bounded quantum.
+ *
+ * @author Ricki Angel
+ * @see Machine#run(long)
+ */
+public enum ExecutionStatus {
+    /**
+     * The execution stopped at a safepoint and can be resumed with all frame state intact.
+     */
+    SUSPENDED,
+
+    /**
+     * The program has finished; there is nothing left to run.
+     */
+    TERMINATED
+}
@@ -0,0 +1,338 @@
+package sml;
+
+import sml.instructions.Instruction;
+
+import java.util.*;
+
+/**
+ * Represents the execution context for a method in the SML runtime environment.
+ *
+ * <p>The Frame class manages the complete state of a method during its execution, including:</p>
+ * <ul>
+ *   <li>Program counter tracking</li>
+ *   <li>Method arguments and local variables</li>
+ *   <li>Operand stack management</li>
+ *   <li>Instruction execution context</li>
+ * </ul>
+ *
+ * <p>Key responsibilities:</p>
+ * <ul>
+ *   <li>Tracks the current execution point within a method</li>
+ *   <li>Provides access to method-specific variables</li>
+ *   <li>Manages a stack for intermediate computational values</li>
+ *   <li>Supports method invocation and context switching</li>
+ * </ul>
+ *
+ * @author Ricki Angel
+ */
+public class Frame {
+    private static final int INITIAL_STACK_CAPACITY = 8;
+
+    private final Method method;
+    private int programCounter;
+
+    private final SymbolTable<Variable.Identifier, Variable> arguments;
+    private final SymbolTable<Variable.Identifier, Variable> localVariables;
+    private final Variable[] slots;
+    private int[] stack;
+    private int stackSize;
+    private final Frame invoker;
+    private final int depth;
+
+    // Answer to Coursework Question: 3 data structures and mutable components.
+    // Explain what parts of the data structure are mutable (and what are the mutator methods).
+
+    // 1. SymbolTable<Variable.Identifier, Variable> arguments:
+    //    - A Map data sctructure which stores method args.
+    //    - Modified through Variable's mutator methods.
+    //    - Can modify individual variable values
+    //    - The table itself is final (cannot be reassigned)
+
+    // 2. SymbolTable<Variable.Identifier, Variable> localVariables:
+    //    - Again, a Map DS which stores local variables.
+    //    - Modified through Variable's mutator methods.
+    //    - Can modify individual variable values
+    //    - The table itself is final (cannot be reassigned)
+
+    // 3. int[] stack (with int stackSize):
+    //   - Mutable structure (elements can be added/removed); a primitive array so values are never boxed.
+    //   - Modified by push() and pop() methods.
+    //   - The array is replaced by a larger copy when it fills up
+
+    // TO Clarify, the mutable components are:  
+    // programCounter: (int) → Mutable (modified by setProgramCounter(int))  
+    // arguments: (SymbolTable<Variable.Identifier, Variable>) → Mutable if Variable is mutable  
+    // localVariables: (SymbolTable<Variable.Identifier, Variable>) → Mutable if Variable is mutable  
+    // stack: (int[]) → Mutable (modified by push(int) and pop())  
+
+    /**
+     * Constructs a new Frame for a specific method.
+     *
+     * <p>Initializes the frame with:</p>
+     * <ul>
+     *   <li>Method-specific arguments</li>
+     *   <li>Local variables</li>
+     *   <li>Empty operand stack</li>
+     *   <li>Tracking of the invoking frame</li>
+     * </ul>
+     *
+     * @param method  The method to be executed in this frame
+     * @param invoker The frame that invoked this method (can be null)
+     * @throws NullPointerException if method is null
+     */
+
+    public Frame(Method method, Frame invoker) {
+        this(method, invoker, invoker == null ? 1 : invoker.depth + 1);
+    }
+
+    /**
+     * Constructs a frame with an explicit call depth.
+     *
+     * <p>Used for the bottom frame of a spawned call, which takes the depth of the frame that
+     * spawned it so the call is charged the same depth as an invocation would be.</p>
+     *
+     * @param method  The method to be executed in this frame
+     * @param invoker The frame to return to (can be null)
+     * @param depth   The call depth of this frame
+     */
+    Frame(Method method, Frame invoker, int depth) {
+        this.method = Objects.requireNonNull(method);
+        this.programCounter = 0;
+
+        List<Variable.Identifier> slotNames = method.variableSlots();
+        int argumentCount = method.arguments().size();
+        Map<Variable.Identifier, Variable> argumentMap = new HashMap<>();
+        Map<Variable.Identifier, Variable> localMap = new HashMap<>();
+        this.slots = new Variable[slotNames.size()];
+        for (int slot = 0; slot < slots.length; slot++) {
+            slots[slot] = new Variable();
+            (slot < argumentCount ? argumentMap : localMap).put(slotNames.get(slot), slots[slot]);
+        }
+        this.arguments = SymbolTable.of(argumentMap);
+        this.localVariables = SymbolTable.of(localMap);
+        this.stack = new int[INITIAL_STACK_CAPACITY];
+
+        this.invoker = invoker;
+        this.depth = depth;
+    }
+
+    /**
+     * Advances the program counter to the next instruction in the method.
+     *
+     * <p>Runs for nearly every instruction, so it allocates nothing.</p>
+     *
+     * @return The next frame if another instruction exists, or null if no more instructions are available
+     */
+    public Frame advance() {
+        int next = programCounter + 1;
+        if (next >= method.instructions().size()) return null;
+        programCounter = next;
+        return this;
+    }
+
+    /**
+     * Jumps to a specific labeled instruction within the current method.
+     *
+     * @param label The target instruction label to jump to
+     * @return The frame positioned at the labeled instruction
+     * @throws LabelNotFoundException if the specified label cannot be found in the method
+     */
+
+    public Frame jumpTo(Label label) {
+        return setProgramCounter(labelIndex(label));
+    }
+
+    /**
+     * Returns the index of the instruction a label marks in this frame's method, without moving
+     * the program counter.
+     *
+     * <p>Used by branches that report their target from {@link sml.instructions.Instruction#step},
+     * and allocates nothing.</p>
+     *
+     * @param label The label to resolve
+     * @return the instruction index
+     * @throws LabelNotFoundException if the label is not defined in the method
+     */
+    public int labelIndex(Label label) {
+        Integer pc = method.labels().getOrDefault(label, null);
+        if (pc == null)
+            throw new LabelNotFoundException(label, method);
+        return pc;
+    }
+
+    /**
+     * Sets the program counter to a specific instruction index within the method.
+     *
+     * <p>Updates the current execution point and validates the new index
+     * against the method's total number of instructions.</p>
+     *
+     * @param programCounter The new index to set as the current program counter
+     * @return The current frame with updated program counter
+     * @throws IndexOutOfBoundsException if the program counter is outside
+     *                                   the valid range of method instructions
+     */
+
+    private Frame setProgramCounter(int programCounter) {
+        this.programCounter = programCounter;
+        Objects.checkIndex(programCounter, method.instructions().size());
+        return this;
+    }
+
+    /**
+     * Moves the program counter to an instruction index directly.
+     *
+     * <p>Used when execution re-enters the interpreter at a known position: frames rebuilt from a
+     * {@link MachineSnapshot}, and exits from compiled code after on-stack replacement.</p>
+     *
+     * @param programCounter the instruction index to resume at
+     * @return this frame
+     * @throws IndexOutOfBoundsException if the program counter is outside the method
+     */
+    public Frame resumeAt(int programCounter) {
+        return setProgramCounter(programCounter);
+    }
+
+    /**
+     * Copies the operand stack, bottom value first, for a {@link MachineSnapshot}.
+     *
+     * @return the operand stack contents
+     */
+    int[] stackContents() {
+        return Arrays.copyOf(stack, stackSize);
+    }
+
+    public Method method() {
+        return method;
+    }
+
+    public Instruction currentInstruction() {
+        return method.instructionAt(programCounter);
+    }
+
+    public int programCounter() {
+        return programCounter;
+    }
+
+    public Optional<Frame> invoker() {
+        return Optional.ofNullable(invoker);
+    }
+
+    /**
+     * Returns the frame that invoked this one, for a {@code return} run through
+     * {@link sml.instructions.Instruction#step}, without allocating an {@code Optional}.
+     *
+     * @return the invoking frame, or null for the bottom frame
+     */
+    public Frame invokerOrNull() {
+        return invoker;
+    }
+
+    /**
+     * Returns the number of frames on the call chain ending at this frame.
+     *
+     * <p>The outermost frame (normally {@code @main}) has a depth of 1.</p>
+     *
+     * @return the call depth of this frame
+     */
+    public int depth() {
+        return depth;
+    }
+
+    /**
+     * Retrieves a variable from local or argument scopes based on its identifier.
+     *
+     * @param identifier The unique identifier of the variable to retrieve
+     * @return The variable associated with the given identifier
+     * @throws VariableNotFoundException if no variable matches the identifier
+     */
+
+    public Variable variable(Variable.Identifier identifier) {
+        return localVariables.get(identifier)
+                .or(() -> arguments.get(identifier))
+                .orElseThrow(() -> new VariableNotFoundException(identifier));
+    }
+
+    /**
+     * Retrieves a variable by its slot in {@link Method#variableSlots()}.
+     *
+     * <p>The direct counterpart of {@link #variable(Variable.Identifier)} for instructions that have
+     * resolved their variable to a slot ahead of time.</p>
+     *
+     * @param slot the variable's slot index
+     * @return the variable in that slot
+     * @throws ArrayIndexOutOfBoundsException if the method has no such slot
+     */
+    public Variable variableAt(int slot) {
+        return slots[slot];
+    }
+
+    public SymbolTable<Variable.Identifier, Variable> arguments() {
+        return arguments;
+    }
+
+    public SymbolTable<Variable.Identifier, Variable> localVariables() {
+        return localVariables;
+    }
+
+    /**
+     * Removes and returns the top value from the operand stack.
+     *
+     * @return The integer value at the top of the stack
+     * @throws NoSuchElementException if the stack is empty
+     */
+    public int pop() {
+        if (stackSize == 0) {
+            throw new NoSuchElementException("Cannot pop from an empty stack in method " + method.name());
+        }
+        return stack[--stackSize];
+    }
+
+    /**
+     * Returns the top value of the operand stack without removing it.
+     *
+     * @return The integer value at the top of the stack
+     * @throws NoSuchElementException if the stack is empty
+     */
+    public int peek() {
+        if (stackSize == 0) {
+            throw new NoSuchElementException("Cannot peek at an empty stack in method " + method.name());
+        }
+        return stack[stackSize - 1];
+    }
+
+    /**
+     * Pushes a new integer value onto the top of the operand stack.
+     *
+     * @param value The integer value to push onto the stack
+     */
+    public void push(int value) {
+        if (stackSize == stack.length) stack = Arrays.copyOf(stack, stackSize * 2);
+        stack[stackSize++] = value;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(method.name())
+                .append(":").append(programCounter);
+
+        if (invoker != null) {
+            Frame current = invoker;
+            sb.append(" < ");
+            while (current != null) {
+                sb.append(current.method.name())
+                        .append(":").append(current.programCounter);
+                current = current.invoker;
+                if (current != null) {
+                    sb.append(" → ");
+                }
+            }
+        }
+
+        return sb.toString();
+    }
+    
+    public int stackSize() {
+        return stackSize;
+    }
+}
@@ -0,0 +1,244 @@
+package sml;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.beans.factory.annotation.Qualifier;
+
+import sml.discovery.ConfigDiscovery;
+import sml.discovery.InstructionDiscoveryStrategy;
+import sml.discovery.PackageScanDiscovery;
+import sml.helperfiles.InstructionRegistrationLogger;
+import sml.metrics.SmlMetrics;
+import sml.registry.InstructionRegistry;
+import sml.registry.InstructionSet;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.logging.*;
+
+/**
+ * A dynamic Factory for creating SML instructions.
+ *
+ * <h2>Discovery Strategies</h2>
+ * <p>The InstructionRegistrationManager supports two primary strategies for discovering instructions:</p>
+ * <ol>
+ *   <li><strong>Configuration File Discovery</strong>: 
+ *       Reads instruction mappings from a properties file, allowing dynamic registration 
+ *       without modifying code.</li>
+ *   <li><strong>Package Scanning</strong>: 
+ *       Automatically detects instruction classes within a specified package, 
+ *       using reflection to identify and register available instructions.</li>
+ * </ol>
+ *
+ * <h2>Key Features</h2>
+ * <ul>
+ *   <li>Dynamic instruction registration without code modifications</li>
+ *   <li>Extensible discovery mechanisms</li>
+ *   <li>Centralised instruction management</li>
+ *   <li>Logging and tracking of instruction registration processes</li>
+ *   <li>Fail-fast mechanism for instruction discovery</li>
+ * </ul>
+ *
+ * <h2>Concurrency</h2>
+ * <p>Each manager owns its instructions: every Spring context, and every caller that creates a
+ * manager, discovers its own rather than sharing a JVM-wide registry. Discovery runs all
+ * strategies in parallel, each into a registry of its own, then merges their results in the
+ * order above into one {@link InstructionRegistry} and publishes it as an immutable
+ * {@link InstructionSet} snapshot that translators on any thread read without
+ * synchronisation.</p>
+ *
+ * <p>The merge is deterministic: an opcode in the configuration file always maps to its
+ * configured class, and package scanning adds only the opcodes that are not configured, such as
+ * an instruction class dropped into the package without a configuration entry. The registration
+ * summary names the class each opcode was finally registered with.</p>
+ *
+ * <h2>Delegation Model</h2>
+ * <p>This factory delegates core functionality to specialised components:</p>
+ * <ul>
+ *   <li>Storage and creation of instructions is handled by {@link InstructionRegistry}</li>
+ *   <li>Discovery of instructions is performed by {@link InstructionDiscoveryStrategy} implementations</li>
+ * </ul>
+ *
+ * @author Ricki Angel
+ */
+@Component("InstructionFactory")
+@Qualifier
+public class InstructionRegistrationManager {
+    private static final Logger LOGGER = Logger.getLogger(InstructionRegistrationManager.class.getName());
+
+    private final InstructionRegistrationLogger logger;
+    private final List<Function<InstructionRegistrationLogger, InstructionDiscoveryStrategy>> discoveryMethods = new ArrayList<>();
+    private volatile InstructionSet instructions;
+
+    static {
+        configureLoggerFormat();
+    }
+
+    /**
+     * Configures console log handlers to provide cleaner, simplified output.
+     *
+     * <p>Replaces default log formatting with a streamlined message-only display.</p>
+     */
+    private static void configureLoggerFormat() {
+        Logger rootLogger = Logger.getLogger("");
+        for (Handler handler : rootLogger.getHandlers()) {
+            if (handler instanceof ConsoleHandler) {
+                handler.setFormatter(new SimpleFormatter() {
+                    @Override
+                    public synchronized String format(LogRecord record) {
+                        return record.getMessage() + System.lineSeparator();
+                    }
+                });
+            }
+        }
+    }
+
+    /**
+     * Constructs a new InstructionRegistrationManager.
+     *
+     * @param logger The logger for tracking instruction registration
+     */
+    @Autowired
+    public InstructionRegistrationManager(InstructionRegistrationLogger logger) {
+        this.logger = Objects.requireNonNull(logger, "Logger cannot be null");
+
+        discoveryMethods.add(ConfigDiscovery::new);
+        discoveryMethods.add(PackageScanDiscovery::new);
+    }
+
+    /**
+     * Discovers instructions using the configured discovery methods.
+     * <p>
+     * Runs every method at once, each on its own virtual thread and into its own registry, then
+     * merges the results in priority order, so earlier methods keep the opcodes they registered.
+     * Registration events are reported to the logger after the merge, with each opcode reported
+     * against the class that won it. The result is published as this manager's
+     * {@link #instructions()}, and the time taken is recorded in {@link SmlMetrics#DISCOVERY_TIME}.
+     * </p>
+     *
+     * @return the discovered instructions
+     * @throws RuntimeException if no method discovers any instructions
+     */
+    public InstructionSet discoverInstructions() {
+        LOGGER.log(Level.INFO, "Starting instruction discovery process");
+
+        List<InstructionDiscoveryStrategy> methods = new ArrayList<>();
+        List<DeferredLogger> logs = new ArrayList<>();
+        List<InstructionRegistry> registries = new ArrayList<>();
+        for (Function<InstructionRegistrationLogger, InstructionDiscoveryStrategy> factory : discoveryMethods) {
+            DeferredLogger log = new DeferredLogger();
+            logs.add(log);
+            methods.add(factory.apply(log));
+            registries.add(new InstructionRegistry());
+        }
+
+        InstructionRegistry registry = new InstructionRegistry();
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < methods.size(); i++) {
+                InstructionDiscoveryStrategy method = methods.get(i);
+                InstructionRegistry own = registries.get(i);
+                results.add(executor.submit(() -> method.discoverInstructions(own)));
+            }
+            for (int i = 0; i < results.size(); i++) {
+                int discovered = results.get(i).get();
+                int merged = merge(registries.get(i).snapshot(), registry);
+                if (discovered > 0) {
+                    LOGGER.log(Level.INFO, "Successfully discovered " + discovered +
+                            " instructions using " + methods.get(i).getName() + " method, " +
+                            merged + " not registered by an earlier method");
+                }
+            }
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Instruction discovery failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Instruction discovery was interrupted", e);
+        } finally {
+            SmlMetrics.DISCOVERY_TIME.recordNanos(System.nanoTime() - start);
+        }
+
+        InstructionSet discovered = registry.snapshot();
+        logs.forEach(log -> log.replayTo(logger));
+        for (String opcode : new TreeSet<>(discovered.opcodes()))
+            logger.trackSuccessfulRegistration(discovered.instructionClass(opcode).orElseThrow().getSimpleName(), opcode);
+
+        if (discovered.size() == 0) {
+            LOGGER.log(Level.SEVERE, "Failed to discover any instructions using all methods");
+            throw new RuntimeException("No instructions could be discovered");
+        }
+        instructions = discovered;
+        return discovered;
+    }
+
+    /**
+     * Adds the opcodes of one method's instructions that are not yet in the merged registry.
+     *
+     * @return the number of opcodes added
+     */
+    private static int merge(InstructionSet found, InstructionRegistry registry) {
+        int added = 0;
+        for (String opcode : found.opcodes())
+            if (registry.registerIfAbsent(opcode, found.instructionClass(opcode).orElseThrow())) added++;
+        return added;
+    }
+
+    /**
+     * Returns this manager's instructions, discovering them on first use.
+     *
+     * @return the published instruction set
+     */
+    public InstructionSet instructions() {
+        InstructionSet current = instructions;
+        if (current == null) {
+            synchronized (this) {
+                current = instructions;
+                if (current == null) current = discoverInstructions();
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Holds one discovery method's registration events until the merge has decided which class
+     * wins each opcode.
+     *
+     * <p>Attempts and failures are replayed to the manager's logger as they were reported.
+     * Successes are not kept, since the method may have registered a class that an earlier method
+     * overrides; the manager reports them from the merged instructions instead.</p>
+     */
+    private static final class DeferredLogger implements InstructionRegistrationLogger {
+        private final List<Consumer<InstructionRegistrationLogger>> events = new ArrayList<>();
+
+        @Override
+        public void logRegistrationAttempt(Class<?> clazz) {
+            events.add(logger -> logger.logRegistrationAttempt(clazz));
+        }
+
+        @Override
+        public void trackSuccessfulRegistration(String instructionName, String opcode) {
+        }
+
+        @Override
+        public void trackFailedRegistration(String instructionName, String reason) {
+            events.add(logger -> logger.trackFailedRegistration(instructionName, reason));
+        }
+
+        @Override
+        public void printRegistrationSummary() {
+        }
+
+        void replayTo(InstructionRegistrationLogger logger) {
+            events.forEach(event -> event.accept(logger));
+        }
+    }
+}
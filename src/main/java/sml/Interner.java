@@ -0,0 +1,123 @@
+package sml;
+
+import sml.instructions.Instruction;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Shares the identifiers and instructions of one translation.
+ *
+ * <p>The translator creates a label, variable or method identifier for every occurrence of a name,
+ * and an instruction for every line. Routed through an interner, each distinct name becomes one
+ * identifier, and every unlabelled instruction with the same class and operands one flyweight, so
+ * identical names compare by reference and a large program holds far fewer objects.</p>
+ *
+ * <p>An instruction is shared only when its class is stateless: every instance field, up to
+ * {@link Instruction}, must be final and hold a primitive, a string or an identifier. Labelled
+ * instructions are never shared, as a label marks one position in one method. Sharing is safe
+ * because quickening never changes an instruction; it installs a new one in the method's code
+ * (see {@link Method#rewrite(int, Instruction, Instruction)}).</p>
+ *
+ * <p>An interner is not thread-safe, and lives for one call of the translator.</p>
+ *
+ * @author Ricki Angel
+ */
+final class Interner {
+    private static final Set<Class<?>> IMMUTABLE_FIELD_TYPES = Set.of(
+            String.class, Label.class, Variable.Identifier.class, Method.Identifier.class);
+
+    // Whether instances of an instruction class can be shared, worked out once per class:
+    private static final ClassValue<Boolean> SHAREABLE = new ClassValue<>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            for (Class<?> c = type; c != Object.class; c = c.getSuperclass()) {
+                for (Field field : c.getDeclaredFields()) {
+                    int modifiers = field.getModifiers();
+                    if (Modifier.isStatic(modifiers)) continue;
+                    if (!Modifier.isFinal(modifiers)) return false;
+                    if (!field.getType().isPrimitive() && !IMMUTABLE_FIELD_TYPES.contains(field.getType())) return false;
+                }
+            }
+            return true;
+        }
+    };
+
+    /**
+     * Identifies an instruction by the constructor that creates it and its operands.
+     */
+    private record InstructionKey(Constructor<?> constructor, List<Object> operands) {
+    }
+
+    private final Map<String, Label> labels = new HashMap<>();
+    private final Map<String, Variable.Identifier> variables = new HashMap<>();
+    private final Map<String, Method.Identifier> methods = new HashMap<>();
+    private final Map<InstructionKey, Instruction> instructions = new HashMap<>();
+
+    /**
+     * Returns the label of a name.
+     *
+     * @param name the label's name
+     * @return the shared label
+     */
+    Label label(String name) {
+        return labels.computeIfAbsent(name, Label::new);
+    }
+
+    /**
+     * Returns the variable identifier of a name.
+     *
+     * @param name the variable's name
+     * @return the shared identifier
+     */
+    Variable.Identifier variable(String name) {
+        return variables.computeIfAbsent(name, Variable.Identifier::new);
+    }
+
+    /**
+     * Returns the method identifier of a name.
+     *
+     * @param name the method's name, starting with {@code @}
+     * @return the shared identifier
+     */
+    Method.Identifier method(String name) {
+        return methods.computeIfAbsent(name, Method.Identifier::new);
+    }
+
+    /**
+     * Returns an instruction created by a constructor, sharing an earlier one where possible.
+     *
+     * @param constructor the instruction's label-first constructor
+     * @param arguments   the constructor arguments, the label first
+     * @param factory     creates the instruction when there is none to share
+     * @return the instruction
+     * @throws ReflectiveOperationException if the instruction cannot be created
+     */
+    Instruction instruction(Constructor<?> constructor, Object[] arguments, InstructionFactory factory)
+            throws ReflectiveOperationException {
+        if (arguments[0] != null || !SHAREABLE.get(constructor.getDeclaringClass()))
+            return factory.create(arguments);
+
+        InstructionKey key = new InstructionKey(constructor, Arrays.asList(arguments).subList(1, arguments.length));
+        Instruction shared = instructions.get(key);
+        if (shared == null) {
+            shared = factory.create(arguments);
+            instructions.put(key, shared);
+        }
+        return shared;
+    }
+
+    /**
+     * Creates an instruction from its constructor arguments.
+     */
+    @FunctionalInterface
+    interface InstructionFactory {
+        Instruction create(Object[] arguments) throws ReflectiveOperationException;
+    }
+}
@@ -0,0 +1,246 @@
+package sml;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An SML program whose methods are translated on first use.
+ *
+ * <p>Creating a lazy program only pre-scans the source: for each {@code @method:} header it records
+ * the byte range of the method's source and its argument list. A method body is translated the
+ * first time it is looked up, normally when {@link Machine#newFrameForMethodInvocation} first
+ * invokes it, so a run that calls a handful of methods from a large generated library pays only for
+ * those methods, both in start-up time and in resident memory.</p>
+ *
+ * <p>Key features:</p>
+ * <ul>
+ *   <li>The pre-scan touches each byte of the source once and creates no instructions</li>
+ *   <li>Each method is translated at most once, even when machines on different threads invoke it
+ *       concurrently; translated methods are safely published to every thread</li>
+ *   <li>Translated methods are identical to those produced by {@link Translator#readAndTranslate(String)}
+ *       on the translator given to {@link #scan(Path, Translator)}, so its instruction set and
+ *       settings apply; translations are serialised on it, as a translator is not thread-safe</li>
+ * </ul>
+ *
+ * <p>Errors inside a method body, such as duplicate arguments, are only reported when that method
+ * is first invoked. Structural errors - duplicate method names or instructions outside any method -
+ * are still found by the pre-scan.</p>
+ *
+ * @author Ricki Angel
+ * @see Machine#setProgram(ProgramSource)
+ */
+public final class LazyProgram implements ProgramSource {
+    /**
+     * A method's entry in the pre-scan.
+     *
+     * @param name      the method identifier
+     * @param arguments the argument names declared in the header
+     * @param start     the offset of the header's first byte in the source
+     * @param end       the offset just past the method's last byte
+     */
+    public record MethodHeader(Method.Identifier name, List<Variable.Identifier> arguments, int start, int end) {
+    }
+
+    private final byte[] source;
+    private final Map<Method.Identifier, MethodHeader> headers;
+    private final Translator translator;
+    private final ConcurrentHashMap<Method.Identifier, Method> translated = new ConcurrentHashMap<>();
+
+    private LazyProgram(byte[] source, Map<Method.Identifier, MethodHeader> headers, Translator translator) {
+        this.source = source;
+        this.headers = headers;
+        this.translator = translator;
+    }
+
+    /**
+     * Pre-scans an SML source file, translating its methods with a default {@link Translator}.
+     *
+     * @param file the source file
+     * @return the lazy program
+     * @throws IOException              if the file cannot be read
+     * @throws IllegalArgumentException if methods are duplicated or instructions appear outside methods
+     */
+    public static LazyProgram scan(Path file) throws IOException {
+        return scan(file, new Translator());
+    }
+
+    /**
+     * Pre-scans an SML source file.
+     *
+     * @param file       the source file
+     * @param translator translates each method on first use
+     * @return the lazy program
+     * @throws IOException              if the file cannot be read
+     * @throws IllegalArgumentException if methods are duplicated or instructions appear outside methods
+     */
+    public static LazyProgram scan(Path file, Translator translator) throws IOException {
+        return scan(Files.readAllBytes(file), translator);
+    }
+
+    /**
+     * Pre-scans SML source held in memory as UTF-8 bytes, translating its methods with a default
+     * {@link Translator}.
+     *
+     * @param source the source bytes, which must not be modified afterwards
+     * @return the lazy program
+     * @throws IllegalArgumentException if methods are duplicated or instructions appear outside methods
+     */
+    public static LazyProgram scan(byte[] source) {
+        return scan(source, new Translator());
+    }
+
+    /**
+     * Pre-scans SML source held in memory as UTF-8 bytes.
+     *
+     * @param source     the source bytes, which must not be modified afterwards
+     * @param translator translates each method on first use
+     * @return the lazy program
+     * @throws IllegalArgumentException if methods are duplicated or instructions appear outside methods
+     */
+    public static LazyProgram scan(byte[] source, Translator translator) {
+        Objects.requireNonNull(translator);
+        Map<Method.Identifier, MethodHeader> headers = new HashMap<>();
+        MethodHeader current = null;
+        boolean strayText = false;
+
+        for (int lineStart = 0; lineStart < source.length; ) {
+            int lineEnd = lineStart;
+            while (lineEnd < source.length && source[lineEnd] != '\n') lineEnd++;
+
+            int first = lineStart;
+            while (first < lineEnd && isWhitespace(source[first])) first++;
+
+            // Only lines starting with '@' can be headers, so instruction lines are never decoded
+            List<String> words = first < lineEnd && source[first] == '@' ? words(source, first, lineEnd) : List.of();
+            String label = words.isEmpty() ? "" : words.get(0);
+            if (label.length() > 2 && label.endsWith(":")) {
+                if (current != null) put(headers, withEnd(current, lineStart));
+                current = new MethodHeader(new Method.Identifier(label.substring(0, label.length() - 1)),
+                        arguments(words), lineStart, source.length);
+            } else if (current == null && first < lineEnd) {
+                strayText = true;
+            }
+            lineStart = lineEnd + 1;
+        }
+        if (strayText)
+            throw new IllegalArgumentException("Instruction cannot appear outside methods");
+        if (current != null) put(headers, current);
+        return new LazyProgram(source, Map.copyOf(headers), translator);
+    }
+
+    /**
+     * Looks up a method, translating it if this is the first request for it.
+     *
+     * @param name the method identifier
+     * @return the translated method, or empty if the program has no such method
+     * @throws IllegalArgumentException if the method's source is invalid
+     */
+    @Override
+    public Optional<Method> method(Method.Identifier name) {
+        Method method = translated.get(name);
+        if (method != null) return Optional.of(method);
+
+        MethodHeader header = headers.get(name);
+        return header == null ? Optional.empty() : Optional.of(translated.computeIfAbsent(name, n -> translate(header)));
+    }
+
+    /**
+     * Returns the headers found by the pre-scan, without translating anything.
+     *
+     * @return the method headers
+     */
+    public Collection<MethodHeader> headers() {
+        return headers.values();
+    }
+
+    /**
+     * Translates every method not yet translated and returns all of them.
+     *
+     * @return every method of the program
+     * @throws IllegalArgumentException if any method's source is invalid
+     */
+    @Override
+    public Collection<Method> methods() {
+        return headers.keySet().stream()
+                .map(name -> method(name).orElseThrow())
+                .toList();
+    }
+
+    /**
+     * Returns the number of methods translated so far.
+     *
+     * @return the translated method count
+     */
+    public int translatedCount() {
+        return translated.size();
+    }
+
+    /**
+     * Returns the number of methods in the program.
+     *
+     * @return the method count
+     */
+    public int size() {
+        return headers.size();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d methods, %d translated", size(), translatedCount());
+    }
+
+    private Method translate(MethodHeader header) {
+        String text = new String(source, header.start(), header.end() - header.start(), StandardCharsets.UTF_8);
+        Collection<Method> methods;
+        synchronized (translator) {
+            methods = translator.translateSource(text);
+        }
+        if (methods.size() != 1 || !methods.iterator().next().name().equals(header.name()))
+            throw new IllegalArgumentException("Method @" + header.name() + " could not be translated");
+        return methods.iterator().next();
+    }
+
+    /**
+     * Reads the arguments following a method label the way {@link Translator} does: names separated
+     * by commas, ending at the first name without one.
+     */
+    private static List<Variable.Identifier> arguments(List<String> words) {
+        List<Variable.Identifier> arguments = new ArrayList<>();
+        for (int i = 1; i < words.size(); i++) {
+            String word = words.get(i);
+            boolean more = word.endsWith(",");
+            arguments.add(new Variable.Identifier(more ? word.substring(0, word.length() - 1).trim() : word));
+            if (!more) break;
+        }
+        return List.copyOf(arguments);
+    }
+
+    private static List<String> words(byte[] source, int from, int to) {
+        List<String> words = new ArrayList<>(4);
+        int i = from;
+        while (i < to) {
+            while (i < to && isWhitespace(source[i])) i++;
+            int start = i;
+            while (i < to && !isWhitespace(source[i])) i++;
+            if (i > start) words.add(new String(source, start, i - start, StandardCharsets.UTF_8));
+        }
+        return words;
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\t' || b == '\r' || b == '\n' || b == '\f' || b == 0x0B;
+    }
+
+    private static MethodHeader withEnd(MethodHeader header, int end) {
+        return new MethodHeader(header.name(), header.arguments(), header.start(), end);
+    }
+
+    private static void put(Map<Method.Identifier, MethodHeader> headers, MethodHeader header) {
+        if (headers.putIfAbsent(header.name(), header) != null)
+            throw new IllegalArgumentException("Duplicate method @" + header.name());
+    }
+}
@@ -0,0 +1,1235 @@
+package sml;
+
+import org.springframework.stereotype.Component;
+import sml.analysis.CallGraph;
+import sml.analysis.UndefinedMethodException;
+import sml.channel.ChannelTable;
+import sml.compiler.CompiledMethod;
+import sml.compiler.OsrCompiler;
+import sml.instructions.Instruction;
+import sml.instructions.quick.QuickeningStats;
+import sml.io.MappedIntInput;
+import sml.memory.ArrayHeap;
+import sml.metrics.SmlMetrics;
+import sml.profile.ExecutionProfile;
+import sml.profile.ProfileCollector;
+import sml.trace.TraceRecorder;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Represents the virtual machine for SML execution.
+ *
+ * <p>The Machine class maintains and controls program execution state,
+ * including methods, execution frames, and program flow control.
+ * It serves as the runtime environment for SML programs.</p>
+ *
+ * @author Ricki Angel
+ */
+@Component
+public final class Machine implements AutoCloseable {
+    /** Default number of nested spawns after which further spawns run inline. */
+    public static final int DEFAULT_SPAWN_CUTOFF = 10;
+
+    /** Spawned calls a machine may hold that have not been joined. */
+    public static final int MAX_UNJOINED_SPAWNS = 1 << 16;
+
+    /** Instructions a machine of a spawn tree runs between charges to the tree's shared count. */
+    private static final long SPAWN_CHARGE_BATCH = 1 << 10;
+
+    /** Most instructions compiled code may run before returning to a safepoint check here. */
+    private static final long OSR_SLICE = 1 << 16;
+
+    /** Instructions a run executes between publishing its counts to {@link SmlMetrics}. */
+    private static final long METRICS_INTERVAL = 1 << 20;
+
+    /** The method every program starts in. */
+    private static final Method.Identifier MAIN = new Method.Identifier("@main");
+
+    /** Release/acquire access to {@link #runningFrame}, cheaper than a volatile write on every call. */
+    private static final VarHandle RUNNING_FRAME;
+
+    static {
+        try {
+            RUNNING_FRAME = MethodHandles.lookup().findVarHandle(Machine.class, "runningFrame", Frame.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private volatile SymbolTable<Method.Identifier, Method> program;
+    private volatile ProgramSource source;
+    private Frame frame; // null before a program is loaded and once it has terminated
+
+    private ExecutionLimits limits = ExecutionLimits.unlimited();
+    private long instructionsExecuted;
+    private long runningNanos;
+    private volatile boolean pauseRequested;
+    private volatile Derived<String> programHash;
+    private ArrayHeap heap = new ArrayHeap();
+    private boolean ownsHeap = true; // false on machines running spawned calls, which share their spawner's
+    private MappedIntInput input;
+    private ExecutionMode executionMode = ExecutionMode.OSR;
+    private int osrThreshold = OsrCompiler.DEFAULT_THRESHOLD;
+    private long osrEntries;
+    private boolean quickeningEnabled = true;
+    private final QuickeningStats quickeningStats = new QuickeningStats();
+    private boolean wholeProgramAnalysis;
+    private volatile Derived<CallGraph> callGraph;
+    private long invocations;
+    private int maxCallDepth;
+    private TraceRecorder traceRecorder;
+    private ProfileCollector profileCollector;
+    private ExecutionProfile profile;
+    private boolean profileApplied;
+    @SuppressWarnings("unused") // accessed through RUNNING_FRAME
+    private Frame runningFrame;
+    private ForkJoinPool forkJoinPool = ForkJoinPool.commonPool();
+    private int spawnCutoff = DEFAULT_SPAWN_CUTOFF;
+    private int spawnDepth;
+    private final Map<Integer, SpawnedCall> spawnedCalls = new HashMap<>();
+    private int nextSpawnHandle;
+    private AtomicLong spawnTreeInstructions;
+    private long chargedInstructions;
+    private long runStartNanos;
+    private long publishedInstructions;
+    private long publishedInvocations;
+    private ChannelTable channels;
+
+    /**
+     * Executes the loaded SML program.
+     *
+     * <p>Manages program execution by iterating through instructions,
+     * handling frame transitions and potential execution errors.</p>
+     *
+     * <p>Each instruction is printed before it runs, unless a {@link TraceRecorder} is installed, in
+     * which case it is recorded there instead.</p>
+     */
+    public void execute() {
+        execute(true);
+    }
+
+    /**
+     * Executes the loaded SML program, printing each instruction before it runs only if asked to.
+     *
+     * <p>Printing the trace, like recording it or collecting a profile, keeps the whole run in the
+     * interpreter. An untraced run executes in the machine's {@linkplain #executionMode() execution
+     * mode}, so compiled loops and basic-block code prepared by an applied
+     * {@linkplain #setProfile(ExecutionProfile) profile} are used. Errors are reported as by
+     * {@link #execute()}.</p>
+     *
+     * @param trace whether to print each instruction; ignored while a {@link TraceRecorder} is installed
+     */
+    public void execute(boolean trace) {
+        try {
+            System.out.println("== Beginning program execution ==\n");
+
+            while (runLoop(Long.MAX_VALUE, trace && traceRecorder == null) == ExecutionStatus.SUSPENDED) {
+                // A pause request only suspends scheduler-driven runs; a plain execute() carries on.
+            }
+
+            System.out.println("\n== Ending Program Execution ==\n");
+        } catch (MethodNotFoundException e) {
+            System.err.println("Error: Method not found - " + e.getMessage());
+        } catch (IllegalStateException e) {
+            System.err.println("Error: Illegal state - " + e.getMessage());
+        } catch (ExecutionLimitExceededException e) {
+            System.err.println("Error: Execution limit exceeded - " + e.getMessage());
+        }
+    }
+
+    /**
+     * Runs the loaded program for at most the given number of instructions.
+     *
+     * <p>Unlike {@link #execute()}, this method does not trace instructions or swallow errors. It
+     * returns {@link ExecutionStatus#SUSPENDED} once the quantum has been used up or a pause has been
+     * requested via {@link #requestPause()}, leaving every {@link Frame} untouched so a later call
+     * resumes exactly where this one stopped.</p>
+     *
+     * <p>The quantum is checked at safepoints (backward branches, invocations and returns), so a run
+     * may overshoot it by the length of the straight-line code it is in.</p>
+     *
+     * @param quantum the number of instructions to run before yielding
+     * @return whether the program was suspended or has terminated
+     * @throws ExecutionLimitExceededException if a configured {@link ExecutionLimits} limit is exceeded
+     * @throws IllegalArgumentException        if the quantum is not positive
+     */
+    public ExecutionStatus run(long quantum) {
+        if (quantum <= 0)
+            throw new IllegalArgumentException("Quantum must be positive: " + quantum);
+        return runLoop(quantum, false);
+    }
+
+    /**
+     * Core fetch-decode-execute loop shared by {@link #execute()} and {@link #run(long)}.
+     *
+     * <p>Instructions run through {@link Instruction#step(Machine, Frame)}, so a step that stays in
+     * the same frame allocates nothing. Counting is unconditional, but limits, the quantum and pause
+     * requests are only examined when control does not fall through to the next instruction of the
+     * same frame.</p>
+     *
+     * <p>The instructions, invocations and call depth reached are published to {@link SmlMetrics}
+     * at the first safepoint after every {@link #METRICS_INTERVAL} instructions and when the loop
+     * returns, so metrics follow a long run while adding nothing per instruction. The current
+     * frame is published for {@link #runningFrame()} whenever control moves to another frame.</p>
+     *
+     * @param quantum the number of instructions to run before yielding
+     * @param trace   whether to print each instruction before running it
+     * @return whether the program was suspended or has terminated
+     */
+    private ExecutionStatus runLoop(long quantum, boolean trace) {
+        if (frame == null) return ExecutionStatus.TERMINATED;
+
+        long quantumEnd = quantum > Long.MAX_VALUE - instructionsExecuted
+                ? Long.MAX_VALUE
+                : instructionsExecuted + quantum;
+        long startNanos = System.nanoTime();
+        runStartNanos = startNanos;
+        publishedInstructions = instructionsExecuted;
+        publishedInvocations = invocations;
+        long nextPublish = instructionsExecuted + METRICS_INTERVAL;
+
+        TraceRecorder recorder = traceRecorder;
+        ProfileCollector collector = profileCollector;
+        boolean interpretOnly = trace || recorder != null || collector != null;
+        boolean blockDispatch = !interpretOnly && executionMode == ExecutionMode.BASIC_BLOCK;
+        try {
+            Frame current = frame;
+            RUNNING_FRAME.setRelease(this, current);
+            while (true) {
+                if (blockDispatch) runStraightLine(current);
+                Instruction instruction = current.currentInstruction();
+                if (trace) System.out.println("[" + current + "]  " + instruction);
+                if (recorder != null) recorder.record(current);
+
+                int pc = current.programCounter();
+                int nextPc = instruction.step(this, current);
+                instructionsExecuted++;
+
+                Frame next;
+                if (nextPc >= 0) {
+                    if (collector != null) collector.stepped(current.method(), pc, nextPc);
+                    next = current.resumeAt(nextPc);
+                } else if (nextPc == Instruction.HALT) {
+                    frame = null;
+                    return ExecutionStatus.TERMINATED;
+                } else {
+                    next = frame;
+                }
+                if (next != current || next.programCounter() <= pc) {
+                    if (next != current) RUNNING_FRAME.setRelease(this, next);
+                    if (instructionsExecuted >= nextPublish) {
+                        publishMetrics();
+                        nextPublish = instructionsExecuted + METRICS_INTERVAL;
+                    }
+                    checkLimits(next, startNanos);
+                    if (pauseRequested || instructionsExecuted >= quantumEnd) {
+                        pauseRequested = false;
+                        return ExecutionStatus.SUSPENDED;
+                    }
+                    if (next == current && !interpretOnly && executionMode == ExecutionMode.OSR
+                            && enterCompiledLoop(next, pc, quantumEnd)) {
+                        checkLimits(next, startNanos);
+                        if (pauseRequested || instructionsExecuted >= quantumEnd) {
+                            pauseRequested = false;
+                            return ExecutionStatus.SUSPENDED;
+                        }
+                    }
+                }
+                current = next;
+            }
+        } finally {
+            RUNNING_FRAME.setRelease(this, (Frame) null);
+            runningNanos += System.nanoTime() - startNanos;
+            if (spawnTreeInstructions != null) {
+                spawnTreeInstructions.addAndGet(instructionsExecuted - chargedInstructions);
+                chargedInstructions = instructionsExecuted;
+            }
+            publishMetrics();
+        }
+    }
+
+    /**
+     * Adds the instructions and invocations run since they were last published to
+     * {@link SmlMetrics}, and records the call depth reached.
+     */
+    private void publishMetrics() {
+        SmlMetrics.INSTRUCTIONS_EXECUTED.add(instructionsExecuted - publishedInstructions);
+        SmlMetrics.INVOCATIONS.add(invocations - publishedInvocations);
+        SmlMetrics.MAX_CALL_DEPTH.record(maxCallDepth);
+        publishedInstructions = instructionsExecuted;
+        publishedInvocations = invocations;
+    }
+
+    /**
+     * Runs the straight-line instructions from a frame's program counter to the next branch, call
+     * or block boundary in one go. Instructions that completed are counted even if a later one fails.
+     *
+     * @param frame the frame about to run
+     */
+    private void runStraightLine(Frame frame) {
+        int start = frame.programCounter();
+        try {
+            frame.method().blockCode().run(frame);
+        } finally {
+            instructionsExecuted += frame.programCounter() - start;
+        }
+    }
+
+    /**
+     * Profiles a backward branch and, once its loop is hot, continues the frame in compiled code.
+     *
+     * <p>Compiled code runs until it reaches something it cannot execute or its budget is spent at
+     * a backward branch. The budget stops at the quantum end or one instruction past the instruction
+     * limit, so the safepoint checks that follow behave as if the loop had been interpreted, and is
+     * capped so wall-time limits are still examined regularly.</p>
+     *
+     * @param frame      the frame that just branched backwards
+     * @param sourcePc   the instruction index of the branch
+     * @param quantumEnd the instruction count at which the current run yields
+     * @return whether compiled code was entered
+     */
+    private boolean enterCompiledLoop(Frame frame, int sourcePc, long quantumEnd) {
+        Optional<CompiledMethod> code = OsrCompiler.onBackEdge(frame, sourcePc, osrThreshold);
+        if (code.isEmpty()) return false;
+
+        long limitEnd = limits.maxInstructions() == Long.MAX_VALUE ? Long.MAX_VALUE : limits.maxInstructions() + 1;
+        long budget = Math.min(OSR_SLICE, Math.min(quantumEnd, limitEnd) - instructionsExecuted);
+        if (budget <= 0) return false;
+
+        instructionsExecuted += code.get().run(frame, budget, this);
+        osrEntries++;
+        return true;
+    }
+
+    /**
+     * Enforces the execution limits at a safepoint.
+     *
+     * @param next       the frame about to run
+     * @param startNanos the clock reading taken when the current run started
+     * @throws ExecutionLimitExceededException if any limit has been exceeded
+     */
+    private void checkLimits(Frame next, long startNanos) {
+        long charged = spawnTreeInstructions == null ? instructionsExecuted : chargeSpawnTree();
+        if (charged > limits.maxInstructions())
+            throw new ExecutionLimitExceededException(ExecutionLimitExceededException.Limit.INSTRUCTIONS,
+                    limits.maxInstructions(), charged, next);
+
+        if (next.depth() > limits.maxCallDepth())
+            throw new ExecutionLimitExceededException(ExecutionLimitExceededException.Limit.CALL_DEPTH,
+                    limits.maxCallDepth(), instructionsExecuted, next);
+
+        if (limits.hasWallTimeLimit()) {
+            long maxNanos = limits.maxWallTime().toNanos();
+            if (runningNanos + (System.nanoTime() - startNanos) > maxNanos)
+                throw new ExecutionLimitExceededException(ExecutionLimitExceededException.Limit.WALL_TIME,
+                        maxNanos, instructionsExecuted, next);
+        }
+    }
+
+    /**
+     * Returns the instructions run so far by the spawn tree this machine belongs to, charging it
+     * with this machine's count once enough instructions have run since the last charge.
+     *
+     * <p>Each machine adds to the tree's shared count in batches, so the count can lag by a batch
+     * per machine running at the time, but no machine contends on it per instruction.</p>
+     *
+     * @return the tree's instruction count, including this machine's uncharged instructions
+     */
+    private long chargeSpawnTree() {
+        long uncharged = instructionsExecuted - chargedInstructions;
+        if (uncharged < SPAWN_CHARGE_BATCH) return spawnTreeInstructions.get() + uncharged;
+        chargedInstructions = instructionsExecuted;
+        return spawnTreeInstructions.addAndGet(uncharged);
+    }
+
+    /**
+     * Asks a running execution to suspend at its next safepoint.
+     *
+     * <p>Safe to call from any thread. The request is consumed by the run that honours it.</p>
+     */
+    public void requestPause() {
+        pauseRequested = true;
+    }
+
+    /**
+     * Reports whether a pause has been requested and not yet honoured.
+     *
+     * <p>Polled by compiled code at its backward branches so that compiled loops stay
+     * preemptible.</p>
+     *
+     * @return true if a pause is pending
+     */
+    public boolean isPauseRequested() {
+        return pauseRequested;
+    }
+
+    /**
+     * Sets how subsequent runs execute the loaded program.
+     *
+     * <p>Tracing runs via {@link #execute()}, and runs with a {@link TraceRecorder} installed, are
+     * always fully interpreted so that every instruction is seen.</p>
+     *
+     * @param executionMode the execution mode; {@link ExecutionMode#OSR} by default
+     * @throws NullPointerException if executionMode is null
+     */
+    public void setExecutionMode(ExecutionMode executionMode) {
+        this.executionMode = Objects.requireNonNull(executionMode);
+    }
+
+    /**
+     * Returns how runs execute the loaded program.
+     *
+     * @return the execution mode
+     */
+    public ExecutionMode executionMode() {
+        return executionMode;
+    }
+
+    /**
+     * Sets the number of backward branches to a loop header before its method is compiled.
+     *
+     * <p>Profiles are kept per method, so the threshold applies to loops that have not yet been
+     * compiled.</p>
+     *
+     * @param osrThreshold the back-edge count that makes a loop hot
+     * @throws IllegalArgumentException if the threshold is not positive
+     */
+    public void setOsrThreshold(int osrThreshold) {
+        if (osrThreshold <= 0)
+            throw new IllegalArgumentException("OSR threshold must be positive: " + osrThreshold);
+        this.osrThreshold = osrThreshold;
+    }
+
+    /**
+     * Returns the number of times execution has transferred into compiled code.
+     *
+     * @return the OSR entry count since the program was loaded
+     */
+    public long osrEntries() {
+        return osrEntries;
+    }
+
+    /**
+     * Sets the limits applied to subsequent runs of the loaded program.
+     *
+     * @param limits the execution limits
+     * @throws NullPointerException if limits is null
+     */
+    public void setLimits(ExecutionLimits limits) {
+        this.limits = Objects.requireNonNull(limits);
+    }
+
+    /**
+     * Returns the limits applied to runs of the loaded program.
+     *
+     * @return the execution limits
+     */
+    public ExecutionLimits limits() {
+        return limits;
+    }
+
+    /**
+     * Returns the number of instructions executed since the program was loaded.
+     *
+     * @return the instruction count
+     */
+    public long instructionsExecuted() {
+        return instructionsExecuted;
+    }
+
+    /**
+     * Checks whether the loaded program has run to completion.
+     *
+     * @return {@code true} if there is no frame left to execute
+     */
+    public boolean hasTerminated() {
+        return frame == null;
+    }
+
+    /**
+     * Initialises the program by loading methods into the symbol table.
+     *
+     * <p>Prepares the machine for execution by converting methods
+     * to a symbol table and creating an initial frame for the main method.</p>
+     *
+     * <p>With {@linkplain #setWholeProgramAnalysis(boolean) whole-program analysis} enabled, the
+     * program's {@link CallGraph} is built first: methods unreachable from {@code @main} are not
+     * loaded, and calls to undefined methods are reported before anything runs.</p>
+     *
+     * @param methods Collection of methods to be loaded into the program
+     * @throws UndefinedMethodException if analysis is enabled and a reachable method invokes an
+     *                                  undefined one; the previously loaded program is kept
+     */
+    public void setProgram(Collection<Method> methods) {
+        setProgram(methods, MAIN);
+    }
+
+    /**
+     * Loads a program that starts in the given method rather than {@code @main}.
+     *
+     * <p>Used to run one method of a program on its own, such as a stage of a
+     * {@link sml.channel.Pipeline}. The arguments are assigned to the method's parameters in order;
+     * parameters without an argument start at zero, as {@code @main}'s do. Whole-program analysis,
+     * if enabled, starts from the entry method.</p>
+     *
+     * @param methods   Collection of methods to be loaded into the program
+     * @param entry     the method to start in
+     * @param arguments the entry method's arguments
+     * @throws MethodNotFoundException  if the program has no such method
+     * @throws IllegalArgumentException if there are more arguments than the method has parameters
+     * @throws UndefinedMethodException if analysis is enabled and a reachable method invokes an
+     *                                  undefined one; the previously loaded program is kept
+     */
+    public void setProgram(Collection<Method> methods, Method.Identifier entry, int... arguments) {
+        CallGraph graph = null;
+        if (wholeProgramAnalysis) {
+            graph = CallGraph.of(methods);
+            List<CallGraph.UndefinedCall> undefined = graph.undefinedCallsFrom(entry);
+            if (!undefined.isEmpty()) throw new UndefinedMethodException(undefined);
+
+            List<Method> reachable = graph.reachableFrom(entry);
+            if (reachable.size() < graph.size()) {
+                methods = reachable;
+                graph = null; // describes methods that are not loaded, so rebuild on demand
+            }
+        }
+        program = SymbolTable.of(methods.stream()
+                .collect(Collectors.toMap(Method::name, m -> m)));
+        source = null;
+        reset(entry, arguments);
+        callGraph = graph == null ? null : new Derived<>(program, graph);
+        applyProfile();
+    }
+
+    /**
+     * Loads a program whose methods are resolved through a {@link ProgramSource} as they are invoked.
+     *
+     * <p>Only {@code @main} is resolved here, which may mean waiting for it to be translated; every
+     * other method is resolved when it is first invoked. Otherwise the machine behaves exactly as
+     * after {@link #setProgram(Collection)}.</p>
+     *
+     * @param program the program source, such as a {@link LazyProgram} or {@link StreamingProgram}
+     * @throws MethodNotFoundException  if the program has no {@code @main}
+     * @throws IllegalArgumentException if {@code @main}'s source is invalid
+     */
+    public void setProgram(ProgramSource program) {
+        this.program = SymbolTable.of(Map.of());
+        this.source = Objects.requireNonNull(program);
+        reset(MAIN);
+    }
+
+    /**
+     * Resets execution state for a newly loaded program and creates the frame for its entry method.
+     *
+     * @param entry     the method to start in
+     * @param arguments the entry method's arguments
+     */
+    private void reset(Method.Identifier entry, int... arguments) {
+        frame = null;
+        instructionsExecuted = 0;
+        runningNanos = 0;
+        pauseRequested = false;
+        osrEntries = 0;
+        quickeningStats.reset();
+        programHash = null;
+        profileApplied = false;
+        heap.clear();
+        callGraph = null;
+        invocations = 0;
+        maxCallDepth = 0;
+        spawnedCalls.clear();
+        nextSpawnHandle = 0;
+        spawnTreeInstructions = null;
+        chargedInstructions = 0;
+        SmlMetrics.PROGRAMS_LOADED.increment();
+        frame = newFrame(resolveMethod(entry));
+
+        List<Variable.Identifier> parameters = frame.method().arguments();
+        if (arguments.length > parameters.size())
+            throw new IllegalArgumentException("Too many arguments for method " + entry + ". Expected at most "
+                    + parameters.size() + ", got " + arguments.length);
+        for (int i = 0; i < arguments.length; i++)
+            frame.variable(parameters.get(i)).store(arguments[i]);
+    }
+
+    /**
+     * Swaps methods into the loaded program without resetting execution.
+     *
+     * <p>Replacements take the place of any loaded method with the same name, or are added if
+     * there is none; removed names are dropped. The new program is published with a single write,
+     * so every later lookup by name sees either the old program or the new one, never a mix. Frames
+     * already executing keep running the {@link Method} they were created for; only invocations
+     * made after the swap reach the replacements. The swap installs a new
+     * {@linkplain #methodTable() method table}, so quickened {@code invoke} sites resolve their
+     * targets again.</p>
+     *
+     * <p>Unlike the rest of the machine this may be called from any thread, typically a file
+     * watcher, while the program is running.</p>
+     *
+     * @param replacements methods to add or replace
+     * @param removed      names of methods to remove
+     * @throws IllegalStateException if no program is loaded
+     * @see sml.reload.HotReloader
+     */
+    public void replaceMethods(Collection<Method> replacements, Collection<Method.Identifier> removed) {
+        SymbolTable<Method.Identifier, Method> current = program;
+        if (current == null) throw new IllegalStateException("No program loaded");
+        if (source != null) throw new IllegalStateException("Cannot replace methods of a program loaded from a ProgramSource");
+
+        Map<Method.Identifier, Method> byName = HashMap.newHashMap(replacements.size());
+        for (Method method : replacements)
+            byName.put(method.name(), method);
+
+        program = current.with(byName, removed); // the new table invalidates the cached hash and call graph
+    }
+
+    /**
+     * Returns the off-heap array store used by the array instructions.
+     *
+     * <p>The heap is emptied whenever a new program is loaded and when the machine is
+     * {@linkplain #close() closed}; until then arrays outlive the run, so results can be read from
+     * them after it terminates. Its size cap can be changed with
+     * {@link ArrayHeap#setMaxBytes(long)}.</p>
+     *
+     * @return this machine's array heap
+     */
+    public ArrayHeap heap() {
+        return heap;
+    }
+
+    /**
+     * Ends the loaded program, if it is still running, and frees every array in the heap.
+     *
+     * <p>The machine a program is loaded into owns the heap's native memory: arrays stay allocated
+     * until {@code afree}, the next {@link #setProgram(Collection)} or this call. Machines running
+     * spawned calls share their spawner's heap and never free it, so closing one only ends its
+     * program. Whoever runs a program closes the machine once the run is over and any results have
+     * been read; the machine can then be reused for another program.</p>
+     *
+     * <p>Must not be called while the machine, or a call it spawned, is still running.</p>
+     */
+    @Override
+    public void close() {
+        frame = null;
+        spawnedCalls.clear();
+        if (ownsHeap) heap.clear();
+    }
+
+    /**
+     * Attaches the input read by the {@code read} and {@code readinto} instructions.
+     *
+     * <p>The machine does not take ownership; the caller closes the input after the run. Unlike the
+     * heap, the input survives loading a new program.</p>
+     *
+     * @param input the input to read from, or null to detach it
+     */
+    public void setInput(MappedIntInput input) {
+        this.input = input;
+    }
+
+    /**
+     * Installs a recorder that every subsequent run writes a binary trace of its instructions to.
+     *
+     * <p>While a recorder is installed, runs are fully interpreted and {@link #execute()} records
+     * instead of printing. The machine does not take ownership; the caller closes the recorder.</p>
+     *
+     * @param recorder the recorder, or null to stop recording
+     */
+    public void setTraceRecorder(TraceRecorder recorder) {
+        this.traceRecorder = recorder;
+    }
+
+    /**
+     * Installs a collector that every subsequent run reports invocations, branches and instruction
+     * pairs to, for an {@link ExecutionProfile}.
+     *
+     * <p>Like recording a trace, collecting runs fully interpreted. Turn the counts into a profile
+     * with {@link ProfileCollector#toProfile(String)} and {@link #programHash()} once the run ends.</p>
+     *
+     * @param collector the collector, or null to stop collecting
+     */
+    public void setProfileCollector(ProfileCollector collector) {
+        this.profileCollector = collector;
+    }
+
+    /**
+     * Sets the profile of an earlier run to apply when a program is loaded.
+     *
+     * <p>Each later {@link #setProgram(Collection)} compares the profile's hash with the loaded
+     * program's and, if they match, prepares the methods the profile found hot before the first
+     * instruction executes: methods with hot loops are compiled for on-stack replacement, and hot
+     * methods have their control flow graphs and basic-block code built. A profile of a different
+     * program is stale and is ignored. Programs loaded from a {@link ProgramSource} are never
+     * profiled, as hashing them would resolve every method.</p>
+     *
+     * @param profile the profile, or null to apply none
+     * @see #isProfileApplied()
+     */
+    public void setProfile(ExecutionProfile profile) {
+        this.profile = profile;
+    }
+
+    /**
+     * Reports whether the profile was applied to the loaded program.
+     *
+     * @return true if a profile was set and matched the program when it was loaded
+     */
+    public boolean isProfileApplied() {
+        return profileApplied;
+    }
+
+    /**
+     * Applies the profile to the program just loaded, unless there is none or it is stale.
+     */
+    private void applyProfile() {
+        if (profile == null || !profile.programHash().equals(programHash())) return;
+        for (Method.Identifier name : profile.hotMethods()) {
+            program.get(name).ifPresent(method -> {
+                method.controlFlowGraph();
+                method.blockCode();
+            });
+        }
+        for (Method.Identifier name : profile.hotLoopMethods())
+            program.get(name).ifPresent(OsrCompiler::precompile);
+        profileApplied = true;
+    }
+
+    /**
+     * Shares a table of channels with this machine, for the channel instructions.
+     *
+     * <p>Machines given the same table can exchange messages over its channels. Like the input, the
+     * table survives loading a new program.</p>
+     *
+     * @param channels the channel table
+     * @throws NullPointerException if channels is null
+     * @see sml.channel.Pipeline
+     */
+    public void setChannels(ChannelTable channels) {
+        this.channels = Objects.requireNonNull(channels);
+    }
+
+    /**
+     * Returns the channels this machine's programs can use, creating a table of its own if none has
+     * been shared with it.
+     *
+     * @return the channel table
+     */
+    public ChannelTable channels() {
+        if (channels == null) channels = new ChannelTable();
+        return channels;
+    }
+
+    /**
+     * Returns the attached input.
+     *
+     * @return the input
+     * @throws IllegalStateException if no input is attached
+     */
+    public MappedIntInput input() {
+        if (input == null)
+            throw new IllegalStateException("No input attached; supply one with --input");
+        return input;
+    }
+
+    /**
+     * Reports whether an input is attached.
+     *
+     * @return true if {@link #input()} will succeed
+     */
+    public boolean hasInput() {
+        return input != null;
+    }
+
+    /**
+     * Enables or disables whole-program analysis when a program is loaded with
+     * {@link #setProgram(Collection)}.
+     *
+     * <p>When enabled, only methods reachable from {@code @main} are kept, which saves their
+     * instructions and tables for the whole run, and calls to undefined methods fail the load with
+     * an {@link UndefinedMethodException} rather than a {@link MethodNotFoundException} part-way
+     * through execution. Programs that will be {@linkplain #replaceMethods hot reloaded} should
+     * leave it disabled, as an edit may start calling a method that was dropped.</p>
+     *
+     * @param wholeProgramAnalysis whether to analyse programs on load; {@code false} by default
+     */
+    public void setWholeProgramAnalysis(boolean wholeProgramAnalysis) {
+        this.wholeProgramAnalysis = wholeProgramAnalysis;
+    }
+
+    /**
+     * Reports whether programs are analysed when they are loaded.
+     *
+     * @return true if whole-program analysis is enabled
+     */
+    public boolean isWholeProgramAnalysis() {
+        return wholeProgramAnalysis;
+    }
+
+    /**
+     * Returns the call graph of the loaded program.
+     *
+     * <p>Built by whole-program analysis when it is enabled, otherwise on first request; either way
+     * it is cached until another program is loaded or methods are replaced, and, like
+     * {@link #programHash()}, is only reused for the method table it was built from. For a
+     * {@link ProgramSource} this resolves every method.</p>
+     *
+     * @return the call graph
+     * @throws IllegalStateException if no program is loaded
+     */
+    public CallGraph callGraph() {
+        SymbolTable<Method.Identifier, Method> table = program;
+        if (table == null) throw new IllegalStateException("No program loaded");
+        Derived<CallGraph> cached = callGraph;
+        if (cached != null && cached.program() == table) return cached.value();
+        CallGraph graph = CallGraph.of(source != null ? source.methods() : table.values());
+        callGraph = new Derived<>(table, graph);
+        return graph;
+    }
+
+    /**
+     * Returns the content hash of the loaded program.
+     *
+     * <p>Computed once per loaded program and cached, so snapshots and profiles keyed by the hash
+     * do not pay for it on every use. For a {@link ProgramSource} this resolves every method.</p>
+     *
+     * <p>Safe to call while {@link #replaceMethods} runs on another thread: the hash is cached
+     * together with the method table it was computed from and only reused for that table, so a
+     * computation that loses the race is never returned after the swap.</p>
+     *
+     * @return the program hash
+     * @throws IllegalStateException if no program is loaded
+     * @see ProgramHash
+     */
+    public String programHash() {
+        SymbolTable<Method.Identifier, Method> table = program;
+        if (table == null) throw new IllegalStateException("No program loaded");
+        Derived<String> cached = programHash;
+        if (cached != null && cached.program() == table) return cached.value();
+        String hash = ProgramHash.of(source != null ? source.methods() : table.values());
+        programHash = new Derived<>(table, hash);
+        return hash;
+    }
+
+    /**
+     * Returns the table the loaded program's methods are looked up in.
+     *
+     * <p>Every program load and every {@linkplain #replaceMethods(Collection, Collection) method
+     * swap} installs a new table, while spawned calls share their parent's. Quickened
+     * {@code invoke} sites remember the table their target was resolved in and look the target up
+     * by name again in any other, since the same {@link Method} objects may be loaded alongside
+     * different callees.</p>
+     *
+     * @return the method table, compared by identity
+     */
+    public SymbolTable<Method.Identifier, Method> methodTable() {
+        return program;
+    }
+
+    /**
+     * Sets whether instructions may quicken themselves on first execution.
+     *
+     * <p>Quickened code belongs to the shared {@link Method}s rather than to this machine, so
+     * disabling quickening stops new sites being rewritten but does not undo earlier rewrites.</p>
+     *
+     * @param quickeningEnabled whether to quicken; {@code true} by default
+     */
+    public void setQuickeningEnabled(boolean quickeningEnabled) {
+        this.quickeningEnabled = quickeningEnabled;
+    }
+
+    /**
+     * Reports whether instructions may quicken themselves on first execution.
+     *
+     * @return true if quickening is enabled
+     */
+    public boolean isQuickeningEnabled() {
+        return quickeningEnabled;
+    }
+
+    /**
+     * Returns the quickening counters for the loaded program.
+     *
+     * @return this machine's quickening statistics, reset whenever a program is loaded
+     */
+    public QuickeningStats quickeningStats() {
+        return quickeningStats;
+    }
+
+    /**
+     * Looks up a method of the loaded program by name.
+     *
+     * @param methodName the method identifier
+     * @return Optional containing the method, or empty if the program has no such method
+     */
+    public Optional<Method> method(Method.Identifier methodName) {
+        Optional<Method> method = program.get(methodName);
+        ProgramSource current = source;
+        return method.isPresent() || current == null ? method : current.method(methodName);
+    }
+
+    /**
+     * Looks up a method of the loaded program by name, for an invocation.
+     *
+     * <p>Like {@link #method(Method.Identifier)}, but fails instead of returning an
+     * {@code Optional}, so finding a method already in the program allocates nothing.</p>
+     *
+     * @param methodName the method identifier
+     * @return the method
+     * @throws MethodNotFoundException if the program has no such method
+     */
+    public Method resolveMethod(Method.Identifier methodName) {
+        Method method = program.getOrDefault(methodName, null);
+        if (method != null) return method;
+        ProgramSource current = source;
+        if (current == null) throw new MethodNotFoundException(methodName);
+        return current.method(methodName).orElseThrow(() -> new MethodNotFoundException(methodName));
+    }
+
+    /**
+     * Replaces the execution state with a frame chain rebuilt from a {@link MachineSnapshot}.
+     *
+     * @param innermost            the frame to resume, linked to its invokers
+     * @param instructionsExecuted the instruction count at the time of the snapshot
+     */
+    void restore(Frame innermost, long instructionsExecuted) {
+        this.frame = innermost;
+        this.instructionsExecuted = instructionsExecuted;
+        this.runningNanos = 0;
+    }
+
+    /**
+     * Makes a frame the current one.
+     *
+     * <p>Called by instructions that invoke or return through {@link Instruction#step(Machine, Frame)}
+     * before they report {@link Instruction#CONTROL_TRANSFERRED}.</p>
+     *
+     * @param frame the frame to continue in
+     * @throws NullPointerException if frame is null
+     */
+    public void transferTo(Frame frame) {
+        this.frame = Objects.requireNonNull(frame);
+    }
+
+    /**
+     * Sets the pool that spawned calls run in.
+     *
+     * @param forkJoinPool the pool; {@link ForkJoinPool#commonPool()} by default
+     * @throws NullPointerException if forkJoinPool is null
+     */
+    public void setForkJoinPool(ForkJoinPool forkJoinPool) {
+        this.forkJoinPool = Objects.requireNonNull(forkJoinPool);
+    }
+
+    /**
+     * Sets how deeply spawns may nest before further spawns run inline.
+     *
+     * <p>A call spawned from a spawned call is nested one level deeper. Once the cutoff is reached,
+     * {@code spawn} runs the call inline, on the spawning machine's own frame chain as an
+     * invocation would, instead of forking a task, so the many small calls near the leaves of a
+     * divide-and-conquer recursion do not pay for scheduling. The choice depends only on the
+     * nesting depth, never on how busy the pool is, so a program forks the same calls on every run.
+     * A cutoff of zero runs every spawn inline.</p>
+     *
+     * @param spawnCutoff the spawn nesting depth; {@link #DEFAULT_SPAWN_CUTOFF} by default
+     * @throws IllegalArgumentException if the cutoff is negative
+     */
+    public void setSpawnCutoff(int spawnCutoff) {
+        if (spawnCutoff < 0)
+            throw new IllegalArgumentException("Spawn cutoff must not be negative: " + spawnCutoff);
+        this.spawnCutoff = spawnCutoff;
+    }
+
+    /**
+     * Returns how deeply spawns may nest before further spawns run inline.
+     *
+     * @return the spawn cutoff
+     */
+    public int spawnCutoff() {
+        return spawnCutoff;
+    }
+
+    /**
+     * Starts a call to a method in parallel with the current frame, for the {@code spawn}
+     * instruction.
+     *
+     * <p>The arguments are popped from the current frame as for an invocation, and a handle that
+     * {@link #join(int)} takes to wait for the result is pushed in their place. The call runs in its
+     * own frame chain on a machine of its own, which shares this machine's program, execution mode,
+     * limits and {@linkplain #channels() channels}, as a task in the
+     * {@linkplain #setForkJoinPool fork-join pool}. It shares this machine's array heap and input,
+     * so array handles can be passed to and returned from it and it reads on from the same input
+     * position, and a failure of the call is only thrown when it is joined. Allocation, freeing and
+     * reading input are synchronised; as with Java arrays, calls that write elements another call
+     * reads must order those accesses through {@code spawn} and {@code join}.</p>
+     *
+     * <p>Spawned calls are charged to the same limits as the spawning machine: their frames count
+     * from the spawning frame's depth, their instructions are added to a count shared by every
+     * machine of the spawn tree, and their wall time starts from the time the spawning machine has
+     * already run.</p>
+     *
+     * <p>Calls past the {@linkplain #setSpawnCutoff cutoff} run inline instead: the returned frame
+     * is the callee's, placed on this machine's frame chain, and the spawning frame resumes after
+     * the {@code spawn} once the callee returns. Inline calls see the same heap and input as forked
+     * ones, but fail straight away, as an invocation would.</p>
+     *
+     * <p>Calls that have not been joined, including those still running inline, are kept with
+     * their results until they are joined or a program is loaded, up to
+     * {@link #MAX_UNJOINED_SPAWNS}, so a program that never joins fails rather than growing without
+     * bound. A {@link MachineSnapshot} cannot be captured while any are outstanding.</p>
+     *
+     * @param method the method to call
+     * @return the frame to continue in
+     * @throws IllegalStateException if there are not enough arguments on the stack, or too many
+     *                               spawned calls have not been joined
+     */
+    public Optional<Frame> spawn(Method method) {
+        Frame spawner = frame;
+        if (spawnedCalls.size() >= MAX_UNJOINED_SPAWNS)
+            throw new IllegalStateException("More than " + MAX_UNJOINED_SPAWNS + " spawned calls have not been joined");
+
+        if (spawnDepth >= spawnCutoff) {
+            int handle = nextSpawnHandle;
+            Frame callee = new Frame(method, SpawnedCall.inlineRoot(spawner, handle));
+            passArguments(spawner, callee);
+            spawner.push(register(new SpawnedCall()));
+            if (profileCollector != null) profileCollector.invoked(method);
+            if (callee.depth() > maxCallDepth) maxCallDepth = callee.depth();
+            return Optional.of(callee);
+        }
+
+        Frame root = SpawnedCall.root(spawner.depth());
+        Frame callee = new Frame(method, root);
+        passArguments(spawner, callee);
+        SpawnedCall call = new SpawnedCall(spawnedMachine(), callee, root);
+        if (ForkJoinTask.getPool() == forkJoinPool) {
+            call.fork();
+        } else {
+            forkJoinPool.execute(call);
+        }
+        spawner.push(register(call));
+        return Optional.ofNullable(spawner.advance());
+    }
+
+    /**
+     * Assigns a handle to a spawned call.
+     *
+     * @param call the call
+     * @return its handle
+     */
+    private int register(SpawnedCall call) {
+        invocations++;
+        int handle = nextSpawnHandle++;
+        spawnedCalls.put(handle, call);
+        return handle;
+    }
+
+    /**
+     * Completes a call that ran inline with the value its callee returned.
+     *
+     * @param handle the call's handle
+     * @param value  the value the callee returned
+     */
+    void completeInlineSpawn(int handle, int value) {
+        spawnedCalls.get(handle).complete(value);
+    }
+
+    /**
+     * Reports whether any spawned calls have not been joined yet, including calls running inline.
+     *
+     * @return true if a {@code join} is still outstanding
+     */
+    boolean hasUnjoinedSpawns() {
+        return !spawnedCalls.isEmpty();
+    }
+
+    /**
+     * Waits for a spawned call to return, for the {@code join} instruction.
+     *
+     * <p>A fork-join worker that has to wait runs other queued calls in the meantime. Each handle
+     * can be joined once.</p>
+     *
+     * @param handle the handle pushed by {@link #spawn(Method)}
+     * @return the value the call returned
+     * @throws IllegalStateException if the handle is unknown or has already been joined
+     * @throws RuntimeException      whatever the spawned call failed with
+     */
+    public int join(int handle) {
+        SpawnedCall call = spawnedCalls.remove(handle);
+        if (call == null) throw new IllegalStateException("No spawned call with handle " + handle);
+        return call.result();
+    }
+
+    /**
+     * Creates the machine a forked call runs on, sharing this machine's program, settings, limits,
+     * heap and input.
+     *
+     * @return the machine, one spawn level deeper than this one
+     */
+    private Machine spawnedMachine() {
+        if (spawnTreeInstructions == null) {
+            spawnTreeInstructions = new AtomicLong(instructionsExecuted);
+            chargedInstructions = instructionsExecuted;
+        }
+        Machine machine = new Machine();
+        machine.program = program;
+        machine.source = source;
+        machine.limits = limits;
+        machine.executionMode = executionMode;
+        machine.osrThreshold = osrThreshold;
+        machine.quickeningEnabled = quickeningEnabled;
+        machine.forkJoinPool = forkJoinPool;
+        machine.spawnCutoff = spawnCutoff;
+        machine.spawnDepth = spawnDepth + 1;
+        machine.channels = channels();
+        machine.heap = heap;
+        machine.ownsHeap = false;
+        machine.input = input;
+        machine.spawnTreeInstructions = spawnTreeInstructions;
+        machine.runningNanos = runningNanos + (System.nanoTime() - runStartNanos);
+        return machine;
+    }
+
+    /**
+     * Returns the frame the machine is executing, for observers such as a sampling profiler on
+     * another thread.
+     *
+     * <p>Reading it takes no lock and does not slow the interpreter. The frame, its method and its
+     * callers are safely published, but its program counter - and those of its callers - may be a
+     * few instructions stale, which is accurate enough for sampling.</p>
+     *
+     * @return the innermost frame, or empty if the machine is not running
+     * @see sml.profile.SamplingProfiler
+     */
+    public Optional<Frame> runningFrame() {
+        return Optional.ofNullable((Frame) RUNNING_FRAME.getAcquire(this));
+    }
+
+    /**
+     * Retrieves the current execution frame.
+     *
+     * <p>Returns the active execution frame.</p>
+     *
+     * @return The active execution frame
+     */
+    public Frame frame() {
+        if (frame == null) throw new NoSuchElementException("No frame is executing");
+        return frame;
+    }
+
+    /**
+     * Creates a new frame for method invocation.
+     *
+     * <p>Manages method call stack and argument passing by locating
+     * the method, creating a new execution frame, and handling
+     * argument transfer from the current frame.</p>
+     *
+     * @param methodName Identifier of the method to invoke
+     * @return Optional containing the new execution frame
+     * @throws MethodNotFoundException if the specified method cannot be found in the program
+     * @throws IllegalStateException if insufficient arguments are available on the stack for method invocation
+     */
+    public Optional<Frame> newFrameForMethodInvocation(Method.Identifier methodName) {
+        Method method = method(methodName)
+                .orElseThrow(() -> new MethodNotFoundException(methodName));
+        return newFrameForMethodInvocation(method);
+    }
+
+    /**
+     * Creates a new frame for invoking an already resolved method.
+     *
+     * <p>Behaves like {@link #newFrameForMethodInvocation(Method.Identifier)} without the lookup by
+     * name; used by quickened {@code invoke} sites.</p>
+     *
+     * @param method the method to invoke
+     * @return Optional containing the new execution frame
+     * @throws IllegalStateException if insufficient arguments are available on the stack for method invocation
+     */
+    public Optional<Frame> newFrameForMethodInvocation(Method method) {
+        return Optional.of(newFrame(method));
+    }
+
+    /**
+     * Invokes an already resolved method from the current frame and makes the callee's frame current.
+     *
+     * <p>The counterpart of {@link #newFrameForMethodInvocation(Method)} for instructions that
+     * invoke through {@link Instruction#step(Machine, Frame)}, which then report
+     * {@link Instruction#CONTROL_TRANSFERRED}.</p>
+     *
+     * @param method the method to invoke
+     * @throws IllegalStateException if insufficient arguments are available on the stack for method invocation
+     */
+    public void invoke(Method method) {
+        frame = newFrame(method);
+    }
+
+    /**
+     * Creates the frame for a call from the current frame, popping its arguments.
+     */
+    private Frame newFrame(Method method) {
+        Frame caller = frame;
+        Frame newFrame = new Frame(method, caller);
+        if (profileCollector != null) profileCollector.invoked(method);
+
+        if (caller != null) {
+            passArguments(caller, newFrame);
+            invocations++;
+            if (newFrame.depth() > maxCallDepth) maxCallDepth = newFrame.depth();
+        }
+        return newFrame;
+    }
+
+    /**
+     * Pops a method's arguments from the calling frame into the variables of its new frame.
+     *
+     * @param caller the frame making the call
+     * @param callee the new frame
+     * @throws IllegalStateException if insufficient arguments are available on the caller's stack
+     */
+    private static void passArguments(Frame caller, Frame callee) {
+        Method method = callee.method();
+        List<Variable.Identifier> methodArguments = method.arguments();
+
+        if (methodArguments.size() > caller.stackSize()) {
+            throw new IllegalStateException("Not enough arguments on the stack for method " + method.name() +
+                    ". Required: " + methodArguments.size() + ", Available: " + caller.stackSize());
+        }
+
+        for (int i = methodArguments.size() - 1; i >= 0; i--) {
+            Variable.Identifier var = methodArguments.get(i);
+            int value = caller.pop();
+            Variable variable = callee.arguments().get(var)
+                    .orElseThrow(() -> new AssertionError("Variable " + var + " not found (can never happen)"));
+            variable.store(value);
+        }
+    }
+
+    @Override
+    public String toString() {
+        if (program == null) return "No program loaded";
+        if (source != null) return "Program: " + source;
+
+        int methodCount = program.values().size();
+        int totalInstructions = program.values().stream()
+                .mapToInt(method -> method.instructions().size())
+                .sum();
+
+        return String.format("Program: %d methods, %d total instructions",
+                methodCount, totalInstructions);
+    }
+
+    /**
+     * A value derived from a method table, valid only while that table is the loaded program.
+     *
+     * @param program the method table the value was derived from
+     * @param value   the derived value
+     */
+    private record Derived<T>(SymbolTable<Method.Identifier, Method> program, T value) {
+    }
+}
@@ -0,0 +1,383 @@
+package sml;
+
+import sml.memory.ArrayHeap;
+import sml.memory.ArrayHeapException;
+
+import java.io.*;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+
+/**
+ * A compact binary image of a suspended {@link Machine}'s execution state.
+ *
+ * <p>A snapshot records the frame chain of a running program - for each frame the method, program
+ * counter, argument and local variable values and operand stack - together with the contents of the
+ * machine's {@link ArrayHeap}, the read position of its input, the instruction count and the
+ * {@link ProgramHash} of the program it was taken from. Restoring the snapshot into a
+ * machine loaded with the same program resumes execution exactly where it left off.</p>
+ *
+ * <p>Key features:</p>
+ * <ul>
+ *   <li>Capture only copies the live frames and arrays into memory, so the pause it imposes on the
+ *       machine is proportional to live state; the file write can happen afterwards on another
+ *       thread</li>
+ *   <li>Arrays are copied segment to segment off the Java heap and streamed element by element
+ *       to and from the file, so their size is bounded by the heap cap rather than by Java
+ *       arrays</li>
+ *   <li>Integers are written as zig-zag varints and method names through a per-snapshot string
+ *       table, so deep recursion and small values cost a few bytes per frame</li>
+ *   <li>Files are written to a temporary sibling and atomically moved into place, so a crash
+ *       mid-write never leaves a truncated checkpoint behind</li>
+ *   <li>Restoring into a different program is rejected by comparing program hashes, and lengths
+ *       read from a file are checked against the bytes remaining before anything is allocated</li>
+ * </ul>
+ *
+ * <p>Snapshots must be captured while the machine is not running, that is between calls to
+ * {@link Machine#run(long)}.</p>
+ *
+ * @author Ricki Angel
+ * @see Checkpointer
+ */
+public final class MachineSnapshot {
+    private static final int MAGIC = 0x534D4C53; // "SMLS"
+    private static final int VERSION = 4;
+    private static final int HASH_BYTES = 32;
+
+    private final byte[] state; // program hash, instruction count, frames and input position
+    private final int[] handles;
+    private final MemorySegment[] arrays; // copies of the arrays under handles, in the same order
+
+    private MachineSnapshot(byte[] state, int[] handles, MemorySegment[] arrays) {
+        this.state = state;
+        this.handles = handles;
+        this.arrays = arrays;
+    }
+
+    /**
+     * Captures the execution state of a suspended machine.
+     *
+     * @param machine the machine to capture, which must have a program loaded
+     * @return the snapshot
+     * @throws IllegalStateException if the machine has already terminated, or has spawned calls
+     *                               that have not been joined
+     */
+    public static MachineSnapshot capture(Machine machine) {
+        if (machine.hasTerminated())
+            throw new IllegalStateException("Cannot snapshot a terminated machine");
+        if (machine.hasUnjoinedSpawns())
+            throw new IllegalStateException("Cannot snapshot a machine whose spawned calls have not been joined");
+
+        List<Frame> frames = new ArrayList<>();
+        for (Frame f = machine.frame(); f != null; f = f.invoker().orElse(null))
+            frames.add(f);
+        Collections.reverse(frames);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + frames.size() * 16);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.write(HexFormat.of().parseHex(machine.programHash()));
+            writeVarLong(out, machine.instructionsExecuted());
+            writeVarInt(out, frames.size());
+
+            Map<Method.Identifier, Integer> methodIndex = new HashMap<>();
+            for (Frame frame : frames) {
+                Method method = frame.method();
+                Integer index = methodIndex.get(method.name());
+                if (index == null) {
+                    methodIndex.put(method.name(), methodIndex.size());
+                    writeVarInt(out, 0);
+                    out.writeUTF(method.name().name());
+                } else {
+                    writeVarInt(out, index + 1);
+                }
+
+                writeVarInt(out, frame.programCounter());
+                for (Variable.Identifier variable : method.variableSlots())
+                    writeZigZag(out, frame.variable(variable).load());
+
+                int[] stack = frame.stackContents();
+                writeVarInt(out, stack.length);
+                for (int value : stack)
+                    writeZigZag(out, value);
+            }
+
+            out.writeBoolean(machine.hasInput());
+            if (machine.hasInput())
+                writeVarLong(out, machine.input().position());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // cannot happen with an in-memory stream
+        }
+
+        ArrayHeap heap = machine.heap();
+        int[] handles = new int[heap.liveArrays()];
+        int[] count = {0};
+        heap.forEachLive(handle -> handles[count[0]++] = handle);
+        MemorySegment[] arrays = new MemorySegment[handles.length];
+        Arena arena = Arena.ofAuto(); // released with the snapshot
+        for (int i = 0; i < handles.length; i++) {
+            MemorySegment live = heap.segment(handles[i]);
+            arrays[i] = arena.allocate(live.byteSize(), Integer.BYTES).copyFrom(live);
+        }
+        return new MachineSnapshot(bytes.toByteArray(), handles, arrays);
+    }
+
+    /**
+     * Reads a snapshot previously written by {@link #writeTo(Path)}.
+     *
+     * @param file the snapshot file
+     * @return the snapshot
+     * @throws IOException if the file cannot be read or is not a snapshot
+     */
+    public static MachineSnapshot readFrom(Path file) throws IOException {
+        return readFrom(file, Long.MAX_VALUE);
+    }
+
+    /**
+     * Reads a snapshot previously written by {@link #writeTo(Path)}, rejecting it if its arrays
+     * would not fit in a heap of the given size.
+     *
+     * <p>Every length in the file is checked against the bytes remaining before it is used, so a
+     * truncated or corrupt file fails with an {@code IOException} rather than a huge allocation.</p>
+     *
+     * @param file         the snapshot file
+     * @param maxHeapBytes the heap cap of the machine it will be restored into
+     * @return the snapshot
+     * @throws IOException if the file cannot be read, is not a snapshot or is corrupt, or its
+     *                     arrays exceed {@code maxHeapBytes}
+     */
+    public static MachineSnapshot readFrom(Path file, long maxHeapBytes) throws IOException {
+        long size = Files.size(file);
+        CountingInputStream counter = new CountingInputStream(new BufferedInputStream(Files.newInputStream(file)));
+        try (DataInputStream in = new DataInputStream(counter)) {
+            if (size < 5 || in.readInt() != MAGIC)
+                throw new IOException("Not an SML snapshot: " + file);
+            int version = in.readUnsignedByte();
+            if (version != VERSION)
+                throw new IOException("Unsupported snapshot version " + version + ": " + file);
+
+            byte[] state = new byte[readLength(in, size - counter.count, "State", file)];
+            in.readFully(state);
+
+            // each array takes at least a byte for its handle and one for its length
+            int arrayCount = readLength(in, (size - counter.count) / 2, "Array count", file);
+            int[] handles = new int[arrayCount];
+            MemorySegment[] arrays = new MemorySegment[arrayCount];
+            Arena arena = Arena.ofAuto(); // released with the snapshot
+            long heapBytes = 0;
+            for (int i = 0; i < arrayCount; i++) {
+                handles[i] = readVarInt(in);
+                // each element takes at least a byte
+                int length = readLength(in, size - counter.count, "Array length", file);
+                heapBytes += (long) length * Integer.BYTES;
+                if (heapBytes > maxHeapBytes)
+                    throw new IOException("Snapshot arrays exceed the heap cap of " + maxHeapBytes + " bytes: " + file);
+                arrays[i] = arena.allocate((long) length * Integer.BYTES, Integer.BYTES);
+                for (int j = 0; j < length; j++)
+                    arrays[i].setAtIndex(ArrayHeap.ELEMENT, j, readZigZag(in));
+            }
+            return new MachineSnapshot(state, handles, arrays);
+        }
+    }
+
+    /**
+     * Writes the snapshot to a file, atomically replacing any previous snapshot there.
+     *
+     * @param file the destination file
+     * @throws IOException if the file cannot be written
+     */
+    public void writeTo(Path file) throws IOException {
+        Path absolute = file.toAbsolutePath();
+        Path temp = Files.createTempFile(absolute.getParent(), absolute.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeByte(VERSION);
+                writeVarInt(out, state.length);
+                out.write(state);
+                writeVarInt(out, arrays.length);
+                for (int i = 0; i < arrays.length; i++) {
+                    long length = arrays[i].byteSize() / Integer.BYTES;
+                    writeVarInt(out, handles[i]);
+                    writeVarInt(out, (int) length);
+                    for (long j = 0; j < length; j++)
+                        writeZigZag(out, arrays[i].getAtIndex(ArrayHeap.ELEMENT, j));
+                }
+            }
+            try {
+                Files.move(temp, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, absolute, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Restores the snapshot into a machine, replacing its current execution state.
+     *
+     * <p>The machine must already have the snapshot's program loaded via
+     * {@link Machine#setProgram(Collection)}, and the same input attached if the program reads one;
+     * execution continues with the next call to
+     * {@link Machine#run(long)} or {@link Machine#execute()}.</p>
+     *
+     * @param machine the machine to restore into
+     * @throws IllegalStateException if the machine's program differs from the snapshot's, or the
+     *                               snapshot records an input position but no input is attached
+     * @throws IllegalArgumentException if the snapshot data is corrupt
+     */
+    public void restoreInto(Machine machine) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(state))) {
+            byte[] hash = new byte[HASH_BYTES];
+            in.readFully(hash);
+            String snapshotHash = HexFormat.of().formatHex(hash);
+            if (!snapshotHash.equals(machine.programHash()))
+                throw new IllegalStateException("Snapshot was taken from a different program (hash "
+                        + snapshotHash + ", loaded " + machine.programHash() + ")");
+
+            long instructionsExecuted = readVarLong(in);
+            int frameCount = readVarInt(in);
+            List<Method> methodTable = new ArrayList<>();
+            Frame frame = null;
+            for (int i = 0; i < frameCount; i++) {
+                int ref = readVarInt(in);
+                Method method;
+                if (ref == 0) {
+                    Method.Identifier name = new Method.Identifier("@" + in.readUTF());
+                    method = machine.method(name)
+                            .orElseThrow(() -> new IllegalArgumentException("Snapshot refers to unknown method " + name));
+                    methodTable.add(method);
+                } else {
+                    method = methodTable.get(ref - 1);
+                }
+
+                frame = new Frame(method, frame);
+                frame.resumeAt(readVarInt(in));
+                for (Variable.Identifier variable : method.variableSlots())
+                    frame.variable(variable).store(readZigZag(in));
+
+                int depth = readVarInt(in);
+                for (int j = 0; j < depth; j++)
+                    frame.push(readZigZag(in));
+            }
+
+            boolean readingInput = in.readBoolean();
+            long inputPosition = readingInput ? readVarLong(in) : 0;
+            if (readingInput && !machine.hasInput())
+                throw new IllegalStateException("Snapshot was reading input; attach the same input before restoring");
+
+            ArrayHeap heap = machine.heap();
+            heap.clear();
+            for (int i = 0; i < arrays.length; i++) {
+                long bytes = arrays[i].byteSize();
+                MemorySegment.copy(arrays[i], 0, heap.restore(handles[i], (int) (bytes / Integer.BYTES)), 0, bytes);
+            }
+
+            if (readingInput)
+                machine.input().seek(inputPosition);
+            machine.restore(frame, instructionsExecuted);
+        } catch (IOException | IndexOutOfBoundsException | ArrayHeapException e) {
+            throw new IllegalArgumentException("Corrupt snapshot", e);
+        }
+    }
+
+    /**
+     * Returns the encoded size of the snapshot, as {@link #writeTo(Path)} would write it.
+     *
+     * @return the size in bytes
+     */
+    public long size() {
+        long size = 5 + varIntSize(state.length) + state.length + varIntSize(arrays.length);
+        for (int i = 0; i < arrays.length; i++) {
+            long length = arrays[i].byteSize() / Integer.BYTES;
+            size += varIntSize(handles[i]) + varIntSize((int) length);
+            for (long j = 0; j < length; j++) {
+                int value = arrays[i].getAtIndex(ArrayHeap.ELEMENT, j);
+                size += varIntSize((value << 1) ^ (value >> 31));
+            }
+        }
+        return size;
+    }
+
+    private static int readLength(DataInput in, long remaining, String what, Path file) throws IOException {
+        long length = readVarLong(in);
+        if (length < 0 || length > Math.min(remaining, Integer.MAX_VALUE))
+            throw new IOException(what + " of " + length + " exceeds the " + remaining + " bytes remaining in " + file);
+        return (int) length;
+    }
+
+    private static int varIntSize(int value) {
+        return Math.max(1, (38 - Integer.numberOfLeadingZeros(value)) / 7);
+    }
+
+    private static void writeZigZag(DataOutput out, int value) throws IOException {
+        writeVarInt(out, (value << 1) ^ (value >> 31));
+    }
+
+    private static int readZigZag(DataInput in) throws IOException {
+        int encoded = readVarInt(in);
+        return (encoded >>> 1) ^ -(encoded & 1);
+    }
+
+    private static void writeVarInt(DataOutput out, int value) throws IOException {
+        writeVarLong(out, value & 0xFFFFFFFFL);
+    }
+
+    private static int readVarInt(DataInput in) throws IOException {
+        return (int) readVarLong(in);
+    }
+
+    private static void writeVarLong(DataOutput out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarLong(DataInput in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    /**
+     * Counts the bytes read, so lengths can be checked against what remains of the file.
+     */
+    private static final class CountingInputStream extends FilterInputStream {
+        long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) count++;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) count += n;
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package sml;
+
+/**
+ * Exception thrown when a method is not found.
+ *
+ * <p>This exception is typically used when attempting to access or execute a method that
+ * doesn't exist or hasn't been defined in the SML program.</p>
+ */
+public class MethodNotFoundException extends RuntimeException {
+
+    /**
+     * Constructs a new {@code MethodNotFoundException} with a detailed message.
+     *
+     * @param method the identifier of the method that could not be found
+     */
+    public MethodNotFoundException(Method.Identifier method) {
+        super("Method not found: " + method);
+    }
+
+    /**
+     * Constructs a new {@code MethodNotFoundException} with a custom message, for subclasses
+     * reporting several missing methods at once.
+     *
+     * @param message the detail message
+     */
+    protected MethodNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,59 @@
+package sml;
+
+import sml.instructions.Instruction;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HexFormat;
+
+/**
+ * Computes a content hash that identifies a translated SML program.
+ *
+ * <p>The hash covers every method's name, argument list and instruction text, taken in method-name
+ * order, so it is independent of source formatting, comments and the order in which methods appear
+ * in the file. Two programs with the same hash have identical methods, which makes the hash a safe
+ * key for data captured against one run and reused in another.</p>
+ *
+ * @author Ricki Angel
+ * @see MachineSnapshot
+ */
+public final class ProgramHash {
+    private ProgramHash() {
+    }
+
+    /**
+     * Computes the SHA-256 content hash of a program.
+     *
+     * @param methods the methods making up the program
+     * @return the hash as a lowercase hexadecimal string
+     */
+    public static String of(Collection<Method> methods) {
+        MessageDigest digest = newDigest();
+        methods.stream()
+                .sorted(Comparator.comparing(m -> m.name().name()))
+                .forEach(method -> {
+                    update(digest, "@" + method.name());
+                    method.arguments().forEach(argument -> update(digest, argument.name()));
+                    update(digest, ":");
+                    for (Instruction instruction : method.instructions())
+                        update(digest, instruction.toString());
+                });
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static void update(MessageDigest digest, String text) {
+        digest.update(text.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) '\n');
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new AssertionError("SHA-256 is required on every Java platform", e);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package sml;
+
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * A program whose methods become available while it runs rather than all before it starts.
+ *
+ * <p>A {@link Machine} loaded through {@link Machine#setProgram(ProgramSource)} resolves every
+ * method it invokes through its source, so an implementation may translate a method on demand or
+ * wait until a background parser has reached it.</p>
+ *
+ * <p>Implementations must be safe to use from several threads and must return the same
+ * {@link Method} instance every time a given method is resolved.</p>
+ *
+ * @author Ricki Angel
+ * @see LazyProgram
+ * @see StreamingProgram
+ */
+public interface ProgramSource {
+    /**
+     * Resolves a method by name, translating it or waiting for it if necessary.
+     *
+     * @param name the method identifier
+     * @return the method, or empty if the program has no such method
+     * @throws IllegalArgumentException if the method's source is invalid
+     */
+    Optional<Method> method(Method.Identifier name);
+
+    /**
+     * Returns every method of the program, translating or waiting for any not yet available.
+     *
+     * @return every method of the program
+     * @throws IllegalArgumentException if the program's source is invalid
+     */
+    Collection<Method> methods();
+}
@@ -0,0 +1,504 @@
+package sml;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.stereotype.Service;
+import sml.analysis.UndefinedMethodException;
+import sml.discovery.SmlConfig;
+import sml.io.IntInputFormat;
+import sml.io.MappedIntInput;
+import sml.metrics.MetricsServer;
+import sml.metrics.SmlMetrics;
+import sml.profile.ExecutionProfile;
+import sml.profile.ProfileCollector;
+import sml.profile.SamplingProfiler;
+import sml.reload.HotReloader;
+import sml.trace.TraceRecorder;
+
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.function.Consumer;
+
+/**
+ * Serves as the main entry point for executing SML programs.
+ * <p>
+ * This service component is responsible for orchestrating the SML execution pipeline by:
+ * <ol>
+ *   <li>Loading and translating SML program files (.sml) into executable {@link Method} collections</li>
+ *   <li>Configuring the virtual machine with the translated program</li>
+ *   <li>Initiating program execution</li>
+ * </ol>
+ * <p>
+ * This class implements the Spring Framework's and manual Command Line dependency injection  for configuration of its
+ * core dependencies. The {@link Translator} for program parsing and the {@link Machine} for program execution.
+ *
+ * <h2>Spring Framework Usage:</h2>
+ * <pre>
+ *   ApplicationContext context = new AnnotationConfigApplicationContext(SmlConfiguration.class);
+ *   RunSml runner = context.getBean(RunSml.class);
+ *   runner.run("path/to/program.sml");
+ * </pre>
+ *
+ * <h2>Command Line Usage: There are two ways of running the machine via command line:</h2>
+ * <h3>Method 1: Using Maven Exec Plugin</h3>
+ * <pre>
+ *   mvn exec:java -Dexec.mainClass="sml.RunSml" -Dexec.args="src/main/resources/test1.sml"
+ * </pre>
+ *
+ * <h3>Method 2: Manual Classpath Configuration</h3>
+ * <pre>
+ *   # First, prepare the project and dependencies
+ *   mvn clean package dependency:copy-dependencies
+ *
+ *   # Then run the application
+ *   java -cp "target/classes:target/dependency/*" sml.RunSml src/main/resources/test1.sml
+ * </pre>
+ *
+ * <h3>Reloading edits while the program runs</h3>
+ * <pre>
+ *   java -cp "target/classes:target/dependency/*" sml.RunSml --watch program.sml
+ * </pre>
+ *
+ * <h3>Translating methods on first use</h3>
+ * <pre>
+ *   java -cp "target/classes:target/dependency/*" sml.RunSml --lazy library.sml
+ * </pre>
+ *
+ * <h3>Starting before the whole file is translated</h3>
+ * <pre>
+ *   java -cp "target/classes:target/dependency/*" sml.RunSml --stream generated.sml
+ * </pre>
+ *
+ * <h3>Supplying input</h3>
+ * <pre>
+ *   java -cp "target/classes:target/dependency/*" sml.RunSml --input data.bin program.sml
+ * </pre>
+ *
+ * <h3>Recording a binary trace and decoding it afterwards</h3>
+ * <pre>
+ *   java -cp "target/classes:target/dependency/*" sml.RunSml --trace-file run.trace program.sml
+ *   java -cp "target/classes:target/dependency/*" sml.trace.TraceDecoder --method fib run.trace program.sml
+ * </pre>
+ *
+ * <h3>Profiling into a flame graph</h3>
+ * <pre>
+ *   java -cp "target/classes:target/dependency/*" sml.RunSml --trace-file run.trace --profile sml.folded program.sml
+ *   flamegraph.pl sml.folded &gt; sml.svg
+ * </pre>
+ *
+ * <h3>Profile-guided runs</h3>
+ * <pre>
+ *   java -cp "target/classes:target/dependency/*" sml.RunSml --pgo program.profile program.sml   # collects
+ *   java -cp "target/classes:target/dependency/*" sml.RunSml --no-trace --pgo program.profile program.sml   # applies, untraced
+ * </pre>
+ *
+ * <h3>Exposing metrics while the program runs</h3>
+ * <pre>
+ *   java -cp "target/classes:target/dependency/*" sml.RunSml --metrics 9400 program.sml
+ *   curl http://localhost:9400/metrics
+ * </pre>
+ *
+ * @author Ricki Angel
+ * @see Translator
+ * @see Machine
+ * @see Method
+ */
+
+@Service
+public class RunSml {
+    private final Translator translator;
+    private final Machine machine;
+    private Path traceFile;
+    private Path profileFile;
+    private Duration profileInterval = Duration.ofMillis(1);
+    private Path pgoFile;
+    private boolean printTrace = true;
+
+    @Autowired
+    public RunSml(Translator translator, Machine machine) {
+        this.translator = translator;
+        this.machine = machine;
+    }
+
+    /**
+     * Factory method for creating a RunSml instance using manual dependency injection.
+     * This supports the CLI path when Spring context is not available.
+     *
+     * @return a new RunSml instance with manually injected dependencies
+     */
+    public static RunSml create() {
+        return new RunSml(new Translator(), new Machine());
+    }
+
+    /**
+     * Records subsequent runs to a binary trace file instead of printing the trace.
+     *
+     * @param traceFile the trace file, replaced by each run, or null to print the trace
+     * @see TraceRecorder
+     */
+    public void setTraceFile(Path traceFile) {
+        this.traceFile = traceFile;
+    }
+
+    /**
+     * Samples subsequent runs with a {@link SamplingProfiler} and writes their collapsed stacks to a file.
+     *
+     * @param profileFile the collapsed-stack file, replaced by each run, or null not to profile
+     * @param interval    the time between samples
+     */
+    public void setProfile(Path profileFile, Duration interval) {
+        this.profileFile = profileFile;
+        this.profileInterval = interval;
+    }
+
+    /**
+     * Sets whether subsequent runs print each instruction before it runs, as they do by default.
+     *
+     * <p>Printing the trace keeps a run in the interpreter; without it the machine runs in its
+     * {@linkplain Machine#executionMode() execution mode}, so loops are compiled and, in a
+     * profile-guided run, the code prepared by the profile is used. A trace file, when set, records
+     * the trace either way.</p>
+     *
+     * @param printTrace whether to print the trace
+     */
+    public void setPrintTrace(boolean printTrace) {
+        this.printTrace = printTrace;
+    }
+
+    /**
+     * Makes subsequent runs profile-guided, keeping their {@link ExecutionProfile} in a file.
+     *
+     * <p>If the file holds a profile of the program being run, the machine applies it before the
+     * program starts; the run is otherwise unchanged, printing the trace or not as
+     * {@link #setPrintTrace(boolean)} says and in the machine's execution mode, so a profile only
+     * affects how fast the program runs, never what it prints. Otherwise - the file is missing,
+     * unreadable or its profile is stale - the run collects a new profile and writes it to the file.
+     * Only programs loaded up front are profiled, not those run in watch, lazy or streaming
+     * mode.</p>
+     *
+     * @param pgoFile the profile file, or null not to use profiles
+     */
+    public void setProfileGuided(Path pgoFile) {
+        this.pgoFile = pgoFile;
+    }
+
+    /**
+     * Executes an SML program from the specified file.
+     *
+     * @param filename The path to the SML program file
+     * @throws IOException If an error occurs during file reading
+     */
+    public void run(String filename) throws IOException {
+        run(filename, null, null);
+    }
+
+    /**
+     * Executes an SML program from the specified file, reading integers from an input file.
+     *
+     * <p>The input is memory-mapped for the duration of the run and read by the {@code read} and
+     * {@code readinto} instructions.</p>
+     *
+     * @param filename    The path to the SML program file
+     * @param inputFile   The input file, or null for none
+     * @param inputFormat The input encoding, or null to infer it from the file name
+     * @throws IOException If an error occurs during file reading or mapping
+     */
+    public void run(String filename, Path inputFile, IntInputFormat inputFormat) throws IOException {
+        run(filename, inputFile, inputFormat, false);
+    }
+
+    /**
+     * Executes an SML program from the specified file, optionally reloading it as it is edited.
+     *
+     * <p>In watch mode the program is loaded through a {@link HotReloader}: saving the file while
+     * the program runs swaps the edited methods into it without restarting execution. Otherwise
+     * the program is loaded with {@linkplain Machine#setWholeProgramAnalysis(boolean) whole-program
+     * analysis}, so unreachable methods are dropped and calls to undefined methods are reported
+     * before the program starts.</p>
+     *
+     * @param filename    The path to the SML program file
+     * @param inputFile   The input file, or null for none
+     * @param inputFormat The input encoding, or null to infer it from the file name
+     * @param watch       Whether to reload the program when the file changes
+     * @throws IOException If an error occurs during file reading or mapping
+     */
+    public void run(String filename, Path inputFile, IntInputFormat inputFormat, boolean watch) throws IOException {
+        machine.setWholeProgramAnalysis(!watch);
+        if (!watch) {
+            ExecutionProfile profile = readProfile();
+            machine.setProfile(profile);
+            try {
+                machine.setProgram(translator.readAndTranslate(filename));
+            } catch (UndefinedMethodException e) {
+                System.err.println("Error: " + e.getMessage());
+                return;
+            } finally {
+                machine.setProfile(null);
+            }
+            if (pgoFile == null) {
+                execute(inputFile, inputFormat);
+                return;
+            }
+            if (machine.isProfileApplied()) {
+                System.err.println("Applied " + profile + " from " + pgoFile);
+                execute(inputFile, inputFormat);
+                return;
+            }
+            if (profile != null) System.err.println("Profile in " + pgoFile + " is stale; collecting a new one");
+            ProfileCollector collector = new ProfileCollector();
+            machine.setProfileCollector(collector);
+            try {
+                execute(inputFile, inputFormat);
+            } finally {
+                machine.setProfileCollector(null);
+            }
+            ExecutionProfile collected = collector.toProfile(machine.programHash());
+            collected.writeTo(pgoFile);
+            System.err.println("Wrote " + collected + " to " + pgoFile);
+            return;
+        }
+        try (HotReloader reloader = new HotReloader(machine, translator, Path.of(filename))) {
+            reloader.load();
+            reloader.watch(result -> System.err.println("Reloaded " + filename + ": " + result));
+            execute(inputFile, inputFormat);
+        }
+    }
+
+    /**
+     * Reads the profile file, if there is one and it can be read.
+     *
+     * @return the profile, or null
+     */
+    private ExecutionProfile readProfile() {
+        if (pgoFile == null || !Files.exists(pgoFile)) return null;
+        try {
+            return ExecutionProfile.readFrom(pgoFile);
+        } catch (IOException e) {
+            System.err.println("Ignoring profile: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Executes an SML program from the specified file, translating each method on its first invocation.
+     *
+     * <p>Suited to large programs of which a run only calls a few methods: start-up only pre-scans
+     * the method headers, see {@link LazyProgram}.</p>
+     *
+     * @param filename    The path to the SML program file
+     * @param inputFile   The input file, or null for none
+     * @param inputFormat The input encoding, or null to infer it from the file name
+     * @throws IOException If an error occurs during file reading or mapping
+     */
+    public void runLazily(String filename, Path inputFile, IntInputFormat inputFormat) throws IOException {
+        machine.setProgram(LazyProgram.scan(Path.of(filename), translator));
+        execute(inputFile, inputFormat);
+    }
+
+    /**
+     * Executes an SML program from the specified file while it is still being translated.
+     *
+     * <p>The file is parsed on a background thread and execution starts as soon as {@code @main}
+     * has been translated, see {@link StreamingProgram}.</p>
+     *
+     * @param filename    The path to the SML program file
+     * @param inputFile   The input file, or null for none
+     * @param inputFormat The input encoding, or null to infer it from the file name
+     * @throws IOException If an error occurs during file reading or mapping
+     */
+    public void runStreaming(String filename, Path inputFile, IntInputFormat inputFormat) throws IOException {
+        machine.setProgram(StreamingProgram.start(Path.of(filename), translator));
+        execute(inputFile, inputFormat);
+    }
+
+    private void execute(Path inputFile, IntInputFormat inputFormat) throws IOException {
+        try {
+            executeProfiled(inputFile, inputFormat);
+        } finally {
+            machine.close(); // the run is over, so release the arrays it left allocated
+        }
+    }
+
+    private void executeProfiled(Path inputFile, IntInputFormat inputFormat) throws IOException {
+        if (profileFile == null) {
+            executeTraced(inputFile, inputFormat);
+            return;
+        }
+        SamplingProfiler profiler = SamplingProfiler.start(profileInterval, false);
+        try {
+            profiler.attach(machine);
+            executeTraced(inputFile, inputFormat);
+        } finally {
+            profiler.close();
+        }
+        profiler.writeCollapsed(profileFile);
+        System.err.println("Wrote " + profiler.samples() + " samples to " + profileFile);
+    }
+
+    private void executeTraced(Path inputFile, IntInputFormat inputFormat) throws IOException {
+        if (traceFile == null) {
+            executeWithInput(inputFile, inputFormat);
+            return;
+        }
+        try (TraceRecorder recorder = TraceRecorder.create(traceFile)) {
+            machine.setTraceRecorder(recorder);
+            executeWithInput(inputFile, inputFormat);
+            System.err.println("Recorded " + recorder.recorded() + " instructions to " + recorder);
+        } finally {
+            machine.setTraceRecorder(null);
+        }
+    }
+
+    private void executeWithInput(Path inputFile, IntInputFormat inputFormat) throws IOException {
+        if (inputFile == null) {
+            machine.execute(printTrace);
+            return;
+        }
+        try (MappedIntInput input = MappedIntInput.open(inputFile,
+                inputFormat != null ? inputFormat : IntInputFormat.forFile(inputFile))) {
+            machine.setInput(input);
+            machine.execute(printTrace);
+        } finally {
+            machine.setInput(null);
+        }
+    }
+    /**
+     * Main entry point for command-line execution.
+     * Attempts to use Spring DI first, falls back to reflection-based DI if Spring fails.
+     *
+     * <p>Options, which must precede the program file:</p>
+     * <ul>
+     *   <li>{@code --input <file>} - integer input for {@code read}/{@code readinto}</li>
+     *   <li>{@code --input-format binary|text} - overrides the format inferred from the file name</li>
+     *   <li>{@code --watch} - reloads edited methods into the running program</li>
+     *   <li>{@code --lazy} - translates each method on its first invocation</li>
+     *   <li>{@code --stream} - starts running {@code @main} while the rest of the file is translated</li>
+     *   <li>{@code --trace-file <file>} - records the trace to a binary file, see
+     *       {@link sml.trace.TraceDecoder}, instead of printing it</li>
+     *   <li>{@code --no-trace} - runs without printing the trace, so loops are compiled</li>
+     *   <li>{@code --profile <file>} - samples the run and writes collapsed stacks for flame graphs</li>
+     *   <li>{@code --profile-interval <millis>} - the sampling interval, 1 ms by default</li>
+     *   <li>{@code --pgo <file>} - applies the execution profile in the file, or collects one into it
+     *       if it is missing or stale; either way the run prints the same output</li>
+     *   <li>{@code --metrics <port>} - serves Prometheus metrics on a loopback port and publishes them
+     *       over JMX for the duration of the run</li>
+     * </ul>
+     *
+     * <p>At most one of {@code --watch}, {@code --lazy} and {@code --stream} may be given, and none of
+     * them with {@code --pgo}.</p>
+     *
+     * @param args Command-line arguments (options, then the SML file path)
+     */
+    public static void main(String... args) {
+        Path inputFile = null;
+        IntInputFormat inputFormat = null;
+        Loading loading = Loading.EAGER;
+        Integer metricsPort = null;
+        Path traceFile = null;
+        Path profileFile = null;
+        Duration profileInterval = Duration.ofMillis(1);
+        Path pgoFile = null;
+        boolean printTrace = true;
+        int i = 0;
+        try {
+            for (; i < args.length && args[i].startsWith("--"); i++) {
+                switch (args[i]) {
+                    case "--input" -> inputFile = Path.of(args[++i]);
+                    case "--input-format" -> inputFormat = IntInputFormat.valueOf(args[++i].toUpperCase(Locale.ROOT));
+                    case "--metrics" -> metricsPort = Integer.valueOf(args[++i]);
+                    case "--trace-file" -> traceFile = Path.of(args[++i]);
+                    case "--profile" -> profileFile = Path.of(args[++i]);
+                    case "--profile-interval" -> profileInterval = Duration.ofMillis(Long.parseLong(args[++i]));
+                    case "--pgo" -> pgoFile = Path.of(args[++i]);
+                    case "--no-trace" -> printTrace = false;
+                    case "--watch", "--lazy", "--stream" -> {
+                        if (loading != Loading.EAGER)
+                            throw new IllegalArgumentException("Only one of --watch, --lazy and --stream may be given");
+                        loading = Loading.valueOf(args[i].substring(2).toUpperCase(Locale.ROOT));
+                    }
+                    default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+                }
+            }
+            if (pgoFile != null && loading != Loading.EAGER)
+                throw new IllegalArgumentException("--pgo cannot be combined with --watch, --lazy or --stream");
+        } catch (ArrayIndexOutOfBoundsException | IllegalArgumentException e) {
+            System.err.println("Error: " + (e instanceof ArrayIndexOutOfBoundsException
+                    ? "Missing value for " + args[i - 1] : e.getMessage()));
+            i = args.length;
+        }
+        if (i >= args.length) {
+            System.err.println("Usage: java sml.RunSml [--watch | --lazy | --stream] [--input file [--input-format binary|text]] [--trace-file file] [--no-trace] [--profile file [--profile-interval millis]] [--pgo file] [--metrics port] src/main/resources/test1.sml");
+            return;
+        }
+        String program = args[i];
+
+        MetricsServer metrics = null;
+        if (metricsPort != null) {
+            try {
+                metrics = MetricsServer.start(SmlMetrics.REGISTRY, metricsPort);
+                SmlMetrics.REGISTRY.registerMBeans();
+                System.err.println("Serving metrics on http://localhost:" + metrics.port() + MetricsServer.PATH);
+            } catch (IOException e) {
+                System.err.println("Error: Cannot serve metrics on port " + metricsPort + ": " + e.getMessage());
+                return;
+            }
+        }
+        Path trace = traceFile, profile = profileFile, pgo = pgoFile;
+        Duration interval = profileInterval;
+        boolean print = printTrace;
+        try {
+            launch(program, inputFile, inputFormat, loading, runner -> {
+                runner.setTraceFile(trace);
+                runner.setPrintTrace(print);
+                runner.setProfile(profile, interval);
+                runner.setProfileGuided(pgo);
+            });
+        } finally {
+            if (metrics != null) metrics.close();
+        }
+    }
+
+    private static void launch(String program, Path inputFile, IntInputFormat inputFormat, Loading loading,
+                               Consumer<RunSml> options) {
+        try {
+            ApplicationContext context = new AnnotationConfigApplicationContext(SmlConfig.class);
+            RunSml runner = context.getBean(RunSml.class);
+            start(runner, program, inputFile, inputFormat, loading, options);
+        } catch (Exception springInitException) {
+            System.out.println("Spring initialisation has failed. Falling back to manual DI");
+
+            try {
+                Constructor<RunSml> constructor = RunSml.class.getConstructor(Translator.class, Machine.class);
+                Translator translator = new Translator();
+                Machine machine = new Machine();
+                RunSml runner = constructor.newInstance(translator, machine);
+                start(runner, program, inputFile, inputFormat, loading, options);
+            } catch (Exception manualDiException) {
+                try {
+                    start(RunSml.create(), program, inputFile, inputFormat, loading, options);
+                } catch (IOException ioException) {
+                    System.err.println("Error running program: " + ioException.getMessage());
+                    ioException.printStackTrace();
+                }
+            }
+        }
+    }
+
+    private static void start(RunSml runner, String program, Path inputFile, IntInputFormat inputFormat,
+                              Loading loading, Consumer<RunSml> options) throws IOException {
+        options.accept(runner);
+        switch (loading) {
+            case EAGER, WATCH -> runner.run(program, inputFile, inputFormat, loading == Loading.WATCH);
+            case LAZY -> runner.runLazily(program, inputFile, inputFormat);
+            case STREAM -> runner.runStreaming(program, inputFile, inputFormat);
+        }
+    }
+
+    // How the command line asked for the program to be loaded
+    private enum Loading { EAGER, WATCH, LAZY, STREAM }
+}
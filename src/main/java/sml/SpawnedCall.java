@@ -0,0 +1,138 @@
+package sml;
+
+import sml.instructions.Instruction;
+import sml.instructions.ReturnInstruction;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * A method call started by the {@code spawn} instruction, run as a fork-join task.
+ *
+ * <p>A forked call runs on a machine of its own, in a frame chain whose bottom frame belongs to a
+ * one-instruction {@code @spawn} method that never executes. The callee's {@code return} pushes its
+ * result onto that frame and, as the frame has no instruction to advance to, ends the run; the
+ * task's result is then popped from it. The machine shares the spawning machine's heap, so arrays
+ * the call allocates outlive it, as they would had it run inline.</p>
+ *
+ * <p>A call run inline is never forked. Its bottom frame sits on the spawning machine's own frame
+ * chain, above the spawning frame, and holds the call's handle. The callee returns into the frame's
+ * second instruction, which completes the call with the returned value and resumes the spawning
+ * frame after its {@code spawn}, so an inline call is as cheap as an invocation and as deep.</p>
+ *
+ * @author Ricki Angel
+ * @see Machine#spawn(Method)
+ */
+final class SpawnedCall extends RecursiveTask<Integer> {
+    private static final Method ROOT = new Method(new Method.Identifier("@spawn"), List.of(),
+            List.of(new ReturnInstruction(null)));
+    private static final Method INLINE_ROOT = new Method(new Method.Identifier("@spawn"), List.of(),
+            List.of(new ReturnInstruction(null), new CompleteInstruction()));
+
+    private final Machine machine;
+    private final Frame callee;
+    private final Frame root;
+    private Throwable failure;
+
+    /**
+     * Creates a spawned call.
+     *
+     * @param machine the machine to run the call on
+     * @param callee  the callee's frame, with its arguments stored and {@code root} as its invoker
+     * @param root    the bottom frame, created by {@link #root()}
+     */
+    SpawnedCall(Machine machine, Frame callee, Frame root) {
+        this.machine = machine;
+        this.callee = callee;
+        this.root = root;
+    }
+
+    /**
+     * Creates a call that runs inline, to be completed by its bottom frame.
+     *
+     * @see #inlineRoot(Frame, int)
+     */
+    SpawnedCall() {
+        this(null, null, null);
+    }
+
+    /**
+     * Creates the frame a forked callee returns into.
+     *
+     * @param depth the call depth of the spawning frame
+     * @return a new bottom frame
+     */
+    static Frame root(int depth) {
+        return new Frame(ROOT, null, depth);
+    }
+
+    /**
+     * Creates the frame an inline callee returns into, on the spawning frame's chain.
+     *
+     * @param spawner the frame running the {@code spawn}
+     * @param handle  the handle of the inline call
+     * @return a new bottom frame
+     */
+    static Frame inlineRoot(Frame spawner, int handle) {
+        Frame root = new Frame(INLINE_ROOT, spawner, spawner.depth());
+        root.push(handle);
+        return root;
+    }
+
+    /**
+     * Waits for the call to return.
+     *
+     * <p>Unlike {@link #join()}, which may rethrow a copy, a failure is rethrown as the exception
+     * the call actually threw.</p>
+     *
+     * @return the value the call returned
+     */
+    int result() {
+        quietlyJoin();
+        if (failure instanceof RuntimeException e) throw e;
+        if (failure instanceof Error e) throw e;
+        return getRawResult();
+    }
+
+    @Override
+    protected Integer compute() {
+        try {
+            machine.transferTo(callee);
+            machine.run(Long.MAX_VALUE);
+            if (root.stackSize() == 0)
+                throw new IllegalStateException("Spawned method " + callee.method().name() + " did not return a value");
+            return root.pop();
+        } catch (RuntimeException | Error e) {
+            failure = e;
+            throw e;
+        }
+    }
+
+    /**
+     * Completes an inline call with the value its callee returned, then resumes the spawning frame.
+     */
+    private static final class CompleteInstruction extends Instruction {
+        CompleteInstruction() {
+            super(null, "return");
+        }
+
+        @Override
+        public Optional<Frame> execute(Machine machine) {
+            Frame root = machine.frame();
+            int value = root.pop();
+            machine.completeInlineSpawn(root.pop(), value);
+            return Optional.ofNullable(root.invoker().orElseThrow().advance());
+        }
+
+        @Override
+        protected void performInstructionLogic(Frame frame) {
+            // No operations performed here - completion handled in execute()
+        }
+
+        @Override
+        protected String getOperandsString() {
+            return "";
+        }
+    }
+}
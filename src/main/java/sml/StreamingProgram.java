@@ -0,0 +1,203 @@
+package sml;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An SML program that is translated on a background thread while it runs.
+ *
+ * <p>{@link #start(Path, Translator)} begins parsing the source on a dedicated parser thread, which publishes
+ * each {@link Method} to a concurrent program table as soon as it has been translated. A machine
+ * loaded with the program starts executing as soon as {@code @main} has been published, so parsing
+ * the rest of a large file overlaps with execution on another core.</p>
+ *
+ * <p>Key features:</p>
+ * <ul>
+ *   <li>Invoking a method the parser has not reached yet blocks until it is published</li>
+ *   <li>Once the parser reaches the end of the source, invoking a method that was never published
+ *       fails with {@link MethodNotFoundException} as usual, without waiting</li>
+ *   <li>A parse error fails every pending and later lookup with the parser's exception, so a
+ *       machine waiting on a method never hangs</li>
+ *   <li>Methods are translated by the {@link Translator} given to {@link #start(Path, Translator)},
+ *       so its instruction set and settings apply; the parser thread holds its lock until the
+ *       end of the source, as a translator is not thread-safe</li>
+ * </ul>
+ *
+ * <p>Each lookup is a single {@link ConcurrentHashMap} read once the method is available, so a
+ * streaming program runs at the same speed as a fully translated one after start-up.</p>
+ *
+ * @author Ricki Angel
+ * @see Machine#setProgram(ProgramSource)
+ */
+public final class StreamingProgram implements ProgramSource {
+    private final ConcurrentHashMap<Method.Identifier, CompletableFuture<Method>> methods = new ConcurrentHashMap<>();
+    private final CompletableFuture<Void> completion = new CompletableFuture<>();
+    private volatile boolean complete;
+    private volatile RuntimeException failure;
+
+    private StreamingProgram() {
+    }
+
+    /**
+     * Starts translating an SML source file on a background thread with a default {@link Translator}.
+     *
+     * @param file the source file
+     * @return the program, whose methods appear as the parser reaches them
+     * @throws IOException if the file cannot be opened
+     */
+    public static StreamingProgram start(Path file) throws IOException {
+        return start(file, new Translator());
+    }
+
+    /**
+     * Starts translating an SML source file on a background thread.
+     *
+     * @param file       the source file
+     * @param translator translates the methods on the parser thread
+     * @return the program, whose methods appear as the parser reaches them
+     * @throws IOException if the file cannot be opened
+     */
+    public static StreamingProgram start(Path file, Translator translator) throws IOException {
+        return start(Files.newInputStream(file), translator);
+    }
+
+    /**
+     * Starts translating SML source from a stream on a background thread with a default
+     * {@link Translator}.
+     *
+     * <p>The stream is read to its end and then closed by the parser thread.</p>
+     *
+     * @param source the stream supplying UTF-8 SML source
+     * @return the program, whose methods appear as the parser reaches them
+     */
+    public static StreamingProgram start(InputStream source) {
+        return start(source, new Translator());
+    }
+
+    /**
+     * Starts translating SML source from a stream on a background thread.
+     *
+     * <p>The stream is read to its end and then closed by the parser thread.</p>
+     *
+     * @param source     the stream supplying UTF-8 SML source
+     * @param translator translates the methods on the parser thread
+     * @return the program, whose methods appear as the parser reaches them
+     */
+    public static StreamingProgram start(InputStream source, Translator translator) {
+        Objects.requireNonNull(translator);
+        StreamingProgram program = new StreamingProgram();
+        Thread.ofPlatform()
+                .name("sml-parser")
+                .daemon()
+                .start(() -> program.parse(source, translator));
+        return program;
+    }
+
+    /**
+     * Resolves a method, waiting for the parser to reach it if necessary.
+     *
+     * @param name the method identifier
+     * @return the method, or empty if parsing has finished without finding it
+     * @throws IllegalArgumentException if the source is invalid
+     */
+    @Override
+    public Optional<Method> method(Method.Identifier name) {
+        CompletableFuture<Method> future = methods.computeIfAbsent(name, n -> new CompletableFuture<>());
+        if (!future.isDone()) {
+            // Registered after the parser's final sweep: the method can no longer appear
+            if (failure != null) future.completeExceptionally(failure);
+            else if (complete) future.complete(null);
+        }
+        return Optional.ofNullable(await(future));
+    }
+
+    /**
+     * Waits for the parser to finish and returns every method of the program.
+     *
+     * @return every method of the program
+     * @throws IllegalArgumentException if the source is invalid
+     */
+    @Override
+    public Collection<Method> methods() {
+        await(completion);
+        return methods.values().stream()
+                .map(CompletableFuture::join)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    /**
+     * Returns whether the parser has reached the end of the source.
+     *
+     * @return whether parsing has finished, successfully or not
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    /**
+     * Returns the number of methods published so far.
+     *
+     * @return the published method count
+     */
+    public int publishedCount() {
+        return (int) methods.values().stream()
+                .filter(f -> f.isDone() && !f.isCompletedExceptionally() && f.getNow(null) != null)
+                .count();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d methods %s", publishedCount(), complete ? "parsed" : "parsed so far");
+    }
+
+    private void parse(InputStream source, Translator translator) {
+        RuntimeException error = null;
+        try (source) {
+            synchronized (translator) {
+                translator.translate(source, this::publish);
+            }
+        } catch (IOException e) {
+            error = new UncheckedIOException(e);
+        } catch (RuntimeException e) {
+            error = e;
+        }
+        finish(error);
+    }
+
+    private void publish(Method method) {
+        CompletableFuture<Method> future = methods.computeIfAbsent(method.name(), n -> new CompletableFuture<>());
+        if (!future.complete(method))
+            throw new IllegalArgumentException("Duplicate method @" + method.name());
+    }
+
+    /**
+     * Marks parsing as finished and settles every lookup still waiting for a method.
+     */
+    private void finish(RuntimeException error) {
+        failure = error;
+        complete = true;
+        for (CompletableFuture<Method> future : methods.values()) {
+            if (error != null) future.completeExceptionally(error);
+            else future.complete(null);
+        }
+        if (error != null) completion.completeExceptionally(error);
+        else completion.complete(null);
+    }
+
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw e;
+        }
+    }
+}
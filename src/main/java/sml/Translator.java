@@ -0,0 +1,436 @@
+package sml;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import sml.instructions.Instruction;
+import sml.metrics.SmlMetrics;
+import sml.registry.InstructionSet;
+import sml.services.FileService;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Constructor;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Handles the orchestration of reading the file, managing state transitions, and adding methods to the program.
+ * <p>
+ * Responsible for reading SML code from source files, parsing language constructs, and converting the program into
+ * executable {@link Method} objects with their associated {@link Instruction} objects and arguments. The parser
+ * supports method definitions with parameters, labeled instructions for control flow, and various instruction types.
+ * This modular design separates parsing from execution concerns, facilitating extensibility with new instruction types.
+ *
+ * @author Ricki Angel
+ */
+@Component
+public final class Translator {
+    private final FileService fileService;
+    private final InstructionSet instructions;
+    private String line = "";
+    private boolean interning = true;
+    private Interner interner;
+
+    /**
+     * Constructs a Translator with the given FileService and the instructions of a context.
+     * <p>
+     * This constructor injects the FileService dependency for file operations, and the
+     * {@link InstructionRegistrationManager} whose discovered instructions are used to translate
+     * opcodes.
+     * </p>
+     *
+     * @param fileService the FileService instance
+     * @param registrationManager the manager owning this context's instructions
+     */
+    @Autowired
+    public Translator(FileService fileService, InstructionRegistrationManager registrationManager) {
+        this.fileService = fileService;
+        this.instructions = registrationManager.instructions();
+    }
+
+    /**
+     * Constructs a Translator with the given FileService.
+     * <p>
+     * Opcodes are mapped to instruction classes by naming convention alone.
+     * </p>
+     *
+     * @param fileService the FileService instance
+     */
+    public Translator(FileService fileService) {
+        this.fileService = fileService;
+        this.instructions = InstructionSet.EMPTY;
+    }
+
+    /**
+     * Constructs a Translator that looks opcodes up in an instruction set first.
+     * <p>
+     * The set is immutable, so translators on any number of threads may share it. Opcodes it does
+     * not contain are mapped to instruction classes by naming convention.
+     * </p>
+     *
+     * @param instructions the instruction set
+     */
+    public Translator(InstructionSet instructions) {
+        this.fileService = null;
+        this.instructions = Objects.requireNonNull(instructions);
+    }
+
+    /**
+     * This constructor is provided for situations where automatic DI is not used.
+     * <p>
+     * Provides a No-arguments constructor for backward compatibility with manual Dependency Injection (DI).
+     * Opcodes are mapped to instruction classes by naming convention alone.
+     * </p>
+     */
+    public Translator() {
+        this.fileService = null;
+        this.instructions = InstructionSet.EMPTY;
+    }
+
+    /**
+     * Turns interning on or off for later translations.
+     * <p>
+     * While interning, which is the default, each translation creates every distinct label, variable
+     * and method identifier once, and shares one instance of each distinct unlabelled instruction of a
+     * stateless class between all its occurrences. Turning it off creates a new object for every
+     * occurrence, as earlier versions did.
+     * </p>
+     *
+     * @param interning whether to intern identifiers and share instructions
+     */
+    public void setInterning(boolean interning) {
+        this.interning = interning;
+    }
+
+    // Holds the current method's name, its instructions, and its arguments while parsing:
+    private static class State {
+        final Method.Identifier methodName;
+        final List<Instruction> instructions;
+        final List<Variable.Identifier> arguments;
+        final Interner interner;
+
+        /**
+         * Constructor for creating a new parsing state with a method identifier.
+         *
+         * @param methodName the method identifier
+         * @param interner   the translation's interner, or null
+         */
+        State(Method.Identifier methodName, Interner interner) {
+            this.methodName = methodName;
+            this.interner = interner;
+            instructions = new ArrayList<>();
+            arguments = new ArrayList<>();
+        }
+
+        /**
+         * Creates a Method object from the current state.
+         * <p>
+         * This method returns a Method with its name, arguments, and instructions.
+         * </p>
+         *
+         * @return a newly created Method object
+         */
+        Method createMethod() {
+            return new Method(methodName, arguments, instructions);
+        }
+
+        /**
+         * Adds an argument to the method's argument list.
+         *
+         * @param name the argument's name
+         */
+        void addArgument(String name) {
+            Variable.Identifier id = interner != null ? interner.variable(name) : new Variable.Identifier(name);
+            arguments.add(id);
+        }
+    }
+
+    private static final String ITEM_SEPARATOR = ",";
+    private static final String METHOD_LABEL = "@";
+
+    /**
+     * Reads and translates a .sml file into a collection of Method objects.
+     * <p>
+     * This method reads the SML program from the specified file, processes the lines, and creates a collection of
+     * Method objects. Each Method consists of instructions and arguments parsed from the SML code.
+     * </p>
+     *
+     * @param fileName the name of the file to read
+     * @return a collection of Method objects
+     * @throws IOException if an error occurs while reading the file
+     */
+    public Collection<Method> readAndTranslate(String fileName) throws IOException {
+        // Use fileService or fall back to direct file access
+        try (Scanner sc = fileService != null
+                ? fileService.createFileScanner(fileName)
+                : new Scanner(new File(fileName), StandardCharsets.UTF_8)) {
+            return translate(sc);
+        }
+    }
+
+    /**
+     * Translates SML source text held in memory into a collection of Method objects.
+     * <p>
+     * Accepts the same syntax as {@link #readAndTranslate(String)}. Used to re-translate individual
+     * methods whose source has changed, without reading the whole file again.
+     * </p>
+     *
+     * @param source the SML source text
+     * @return a collection of Method objects
+     * @throws IllegalArgumentException if an instruction appears outside a method or a method is invalid
+     */
+    public Collection<Method> translateSource(String source) {
+        try (Scanner sc = new Scanner(source)) {
+            return translate(sc);
+        }
+    }
+
+    /**
+     * Translates SML source read from a stream, handing each method on as soon as it is complete.
+     * <p>
+     * A method is complete once the next method header or the end of the stream has been read, so
+     * the consumer sees the first methods while later ones are still being read and parsed. Used
+     * to start executing a program before the whole file has been translated.
+     * </p>
+     *
+     * @param source the stream supplying UTF-8 SML source, read until it ends
+     * @param sink   receives each method, in source order, on the calling thread
+     * @throws IllegalArgumentException if an instruction appears outside a method or a method is invalid
+     */
+    public void translate(InputStream source, Consumer<Method> sink) {
+        Scanner sc = new Scanner(source, StandardCharsets.UTF_8);
+        translate(sc, sink);
+    }
+
+    /**
+     * Translates every line remaining in a scanner.
+     *
+     * @param sc the scanner supplying the SML source lines
+     * @return a collection of Method objects
+     */
+    private Collection<Method> translate(Scanner sc) {
+        Collection<Method> methods = new ArrayList<>();
+        translate(sc, methods::add);
+        return methods;
+    }
+
+    /**
+     * Translates every line remaining in a scanner, handing each method to the sink once it is complete.
+     *
+     * <p>Records the translation time and the number of methods in {@link SmlMetrics}.</p>
+     *
+     * @param sc   the scanner supplying the SML source lines
+     * @param sink receives each method in source order
+     */
+    private void translate(Scanner sc, Consumer<Method> sink) {
+        long start = System.nanoTime();
+        interner = interning ? new Interner() : null;
+        try {
+            translateLines(sc, method -> {
+                SmlMetrics.METHODS_TRANSLATED.increment();
+                sink.accept(method);
+            });
+        } finally {
+            interner = null;
+            SmlMetrics.TRANSLATION_TIME.recordNanos(System.nanoTime() - start);
+        }
+    }
+
+    private void translateLines(Scanner sc, Consumer<Method> sink) {
+        State state = null;
+        while (sc.hasNextLine()) {
+            line = sc.nextLine();
+            String labelString = getLabel();
+
+            if (labelString != null && labelString.startsWith(METHOD_LABEL)) {
+                if (state != null) sink.accept(state.createMethod());
+
+                state = new State(methodIdentifier(labelString), interner);
+                processMethodArguments(state);
+            } else {
+                Label label = labelString != null ? label(labelString) : null;
+                Instruction instruction = getInstruction(label);
+
+                if (instruction != null) {
+                    if (state != null)
+                        state.instructions.add(instruction);
+                    else
+                        throw new IllegalArgumentException("Instruction cannot appear outside methods " + labelString + " " + instruction);
+                }
+            }
+        }
+        if (state != null) sink.accept(state.createMethod());
+    }
+
+    /**
+     * Processes the arguments of a method from the current line and adds them to the state.
+     *
+     * @param state the state representing the current method being parsed
+     */
+    private void processMethodArguments(State state) {
+        for (String s = scan(); !s.isEmpty(); s = scan()) {
+            String variable = s.endsWith(ITEM_SEPARATOR)
+                    ? s.substring(0, s.length() - 1).trim()
+                    : s;
+
+            state.addArgument(variable);
+
+            if (!s.endsWith(ITEM_SEPARATOR)) break;
+        }
+    }
+
+    /**
+     * Gets an Instruction based on the current label in the SML code.
+     *
+     * <p>The opcode is looked up in the translator's instruction set, whose constructors are
+     * resolved in advance, and otherwise mapped to a class name by convention.</p>
+     *
+     * @param label the label associated with the instruction
+     * @return the corresponding Instruction object or null if not found
+     */
+    private Instruction getInstruction(Label label) {
+        String opcode = scan();
+        if (opcode.isEmpty()) return null;
+
+        try {
+            Optional<Constructor<? extends Instruction>> registered = instructions.labelConstructor(opcode);
+            if (registered.isPresent()) return createInstructionInstance(registered.get(), label);
+
+            String className = getInstructionClassName(opcode);
+            Class<?> instructionClass = Class.forName(className);
+            return createInstructionInstance(findLabelConstructor(instructionClass), label);
+        } catch (ClassNotFoundException e) {
+            System.err.println("Instruction class not found for opcode: " + opcode);
+            return null;
+        } catch (ReflectiveOperationException e) {
+            System.err.println("Error creating instruction for opcode: " + opcode);
+            return null;
+        }
+    }
+
+    private String getInstructionClassName(String opcode) {
+        String normalizedOpcode = normaliseOpcode(opcode);
+        return "sml.instructions." + normalizedOpcode + "Instruction";
+    }
+
+    /**
+     * Normalises the opcode by capitalising and removing underscores.
+     *
+     * @param opcode the opcode to normalise
+     * @return the normalized opcode
+     */
+    private String normaliseOpcode(String opcode) {
+        if (!opcode.contains("_")) {
+            return capitalise(opcode);
+        }
+        return Arrays.stream(opcode.split("_"))
+                .map(this::capitalise)
+                .collect(Collectors.joining());
+    }
+
+    private String capitalise(String str) {
+        return str.substring(0, 1).toUpperCase() + str.substring(1).toLowerCase();
+    }
+
+    /**
+     * Creates an Instruction instance with its label-first constructor and the label.
+     *
+     * <p>Instantiates a new instruction with the given label and the additional
+     * arguments the constructor takes, scanned from the rest of the line.</p>
+     *
+     * @param constructor the constructor taking the label as its first parameter
+     * @param label the label associated with the instruction (can be null)
+     * @return a new Instruction object
+     * @throws ReflectiveOperationException if there are issues creating the instruction instance
+     */
+    private Instruction createInstructionInstance(Constructor<?> constructor, Label label) throws ReflectiveOperationException {
+        Object[] args = buildConstructorArgs(constructor, label);
+        if (interner == null) return (Instruction) constructor.newInstance(args);
+        return interner.instruction(constructor, args, arguments -> (Instruction) constructor.newInstance(arguments));
+    }
+
+    /**
+     * Finds the constructor of the instruction class that takes a Label as the first argument.
+     *
+     * @param instructionClass the instruction class
+     * @return the found constructor
+     */
+    private Constructor<?> findLabelConstructor(Class<?> instructionClass) {
+        return Arrays.stream(instructionClass.getDeclaredConstructors())
+                .filter(c -> c.getParameterTypes().length > 0 && c.getParameterTypes()[0] == Label.class)
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("No valid constructor found"));
+    }
+
+    private Object[] buildConstructorArgs(Constructor<?> constructor, Label label) {
+        var paramTypes = constructor.getParameterTypes();
+        Object[] args = new Object[paramTypes.length];
+        args[0] = label;
+
+        for (int i = 1; i < paramTypes.length; i++) {
+            String arg = scan();
+            args[i] = convertArgument(arg, paramTypes[i]);
+        }
+
+        return args;
+    }
+
+    private Object convertArgument(String arg, Class<?> paramType) {
+        return switch (paramType.getName()) {
+            case "sml.Label" -> label(arg);
+            case "sml.Variable$Identifier" -> interner != null ? interner.variable(arg) : new Variable.Identifier(arg);
+            case "sml.Method$Identifier" -> methodIdentifier(arg);
+            case "int" -> Integer.parseInt(arg);
+            default -> throw new IllegalArgumentException(
+                    "Unsupported parameter type: " + paramType.getName());
+        };
+    }
+
+    private Label label(String name) {
+        return interner != null ? interner.label(name) : new Label(name);
+    }
+
+    private Method.Identifier methodIdentifier(String name) {
+        return interner != null ? interner.method(name) : new Method.Identifier(name);
+    }
+
+    /**
+     * Extracts and removes a leading label from the line, if present.
+     *
+     * @return label string without trailing colon, or null if absent
+     */
+    private String getLabel() {
+        String word = scan();
+        if (word.endsWith(":")) return word.substring(0, word.length() - 1);
+
+        line = word + " " + line;
+        return null;
+    }
+
+    /**
+     * Returns the first word of line and removes it from line.
+     * If there is no word, return "".
+     *
+     * @return the next word from the current line
+     */
+    public String scan() {
+        line = line.trim();
+
+        if (line.isEmpty()) {
+            return "";
+        }
+
+        int whiteSpacePosition = 0;
+        while (whiteSpacePosition < line.length()) {
+            if (Character.isWhitespace(line.charAt(whiteSpacePosition))) break;
+            whiteSpacePosition++;
+        }
+
+        String word = line.substring(0, whiteSpacePosition);
+        line = line.substring(Math.min(whiteSpacePosition, line.length()));
+        return word;
+    }
+}
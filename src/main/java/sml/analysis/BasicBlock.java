@@ -0,0 +1,116 @@
+package sml.analysis;
+
+import sml.instructions.Instruction;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A maximal run of instructions of a method that is only entered at its first instruction.
+ *
+ * <p>A block starts at the method's first instruction, at every branch target and after every
+ * branch or {@code return}, and ends before the next such point. Control reaches the rest of a
+ * block only by falling through, so it executes all of its instructions in order unless one of
+ * them fails or transfers to another method.</p>
+ *
+ * <p>Blocks are created by {@link ControlFlowGraph#of} and are immutable once it returns.</p>
+ *
+ * @author Ricki Angel
+ * @see ControlFlowGraph
+ */
+public final class BasicBlock {
+    private final int index;
+    private final int start;
+    private final int end;
+    private final List<Instruction> instructions;
+    final List<BasicBlock> successors = new ArrayList<>(2);
+    final List<BasicBlock> predecessors = new ArrayList<>(2);
+
+    BasicBlock(int index, int start, int end, List<Instruction> instructions) {
+        this.index = index;
+        this.start = start;
+        this.end = end;
+        this.instructions = instructions;
+    }
+
+    /**
+     * Returns the position of this block in {@link ControlFlowGraph#blocks()}.
+     *
+     * @return the block index; the entry block is 0
+     */
+    public int index() {
+        return index;
+    }
+
+    /**
+     * Returns the index of the block's first instruction in its method.
+     *
+     * @return the start instruction index, inclusive
+     */
+    public int start() {
+        return start;
+    }
+
+    /**
+     * Returns the index just past the block's last instruction in its method.
+     *
+     * @return the end instruction index, exclusive
+     */
+    public int end() {
+        return end;
+    }
+
+    /**
+     * Returns the number of instructions in the block.
+     *
+     * @return the block length, at least 1
+     */
+    public int length() {
+        return end - start;
+    }
+
+    /**
+     * Returns the instructions of the block.
+     *
+     * @return the instructions, in order
+     */
+    public List<Instruction> instructions() {
+        return instructions;
+    }
+
+    /**
+     * Returns the block's last instruction, which decides where control goes next.
+     *
+     * @return the terminating instruction
+     */
+    public Instruction terminator() {
+        return instructions.getLast();
+    }
+
+    /**
+     * Returns the blocks control can pass to from this one.
+     *
+     * <p>For a conditional branch the fall-through block comes first and the branch target second.
+     * Blocks ending in {@code return}, or in the method's last instruction, have none.</p>
+     *
+     * @return the successor blocks
+     */
+    public List<BasicBlock> successors() {
+        return Collections.unmodifiableList(successors);
+    }
+
+    /**
+     * Returns the blocks that can pass control to this one.
+     *
+     * @return the predecessor blocks
+     */
+    public List<BasicBlock> predecessors() {
+        return Collections.unmodifiableList(predecessors);
+    }
+
+    @Override
+    public String toString() {
+        return "B" + index + "[" + start + ".." + end + ")";
+    }
+}
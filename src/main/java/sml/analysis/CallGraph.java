@@ -0,0 +1,256 @@
+package sml.analysis;
+
+import sml.Method;
+import sml.instructions.Instruction;
+import sml.instructions.InvokeInstruction;
+import sml.instructions.SpawnInstruction;
+
+import java.util.*;
+
+/**
+ * The static call graph of an SML program.
+ *
+ * <p>Every {@code invoke} and {@code spawn} instruction names its target directly, so the graph
+ * built from the instructions is exact: method {@code a} has an edge to {@code b} if and only if
+ * {@code a} contains an {@code invoke b} or a {@code spawn b}. The graph is built once when a program is loaded and is immutable,
+ * so other passes can share it freely. Recursion cycles are only searched for when first asked
+ * for, so loading a program pays just for the edges and the reachability walk.</p>
+ *
+ * <p>Key features:</p>
+ * <ul>
+ *   <li>Reachability from an entry method, used to drop methods a run can never call</li>
+ *   <li>Calls to methods the program does not define, reported before anything executes</li>
+ *   <li>Recursion cycles, found as the strongly connected components of the graph</li>
+ *   <li>Leaf methods, which invoke nothing</li>
+ * </ul>
+ *
+ * <p>All traversals are iterative, so graphs of generated programs with long call chains do not
+ * overflow the Java stack.</p>
+ *
+ * @author Ricki Angel
+ * @see sml.Machine#setWholeProgramAnalysis(boolean)
+ */
+public final class CallGraph {
+    /**
+     * An {@code invoke} of a method the program does not define.
+     *
+     * @param caller the method containing the call
+     * @param target the method it tries to invoke
+     */
+    public record UndefinedCall(Method.Identifier caller, Method.Identifier target) {
+        @Override
+        public String toString() {
+            return "@" + caller + " invokes undefined @" + target;
+        }
+    }
+
+    private final Map<Method.Identifier, Method> methods;
+    private final Map<Method.Identifier, Set<Method.Identifier>> callees;
+    private final Map<Method.Identifier, Set<Method.Identifier>> callers;
+    private volatile List<Set<Method.Identifier>> cycles;
+
+    private CallGraph(Map<Method.Identifier, Method> methods,
+                      Map<Method.Identifier, Set<Method.Identifier>> callees,
+                      Map<Method.Identifier, Set<Method.Identifier>> callers) {
+        this.methods = methods;
+        this.callees = callees;
+        this.callers = callers;
+    }
+
+    /**
+     * Builds the call graph of a program.
+     *
+     * @param program the methods of the program
+     * @return the call graph
+     */
+    public static CallGraph of(Collection<Method> program) {
+        Map<Method.Identifier, Method> methods = new LinkedHashMap<>();
+        Map<Method.Identifier, Set<Method.Identifier>> callees = new HashMap<>();
+        Map<Method.Identifier, Set<Method.Identifier>> callers = new HashMap<>();
+
+        for (Method method : program) {
+            methods.put(method.name(), method);
+            Set<Method.Identifier> targets = new LinkedHashSet<>();
+            for (Instruction instruction : method.instructions())
+                if (instruction instanceof InvokeInstruction invoke)
+                    targets.add(invoke.methodName());
+                else if (instruction instanceof SpawnInstruction spawn)
+                    targets.add(spawn.methodName());
+            callees.put(method.name(), Collections.unmodifiableSet(targets));
+        }
+        callees.forEach((caller, targets) -> targets.forEach(target ->
+                callers.computeIfAbsent(target, t -> new LinkedHashSet<>()).add(caller)));
+
+        return new CallGraph(Collections.unmodifiableMap(methods), callees, callers);
+    }
+
+    /**
+     * Returns the methods a method invokes directly.
+     *
+     * @param method the calling method
+     * @return the invoked methods, including undefined ones, in order of first appearance
+     */
+    public Set<Method.Identifier> callees(Method.Identifier method) {
+        return callees.getOrDefault(method, Set.of());
+    }
+
+    /**
+     * Returns the methods that invoke a method directly.
+     *
+     * @param method the invoked method
+     * @return the calling methods
+     */
+    public Set<Method.Identifier> callers(Method.Identifier method) {
+        return Collections.unmodifiableSet(callers.getOrDefault(method, Set.of()));
+    }
+
+    /**
+     * Returns every defined method reachable from an entry method, including the entry itself.
+     *
+     * @param entry the entry method, usually {@code @main}
+     * @return the reachable methods, in depth-first order from the entry; empty if the entry is undefined
+     */
+    public List<Method> reachableFrom(Method.Identifier entry) {
+        List<Method> reachable = new ArrayList<>();
+        Set<Method.Identifier> seen = new HashSet<>();
+        Deque<Method.Identifier> pending = new ArrayDeque<>();
+        pending.push(entry);
+        while (!pending.isEmpty()) {
+            Method.Identifier name = pending.pop();
+            Method method = methods.get(name);
+            if (method == null || !seen.add(name)) continue;
+            reachable.add(method);
+            callees(name).forEach(pending::push);
+        }
+        return reachable;
+    }
+
+    /**
+     * Returns the calls to undefined methods made by the methods reachable from an entry method.
+     *
+     * @param entry the entry method, usually {@code @main}
+     * @return the undefined calls, empty if every reachable call has a target
+     */
+    public List<UndefinedCall> undefinedCallsFrom(Method.Identifier entry) {
+        List<UndefinedCall> undefined = new ArrayList<>();
+        for (Method method : reachableFrom(entry))
+            for (Method.Identifier target : callees(method.name()))
+                if (!methods.containsKey(target))
+                    undefined.add(new UndefinedCall(method.name(), target));
+        return undefined;
+    }
+
+    /**
+     * Returns the groups of mutually recursive methods.
+     *
+     * <p>Each group is a strongly connected component of the graph with more than one method, or a
+     * single method that invokes itself.</p>
+     *
+     * @return the recursion cycles
+     */
+    public List<Set<Method.Identifier>> recursionCycles() {
+        List<Set<Method.Identifier>> found = cycles;
+        if (found == null) cycles = found = findCycles(); // idempotent, so a race only repeats work
+        return found;
+    }
+
+    /**
+     * Returns whether a method can invoke itself, directly or through other methods.
+     *
+     * @param method the method
+     * @return whether the method is part of a recursion cycle
+     */
+    public boolean isRecursive(Method.Identifier method) {
+        return recursionCycles().stream().anyMatch(cycle -> cycle.contains(method));
+    }
+
+    /**
+     * Returns the defined methods that invoke nothing.
+     *
+     * @return the leaf methods
+     */
+    public Set<Method.Identifier> leaves() {
+        Set<Method.Identifier> leaves = new LinkedHashSet<>();
+        methods.keySet().forEach(name -> {
+            if (callees(name).isEmpty()) leaves.add(name);
+        });
+        return leaves;
+    }
+
+    /**
+     * Returns the number of defined methods in the graph.
+     *
+     * @return the method count
+     */
+    public int size() {
+        return methods.size();
+    }
+
+    /**
+     * Returns a one-line summary of the graph.
+     *
+     * @return the summary
+     */
+    @Override
+    public String toString() {
+        return String.format("Call graph: %d methods, %d calls, %d leaves, %d recursion cycles",
+                methods.size(), callees.values().stream().mapToInt(Set::size).sum(),
+                leaves().size(), recursionCycles().size());
+    }
+
+    /**
+     * Finds strongly connected components with Tarjan's algorithm, using explicit stacks.
+     */
+    private List<Set<Method.Identifier>> findCycles() {
+        Map<Method.Identifier, Integer> index = new HashMap<>();
+        Map<Method.Identifier, Integer> lowLink = new HashMap<>();
+        Deque<Method.Identifier> component = new ArrayDeque<>();
+        Set<Method.Identifier> onStack = new HashSet<>();
+        List<Set<Method.Identifier>> found = new ArrayList<>();
+
+        for (Method.Identifier root : methods.keySet()) {
+            if (index.containsKey(root)) continue;
+
+            // Each entry is a method and an iterator over its callees still to visit
+            Deque<Map.Entry<Method.Identifier, Iterator<Method.Identifier>>> work = new ArrayDeque<>();
+            visit(root, index, lowLink, component, onStack, work);
+            while (!work.isEmpty()) {
+                Method.Identifier name = work.peek().getKey();
+                Iterator<Method.Identifier> next = work.peek().getValue();
+                if (next.hasNext()) {
+                    Method.Identifier callee = next.next();
+                    if (!methods.containsKey(callee)) continue;
+                    if (!index.containsKey(callee)) visit(callee, index, lowLink, component, onStack, work);
+                    else if (onStack.contains(callee)) lowLink.merge(name, index.get(callee), Math::min);
+                    continue;
+                }
+
+                work.pop();
+                if (!work.isEmpty()) lowLink.merge(work.peek().getKey(), lowLink.get(name), Math::min);
+                if (lowLink.get(name).equals(index.get(name))) {
+                    Set<Method.Identifier> scc = new LinkedHashSet<>();
+                    Method.Identifier member;
+                    do {
+                        member = component.pop();
+                        onStack.remove(member);
+                        scc.add(member);
+                    } while (!member.equals(name));
+                    if (scc.size() > 1 || callees(name).contains(name))
+                        found.add(Collections.unmodifiableSet(scc));
+                }
+            }
+        }
+        return List.copyOf(found);
+    }
+
+    private void visit(Method.Identifier name, Map<Method.Identifier, Integer> index,
+                       Map<Method.Identifier, Integer> lowLink, Deque<Method.Identifier> component,
+                       Set<Method.Identifier> onStack,
+                       Deque<Map.Entry<Method.Identifier, Iterator<Method.Identifier>>> work) {
+        index.put(name, index.size());
+        lowLink.put(name, index.get(name));
+        component.push(name);
+        onStack.add(name);
+        work.push(Map.entry(name, callees(name).iterator()));
+    }
+}
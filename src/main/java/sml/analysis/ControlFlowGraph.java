@@ -0,0 +1,518 @@
+package sml.analysis;
+
+import sml.Label;
+import sml.Method;
+import sml.Variable;
+import sml.instructions.*;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * The control flow graph of an SML method, with the classic analyses over it.
+ *
+ * <p>The method's flat instruction list is split into {@link BasicBlock}s at branch targets and
+ * after every branch and {@code return}; edges follow the fall-through and the branch labels. On
+ * top of the graph this class computes:</p>
+ * <ul>
+ *   <li>Dominators, with the iterative algorithm of Cooper, Harvey and Kennedy over reverse
+ *       postorder</li>
+ *   <li>Natural loops, one per header, from the back edges the dominators identify</li>
+ *   <li>Live variables at the entry and exit of every block, by backward data flow: {@code load}
+ *       uses a variable and {@code store} defines it</li>
+ *   <li>Operand stack heights at the entry and exit of every block, by forward propagation of each
+ *       instruction's stack effect</li>
+ * </ul>
+ *
+ * <p>The blocks are built by {@link #of}; each analysis is computed on first use and then cached,
+ * so a pass that only needs blocks pays only for those. A branch to an undefined label gets no
+ * edge, since the interpreter only reports it when the branch is taken.</p>
+ *
+ * @author Ricki Angel
+ * @see Method#controlFlowGraph()
+ */
+public final class ControlFlowGraph {
+    private static final int UNKNOWN = Integer.MIN_VALUE;
+    private static final int UNREACHED = -1;
+
+    private final Method method;
+    private final List<BasicBlock> blocks;
+    private final int[] blockOf;
+    private final Function<Method.Identifier, Optional<Method>> resolver;
+
+    private volatile int[] immediateDominators;
+    private volatile List<NaturalLoop> loops;
+    private volatile BitSet[] liveness; // live-in of each block, then live-out of each block
+    private volatile int[] stackHeights; // entry height of each block, then exit height of each block
+
+    private ControlFlowGraph(Method method, List<BasicBlock> blocks, int[] blockOf,
+                             Function<Method.Identifier, Optional<Method>> resolver) {
+        this.method = method;
+        this.blocks = blocks;
+        this.blockOf = blockOf;
+        this.resolver = resolver;
+    }
+
+    /**
+     * Builds the control flow graph of a method on its own.
+     *
+     * <p>Without the rest of the program the stack effect of an {@code invoke} is unknown, so stack
+     * heights are unknown after one.</p>
+     *
+     * @param method the method
+     * @return the control flow graph
+     */
+    public static ControlFlowGraph of(Method method) {
+        return of(method, name -> Optional.empty());
+    }
+
+    /**
+     * Builds the control flow graph of a method, resolving the methods it invokes.
+     *
+     * @param method   the method
+     * @param resolver looks up invoked methods, used for the stack effect of {@code invoke}
+     * @return the control flow graph
+     */
+    public static ControlFlowGraph of(Method method, Function<Method.Identifier, Optional<Method>> resolver) {
+        List<Instruction> instructions = method.instructions();
+        int size = instructions.size();
+
+        boolean[] leader = new boolean[size];
+        leader[0] = true;
+        for (int pc = 0; pc < size; pc++) {
+            Instruction instruction = instructions.get(pc);
+            if (!endsBlock(instruction)) continue;
+            if (pc + 1 < size) leader[pc + 1] = true;
+            branchTarget(method, instruction).ifPresent(target -> leader[target] = true);
+        }
+
+        List<BasicBlock> blocks = new ArrayList<>();
+        int[] blockOf = new int[size];
+        for (int start = 0; start < size; ) {
+            int end = start + 1;
+            while (end < size && !leader[end]) end++;
+            Arrays.fill(blockOf, start, end, blocks.size());
+            blocks.add(new BasicBlock(blocks.size(), start, end, instructions.subList(start, end)));
+            start = end;
+        }
+
+        for (BasicBlock block : blocks) {
+            Instruction last = block.terminator();
+            boolean fallsThrough = !(last instanceof GotoInstruction || last instanceof ReturnInstruction);
+            if (fallsThrough && block.end() < size) link(block, blocks.get(blockOf[block.end()]));
+            branchTarget(method, last).ifPresent(target -> link(block, blocks.get(blockOf[target])));
+        }
+        return new ControlFlowGraph(method, List.copyOf(blocks), blockOf, resolver);
+    }
+
+    private static void link(BasicBlock from, BasicBlock to) {
+        if (from.successors.contains(to)) return; // a conditional branch to the next instruction
+        from.successors.add(to);
+        to.predecessors.add(from);
+    }
+
+    private static boolean endsBlock(Instruction instruction) {
+        return instruction instanceof GotoInstruction || instruction instanceof IfCmpgtInstruction
+                || instruction instanceof IfCmpeqInstruction || instruction instanceof ReturnInstruction
+                || (instruction instanceof NotEqInstruction notEq && notEq.jumpLabel() != null);
+    }
+
+    private static Optional<Integer> branchTarget(Method method, Instruction instruction) {
+        Label label = switch (instruction) {
+            case GotoInstruction g -> g.branchLabel();
+            case IfCmpgtInstruction i -> i.jumpLabel();
+            case IfCmpeqInstruction i -> i.jumpLabel();
+            case NotEqInstruction n -> n.jumpLabel();
+            default -> null;
+        };
+        return label == null ? Optional.empty() : method.labels().get(label);
+    }
+
+    /**
+     * Returns the method the graph was built from.
+     *
+     * @return the method
+     */
+    public Method method() {
+        return method;
+    }
+
+    /**
+     * Returns the blocks of the method.
+     *
+     * @return the blocks, in instruction order; the first is the entry block
+     */
+    public List<BasicBlock> blocks() {
+        return blocks;
+    }
+
+    /**
+     * Returns the block control enters the method at.
+     *
+     * @return the entry block
+     */
+    public BasicBlock entry() {
+        return blocks.getFirst();
+    }
+
+    /**
+     * Returns the block containing an instruction.
+     *
+     * @param programCounter the instruction index
+     * @return the block
+     * @throws ArrayIndexOutOfBoundsException if the index is outside the method
+     */
+    public BasicBlock blockAt(int programCounter) {
+        return blocks.get(blockOf[programCounter]);
+    }
+
+    /**
+     * Returns the immediate dominator of a block.
+     *
+     * @param block the block
+     * @return the closest block that every path from the entry to this one passes through; empty
+     *         for the entry block and blocks that cannot be reached
+     */
+    public Optional<BasicBlock> immediateDominator(BasicBlock block) {
+        int idom = dominators()[block.index()];
+        return idom == UNREACHED || idom == block.index() ? Optional.empty() : Optional.of(blocks.get(idom));
+    }
+
+    /**
+     * Reports whether every path from the entry to one block passes through another.
+     *
+     * <p>Every reachable block dominates itself; unreachable blocks dominate and are dominated by
+     * nothing.</p>
+     *
+     * @param dominator the candidate dominator
+     * @param block     the dominated block
+     * @return true if {@code dominator} dominates {@code block}
+     */
+    public boolean dominates(BasicBlock dominator, BasicBlock block) {
+        int[] idom = dominators();
+        if (idom[dominator.index()] == UNREACHED) return false;
+        int current = block.index();
+        if (idom[current] == UNREACHED) return false;
+        while (current != dominator.index()) {
+            if (current == 0) return false;
+            current = idom[current];
+        }
+        return true;
+    }
+
+    /**
+     * Returns the natural loops of the method.
+     *
+     * @return the loops, ordered by header
+     */
+    public List<NaturalLoop> loops() {
+        List<NaturalLoop> found = loops;
+        if (found == null) loops = found = findLoops(); // idempotent, so a race only repeats work
+        return found;
+    }
+
+    /**
+     * Returns the variables whose current value may be read before being overwritten, on entry to
+     * a block.
+     *
+     * @param block the block
+     * @return the live variables, in slot order
+     */
+    public Set<Variable.Identifier> liveIn(BasicBlock block) {
+        return variables(liveness()[block.index()]);
+    }
+
+    /**
+     * Returns the variables whose current value may be read before being overwritten, on exit from
+     * a block.
+     *
+     * @param block the block
+     * @return the live variables, in slot order
+     */
+    public Set<Variable.Identifier> liveOut(BasicBlock block) {
+        return variables(liveness()[blocks.size() + block.index()]);
+    }
+
+    /**
+     * Returns the operand stack height on entry to a block.
+     *
+     * @param block the block
+     * @return the height, or empty if it cannot be determined: the block is unreachable, paths reach
+     *         it with different heights, or a preceding instruction has an unknown stack effect
+     */
+    public OptionalInt stackHeightAtEntry(BasicBlock block) {
+        return height(stackHeights()[block.index()]);
+    }
+
+    /**
+     * Returns the operand stack height after the last instruction of a block.
+     *
+     * @param block the block
+     * @return the height, or empty if it cannot be determined
+     */
+    public OptionalInt stackHeightAtExit(BasicBlock block) {
+        return height(stackHeights()[blocks.size() + block.index()]);
+    }
+
+    /**
+     * Returns a listing of the blocks with their edges, dominators and analyses.
+     *
+     * @return the listing
+     */
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder("@").append(method.name()).append(": ")
+                .append(blocks.size()).append(" blocks, ").append(loops().size()).append(" loops\n");
+        for (BasicBlock block : blocks) {
+            text.append("  ").append(block)
+                    .append(" -> ").append(block.successors())
+                    .append(" idom ").append(immediateDominator(block).map(BasicBlock::toString).orElse("-"))
+                    .append(" stack ").append(describe(stackHeightAtEntry(block)))
+                    .append("..").append(describe(stackHeightAtExit(block)))
+                    .append(" live-in ").append(liveIn(block))
+                    .append('\n');
+        }
+        return text.toString();
+    }
+
+    private static String describe(OptionalInt height) {
+        return height.isPresent() ? String.valueOf(height.getAsInt()) : "?";
+    }
+
+    private static OptionalInt height(int height) {
+        return height < 0 ? OptionalInt.empty() : OptionalInt.of(height);
+    }
+
+    private int[] dominators() {
+        int[] idom = immediateDominators;
+        if (idom == null) immediateDominators = idom = findDominators();
+        return idom;
+    }
+
+    /**
+     * Computes immediate dominators, indexed by block; the entry is its own dominator.
+     */
+    private int[] findDominators() {
+        int[] order = reversePostorder();
+        int[] position = new int[blocks.size()];
+        Arrays.fill(position, UNREACHED);
+        for (int i = 0; i < order.length; i++)
+            position[order[i]] = i;
+
+        int[] idom = new int[blocks.size()];
+        Arrays.fill(idom, UNREACHED);
+        idom[0] = 0;
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int i = 1; i < order.length; i++) {
+                int block = order[i];
+                int dominator = UNREACHED;
+                for (BasicBlock predecessor : blocks.get(block).predecessors) {
+                    int p = predecessor.index();
+                    if (idom[p] == UNREACHED) continue;
+                    dominator = dominator == UNREACHED ? p : intersect(idom, position, p, dominator);
+                }
+                if (idom[block] != dominator) {
+                    idom[block] = dominator;
+                    changed = true;
+                }
+            }
+        }
+        return idom;
+    }
+
+    private static int intersect(int[] idom, int[] position, int a, int b) {
+        while (a != b) {
+            while (position[a] > position[b]) a = idom[a];
+            while (position[b] > position[a]) b = idom[b];
+        }
+        return a;
+    }
+
+    /**
+     * Orders the reachable blocks so each comes before its successors, back edges aside.
+     */
+    private int[] reversePostorder() {
+        int[] postorder = new int[blocks.size()];
+        int count = 0;
+        boolean[] seen = new boolean[blocks.size()];
+        Deque<int[]> work = new ArrayDeque<>(); // {block, next successor to visit}
+        work.push(new int[]{0, 0});
+        seen[0] = true;
+        while (!work.isEmpty()) {
+            int[] top = work.peek();
+            List<BasicBlock> successors = blocks.get(top[0]).successors;
+            if (top[1] < successors.size()) {
+                int next = successors.get(top[1]++).index();
+                if (!seen[next]) {
+                    seen[next] = true;
+                    work.push(new int[]{next, 0});
+                }
+            } else {
+                postorder[count++] = work.pop()[0];
+            }
+        }
+        int[] order = new int[count];
+        for (int i = 0; i < count; i++)
+            order[i] = postorder[count - 1 - i];
+        return order;
+    }
+
+    private List<NaturalLoop> findLoops() {
+        int[] idom = dominators();
+        List<NaturalLoop> found = new ArrayList<>();
+        for (BasicBlock header : blocks) {
+            List<BasicBlock> sources = new ArrayList<>();
+            for (BasicBlock predecessor : header.predecessors)
+                if (dominates(header, predecessor)) sources.add(predecessor);
+            if (sources.isEmpty()) continue;
+
+            Set<BasicBlock> body = new LinkedHashSet<>();
+            body.add(header);
+            Deque<BasicBlock> pending = new ArrayDeque<>(sources);
+            while (!pending.isEmpty()) {
+                BasicBlock block = pending.pop();
+                if (body.add(block))
+                    for (BasicBlock predecessor : block.predecessors)
+                        if (idom[predecessor.index()] != UNREACHED) pending.push(predecessor);
+            }
+            found.add(new NaturalLoop(header, Collections.unmodifiableSet(body), List.copyOf(sources)));
+        }
+        return List.copyOf(found);
+    }
+
+    private BitSet[] liveness() {
+        BitSet[] live = liveness;
+        if (live == null) liveness = live = findLiveness();
+        return live;
+    }
+
+    private BitSet[] findLiveness() {
+        Map<Variable.Identifier, Integer> slots = new HashMap<>();
+        List<Variable.Identifier> variableSlots = method.variableSlots();
+        for (int i = 0; i < variableSlots.size(); i++)
+            slots.put(variableSlots.get(i), i);
+
+        // Per block: variables used before any definition, and variables defined
+        int n = blocks.size();
+        BitSet[] uses = new BitSet[n];
+        BitSet[] defs = new BitSet[n];
+        for (BasicBlock block : blocks) {
+            BitSet use = new BitSet();
+            BitSet def = new BitSet();
+            for (Instruction instruction : block.instructions()) {
+                if (instruction instanceof StoreInstruction store) {
+                    def.set(slots.get(store.variable()));
+                } else {
+                    instruction.variables().forEach(v -> {
+                        int slot = slots.get(v);
+                        if (!def.get(slot)) use.set(slot);
+                    });
+                }
+            }
+            uses[block.index()] = use;
+            defs[block.index()] = def;
+        }
+
+        BitSet[] live = new BitSet[2 * n];
+        for (int i = 0; i < 2 * n; i++)
+            live[i] = new BitSet();
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int b = n - 1; b >= 0; b--) {
+                BitSet out = new BitSet();
+                for (BasicBlock successor : blocks.get(b).successors)
+                    out.or(live[successor.index()]);
+                BitSet in = (BitSet) out.clone();
+                in.andNot(defs[b]);
+                in.or(uses[b]);
+                if (!in.equals(live[b]) || !out.equals(live[n + b])) {
+                    live[b] = in;
+                    live[n + b] = out;
+                    changed = true;
+                }
+            }
+        }
+        return live;
+    }
+
+    private Set<Variable.Identifier> variables(BitSet bits) {
+        List<Variable.Identifier> variableSlots = method.variableSlots();
+        Set<Variable.Identifier> variables = new LinkedHashSet<>();
+        bits.stream().forEach(slot -> variables.add(variableSlots.get(slot)));
+        return Collections.unmodifiableSet(variables);
+    }
+
+    private int[] stackHeights() {
+        int[] heights = stackHeights;
+        if (heights == null) stackHeights = heights = findStackHeights();
+        return heights;
+    }
+
+    private int[] findStackHeights() {
+        int n = blocks.size();
+        int[] heights = new int[2 * n];
+        Arrays.fill(heights, UNREACHED);
+        boolean[] conflicting = new boolean[n];
+        Deque<BasicBlock> work = new ArrayDeque<>();
+        heights[0] = 0;
+        work.push(blocks.getFirst());
+
+        while (!work.isEmpty()) {
+            BasicBlock block = work.pop();
+            int height = conflicting[block.index()] ? UNKNOWN : heights[block.index()];
+            for (Instruction instruction : block.instructions()) {
+                if (height == UNKNOWN) break;
+                int[] effect = stackEffect(instruction);
+                height = effect == null || height < effect[0] ? UNKNOWN : height - effect[0] + effect[1];
+            }
+            heights[n + block.index()] = height;
+
+            for (BasicBlock successor : block.successors) {
+                int s = successor.index();
+                if (heights[s] == UNREACHED) {
+                    heights[s] = height;
+                    work.push(successor);
+                } else if (heights[s] != height && !conflicting[s]) {
+                    conflicting[s] = true;
+                    work.push(successor);
+                }
+            }
+        }
+        for (int b = 0; b < n; b++)
+            if (conflicting[b]) heights[b] = UNKNOWN;
+        return heights;
+    }
+
+    /**
+     * Returns the values an instruction pops and pushes, or null if that is unknown.
+     */
+    private int[] stackEffect(Instruction instruction) {
+        return switch (instruction.opcode()) {
+            case "push", "load", "read" -> new int[]{0, 1};
+            case "store", "print", "return", "afree", "close" -> new int[]{1, 0};
+            case "add", "sub", "mul", "div", "mod", "aload" -> new int[]{2, 1};
+            case "not_eq" -> new int[]{2, endsBlock(instruction) ? 0 : 1};
+            case "if_cmpgt", "if_cmpeq" -> new int[]{2, 0};
+            case "goto" -> new int[]{0, 0};
+            case "sqrt", "num_char", "newarray", "alen", "join", "chan_new", "recv" -> new int[]{1, 1};
+            case "send" -> new int[]{2, 0};
+            case "try_send" -> new int[]{2, 1};
+            case "try_recv" -> new int[]{1, 2};
+            case "astore" -> new int[]{3, 0};
+            case "asum", "readinto" -> new int[]{3, 1};
+            case "afill", "aaddscalar", "amulscalar" -> new int[]{4, 0};
+            case "adot" -> new int[]{5, 1};
+            case "acopy" -> new int[]{5, 0};
+            case "invoke" -> instruction instanceof InvokeInstruction invoke
+                    ? resolver.apply(invoke.methodName()).map(callee -> new int[]{callee.arguments().size(), 1}).orElse(null)
+                    : null;
+            case "spawn" -> instruction instanceof SpawnInstruction spawn
+                    ? resolver.apply(spawn.methodName()).map(callee -> new int[]{callee.arguments().size(), 1}).orElse(null)
+                    : null;
+            default -> null;
+        };
+    }
+}
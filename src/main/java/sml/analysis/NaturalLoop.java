@@ -0,0 +1,34 @@
+package sml.analysis;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A natural loop of a method's control flow graph.
+ *
+ * <p>The loop is formed by one or more back edges - edges whose target dominates their source -
+ * into the same header. Its body is the header plus every block that can reach a back edge source
+ * without passing through the header.</p>
+ *
+ * @param header          the loop header, the only block of the loop entered from outside it
+ * @param body            the blocks of the loop, including the header
+ * @param backEdgeSources the blocks that branch back to the header
+ * @author Ricki Angel
+ * @see ControlFlowGraph#loops()
+ */
+public record NaturalLoop(BasicBlock header, Set<BasicBlock> body, List<BasicBlock> backEdgeSources) {
+    /**
+     * Reports whether a block belongs to the loop.
+     *
+     * @param block the block
+     * @return true if the block is in the loop body
+     */
+    public boolean contains(BasicBlock block) {
+        return body.contains(block);
+    }
+
+    @Override
+    public String toString() {
+        return "loop at " + header + " " + body;
+    }
+}
@@ -0,0 +1,39 @@
+package sml.analysis;
+
+import sml.MethodNotFoundException;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Exception thrown when a program is loaded whose reachable methods invoke undefined methods.
+ *
+ * <p>Raised by load-time analysis before the program starts, instead of a
+ * {@link MethodNotFoundException} part-way through a run; it lists every undefined call at once.</p>
+ *
+ * @author Ricki Angel
+ * @see CallGraph#undefinedCallsFrom(sml.Method.Identifier)
+ */
+public class UndefinedMethodException extends MethodNotFoundException {
+    private final List<CallGraph.UndefinedCall> calls;
+
+    /**
+     * Constructs a new {@code UndefinedMethodException} for the given calls.
+     *
+     * @param calls the calls to undefined methods, which must not be empty
+     */
+    public UndefinedMethodException(List<CallGraph.UndefinedCall> calls) {
+        super("Undefined methods: " + calls.stream().map(CallGraph.UndefinedCall::toString)
+                .collect(Collectors.joining(", ")));
+        this.calls = List.copyOf(calls);
+    }
+
+    /**
+     * Returns the calls to undefined methods.
+     *
+     * @return the undefined calls
+     */
+    public List<CallGraph.UndefinedCall> calls() {
+        return calls;
+    }
+}
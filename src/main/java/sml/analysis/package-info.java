@@ -0,0 +1,15 @@
+/**
+ * Static analyses of SML programs and methods.
+ *
+ * <p>{@link sml.analysis.CallGraph} records which methods invoke which, and is used by the
+ * {@link sml.Machine} to drop methods unreachable from {@code @main} and to report calls to
+ * undefined methods before execution starts.</p>
+ *
+ * <p>{@link sml.analysis.ControlFlowGraph} splits a single method into
+ * {@link sml.analysis.BasicBlock}s and computes dominators, {@link sml.analysis.NaturalLoop}s,
+ * live variables and operand stack heights over them. Its blocks are the unit of
+ * {@link sml.ExecutionMode#BASIC_BLOCK} dispatch.</p>
+ *
+ * @author Ricki Angel
+ */
+package sml.analysis;
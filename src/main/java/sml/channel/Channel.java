@@ -0,0 +1,219 @@
+package sml.channel;
+
+import java.lang.invoke.VarHandle;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A bounded channel of {@code int} messages between concurrently running machines.
+ *
+ * <p>Messages are held in a lock-free ring buffer, either single-producer single-consumer
+ * ({@link #spsc(int)}) or multi-producer multi-consumer ({@link #mpmc(int)}). Sending and
+ * receiving never take a lock. The blocking operations park the waiting thread - which unmounts a
+ * virtual thread from its carrier - rather than spinning, and a successful send or receive wakes
+ * one thread waiting on the other side.</p>
+ *
+ * <p>Key features:</p>
+ * <ul>
+ *   <li>Non-blocking {@link #trySend(int)} and {@link #tryReceive()}</li>
+ *   <li>Blocking {@link #send(int)} and {@link #receive()}</li>
+ *   <li>{@link #close()}, after which receivers drain the remaining messages and then see
+ *       {@link #CLOSED}, and senders fail</li>
+ * </ul>
+ *
+ * <p>Receive operations return a {@code long} so that every {@code int} can be told apart from
+ * {@link #EMPTY} and {@link #CLOSED} without allocating.</p>
+ *
+ * @author Ricki Angel
+ */
+public abstract sealed class Channel permits SpscChannel, MpmcChannel {
+    /** Largest capacity a channel can have. */
+    public static final int MAX_CAPACITY = 1 << 24;
+
+    /** Returned by {@link #tryReceive()} when no message is waiting. */
+    public static final long EMPTY = Long.MIN_VALUE;
+
+    /** Returned by the receive operations once the channel is closed and drained. */
+    public static final long CLOSED = Long.MIN_VALUE + 1;
+
+    protected final int capacity;
+    protected final int mask;
+    private volatile boolean closed;
+    private final Queue<Thread> waitingSenders = new ConcurrentLinkedQueue<>();
+    private final Queue<Thread> waitingReceivers = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Creates a channel.
+     *
+     * @param capacity the requested capacity, rounded up to a power of two of at least 2
+     * @throws IllegalArgumentException if the capacity is not positive or exceeds {@link #MAX_CAPACITY}
+     */
+    protected Channel(int capacity) {
+        if (capacity <= 0 || capacity > MAX_CAPACITY)
+            throw new IllegalArgumentException("Channel capacity must be between 1 and " + MAX_CAPACITY + ": " + capacity);
+        this.capacity = Math.max(2, Integer.highestOneBit(capacity - 1) << 1);
+        this.mask = this.capacity - 1;
+    }
+
+    /**
+     * Creates a channel for exactly one sending and one receiving thread at a time.
+     *
+     * @param capacity the requested capacity
+     * @return the channel
+     * @throws IllegalArgumentException if the capacity is not positive or exceeds {@link #MAX_CAPACITY}
+     */
+    public static Channel spsc(int capacity) {
+        return new SpscChannel(capacity);
+    }
+
+    /**
+     * Creates a channel that any number of threads may send to and receive from.
+     *
+     * @param capacity the requested capacity
+     * @return the channel
+     * @throws IllegalArgumentException if the capacity is not positive or exceeds {@link #MAX_CAPACITY}
+     */
+    public static Channel mpmc(int capacity) {
+        return new MpmcChannel(capacity);
+    }
+
+    /**
+     * Adds a message to the ring buffer if there is room.
+     *
+     * @param value the message
+     * @return true if it was added
+     */
+    protected abstract boolean offer(int value);
+
+    /**
+     * Takes the oldest message from the ring buffer.
+     *
+     * @return the message, or {@link #EMPTY}
+     */
+    protected abstract long poll();
+
+    /**
+     * Returns the number of messages waiting, which may be out of date as soon as it is read.
+     *
+     * @return the approximate number of buffered messages
+     */
+    public abstract int size();
+
+    /**
+     * Returns the number of messages the channel can hold.
+     *
+     * @return the capacity, a power of two
+     */
+    public final int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Sends a message if there is room, without waiting.
+     *
+     * @param value the message
+     * @return true if it was sent, false if the channel is full
+     * @throws IllegalStateException if the channel is closed
+     */
+    public final boolean trySend(int value) {
+        if (closed) throw new IllegalStateException("Channel is closed");
+        if (!offer(value)) return false;
+        wakeOne(waitingReceivers);
+        return true;
+    }
+
+    /**
+     * Receives a message if one is waiting, without waiting.
+     *
+     * @return the message, {@link #EMPTY} if there is none yet, or {@link #CLOSED} if the channel is
+     *         closed and drained
+     */
+    public final long tryReceive() {
+        long value = poll();
+        if (value == EMPTY && closed) {
+            value = poll(); // a message sent just before closing
+            if (value == EMPTY) return CLOSED;
+        }
+        if (value != EMPTY) wakeOne(waitingSenders);
+        return value;
+    }
+
+    /**
+     * Sends a message, parking while the channel is full.
+     *
+     * @param value the message
+     * @throws IllegalStateException if the channel is or becomes closed
+     */
+    public final void send(int value) {
+        while (!trySend(value))
+            await(waitingSenders);
+    }
+
+    /**
+     * Receives a message, parking while the channel is empty.
+     *
+     * @return the message, or {@link #CLOSED} once the channel is closed and drained
+     */
+    public final long receive() {
+        long value;
+        while ((value = tryReceive()) == EMPTY)
+            await(waitingReceivers);
+        return value;
+    }
+
+    /**
+     * Closes the channel and wakes every waiting thread. Closing a closed channel does nothing.
+     */
+    public final void close() {
+        closed = true;
+        waitingSenders.forEach(LockSupport::unpark);
+        waitingReceivers.forEach(LockSupport::unpark);
+    }
+
+    /**
+     * Reports whether the channel has been closed.
+     *
+     * @return true if closed
+     */
+    public final boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Parks the current thread until woken, unless the condition it waits for already holds.
+     *
+     * <p>The thread registers before checking, and {@link #wakeOne(Queue)} fences before looking
+     * for waiters, so a message or space that appears between the failed attempt and parking
+     * always either is seen here or wakes the thread.</p>
+     *
+     * @param waiters the queue of threads waiting on the same side
+     */
+    private void await(Queue<Thread> waiters) {
+        Thread current = Thread.currentThread();
+        waiters.add(current);
+        try {
+            boolean ready = closed || (waiters == waitingSenders ? size() < capacity : size() > 0);
+            if (!ready) LockSupport.park(this);
+        } finally {
+            waiters.remove(current);
+        }
+    }
+
+    /**
+     * Wakes one waiting thread, if there is one.
+     *
+     * @param waiters the queue of threads waiting on the other side
+     */
+    private static void wakeOne(Queue<Thread> waiters) {
+        VarHandle.fullFence();
+        if (waiters.isEmpty()) return;
+        Thread waiter = waiters.poll();
+        if (waiter != null) LockSupport.unpark(waiter);
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "[" + size() + "/" + capacity + (closed ? ", closed]" : "]");
+    }
+}
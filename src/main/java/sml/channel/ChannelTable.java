@@ -0,0 +1,63 @@
+package sml.channel;
+
+import java.util.Arrays;
+
+/**
+ * The channels that a group of machines share, referred to by integer handles.
+ *
+ * <p>Programs hold channel handles on the operand stack, as they do array handles. Every machine
+ * that should talk over the same channels is given the same table, and a machine's spawned calls
+ * share its table. Looking a handle up reads one volatile array reference; only opening a channel
+ * takes a lock, so the table adds no contention to sending and receiving.</p>
+ *
+ * @author Ricki Angel
+ */
+public final class ChannelTable {
+    private volatile Channel[] channels = new Channel[8];
+    private int count;
+
+    /**
+     * Adds a channel to the table.
+     *
+     * @param channel the channel
+     * @return its handle
+     */
+    public synchronized int open(Channel channel) {
+        Channel[] current = channels;
+        if (count == current.length) current = Arrays.copyOf(current, count * 2);
+        current[count] = channel;
+        channels = current; // republish, so readers that see the handle see the channel
+        return count++;
+    }
+
+    /**
+     * Looks a channel up by handle.
+     *
+     * @param handle the handle returned by {@link #open(Channel)}
+     * @return the channel
+     * @throws IllegalStateException if there is no channel with that handle
+     */
+    public Channel get(int handle) {
+        Channel[] current = channels;
+        Channel channel = handle >= 0 && handle < current.length ? current[handle] : null;
+        if (channel == null) throw new IllegalStateException("No channel with handle " + handle);
+        return channel;
+    }
+
+    /**
+     * Returns the number of channels opened.
+     *
+     * @return the channel count
+     */
+    public synchronized int size() {
+        return count;
+    }
+
+    /**
+     * Closes every channel in the table, waking all threads waiting on them.
+     */
+    public void closeAll() {
+        for (Channel channel : channels)
+            if (channel != null) channel.close();
+    }
+}
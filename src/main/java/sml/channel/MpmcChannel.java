@@ -0,0 +1,90 @@
+package sml.channel;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * A channel that any number of threads may send to and receive from.
+ *
+ * <p>A bounded ring buffer in which every slot carries a sequence number. Senders and receivers
+ * claim a position with a compare-and-set on the tail or head index, then use the slot's sequence
+ * number to tell whether it is ready for them and to hand it over to the other side, so no thread
+ * ever waits for another to finish a half-done operation.</p>
+ *
+ * @author Ricki Angel
+ * @see Channel#mpmc(int)
+ */
+final class MpmcChannel extends Channel {
+    private static final VarHandle HEAD;
+    private static final VarHandle TAIL;
+    private static final VarHandle SEQUENCES = MethodHandles.arrayElementVarHandle(long[].class);
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            HEAD = lookup.findVarHandle(MpmcChannel.class, "head", long.class);
+            TAIL = lookup.findVarHandle(MpmcChannel.class, "tail", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final int[] buffer;
+    private final long[] sequences;
+    @SuppressWarnings("unused") // accessed through HEAD
+    private volatile long head;
+    @SuppressWarnings("unused") // accessed through TAIL
+    private volatile long tail;
+
+    MpmcChannel(int capacity) {
+        super(capacity);
+        this.buffer = new int[this.capacity];
+        this.sequences = new long[this.capacity];
+        for (int i = 0; i < this.capacity; i++)
+            sequences[i] = i;
+    }
+
+    @Override
+    protected boolean offer(int value) {
+        long position = (long) TAIL.getVolatile(this);
+        while (true) {
+            int slot = (int) position & mask;
+            long difference = (long) SEQUENCES.getAcquire(sequences, slot) - position;
+            if (difference == 0) {
+                if (TAIL.compareAndSet(this, position, position + 1)) {
+                    buffer[slot] = value;
+                    SEQUENCES.setRelease(sequences, slot, position + 1);
+                    return true;
+                }
+            } else if (difference < 0) {
+                return false;
+            }
+            position = (long) TAIL.getVolatile(this);
+        }
+    }
+
+    @Override
+    protected long poll() {
+        long position = (long) HEAD.getVolatile(this);
+        while (true) {
+            int slot = (int) position & mask;
+            long difference = (long) SEQUENCES.getAcquire(sequences, slot) - (position + 1);
+            if (difference == 0) {
+                if (HEAD.compareAndSet(this, position, position + 1)) {
+                    int value = buffer[slot];
+                    SEQUENCES.setRelease(sequences, slot, position + capacity);
+                    return value;
+                }
+            } else if (difference < 0) {
+                return EMPTY;
+            }
+            position = (long) HEAD.getVolatile(this);
+        }
+    }
+
+    @Override
+    public int size() {
+        long head = (long) HEAD.getVolatile(this);
+        return (int) Math.max(0, Math.min(capacity, (long) TAIL.getVolatile(this) - head));
+    }
+}
@@ -0,0 +1,194 @@
+package sml.channel;
+
+import sml.ExecutionStatus;
+import sml.Machine;
+import sml.Method;
+import sml.Translator;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Runs the {@code @stage} methods of a program as a pipeline of concurrent machines.
+ *
+ * <p>Every method whose name starts with {@code stage} is a stage, in source order. Each stage
+ * runs on its own {@link Machine} in its own virtual thread, and consecutive stages are connected
+ * by a single-producer single-consumer {@link Channel}. A stage receives the handles of the
+ * channels it touches as arguments: the first stage takes its output channel, the last its input
+ * channel, and every stage in between takes its input and then its output channel.</p>
+ *
+ * <pre>
+ * &#64;stage_numbers: out         &#64;stage_square: in, out       &#64;stage_print: in
+ *    load out                       ...                              ...
+ *    push 7                         load in                          load in
+ *    send                           recv                             recv
+ *    ...                            ...                              ...
+ * </pre>
+ *
+ * <p>When a stage finishes, its output channel is closed, so the next stage sees end of input once
+ * it has received everything. Stages should receive until end of input: a stage that stops early
+ * leaves the one before it waiting for room. If a stage fails, every channel is closed so the other
+ * stages stop too, and {@link #run()} rethrows the failure.</p>
+ *
+ * <p>The channels are single-producer single-consumer, so a stage must not send to or receive from
+ * them in calls it spawns.</p>
+ *
+ * @author Ricki Angel
+ */
+public final class Pipeline {
+    /** Prefix of the names of stage methods. */
+    public static final String STAGE_PREFIX = "stage";
+
+    /** Default capacity of the channels between stages. */
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    private final Collection<Method> program;
+    private final List<Method> stages;
+    private final int capacity;
+
+    private Pipeline(Collection<Method> program, List<Method> stages, int capacity) {
+        this.program = program;
+        this.stages = stages;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Creates a pipeline of the stages of a program, connected by channels of the default capacity.
+     *
+     * @param program the program's methods, in source order
+     * @return the pipeline
+     * @throws IllegalArgumentException if the program has no stages or a stage takes the wrong
+     *                                  number of arguments
+     */
+    public static Pipeline of(Collection<Method> program) {
+        return of(program, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a pipeline of the stages of a program.
+     *
+     * @param program  the program's methods, in source order
+     * @param capacity the capacity of the channels between stages
+     * @return the pipeline
+     * @throws IllegalArgumentException if the program has no stages, a stage takes the wrong number
+     *                                  of arguments or the capacity is invalid
+     */
+    public static Pipeline of(Collection<Method> program, int capacity) {
+        List<Method> stages = program.stream()
+                .filter(method -> method.name().toString().startsWith(STAGE_PREFIX))
+                .toList();
+        if (stages.isEmpty())
+            throw new IllegalArgumentException("No @" + STAGE_PREFIX + " methods in the program");
+        for (int i = 0; i < stages.size(); i++) {
+            int expected = (i > 0 ? 1 : 0) + (i < stages.size() - 1 ? 1 : 0);
+            Method stage = stages.get(i);
+            if (stage.arguments().size() != expected)
+                throw new IllegalArgumentException("Stage @" + stage.name() + " must take " + expected
+                        + " channel argument" + (expected == 1 ? "" : "s") + ", not " + stage.arguments().size());
+        }
+        Channel.spsc(capacity); // validates the capacity
+        return new Pipeline(List.copyOf(program), stages, capacity);
+    }
+
+    /**
+     * Returns the stage methods, in the order data flows through them.
+     *
+     * @return the stages
+     */
+    public List<Method> stages() {
+        return stages;
+    }
+
+    /**
+     * Runs every stage to completion.
+     *
+     * @return the machine each stage ran on, in stage order, for inspecting instruction counts
+     * @throws InterruptedException if interrupted while waiting for the stages
+     * @throws RuntimeException     the first failure of any stage, with later ones suppressed
+     */
+    public List<Machine> run() throws InterruptedException {
+        ChannelTable channels = new ChannelTable();
+        int[] handles = new int[stages.size() - 1];
+        for (int i = 0; i < handles.length; i++)
+            handles[i] = channels.open(Channel.spsc(capacity));
+
+        Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        List<Machine> machines = new ArrayList<>(stages.size());
+        List<Thread> threads = new ArrayList<>(stages.size());
+        for (int i = 0; i < stages.size(); i++) {
+            Method stage = stages.get(i);
+            int[] arguments = new int[stage.arguments().size()];
+            if (i > 0) arguments[0] = handles[i - 1];
+            if (i < handles.length) arguments[arguments.length - 1] = handles[i];
+            Channel output = i < handles.length ? channels.get(handles[i]) : null;
+
+            Machine machine = new Machine();
+            machine.setChannels(channels);
+            machine.setProgram(program, stage.name(), arguments);
+            machines.add(machine);
+            threads.add(Thread.ofVirtual().name("sml-" + stage.name()).unstarted(() -> {
+                try {
+                    while (machine.run(Long.MAX_VALUE) == ExecutionStatus.SUSPENDED) {
+                        // run to completion
+                    }
+                } catch (RuntimeException | Error e) {
+                    failures.add(e);
+                    channels.closeAll();
+                } finally {
+                    if (output != null) output.close();
+                    machine.close();
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads)
+            thread.join();
+
+        Throwable first = failures.poll();
+        if (first == null) return machines;
+        failures.forEach(first::addSuppressed);
+        if (first instanceof Error error) throw error;
+        throw (RuntimeException) first;
+    }
+
+    /**
+     * Runs the pipeline of an SML file.
+     *
+     * <p>Options, which must precede the file:</p>
+     * <ul>
+     *   <li>{@code --capacity <n>} - the capacity of the channels between stages</li>
+     * </ul>
+     *
+     * @param args Command-line arguments (options, then the SML file)
+     */
+    public static void main(String... args) {
+        int capacity = DEFAULT_CAPACITY;
+        int i = 0;
+        try {
+            for (; i < args.length && args[i].startsWith("--"); i++) {
+                if (!args[i].equals("--capacity")) throw new IllegalArgumentException("Unknown option " + args[i]);
+                capacity = Integer.parseInt(args[++i]);
+            }
+        } catch (ArrayIndexOutOfBoundsException | IllegalArgumentException e) {
+            System.err.println("Error: " + (e instanceof ArrayIndexOutOfBoundsException
+                    ? "Missing value for " + args[i - 1] : e.getMessage()));
+            i = args.length;
+        }
+        if (args.length - i != 1) {
+            System.err.println("Usage: java sml.channel.Pipeline [--capacity n] program.sml");
+            return;
+        }
+
+        try {
+            of(new Translator().readAndTranslate(args[i]), capacity).run();
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Error: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package sml.channel;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * A channel for one sending and one receiving thread at a time.
+ *
+ * <p>The producer owns the tail index and the consumer the head index. Each publishes its index
+ * with a release store and keeps a cached copy of the other's, so the shared indices are only
+ * read when the cached one says the buffer looks full or empty.</p>
+ *
+ * @author Ricki Angel
+ * @see Channel#spsc(int)
+ */
+final class SpscChannel extends Channel {
+    private static final VarHandle HEAD;
+    private static final VarHandle TAIL;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            HEAD = lookup.findVarHandle(SpscChannel.class, "head", long.class);
+            TAIL = lookup.findVarHandle(SpscChannel.class, "tail", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final int[] buffer;
+    @SuppressWarnings("unused") // accessed through HEAD
+    private long head;
+    @SuppressWarnings("unused") // accessed through TAIL
+    private long tail;
+    private long producerHead;
+    private long consumerTail;
+
+    SpscChannel(int capacity) {
+        super(capacity);
+        this.buffer = new int[this.capacity];
+    }
+
+    @Override
+    protected boolean offer(int value) {
+        long position = (long) TAIL.getOpaque(this);
+        if (position - producerHead >= capacity) {
+            producerHead = (long) HEAD.getAcquire(this);
+            if (position - producerHead >= capacity) return false;
+        }
+        buffer[(int) position & mask] = value;
+        TAIL.setRelease(this, position + 1);
+        return true;
+    }
+
+    @Override
+    protected long poll() {
+        long position = (long) HEAD.getOpaque(this);
+        if (position >= consumerTail) {
+            consumerTail = (long) TAIL.getAcquire(this);
+            if (position >= consumerTail) return EMPTY;
+        }
+        int value = buffer[(int) position & mask];
+        HEAD.setRelease(this, position + 1);
+        return value;
+    }
+
+    @Override
+    public int size() {
+        long head = (long) HEAD.getAcquire(this);
+        return (int) Math.max(0, Math.min(capacity, (long) TAIL.getAcquire(this) - head));
+    }
+}
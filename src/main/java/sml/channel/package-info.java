@@ -0,0 +1,25 @@
+/**
+ * Channels between concurrently running machines.
+ * <p>
+ * This package contains:
+ * <ul>
+ *   <li>{@link sml.channel.Channel} - A bounded, lock-free ring buffer of {@code int} messages, with
+ *       blocking and non-blocking send and receive and end-of-stream on close</li>
+ *   <li>{@link sml.channel.SpscChannel} - A channel for one sender and one receiver</li>
+ *   <li>{@link sml.channel.MpmcChannel} - A channel for any number of senders and receivers</li>
+ *   <li>{@link sml.channel.ChannelTable} - The channels a group of machines share, addressed by
+ *       integer handles</li>
+ *   <li>{@link sml.channel.Pipeline} - Runs the {@code @stage} methods of a program as concurrent
+ *       machines connected by channels</li>
+ * </ul>
+ * </p>
+ * <p>
+ * SML programs reach channels through the {@code chan_new}, {@code send}, {@code recv},
+ * {@code close}, {@code try_send} and {@code try_recv} instructions, which use the
+ * {@link sml.Machine}'s channel table.
+ * </p>
+ *
+ * @author Ricki Angel
+ * @see sml.Machine#setChannels(ChannelTable)
+ */
+package sml.channel;
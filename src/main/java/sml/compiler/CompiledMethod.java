@@ -0,0 +1,214 @@
+package sml.compiler;
+
+import sml.Frame;
+import sml.Machine;
+import sml.Method;
+import sml.Variable;
+
+import java.util.List;
+
+/**
+ * The compiled form of an SML method, entered mid-method by on-stack replacement.
+ *
+ * <p>Instructions are pre-decoded into parallel {@code int} arrays of opcodes and operands, and
+ * executed in one loop against local copies of the frame's operand stack and variable values. The
+ * interpreter already steps without allocating; compared with it this removes the virtual
+ * {@link sml.instructions.Instruction#step step} call per instruction, the frame's bounds and
+ * empty-stack checks on every push and pop, the {@link Variable} objects behind each slot, and
+ * the per-instruction update of the frame's program counter.</p>
+ *
+ * <p>Key features:</p>
+ * <ul>
+ *   <li>Identical observable behaviour: {@code load} still echoes each value and instruction
+ *       counts are exact, so limits and quanta behave as in the interpreter</li>
+ *   <li>Anything the compiled code cannot do exactly - unsupported instructions, stack underflow,
+ *       division by zero, {@code mul} overflow, a full stack - exits to the interpreter <em>before</em> executing that
+ *       instruction, which then runs it, or raises the usual error</li>
+ *   <li>Back edges check the instruction budget and pause requests, so compiled loops stay
+ *       preemptible</li>
+ * </ul>
+ *
+ * <p>Instances are immutable and may be shared by machines on different threads.</p>
+ *
+ * @author Ricki Angel
+ * @see OsrCompiler
+ */
+public final class CompiledMethod {
+    static final int EXIT = 0;
+    static final int PUSH = 1;
+    static final int LOAD = 2;
+    static final int STORE = 3;
+    static final int ADD = 4;
+    static final int SUB = 5;
+    static final int MUL = 6;
+    static final int DIV = 7;
+    static final int MOD = 8;
+    static final int NOT_EQ = 9;
+    static final int PRINT = 10;
+    static final int GOTO = 11;
+    static final int IF_CMPGT = 12;
+    static final int IF_CMPEQ = 13;
+    static final int IF_CMPNE = 14;
+
+    private static final int STACK_HEADROOM = 64;
+
+    private final Method method;
+    private final int[] ops;
+    private final int[] operands;
+    private final int[] exitsBefore;
+
+    CompiledMethod(Method method, int[] ops, int[] operands) {
+        this.method = method;
+        this.ops = ops;
+        this.operands = operands;
+        this.exitsBefore = new int[ops.length + 1];
+        for (int pc = 0; pc < ops.length; pc++)
+            exitsBefore[pc + 1] = exitsBefore[pc] + (ops[pc] == EXIT ? 1 : 0);
+    }
+
+    /**
+     * Returns the method this code was compiled from.
+     *
+     * @return the source method
+     */
+    public Method method() {
+        return method;
+    }
+
+    /**
+     * Reports whether a loop can run entirely in compiled code, so entering it is worthwhile.
+     *
+     * @param header   the loop header, i.e. the target of the backward branch
+     * @param sourcePc the instruction index of the backward branch
+     * @return true if every instruction from the header to the branch is compiled
+     */
+    public boolean canEnterLoop(int header, int sourcePc) {
+        return header <= sourcePc && exitsBefore[sourcePc + 1] - exitsBefore[header] == 0;
+    }
+
+    /**
+     * Continues a frame in compiled code from its current program counter.
+     *
+     * <p>The frame's variables and operand stack are copied into primitive arrays, the code runs
+     * until it reaches an instruction it must hand back or the budget is used up at a back edge, and
+     * the state is then written back so the interpreter resumes exactly where compiled code
+     * stopped.</p>
+     *
+     * @param frame   the frame to continue, positioned at a compiled instruction
+     * @param budget  the maximum number of instructions to execute
+     * @param machine the machine, polled for pause requests at back edges
+     * @return the number of instructions executed
+     */
+    public long run(Frame frame, long budget, Machine machine) {
+        List<Variable.Identifier> slots = method.variableSlots();
+        Variable[] variables = new Variable[slots.size()];
+        int[] locals = new int[slots.size()];
+        for (int i = 0; i < variables.length; i++) {
+            variables[i] = frame.variable(slots.get(i));
+            locals[i] = variables[i].load();
+        }
+
+        int sp = frame.stackSize();
+        int[] stack = new int[sp + STACK_HEADROOM];
+        for (int i = sp - 1; i >= 0; i--)
+            stack[i] = frame.pop();
+
+        int[] ops = this.ops;
+        int[] operands = this.operands;
+        int pc = frame.programCounter();
+        long executed = 0;
+
+        run:
+        while (true) {
+            int source = pc;
+            switch (ops[pc]) {
+                case PUSH -> {
+                    if (sp == stack.length) break run;
+                    stack[sp++] = operands[pc];
+                    pc++;
+                }
+                case LOAD -> {
+                    if (sp == stack.length) break run;
+                    int value = locals[operands[pc]];
+                    stack[sp++] = value;
+                    System.out.println(value);
+                    pc++;
+                }
+                case STORE -> {
+                    if (sp < 1) break run;
+                    locals[operands[pc]] = stack[--sp];
+                    pc++;
+                }
+                case ADD -> {
+                    if (sp < 2) break run;
+                    sp--;
+                    stack[sp - 1] += stack[sp];
+                    pc++;
+                }
+                case SUB -> {
+                    if (sp < 2) break run;
+                    sp--;
+                    stack[sp - 1] -= stack[sp];
+                    pc++;
+                }
+                case MUL -> {
+                    if (sp < 2) break run;
+                    long product = (long) stack[sp - 2] * stack[sp - 1];
+                    if ((int) product != product) break run;
+                    stack[--sp - 1] = (int) product;
+                    pc++;
+                }
+                case DIV -> {
+                    if (sp < 2 || stack[sp - 1] == 0) break run;
+                    sp--;
+                    stack[sp - 1] /= stack[sp];
+                    pc++;
+                }
+                case MOD -> {
+                    if (sp < 2 || stack[sp - 1] == 0) break run;
+                    sp--;
+                    stack[sp - 1] %= stack[sp];
+                    pc++;
+                }
+                case NOT_EQ -> {
+                    if (sp < 2) break run;
+                    sp--;
+                    stack[sp - 1] = stack[sp - 1] != stack[sp] ? 1 : 0;
+                    pc++;
+                }
+                case PRINT -> {
+                    if (sp < 1) break run;
+                    System.out.println(stack[--sp]);
+                    pc++;
+                }
+                case GOTO -> pc = operands[pc];
+                case IF_CMPGT, IF_CMPEQ, IF_CMPNE -> {
+                    if (sp < 2) break run;
+                    int value2 = stack[--sp];
+                    int value1 = stack[--sp];
+                    boolean taken = switch (ops[pc]) {
+                        case IF_CMPGT -> value1 > value2;
+                        case IF_CMPEQ -> value1 == value2;
+                        default -> value1 != value2;
+                    };
+                    pc = taken ? operands[pc] : pc + 1;
+                }
+                default -> {
+                    break run;
+                }
+            }
+
+            executed++;
+            // Backward branches are the interpreter's safepoints, so the budget and pauses are polled there too.
+            if (pc <= source && (executed >= budget || machine.isPauseRequested()))
+                break;
+        }
+
+        for (int i = 0; i < variables.length; i++)
+            variables[i].store(locals[i]);
+        for (int i = 0; i < sp; i++)
+            frame.push(stack[i]);
+        frame.resumeAt(pc);
+        return executed;
+    }
+}
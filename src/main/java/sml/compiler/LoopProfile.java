@@ -0,0 +1,63 @@
+package sml.compiler;
+
+/**
+ * Per-method loop profiling state for on-stack replacement.
+ *
+ * <p>Counts how often each instruction has been the target of a backward branch, and caches the
+ * method's compiled form once one of those loop headers turns hot. A profile belongs to the shared,
+ * immutable {@link sml.Method}, so machines running the same program on different threads share
+ * it: counter updates may race and lose increments, which only delays compilation slightly, while
+ * the compiled code is published through a volatile field.</p>
+ *
+ * @author Ricki Angel
+ * @see OsrCompiler
+ */
+public final class LoopProfile {
+    private final int[] backEdges;
+    private volatile CompiledMethod compiled;
+
+    /**
+     * Creates an empty profile.
+     *
+     * @param instructionCount the number of instructions in the method
+     */
+    public LoopProfile(int instructionCount) {
+        this.backEdges = new int[instructionCount];
+    }
+
+    /**
+     * Records a backward branch to a loop header.
+     *
+     * @param header    the target instruction index of the branch
+     * @param threshold the count at which the loop is considered hot
+     * @return true once the header has been reached by at least {@code threshold} back edges
+     */
+    public boolean recordBackEdge(int header, int threshold) {
+        int count = backEdges[header];
+        if (count < threshold) backEdges[header] = ++count;
+        return count >= threshold;
+    }
+
+    /**
+     * Returns the number of backward branches recorded for a loop header, capped at the threshold.
+     *
+     * @param header the instruction index
+     * @return the recorded count
+     */
+    public int backEdgeCount(int header) {
+        return backEdges[header];
+    }
+
+    /**
+     * Returns the compiled form of the method, if it has been compiled.
+     *
+     * @return the compiled method, or null
+     */
+    public CompiledMethod compiled() {
+        return compiled;
+    }
+
+    void setCompiled(CompiledMethod compiled) {
+        this.compiled = compiled;
+    }
+}
@@ -0,0 +1,152 @@
+package sml.compiler;
+
+import sml.Frame;
+import sml.Label;
+import sml.Method;
+import sml.Variable;
+import sml.instructions.*;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Compiles hot SML methods for on-stack replacement (OSR).
+ *
+ * <p>A method such as a {@code @main} that runs one long {@code goto} loop is only invoked once, so
+ * it would never benefit from compiling whole methods at call time. Instead the interpreter reports
+ * every backward branch through {@link #onBackEdge(Frame, int, int)}; once a loop header has been
+ * reached often enough, the method is translated into a {@link CompiledMethod} and execution
+ * transfers into it at that header, mid-method, carrying the frame's variables and operand stack
+ * across.</p>
+ *
+ * <p>Key responsibilities:</p>
+ * <ul>
+ *   <li>Decoding the built-in stack and branch instructions into a compact opcode/operand form with
+ *       variables resolved to slots and labels resolved to instruction indices</li>
+ *   <li>Marking every other instruction as an exit back to the interpreter, so unknown or
+ *       unsupported instructions (calls, returns, arrays, input, custom extensions) always keep
+ *       their interpreted behaviour</li>
+ *   <li>Only entering loops whose body can run entirely in compiled code</li>
+ * </ul>
+ *
+ * @author Ricki Angel
+ * @see sml.ExecutionMode#OSR
+ */
+public final class OsrCompiler {
+    /** Default number of back edges to a loop header before its method is compiled. */
+    public static final int DEFAULT_THRESHOLD = 1_000;
+
+    private OsrCompiler() {
+    }
+
+    /**
+     * Records a backward branch and returns compiled code to continue in, if the loop is hot.
+     *
+     * @param frame     the frame that just branched backwards, positioned at the loop header
+     * @param sourcePc  the instruction index of the branch
+     * @param threshold the number of back edges after which the loop is hot
+     * @return compiled code that can be entered at the frame's current position, or empty
+     */
+    public static Optional<CompiledMethod> onBackEdge(Frame frame, int sourcePc, int threshold) {
+        Method method = frame.method();
+        LoopProfile profile = method.loopProfile();
+        int header = frame.programCounter();
+
+        CompiledMethod code = profile.compiled();
+        if (code == null) {
+            if (!profile.recordBackEdge(header, threshold)) return Optional.empty();
+            code = compile(method);
+            profile.setCompiled(code);
+        }
+        return code.canEnterLoop(header, sourcePc) ? Optional.of(code) : Optional.empty();
+    }
+
+    /**
+     * Compiles a method ahead of its loops turning hot, so the first back edge already enters
+     * compiled code. Does nothing if the method has been compiled.
+     *
+     * <p>Used to apply an {@link sml.profile.ExecutionProfile} that recorded hot loops in the
+     * method on an earlier run.</p>
+     *
+     * @param method the method to compile
+     */
+    public static void precompile(Method method) {
+        LoopProfile profile = method.loopProfile();
+        if (profile.compiled() == null) profile.setCompiled(compile(method));
+    }
+
+    /**
+     * Translates a method into its compiled form.
+     *
+     * <p>The last instruction is left to the interpreter unless it is a {@code goto}, so compiled
+     * code never has to deal with execution running off the end of the method.</p>
+     *
+     * @param method the method to compile
+     * @return the compiled method
+     */
+    public static CompiledMethod compile(Method method) {
+        List<Instruction> instructions = method.instructions();
+        List<Variable.Identifier> slots = method.variableSlots();
+        int size = instructions.size();
+        int[] ops = new int[size];
+        int[] operands = new int[size];
+
+        for (int pc = 0; pc < size; pc++) {
+            Instruction instruction = instructions.get(pc);
+            Class<?> type = instruction.getClass();
+            int op = CompiledMethod.EXIT;
+            int operand = 0;
+
+            if (type == PushInstruction.class) {
+                op = CompiledMethod.PUSH;
+                operand = ((PushInstruction) instruction).value();
+            } else if (type == LoadInstruction.class || type == StoreInstruction.class) {
+                op = type == LoadInstruction.class ? CompiledMethod.LOAD : CompiledMethod.STORE;
+                operand = slots.indexOf(((AbstractVarInstruction) instruction).variable());
+            } else if (type == AddInstruction.class) {
+                op = CompiledMethod.ADD;
+            } else if (type == SubInstruction.class) {
+                op = CompiledMethod.SUB;
+            } else if (type == MulInstruction.class) {
+                op = CompiledMethod.MUL;
+            } else if (type == DivInstruction.class) {
+                op = CompiledMethod.DIV;
+            } else if (type == ModInstruction.class) {
+                op = CompiledMethod.MOD;
+            } else if (type == PrintInstruction.class) {
+                op = CompiledMethod.PRINT;
+            } else if (type == GotoInstruction.class) {
+                operand = target(method, ((GotoInstruction) instruction).branchLabel());
+                op = operand < 0 ? CompiledMethod.EXIT : CompiledMethod.GOTO;
+            } else if (type == IfCmpgtInstruction.class) {
+                operand = target(method, ((IfCmpgtInstruction) instruction).jumpLabel());
+                op = operand < 0 ? CompiledMethod.EXIT : CompiledMethod.IF_CMPGT;
+            } else if (type == IfCmpeqInstruction.class) {
+                operand = target(method, ((IfCmpeqInstruction) instruction).jumpLabel());
+                op = operand < 0 ? CompiledMethod.EXIT : CompiledMethod.IF_CMPEQ;
+            } else if (type == NotEqInstruction.class) {
+                Label jumpLabel = ((NotEqInstruction) instruction).jumpLabel();
+                if (jumpLabel == null) {
+                    op = CompiledMethod.NOT_EQ;
+                } else {
+                    operand = target(method, jumpLabel);
+                    op = operand < 0 ? CompiledMethod.EXIT : CompiledMethod.IF_CMPNE;
+                }
+            }
+
+            ops[pc] = op;
+            operands[pc] = operand;
+        }
+        if (size > 0 && ops[size - 1] != CompiledMethod.GOTO)
+            ops[size - 1] = CompiledMethod.EXIT;
+        return new CompiledMethod(method, ops, operands);
+    }
+
+    /**
+     * Resolves a branch target, or returns -1 so the branch is left to the interpreter, which
+     * reports the missing label.
+     */
+    private static int target(Method method, Label label) {
+        return method.labels().get(label).orElse(-1);
+    }
+}
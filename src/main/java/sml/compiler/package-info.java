@@ -0,0 +1,11 @@
+/**
+ * Compilation of hot SML code.
+ *
+ * <p>The interpreter in {@link sml.Machine} reports backward branches to
+ * {@link sml.compiler.OsrCompiler}, which profiles loop headers per {@link sml.Method} and, once a
+ * loop is hot, compiles the method into a {@link sml.compiler.CompiledMethod} that the running frame
+ * transfers into mid-loop (on-stack replacement).</p>
+ *
+ * @author Ricki Angel
+ */
+package sml.compiler;
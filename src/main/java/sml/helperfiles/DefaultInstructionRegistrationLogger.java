@@ -0,0 +1,147 @@
+package sml.helperfiles;
+
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Default implementation of the {@link InstructionRegistrationLogger} for tracking
+ * instruction class registration processes in the Simple Machine Language (SML) system.
+ * <p>
+ * This component provides a comprehensive logging mechanism for tracking
+ * instruction class registration attempts, successes, and failures during
+ * dynamic class discovery and registration.
+ * </p>
+ *
+ * <h2>Key Features</h2>
+ * <ul>
+ *     <li>Tracks successful instruction registrations</li>
+ *     <li>Captures details of failed registration attempts</li>
+ *     <li>Generates a detailed registration summary</li>
+ *     <li>Supports both console and logging framework output</li>
+ * </ul>
+ *
+ * <p>
+ * Each logger maintains its own records:
+ * <ol>
+ *     <li>The successfully registered instructions, one per opcode</li>
+ *     <li>A list of failed registration attempts</li>
+ * </ol>
+ * Both are concurrent collections, so a logger may be shared by callers on several threads.
+ * </p>
+ *
+ * <p>
+ * Registration information can be printed to the console using
+ * {@link #printRegistrationSummary()} method, which provides a
+ * comprehensive overview of the registration process.
+ * </p>
+ *
+ * @author Ricki Angel
+ * @version 1.0
+ * @see InstructionRegistrationLogger
+ * @since 1.0
+ */
+@Component
+public class DefaultInstructionRegistrationLogger implements InstructionRegistrationLogger {
+    /**
+     * Successfully registered instruction classes, keyed and ordered by opcode.
+     * Each entry includes the instruction name and its opcode.
+     */
+    private final Map<String, String> successfullyRegistered = new ConcurrentSkipListMap<>();
+
+    /**
+     * List to track failed instruction registration attempts.
+     * Each entry includes the instruction name and reason for failure.
+     */
+    private final List<String> failedRegistration = new CopyOnWriteArrayList<>();
+
+    /**
+     * System logger for recording registration events and errors.
+     */
+    private static final Logger LOGGER = Logger.getLogger(DefaultInstructionRegistrationLogger.class.getName());
+
+    /**
+     * Logs an attempt to register an instruction class.
+     * <p>
+     * Currently, this method is a no-op (commented out logging),
+     * but can be extended to provide more detailed registration tracking.
+     * </p>
+     *
+     * @param clazz The instruction class being registered
+     */
+    @Override
+    public void logRegistrationAttempt(Class<?> clazz) {
+//        LOGGER.log(Level.INFO, "Attempting to register class: " + clazz.getSimpleName());
+    }
+
+    /**
+     * Tracks a successful instruction registration.
+     * <p>
+     * Records the instruction name against its opcode. An opcode tracked again is recorded once,
+     * with the latest instruction name.
+     * </p>
+     *
+     * @param instructionName Name of the successfully registered instruction
+     * @param opcode          Opcode associated with the instruction
+     */
+    @Override
+    public void trackSuccessfulRegistration(String instructionName, String opcode) {
+        successfullyRegistered.put(opcode, instructionName + " (opcode: " + opcode + ")");
+//        LOGGER.log(Level.FINEST, "Successfully registered instruction: " + instructionName + " for opcode: " + opcode);
+    }
+
+    /**
+     * Tracks a failed instruction registration attempt.
+     * <p>
+     * Logs the failure reason and adds the instruction to the failed
+     * registration list. Outputs an error message to the console and
+     * logs a warning through the logging framework.
+     * </p>
+     *
+     * @param instructionName Name of the instruction that failed to register
+     * @param reason          Explanation for the registration failure
+     */
+    @Override
+    public void trackFailedRegistration(String instructionName, String reason) {
+        failedRegistration.add(instructionName + " - " + reason);
+
+        System.err.println("Instruction class not in /instructions folder: " + instructionName);
+
+        LOGGER.log(Level.WARNING, "Failed to register instruction: " + instructionName + " - " + reason);
+    }
+
+    /**
+     * Prints a comprehensive summary of the instruction registration process.
+     * <p>
+     * Outputs to the console:
+     * <ul>
+     *     <li>Details of successfully registered instructions, in opcode order</li>
+     *     <li>List of failed registration attempts (if any)</li>
+     *     <li>Total count of successful and failed registrations</li>
+     * </ul>
+     * </p>
+     */
+    @Override
+    public void printRegistrationSummary() {
+        System.out.println("\n=== Instruction Registration Summary ===");
+
+        for (String registered : successfullyRegistered.values()) {
+            System.out.println("  → Attempting: " + registered.split(" \\(")[0]);
+            System.out.println("  ✓ Registered: " + registered + "\n");
+        }
+
+        if (!failedRegistration.isEmpty()) {
+            System.out.println("\nFailed Registration Attempts:");
+            failedRegistration.forEach(instruction -> System.out.println("  ✗ " + instruction));
+        }
+
+        System.out.println("\nTotal Registered: " + successfullyRegistered.size());
+        System.out.println("Total Failed: " + failedRegistration.size());
+        System.out.println("=======================================\n");
+    }
+}
@@ -0,0 +1,30 @@
+/**
+ * Provides utility components and interfaces for supporting the SML system.
+ * <p>
+ * This package contains helper classes that provide cross-cutting functionality:
+ * <ul>
+ *   <li>{@link sml.helperfiles.InstructionRegistrationLogger} - Interface for logging instruction registration</li>
+ *   <li>{@link sml.helperfiles.DefaultInstructionRegistrationLogger} - Default implementation that tracks 
+ *       successful and failed instruction registrations</li>
+ * </ul>
+ * </p>
+ * <p>
+ * These helper components provide detailed monitoring and debugging capabilities 
+ * for the instruction discovery and registration process. The logger tracks:
+ * <ul>
+ *   <li>Successful instruction registrations with opcode mappings</li>
+ *   <li>Failed registration attempts with detailed error reasons</li>
+ *   <li>Summary statistics for registration processes</li>
+ * </ul>
+ * </p>
+ * <p>
+ * The components are designed for integration with Spring's dependency injection
+ * system and provide both console output and logging framework integration.
+ * </p>
+ *
+ * @author Ricki Angel
+ * @see sml.discovery.InstructionDiscoveryStrategy
+ * @see sml.InstructionRegistrationManager
+ *  
+ */
+package sml.helperfiles;
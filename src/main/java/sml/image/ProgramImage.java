@@ -0,0 +1,714 @@
+package sml.image;
+
+import sml.Label;
+import sml.Method;
+import sml.MethodNotFoundException;
+import sml.Variable;
+import sml.instructions.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.OptionalInt;
+
+/**
+ * A whole SML program packed into flat primitive arrays, with the interpreter that runs it.
+ *
+ * <p>A translated program is a graph of objects: every instruction carries an object header, a
+ * label reference and an opcode string, and every {@link Method} wraps a list of them. For programs
+ * of millions of instructions that costs far more memory than the code itself, and dispatch chases
+ * a pointer per instruction. A program image instead stores every method's code side by side in
+ * shared arrays - one opcode byte and one operand {@code int} per instruction - with per-method
+ * offset tables, and {@link #execute()} runs it with one {@code switch} per instruction.</p>
+ *
+ * <p>Key features:</p>
+ * <ul>
+ *   <li>{@link #read(Path)} and {@link #parse(String)} build an image straight from source, so no
+ *       {@link Instruction} is ever created; {@link #of(Collection)} packs translated methods</li>
+ *   <li>Operands are resolved while packing: variables to slots, labels and calls to absolute
+ *       positions and method indices</li>
+ *   <li>Instructions and methods are materialised only on demand, by {@link #instruction(int, int)}
+ *       and {@link #method(int)}, for display and debugging</li>
+ *   <li>Output, instruction counts and errors are identical to the stack interpreter, including the
+ *       echo of every {@code load}</li>
+ * </ul>
+ *
+ * <p>Like {@link sml.ir.RegisterProgram}, an image runs to completion on the calling thread; it
+ * does not apply {@link sml.ExecutionLimits}, and cannot be suspended or snapshotted. Only the core
+ * instruction set can be imaged: programs using arrays, input, channels, {@code spawn} or extension
+ * instructions are rejected and should be run on a {@link sml.Machine}.</p>
+ *
+ * @author Ricki Angel
+ */
+public final class ProgramImage {
+    // Opcode ids, indexing OPCODES:
+    static final byte PUSH = 0, LOAD = 1, STORE = 2, ADD = 3, SUB = 4, MUL = 5, DIV = 6, MOD = 7, SQRT = 8,
+            NOT_EQ = 9, PRINT = 10, GOTO = 11, IF_CMPGT = 12, IF_CMPEQ = 13, IF_NE = 14, INVOKE = 15, RETURN = 16;
+    static final String[] OPCODES = {"push", "load", "store", "add", "sub", "mul", "div", "mod", "sqrt",
+            "not_eq", "print", "goto", "if_cmpgt", "if_cmpeq", "not_eq", "invoke", "return"};
+
+    private static final String MAIN = "main";
+
+    private final byte[] opcodes;
+    private final int[] operands;
+    private final int[] methodStarts;
+    private final int[] argumentCounts;
+    private final int[] slotCounts;
+    private final int[] slotNameStarts;
+    private final int[] slotNames;
+    private final int[] methodNames;
+    private final int[] labelPcs;
+    private final int[] labelNames;
+    private final String[] symbols;
+    private final int entry;
+
+    private ProgramImage(Builder builder) {
+        opcodes = Arrays.copyOf(builder.opcodes, builder.size);
+        operands = Arrays.copyOf(builder.operands, builder.size);
+        methodStarts = builder.methodStarts.toArray();
+        argumentCounts = builder.argumentCounts.toArray();
+        slotCounts = builder.slotCounts.toArray();
+        slotNameStarts = builder.slotNameStarts.toArray();
+        slotNames = builder.slotNames.toArray();
+        methodNames = builder.methodNames.toArray();
+        labelPcs = builder.labelPcs.toArray();
+        labelNames = builder.labelNames.toArray();
+        symbols = builder.symbols.toArray(String[]::new);
+        entry = builder.methodIndex.getOrDefault(MAIN, -1);
+    }
+
+    /**
+     * Packs translated methods into an image.
+     *
+     * @param program the methods of the program
+     * @return the image
+     * @throws IllegalArgumentException if a method uses an instruction outside the core set, jumps to
+     *                                  an undefined label, or two methods share a name
+     */
+    public static ProgramImage of(Collection<Method> program) {
+        Builder builder = new Builder();
+        for (Method method : program) {
+            builder.beginMethod(method.name().toString(),
+                    method.arguments().stream().map(Variable.Identifier::name).toList());
+            for (Instruction instruction : method.instructions()) {
+                String label = instruction.optionalLabel().map(Label::label).orElse(null);
+                switch (instruction) {
+                    case PushInstruction push -> builder.add(label, PUSH, push.value());
+                    case LoadInstruction load -> builder.addVariable(label, LOAD, load.variable().name());
+                    case StoreInstruction store -> builder.addVariable(label, STORE, store.variable().name());
+                    case AddInstruction ignored -> builder.add(label, ADD, 0);
+                    case SubInstruction ignored -> builder.add(label, SUB, 0);
+                    case MulInstruction ignored -> builder.add(label, MUL, 0);
+                    case DivInstruction ignored -> builder.add(label, DIV, 0);
+                    case ModInstruction ignored -> builder.add(label, MOD, 0);
+                    case SqrtInstruction ignored -> builder.add(label, SQRT, 0);
+                    case NotEqInstruction notEq when notEq.jumpLabel() == null -> builder.add(label, NOT_EQ, 0);
+                    case NotEqInstruction notEq -> builder.addJump(label, IF_NE, notEq.jumpLabel().label());
+                    case PrintInstruction ignored -> builder.add(label, PRINT, 0);
+                    case GotoInstruction jump -> builder.addJump(label, GOTO, jump.branchLabel().label());
+                    case IfCmpgtInstruction jump -> builder.addJump(label, IF_CMPGT, jump.jumpLabel().label());
+                    case IfCmpeqInstruction jump -> builder.addJump(label, IF_CMPEQ, jump.jumpLabel().label());
+                    case InvokeInstruction invoke -> builder.addInvoke(label, invoke.methodName().name());
+                    case ReturnInstruction ignored -> builder.add(label, RETURN, 0);
+                    default -> throw new IllegalArgumentException("Cannot image " + instruction.opcode()
+                            + " in @" + method.name() + ": only the core instruction set is supported");
+                }
+            }
+            builder.endMethod();
+        }
+        return builder.build();
+    }
+
+    /**
+     * Builds an image from SML source text.
+     *
+     * @param source the SML source
+     * @return the image
+     * @throws IllegalArgumentException if the source is malformed or uses an instruction outside the
+     *                                  core set
+     */
+    public static ProgramImage parse(String source) {
+        try {
+            return parse(new BufferedReader(new StringReader(source)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // cannot happen reading a string
+        }
+    }
+
+    /**
+     * Builds an image from an SML file, reading it line by line.
+     *
+     * @param file the SML file
+     * @return the image
+     * @throws IOException              if the file cannot be read
+     * @throws IllegalArgumentException if the source is malformed or uses an instruction outside the
+     *                                  core set
+     */
+    public static ProgramImage read(Path file) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return parse(reader);
+        }
+    }
+
+    private static ProgramImage parse(BufferedReader reader) throws IOException {
+        Builder builder = new Builder();
+        boolean inMethod = false;
+        int lineNumber = 0;
+        for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+            lineNumber++;
+            Words words = new Words(line);
+            String label = words.next();
+            if (label.endsWith(":")) {
+                label = label.substring(0, label.length() - 1);
+            } else {
+                words.back();
+                label = null;
+            }
+
+            if (label != null && label.startsWith("@")) {
+                if (inMethod) builder.endMethod();
+                List<String> arguments = new ArrayList<>();
+                for (String word = words.next(); !word.isEmpty(); word = words.next()) {
+                    if (!word.endsWith(",")) {
+                        arguments.add(word);
+                        break;
+                    }
+                    arguments.add(word.substring(0, word.length() - 1).trim());
+                }
+                builder.beginMethod(label.substring(1), arguments);
+                inMethod = true;
+                continue;
+            }
+
+            String opcode = words.next();
+            if (opcode.isEmpty()) continue;
+            if (!inMethod)
+                throw new IllegalArgumentException("Instruction cannot appear outside methods, line " + lineNumber);
+            try {
+                switch (opcode) {
+                    case "push" -> builder.add(label, PUSH, Integer.parseInt(words.required()));
+                    case "load" -> builder.addVariable(label, LOAD, words.required());
+                    case "store" -> builder.addVariable(label, STORE, words.required());
+                    case "add" -> builder.add(label, ADD, 0);
+                    case "sub" -> builder.add(label, SUB, 0);
+                    case "mul" -> builder.add(label, MUL, 0);
+                    case "div" -> builder.add(label, DIV, 0);
+                    case "mod" -> builder.add(label, MOD, 0);
+                    case "sqrt" -> builder.add(label, SQRT, 0);
+                    case "not_eq" -> {
+                        String target = words.next();
+                        if (target.isEmpty()) builder.add(label, NOT_EQ, 0);
+                        else builder.addJump(label, IF_NE, target);
+                    }
+                    case "print" -> builder.add(label, PRINT, 0);
+                    case "goto" -> builder.addJump(label, GOTO, words.required());
+                    case "if_cmpgt" -> builder.addJump(label, IF_CMPGT, words.required());
+                    case "if_cmpeq" -> builder.addJump(label, IF_CMPEQ, words.required());
+                    case "invoke" -> {
+                        String target = words.required();
+                        if (!target.startsWith("@"))
+                            throw new IllegalArgumentException("Method identifier name must start with @");
+                        builder.addInvoke(label, target.substring(1));
+                    }
+                    case "return" -> builder.add(label, RETURN, 0);
+                    default -> throw new IllegalArgumentException("Cannot image " + opcode
+                            + ": only the core instruction set is supported");
+                }
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException(e.getMessage() + ", line " + lineNumber, e);
+            }
+        }
+        if (inMethod) builder.endMethod();
+        return builder.build();
+    }
+
+    /**
+     * Returns the number of methods in the image.
+     *
+     * @return the method count
+     */
+    public int methodCount() {
+        return methodNames.length;
+    }
+
+    /**
+     * Returns the number of instructions in the image, over all methods.
+     *
+     * @return the instruction count
+     */
+    public int instructionCount() {
+        return opcodes.length;
+    }
+
+    /**
+     * Finds the index of a method.
+     *
+     * @param name the method identifier
+     * @return the method's index, or empty if the image has no such method
+     */
+    public OptionalInt methodIndex(Method.Identifier name) {
+        for (int i = 0; i < methodNames.length; i++)
+            if (symbols[methodNames[i]].equals(name.name())) return OptionalInt.of(i);
+        return OptionalInt.empty();
+    }
+
+    /**
+     * Returns the approximate memory the image occupies: its arrays, and the names it keeps for
+     * errors and materialisation.
+     *
+     * @return the size in bytes
+     */
+    public long sizeInBytes() {
+        final int arrayHeader = 16;
+        long bytes = 12L * arrayHeader + opcodes.length
+                + 4L * (operands.length + methodStarts.length + argumentCounts.length + slotCounts.length
+                + slotNameStarts.length + slotNames.length + methodNames.length + labelPcs.length + labelNames.length)
+                + 4L * symbols.length;
+        for (String symbol : symbols)
+            bytes += 24 + arrayHeader + symbol.length();
+        return bytes;
+    }
+
+    /**
+     * Materialises one instruction, for display and debugging.
+     *
+     * @param method         the method's index
+     * @param programCounter the instruction's position within the method
+     * @return a new instruction equal to the one the image was built from
+     * @throws IndexOutOfBoundsException if the method or position does not exist
+     */
+    public Instruction instruction(int method, int programCounter) {
+        int start = methodStarts[method];
+        int pc = start + programCounter;
+        if (programCounter < 0 || pc >= methodStarts[method + 1])
+            throw new IndexOutOfBoundsException("No instruction " + programCounter + " in @" + symbols[methodNames[method]]);
+
+        Label label = labelAt(pc);
+        int operand = operands[pc];
+        return switch (opcodes[pc]) {
+            case PUSH -> new PushInstruction(label, operand);
+            case LOAD -> new LoadInstruction(label, slotName(method, operand));
+            case STORE -> new StoreInstruction(label, slotName(method, operand));
+            case ADD -> new AddInstruction(label);
+            case SUB -> new SubInstruction(label);
+            case MUL -> new MulInstruction(label);
+            case DIV -> new DivInstruction(label);
+            case MOD -> new ModInstruction(label);
+            case SQRT -> new SqrtInstruction(label);
+            case NOT_EQ -> new NotEqInstruction(label);
+            case PRINT -> new PrintInstruction(label);
+            case GOTO -> new GotoInstruction(label, labelAt(operand));
+            case IF_CMPGT -> new IfCmpgtInstruction(label, labelAt(operand));
+            case IF_CMPEQ -> new IfCmpeqInstruction(label, labelAt(operand));
+            case IF_NE -> new NotEqInstruction(label, labelAt(operand));
+            case INVOKE -> new InvokeInstruction(label, new Method.Identifier("@" + invokedName(operand)));
+            case RETURN -> new ReturnInstruction(label);
+            default -> throw new IllegalStateException("Corrupt program image at " + pc);
+        };
+    }
+
+    /**
+     * Materialises one method, for display and debugging.
+     *
+     * @param index the method's index
+     * @return a new method equal to the one the image was built from
+     */
+    public Method method(int index) {
+        List<Variable.Identifier> arguments = new ArrayList<>(argumentCounts[index]);
+        for (int slot = 0; slot < argumentCounts[index]; slot++)
+            arguments.add(slotName(index, slot));
+        List<Instruction> instructions = new ArrayList<>(methodStarts[index + 1] - methodStarts[index]);
+        for (int pc = 0; pc < methodStarts[index + 1] - methodStarts[index]; pc++)
+            instructions.add(instruction(index, pc));
+        return new Method(new Method.Identifier("@" + symbols[methodNames[index]]), arguments, instructions);
+    }
+
+    /**
+     * Materialises every method, for display and debugging.
+     *
+     * @return new methods equal to the ones the image was built from, in order
+     */
+    public List<Method> methods() {
+        List<Method> methods = new ArrayList<>(methodCount());
+        for (int i = 0; i < methodCount(); i++)
+            methods.add(method(i));
+        return methods;
+    }
+
+    private Label labelAt(int pc) {
+        int i = Arrays.binarySearch(labelPcs, pc);
+        return i < 0 ? null : new Label(symbols[labelNames[i]]);
+    }
+
+    private Variable.Identifier slotName(int method, int slot) {
+        return new Variable.Identifier(symbols[slotNames[slotNameStarts[method] + slot]]);
+    }
+
+    // Invoke operands are method indices, or -1 - the symbol of a name no method has:
+    private String invokedName(int operand) {
+        return symbols[operand >= 0 ? methodNames[operand] : -1 - operand];
+    }
+
+    /**
+     * Runs the program from {@code @main} to completion.
+     *
+     * @return the number of instructions executed, as a {@link sml.Machine} would count them
+     * @throws IllegalStateException    if the image has no {@code @main}, or a method is invoked with
+     *                                  too few values on the stack
+     * @throws NoSuchElementException   if an instruction pops an empty operand stack
+     * @throws MethodNotFoundException  if an undefined method is invoked
+     * @throws ArithmeticException      on division or modulo by zero, or {@code mul} overflow
+     */
+    public long execute() {
+        if (entry < 0) throw new IllegalStateException("Program has no @main method");
+        PrintStream out = System.out;
+        byte[] opcodes = this.opcodes;
+        int[] operands = this.operands;
+
+        int[] stack = new int[1024];
+        int[] locals = new int[Math.max(256, slotCounts[entry] * 4)];
+        // Suspended callers: method, resume position, locals base and operand stack base
+        int[] callers = new int[64];
+        int depth = 0;
+
+        int method = entry;
+        int pc = methodStarts[method];
+        int end = methodStarts[method + 1];
+        int base = 0;
+        int sp = 0;
+        int stackBase = 0;
+        long executed = 0;
+
+        while (pc < end) {
+            executed++;
+            int operand = operands[pc];
+            switch (opcodes[pc]) {
+                case PUSH, LOAD -> {
+                    int value = operand;
+                    if (opcodes[pc] == LOAD) {
+                        value = locals[base + operand];
+                        out.println(value);
+                    }
+                    if (sp == stack.length) stack = Arrays.copyOf(stack, sp * 2);
+                    stack[sp++] = value;
+                }
+                case STORE -> {
+                    if (sp == stackBase) throw underflow(method);
+                    locals[base + operand] = stack[--sp];
+                }
+                case ADD, SUB, MUL, DIV, MOD, NOT_EQ -> {
+                    if (sp - stackBase < 2) throw underflow(method);
+                    int value2 = stack[--sp];
+                    int value1 = stack[sp - 1];
+                    stack[sp - 1] = switch (opcodes[pc]) {
+                        case ADD -> value1 + value2;
+                        case SUB -> value1 - value2;
+                        case MUL -> Math.multiplyExact(value1, value2);
+                        case DIV -> {
+                            if (value2 == 0) throw new ArithmeticException("Division by zero");
+                            yield value1 / value2;
+                        }
+                        case MOD -> {
+                            if (value2 == 0) throw new ArithmeticException("Modulo by zero");
+                            yield value1 % value2;
+                        }
+                        default -> value1 != value2 ? 1 : 0;
+                    };
+                }
+                case SQRT -> {
+                    if (sp == stackBase) throw underflow(method);
+                    stack[sp - 1] = (int) Math.sqrt(stack[sp - 1]);
+                }
+                case PRINT -> {
+                    if (sp == stackBase) throw underflow(method);
+                    out.println(stack[--sp]);
+                }
+                case GOTO -> {
+                    pc = operand;
+                    continue;
+                }
+                case IF_CMPGT, IF_CMPEQ, IF_NE -> {
+                    if (sp - stackBase < 2) throw underflow(method);
+                    int value2 = stack[--sp];
+                    int value1 = stack[--sp];
+                    boolean taken = switch (opcodes[pc]) {
+                        case IF_CMPGT -> value1 > value2;
+                        case IF_CMPEQ -> value1 == value2;
+                        default -> value1 != value2;
+                    };
+                    if (taken) {
+                        pc = operand;
+                        continue;
+                    }
+                }
+                case INVOKE -> {
+                    if (operand < 0)
+                        throw new MethodNotFoundException(new Method.Identifier("@" + invokedName(operand)));
+                    int arguments = argumentCounts[operand];
+                    if (sp - stackBase < arguments)
+                        throw new IllegalStateException("Not enough arguments on the stack for method "
+                                + symbols[methodNames[operand]] + ". Required: " + arguments
+                                + ", Available: " + (sp - stackBase));
+                    int calleeBase = base + slotCounts[method];
+                    int calleeEnd = calleeBase + slotCounts[operand];
+                    if (calleeEnd > locals.length) locals = Arrays.copyOf(locals, Math.max(locals.length * 2, calleeEnd));
+                    sp -= arguments;
+                    System.arraycopy(stack, sp, locals, calleeBase, arguments);
+                    Arrays.fill(locals, calleeBase + arguments, calleeEnd, 0);
+
+                    if ((depth + 1) * 4 > callers.length) callers = Arrays.copyOf(callers, callers.length * 2);
+                    callers[depth * 4] = method;
+                    callers[depth * 4 + 1] = pc + 1;
+                    callers[depth * 4 + 2] = base;
+                    callers[depth * 4 + 3] = stackBase;
+                    depth++;
+
+                    method = operand;
+                    pc = methodStarts[method];
+                    end = methodStarts[method + 1];
+                    base = calleeBase;
+                    stackBase = sp;
+                    continue;
+                }
+                case RETURN -> {
+                    if (sp == stackBase) throw underflow(method);
+                    int value = stack[--sp];
+                    if (depth == 0) return executed;
+                    sp = stackBase; // anything the callee left on its stack is discarded with its frame
+                    depth--;
+                    method = callers[depth * 4];
+                    pc = callers[depth * 4 + 1];
+                    base = callers[depth * 4 + 2];
+                    stackBase = callers[depth * 4 + 3];
+                    end = methodStarts[method + 1];
+                    stack[sp++] = value;
+                    continue;
+                }
+                default -> throw new IllegalStateException("Corrupt program image at " + pc);
+            }
+            pc++;
+        }
+        return executed;
+    }
+
+    private NoSuchElementException underflow(int method) {
+        return new NoSuchElementException("Cannot pop from an empty stack in method " + symbols[methodNames[method]]);
+    }
+
+    @Override
+    public String toString() {
+        return "ProgramImage[" + methodCount() + " methods, " + instructionCount() + " instructions, "
+                + sizeInBytes() + " bytes]";
+    }
+
+    /**
+     * Splits a line into whitespace-separated words, as the {@link sml.Translator} does.
+     */
+    private static final class Words {
+        private final String line;
+        private int position;
+        private int previous;
+
+        Words(String line) {
+            this.line = line;
+        }
+
+        String next() {
+            previous = position;
+            int length = line.length();
+            while (position < length && Character.isWhitespace(line.charAt(position))) position++;
+            int start = position;
+            while (position < length && !Character.isWhitespace(line.charAt(position))) position++;
+            return line.substring(start, position);
+        }
+
+        String required() {
+            String word = next();
+            if (word.isEmpty()) throw new IllegalArgumentException("Missing operand");
+            return word;
+        }
+
+        void back() {
+            position = previous;
+        }
+    }
+
+    /**
+     * A growable {@code int} array.
+     */
+    private static final class IntArray {
+        private int[] values = new int[16];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size++] = value;
+        }
+
+        int get(int index) {
+            return values[index];
+        }
+
+        void set(int index, int value) {
+            values[index] = value;
+        }
+
+        int size() {
+            return size;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+
+    /**
+     * Packs methods one instruction at a time, resolving labels at the end of each method and calls
+     * at the end of the program.
+     */
+    private static final class Builder {
+        byte[] opcodes = new byte[1024];
+        int[] operands = new int[1024];
+        int size;
+
+        final IntArray methodStarts = new IntArray();
+        final IntArray argumentCounts = new IntArray();
+        final IntArray slotCounts = new IntArray();
+        final IntArray slotNameStarts = new IntArray();
+        final IntArray slotNames = new IntArray();
+        final IntArray methodNames = new IntArray();
+        final IntArray labelPcs = new IntArray();
+        final IntArray labelNames = new IntArray();
+        final List<String> symbols = new ArrayList<>();
+        final Map<String, Integer> symbolIds = new HashMap<>();
+        final Map<String, Integer> methodIndex = new HashMap<>();
+        final IntArray invokes = new IntArray();
+
+        // The method being packed:
+        String method;
+        final Map<String, Integer> slots = new HashMap<>();
+        final Map<String, Integer> labels = new HashMap<>();
+        final IntArray jumps = new IntArray();
+        final List<String> jumpTargets = new ArrayList<>();
+
+        int symbol(String name) {
+            Integer id = symbolIds.get(name);
+            if (id == null) {
+                id = symbols.size();
+                symbols.add(name);
+                symbolIds.put(name, id);
+            }
+            return id;
+        }
+
+        void beginMethod(String name, List<String> arguments) {
+            if (methodIndex.putIfAbsent(name, methodNames.size()) != null)
+                throw new IllegalArgumentException("Duplicate method @" + name);
+            method = name;
+            methodStarts.add(size);
+            methodNames.add(symbol(name));
+            argumentCounts.add(arguments.size());
+            slotNameStarts.add(slotNames.size());
+            slots.clear();
+            labels.clear();
+            jumps.size = 0;
+            jumpTargets.clear();
+            for (String argument : arguments) {
+                if (slots.putIfAbsent(argument, slots.size()) != null)
+                    throw new IllegalArgumentException("Duplicate argument " + argument + " of @" + name);
+                slotNames.add(symbol(argument));
+            }
+        }
+
+        void add(String label, byte opcode, int operand) {
+            if (label != null) {
+                if (labels.putIfAbsent(label, size) != null)
+                    throw new IllegalArgumentException("Duplicate label " + label + " in @" + method);
+                labelPcs.add(size);
+                labelNames.add(symbol(label));
+            }
+            if (size == opcodes.length) {
+                opcodes = Arrays.copyOf(opcodes, size * 2);
+                operands = Arrays.copyOf(operands, size * 2);
+            }
+            opcodes[size] = opcode;
+            operands[size++] = operand;
+        }
+
+        void addVariable(String label, byte opcode, String variable) {
+            Integer slot = slots.get(variable);
+            if (slot == null) {
+                slot = slots.size();
+                slots.put(variable, slot);
+                slotNames.add(symbol(variable));
+            }
+            add(label, opcode, slot);
+        }
+
+        void addJump(String label, byte opcode, String target) {
+            jumps.add(size);
+            jumpTargets.add(target);
+            add(label, opcode, 0);
+        }
+
+        void addInvoke(String label, String target) {
+            invokes.add(size);
+            add(label, INVOKE, symbol(target));
+        }
+
+        void endMethod() {
+            if (size == methodStarts.get(methodStarts.size() - 1))
+                throw new IllegalArgumentException("Method @" + method + " has no instructions");
+            for (int i = 0; i < jumps.size(); i++) {
+                Integer target = labels.get(jumpTargets.get(i));
+                if (target == null)
+                    throw new IllegalArgumentException("Label " + jumpTargets.get(i) + " not found in @" + method);
+                operands[jumps.get(i)] = target;
+            }
+            slotCounts.add(slots.size());
+        }
+
+        ProgramImage build() {
+            methodStarts.add(size);
+            for (int i = 0; i < invokes.size(); i++) {
+                int pc = invokes.get(i);
+                Integer callee = methodIndex.get(symbols.get(operands[pc]));
+                operands[pc] = callee != null ? callee : -1 - operands[pc];
+            }
+            return new ProgramImage(this);
+        }
+    }
+
+    /**
+     * Runs an SML file from a program image, printing its size and instruction count.
+     *
+     * @param args Command-line arguments (the SML file)
+     */
+    public static void main(String... args) {
+        if (args.length != 1) {
+            System.err.println("Usage: java sml.image.ProgramImage program.sml");
+            return;
+        }
+        try {
+            ProgramImage image = read(Path.of(args[0]));
+            System.err.println(image);
+            long start = System.nanoTime();
+            long executed = image.execute();
+            System.err.printf("Executed %,d instructions in %.1f ms%n", executed, (System.nanoTime() - start) / 1e6);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Error: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,10 @@
+/**
+ * Compact program images.
+ *
+ * <p>{@link sml.image.ProgramImage} packs every method of a program into shared flat arrays of
+ * opcode ids, operands and method offsets, and interprets them directly, materialising
+ * {@link sml.instructions.Instruction} objects only when asked to show them.</p>
+ *
+ * @author Ricki Angel
+ */
+package sml.image;
@@ -0,0 +1,44 @@
+package sml.instructions;
+
+import sml.Frame;
+import sml.Label;
+import sml.memory.ArrayHeap;
+import sml.memory.ArrayKernels;
+
+/**
+ * Represents the array range add-scalar instruction in the SML runtime environment.
+ *
+ * <p>Pops a scalar, a count, a start index and an array handle from the operand stack, and adds the
+ * scalar to every element in that range. Stack: {@code handle, from, count, scalar -> }.</p>
+ *
+ * <p>Runs on {@link ArrayKernels#preferred()}, so the whole range is processed with SIMD
+ * instructions when the Vector API is available.</p>
+ *
+ * @author Ricki Angel
+ */
+public class AaddscalarInstruction extends AbstractArrayInstruction {
+    public static final String OP_CODE = "aaddscalar";
+
+    /**
+     * Constructs a new AaddscalarInstruction with the specified label.
+     *
+     * @param label The label identifying this instruction (can be null)
+     */
+    public AaddscalarInstruction(Label label) {
+        super(label, OP_CODE);
+    }
+
+    /**
+     * Executes the instruction's primary operation.
+     *
+     * @param frame The current execution frame
+     * @param heap  The machine's array heap
+     */
+    @Override
+    protected void performArrayLogic(Frame frame, ArrayHeap heap) {
+        int scalar = frame.pop();
+        int count = frame.pop();
+        int from = frame.pop();
+        ArrayKernels.preferred().addScalar(heap.segment(frame.pop(), from, count), from, count, scalar);
+    }
+}
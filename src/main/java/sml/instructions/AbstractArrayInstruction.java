@@ -0,0 +1,80 @@
+package sml.instructions;
+
+import sml.Frame;
+import sml.Label;
+import sml.Machine;
+import sml.memory.ArrayHeap;
+
+import java.util.Optional;
+
+/**
+ * Abstract base class for SML instructions that operate on arrays in the machine's
+ * {@link ArrayHeap}.
+ *
+ * <p>Arrays are referred to by integer handles held on the operand stack, so these instructions
+ * take no explicit operands. Because the heap belongs to the {@link Machine} rather than the
+ * {@link Frame}, array instructions override {@link #execute(Machine)} and receive the heap
+ * alongside the frame.</p>
+ *
+ * <p>Key responsibilities:</p>
+ * <ul>
+ *   <li>Pass the machine's array heap to the instruction-specific logic</li>
+ *   <li>Advance to the next sequential instruction afterwards</li>
+ *   <li>Provide the empty operand representation shared by all array instructions</li>
+ * </ul>
+ *
+ * @author Ricki Angel
+ */
+public abstract class AbstractArrayInstruction extends Instruction {
+
+    /**
+     * Constructs an {@code AbstractArrayInstruction} with the given label and opcode.
+     *
+     * @param label  the label associated with this instruction (can be null)
+     * @param opcode the operation code of the instruction
+     */
+    protected AbstractArrayInstruction(Label label, String opcode) {
+        super(label, opcode);
+    }
+
+    /**
+     * Overrides the template method to run the array logic against the machine's heap.
+     *
+     * @param machine The machine the instruction runs on
+     * @return Optional containing the next frame to execute
+     */
+    @Override
+    public Optional<Frame> execute(Machine machine) {
+        Frame frame = machine.frame();
+        performArrayLogic(frame, machine.heap());
+        return Optional.ofNullable(frame.advance());
+    }
+
+    /**
+     * Performs the instruction-specific array operation.
+     *
+     * @param frame Current execution frame
+     * @param heap  The machine's array heap
+     */
+    protected abstract void performArrayLogic(Frame frame, ArrayHeap heap);
+
+    /**
+     * Not used by array instructions, which need the heap as well as the frame.
+     *
+     * @param frame Current execution frame
+     */
+    @Override
+    protected final void performInstructionLogic(Frame frame) {
+        // No operations performed here - array logic handled in execute()
+    }
+
+    /**
+     * Returns a string representation of the operands.
+     *
+     * @return an empty string since array instructions take their operands from the stack
+     */
+    @Override
+    protected String getOperandsString() {
+        return "";
+    }
+}
@@ -0,0 +1,80 @@
+package sml.instructions;
+
+import sml.Frame;
+import sml.Label;
+import sml.Machine;
+import sml.channel.ChannelTable;
+
+import java.util.Optional;
+
+/**
+ * Abstract base class for SML instructions that operate on channels in the machine's
+ * {@link ChannelTable}.
+ *
+ * <p>Channels are referred to by integer handles held on the operand stack, so these instructions
+ * take no explicit operands. Because the channels belong to the {@link Machine} - and are shared
+ * with other machines - rather than the {@link Frame}, channel instructions override
+ * {@link #execute(Machine)} and receive the table alongside the frame.</p>
+ *
+ * <p>Key responsibilities:</p>
+ * <ul>
+ *   <li>Pass the machine's channel table to the instruction-specific logic</li>
+ *   <li>Advance to the next sequential instruction afterwards</li>
+ *   <li>Provide the empty operand representation shared by all channel instructions</li>
+ * </ul>
+ *
+ * @author Ricki Angel
+ */
+public abstract class AbstractChannelInstruction extends Instruction {
+
+    /**
+     * Constructs an {@code AbstractChannelInstruction} with the given label and opcode.
+     *
+     * @param label  the label associated with this instruction (can be null)
+     * @param opcode the operation code of the instruction
+     */
+    protected AbstractChannelInstruction(Label label, String opcode) {
+        super(label, opcode);
+    }
+
+    /**
+     * Overrides the template method to run the channel logic against the machine's channels.
+     *
+     * @param machine The machine the instruction runs on
+     * @return Optional containing the next frame to execute
+     */
+    @Override
+    public Optional<Frame> execute(Machine machine) {
+        Frame frame = machine.frame();
+        performChannelLogic(frame, machine.channels());
+        return Optional.ofNullable(frame.advance());
+    }
+
+    /**
+     * Performs the instruction-specific channel operation.
+     *
+     * @param frame    Current execution frame
+     * @param channels The machine's channel table
+     */
+    protected abstract void performChannelLogic(Frame frame, ChannelTable channels);
+
+    /**
+     * Not used by channel instructions, which need the channel table as well as the frame.
+     *
+     * @param frame Current execution frame
+     */
+    @Override
+    protected final void performInstructionLogic(Frame frame) {
+        // No operations performed here - channel logic handled in execute()
+    }
+
+    /**
+     * Returns a string representation of the operands.
+     *
+     * @return an empty string since channel instructions take their operands from the stack
+     */
+    @Override
+    protected String getOperandsString() {
+        return "";
+    }
+}
@@ -0,0 +1,48 @@
+package sml.instructions;
+
+import sml.Frame;
+import sml.Label;
+import sml.memory.ArrayHeap;
+import sml.memory.ArrayKernels;
+
+/**
+ * Represents the array range copy instruction in the SML runtime environment.
+ *
+ * <p>Pops a count and two (handle, start index) pairs from the operand stack, and copies that many
+ * elements from the first range to the second, like {@link System#arraycopy}. Overlapping ranges
+ * within one array are handled correctly. Stack: {@code src, srcFrom, dst, dstFrom, count -> }.</p>
+ *
+ * <p>Runs on {@link ArrayKernels#preferred()}, so the whole range is processed with SIMD
+ * instructions when the Vector API is available.</p>
+ *
+ * @author Ricki Angel
+ */
+public class AcopyInstruction extends AbstractArrayInstruction {
+    public static final String OP_CODE = "acopy";
+
+    /**
+     * Constructs a new AcopyInstruction with the specified label.
+     *
+     * @param label The label identifying this instruction (can be null)
+     */
+    public AcopyInstruction(Label label) {
+        super(label, OP_CODE);
+    }
+
+    /**
+     * Executes the instruction's primary operation.
+     *
+     * @param frame The current execution frame
+     * @param heap  The machine's array heap
+     */
+    @Override
+    protected void performArrayLogic(Frame frame, ArrayHeap heap) {
+        int count = frame.pop();
+        int dstFrom = frame.pop();
+        int dst = frame.pop();
+        int srcFrom = frame.pop();
+        int src = frame.pop();
+        ArrayKernels.preferred().copy(
+                heap.segment(src, srcFrom, count), srcFrom, heap.segment(dst, dstFrom, count), dstFrom, count);
+    }
+}
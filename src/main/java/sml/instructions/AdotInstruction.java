@@ -0,0 +1,47 @@
+package sml.instructions;
+
+import sml.Frame;
+import sml.Label;
+import sml.memory.ArrayHeap;
+import sml.memory.ArrayKernels;
+
+/**
+ * Represents the array dot product instruction in the SML runtime environment.
+ *
+ * <p>Pops a count and two (handle, start index) pairs from the operand stack, and pushes the dot
+ * product of the two ranges. Stack: {@code a, aFrom, b, bFrom, count -> dot}.</p>
+ *
+ * <p>Runs on {@link ArrayKernels#preferred()}, so the whole range is processed with SIMD
+ * instructions when the Vector API is available.</p>
+ *
+ * @author Ricki Angel
+ */
+public class AdotInstruction extends AbstractArrayInstruction {
+    public static final String OP_CODE = "adot";
+
+    /**
+     * Constructs a new AdotInstruction with the specified label.
+     *
+     * @param label The label identifying this instruction (can be null)
+     */
+    public AdotInstruction(Label label) {
+        super(label, OP_CODE);
+    }
+
+    /**
+     * Executes the instruction's primary operation.
+     *
+     * @param frame The current execution frame
+     * @param heap  The machine's array heap
+     */
+    @Override
+    protected void performArrayLogic(Frame frame, ArrayHeap heap) {
+        int count = frame.pop();
+        int bFrom = frame.pop();
+        int b = frame.pop();
+        int aFrom = frame.pop();
+        int a = frame.pop();
+        frame.push(ArrayKernels.preferred().dot(
+                heap.segment(a, aFrom, count), aFrom, heap.segment(b, bFrom, count), bFrom, count));
+    }
+}
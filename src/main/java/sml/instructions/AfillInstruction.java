@@ -0,0 +1,44 @@
+package sml.instructions;
+
+import sml.Frame;
+import sml.Label;
+import sml.memory.ArrayHeap;
+import sml.memory.ArrayKernels;
+
+/**
+ * Represents the array range fill instruction in the SML runtime environment.
+ *
+ * <p>Pops a value, a count, a start index and an array handle from the operand stack, and sets
+ * every element in that range to the value. Stack: {@code handle, from, count, value -> }.</p>
+ *
+ * <p>Runs on {@link ArrayKernels#preferred()}, so the whole range is processed with SIMD
+ * instructions when the Vector API is available.</p>
+ *
+ * @author Ricki Angel
+ */
+public class AfillInstruction extends AbstractArrayInstruction {
+    public static final String OP_CODE = "afill";
+
+    /**
+     * Constructs a new AfillInstruction with the specified label.
+     *
+     * @param label The label identifying this instruction (can be null)
+     */
+    public AfillInstruction(Label label) {
+        super(label, OP_CODE);
+    }
+
+    /**
+     * Executes the instruction's primary operation.
+     *
+     * @param frame The current execution frame
+     * @param heap  The machine's array heap
+     */
+    @Override
+    protected void performArrayLogic(Frame frame, ArrayHeap heap) {
+        int value = frame.pop();
+        int count = frame.pop();
+        int from = frame.pop();
+        ArrayKernels.preferred().fill(heap.segment(frame.pop(), from, count), from, count, value);
+    }
+}
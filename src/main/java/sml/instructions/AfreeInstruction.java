@@ -0,0 +1,37 @@
+package sml.instructions;
+
+import sml.Frame;
+import sml.Label;
+import sml.memory.ArrayHeap;
+
+/**
+ * Represents the array release instruction in the SML runtime environment.
+ *
+ * <p>Pops an array handle from the operand stack and frees the array, returning its off-heap memory
+ * immediately. Any later use of the handle fails. Stack: {@code handle -> }.</p>
+ *
+ * @author Ricki Angel
+ */
+public class AfreeInstruction extends AbstractArrayInstruction {
+    public static final String OP_CODE = "afree";
+
+    /**
+     * Constructs a new AfreeInstruction with the specified label.
+     *
+     * @param label The label identifying this instruction (can be null)
+     */
+    public AfreeInstruction(Label label) {
+        super(label, OP_CODE);
+    }
+
+    /**
+     * Executes the instruction's primary operation.
+     *
+     * @param frame The current execution frame
+     * @param heap  The machine's array heap
+     */
+    @Override
+    protected void performArrayLogic(Frame frame, ArrayHeap heap) {
+        heap.free(frame.pop());
+    }
+}
@@ -0,0 +1,37 @@
+package sml.instructions;
+
+import sml.Frame;
+import sml.Label;
+import sml.memory.ArrayHeap;
+
+/**
+ * Represents the array length instruction in the SML runtime environment.
+ *
+ * <p>Pops an array handle from the operand stack and pushes the number of elements in that array.
+ * Stack: {@code handle -> length}.</p>
+ *
+ * @author Ricki Angel
+ */
+public class AlenInstruction extends AbstractArrayInstruction {
+    public static final String OP_CODE = "alen";
+
+    /**
+     * Constructs a new AlenInstruction with the specified label.
+     *
+     * @param label The label identifying this instruction (can be null)
+     */
+    public AlenInstruction(Label label) {
+        super(label, OP_CODE);
+    }
+
+    /**
+     * Executes the instruction's primary operation.
+     *
+     * @param frame The current execution frame
+     * @param heap  The machine's array heap
+     */
+    @Override
+    protected void performArrayLogic(Frame frame, ArrayHeap heap) {
+        frame.push(heap.length(frame.pop()));
+    }
+}
@@ -0,0 +1,39 @@
+package sml.instructions;
+
+import sml.Frame;
+import sml.Label;
+import sml.memory.ArrayHeap;
+
+/**
+ * Represents the array element load instruction in the SML runtime environment.
+ *
+ * <p>Pops an index and then an array handle from the operand stack, and pushes the array element
+ * at that index. Stack: {@code handle, index -> value}.</p>
+ *
+ * @author Ricki Angel
+ */
+public class AloadInstruction extends AbstractArrayInstruction {
+    public static final String OP_CODE = "aload";
+
+    /**
+     * Constructs a new AloadInstruction with the specified label.
+     *
+     * @param label The label identifying this instruction (can be null)
+     */
+    public AloadInstruction(Label label) {
+        super(label, OP_CODE);
+    }
+
+    /**
+     * Executes the instruction's primary operation.
+     *
+     * @param frame The current execution frame
+     * @param heap  The machine's array heap
+     */
+    @Override
+    protected void performArrayLogic(Frame frame, ArrayHeap heap) {
+        int index = frame.pop();
+        int handle = frame.pop();
+        frame.push(heap.get(handle, index));
+    }
+}
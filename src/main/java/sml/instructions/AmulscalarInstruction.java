@@ -0,0 +1,44 @@
+package sml.instructions;
+
+import sml.Frame;
+import sml.Label;
+import sml.memory.ArrayHeap;
+import sml.memory.ArrayKernels;
+
+/**
+ * Represents the array range multiply-scalar instruction in the SML runtime environment.
+ *
+ * <p>Pops a scalar, a count, a start index and an array handle from the operand stack, and
+ * multiplies every element in that range by the scalar. Stack: {@code handle, from, count, scalar -> }.</p>
+ *
+ * <p>Runs on {@link ArrayKernels#preferred()}, so the whole range is processed with SIMD
+ * instructions when the Vector API is available.</p>
+ *
+ * @author Ricki Angel
+ */
+public class AmulscalarInstruction extends AbstractArrayInstruction {
+    public static final String OP_CODE = "amulscalar";
+
+    /**
+     * Constructs a new AmulscalarInstruction with the specified label.
+     *
+     * @param label The label identifying this instruction (can be null)
+     */
+    public AmulscalarInstruction(Label label) {
+        super(label, OP_CODE);
+    }
+
+    /**
+     * Executes the instruction's primary operation.
+     *
+     * @param frame The current execution frame
+     * @param heap  The machine's array heap
+     */
+    @Override
+    protected void performArrayLogic(Frame frame, ArrayHeap heap) {
+        int scalar = frame.pop();
+        int count = frame.pop();
+        int from = frame.pop();
+        ArrayKernels.preferred().mulScalar(heap.segment(frame.pop(), from, count), from, count, scalar);
+    }
+}
@@ -0,0 +1,39 @@
+package sml.instructions;
+
+import sml.Frame;
+import sml.Label;
+import sml.memory.ArrayHeap;
+
+/**
+ * Represents the array element store instruction in the SML runtime environment.
+ *
+ * <p>Pops a value, an index and then an array handle from the operand stack, and stores the value
+ * in the array at that index. Stack: {@code handle, index, value -> }.</p>
+ *
+ * @author Ricki Angel
+ */
+public class AstoreInstruction extends AbstractArrayInstruction {
+    public static final String OP_CODE = "astore";
+
+    /**
+     * Constructs a new AstoreInstruction with the specified label.
+     *
+     * @param label The label identifying this instruction (can be null)
+     */
+    public AstoreInstruction(Label label) {
+        super(label, OP_CODE);
+    }
+
+    /**
+     * Executes the instruction's primary operation.
+     *
+     * @param frame The current execution frame
+     * @param heap  The machine's array heap
+     */
+    @Override
+    protected void performArrayLogic(Frame frame, ArrayHeap heap) {
+        int value = frame.pop();
+        int index = frame.pop();
+        heap.set(frame.pop(), index, value);
+    }
+}
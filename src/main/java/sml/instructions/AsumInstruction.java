@@ -0,0 +1,43 @@
+package sml.instructions;
+
+import sml.Frame;
+import sml.Label;
+import sml.memory.ArrayHeap;
+import sml.memory.ArrayKernels;
+
+/**
+ * Represents the array range sum instruction in the SML runtime environment.
+ *
+ * <p>Pops a count, a start index and an array handle from the operand stack, and pushes the sum of
+ * that range of elements. Stack: {@code handle, from, count -> sum}.</p>
+ *
+ * <p>Runs on {@link ArrayKernels#preferred()}, so the whole range is processed with SIMD
+ * instructions when the Vector API is available.</p>
+ *
+ * @author Ricki Angel
+ */
+public class AsumInstruction extends AbstractArrayInstruction {
+    public static final String OP_CODE = "asum";
+
+    /**
+     * Constructs a new AsumInstruction with the specified label.
+     *
+     * @param label The label identifying this instruction (can be null)
+     */
+    public AsumInstruction(Label label) {
+        super(label, OP_CODE);
+    }
+
+    /**
+     * Executes the instruction's primary operation.
+     *
+     * @param frame The current execution frame
+     * @param heap  The machine's array heap
+     */
+    @Override
+    protected void performArrayLogic(Frame frame, ArrayHeap heap) {
+        int count = frame.pop();
+        int from = frame.pop();
+        frame.push(ArrayKernels.preferred().sum(heap.segment(frame.pop(), from, count), from, count));
+    }
+}
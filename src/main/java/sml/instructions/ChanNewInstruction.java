@@ -0,0 +1,39 @@
+package sml.instructions;
+
+import sml.Frame;
+import sml.Label;
+import sml.channel.Channel;
+import sml.channel.ChannelTable;
+
+/**
+ * Represents the channel creation instruction in the SML runtime environment.
+ *
+ * <p>Pops a capacity, opens a multi-producer multi-consumer channel of at least that capacity and pushes
+ * its handle. Any machine sharing the channel table, including spawned calls, may send to and
+ * receive from it. Stack: {@code capacity -> handle}.</p>
+ *
+ * @author Ricki Angel
+ */
+public class ChanNewInstruction extends AbstractChannelInstruction {
+    public static final String OP_CODE = "chan_new";
+
+    /**
+     * Constructs a new ChanNewInstruction with the specified label.
+     *
+     * @param label The label identifying this instruction (can be null)
+     */
+    public ChanNewInstruction(Label label) {
+        super(label, OP_CODE);
+    }
+
+    /**
+     * Executes the instruction's primary operation.
+     *
+     * @param frame    The current execution frame
+     * @param channels The machine's channel table
+     */
+    @Override
+    protected void performChannelLogic(Frame frame, ChannelTable channels) {
+        frame.push(channels.open(Channel.mpmc(frame.pop())));
+    }
+}
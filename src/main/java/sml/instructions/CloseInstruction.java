@@ -0,0 +1,37 @@
+package sml.instructions;
+
+import sml.Frame;
+import sml.Label;
+import sml.channel.ChannelTable;
+
+/**
+ * Represents the channel close instruction in the SML runtime environment.
+ *
+ * <p>Pops a channel handle and closes the channel. Receivers drain the messages already sent and then
+ * see end of input; further sends fail. Stack: {@code handle ->}.</p>
+ *
+ * @author Ricki Angel
+ */
+public class CloseInstruction extends AbstractChannelInstruction {
+    public static final String OP_CODE = "close";
+
+    /**
+     * Constructs a new CloseInstruction with the specified label.
+     *
+     * @param label The label identifying this instruction (can be null)
+     */
+    public CloseInstruction(Label label) {
+        super(label, OP_CODE);
+    }
+
+    /**
+     * Executes the instruction's primary operation.
+     *
+     * @param frame    The current execution frame
+     * @param channels The machine's channel table
+     */
+    @Override
+    protected void performChannelLogic(Frame frame, ChannelTable channels) {
+        channels.get(frame.pop()).close();
+    }
+}
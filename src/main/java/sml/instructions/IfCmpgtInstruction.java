@@ -0,0 +1,147 @@
+package sml.instructions;
+
+import sml.*;
+import sml.instructions.quick.QuickBranchInstruction;
+import sml.instructions.quick.QuickenedInstruction;
+
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * A conditional greater-than comparison instruction.
+ *
+ * <p>The IfCmpgtInstruction class implements a conditional branch operation that:</p>
+ * <ul>
+ *   <li>Pops two values from the operand stack</li>
+ *   <li>Compares if the first value is greater than the second</li>
+ *   <li>Transfers control to a target label if the condition is true</li>
+ *   <li>Continues sequential execution otherwise</li>
+ * </ul>
+ *
+ * <p>Key responsibilities:</p>
+ * <ul>
+ *   <li>Provides conditional branching based on numeric comparison</li>
+ *   <li>Enables implementation of comparison-based control structures</li>
+ *   <li>Supports dynamic decision points in program execution</li>
+ * </ul>
+ *
+ * @author Ricki Angel
+ */
+public class IfCmpgtInstruction extends Instruction {
+    public static final String OP_CODE = "if_cmpgt";
+    private final Label jumpLabel;
+
+    /**
+     * Constructs a new IfCmpgtInstruction with specified label and jump target.
+     *
+     * <p>Initializes the instruction with:</p>
+     * <ul>
+     *   <li>An optional source label for this instruction</li>
+     *   <li>A required target label for conditional branching</li>
+     * </ul>
+     *
+     * @param label     The label identifying this instruction (can be null)
+     * @param jumpLabel The target label to jump to if condition is met
+     */
+    public IfCmpgtInstruction(Label label, Label jumpLabel) {
+        super(label, OP_CODE);
+        this.jumpLabel = jumpLabel;
+    }
+
+    /**
+     * Executes the instruction's primary operation.
+     *
+     * <p>For IfCmpgtInstruction, the comparison and the branch are performed together in
+     * {@link #execute(Machine)}, so nothing is computed here.</p>
+     *
+     * @param frame The current execution frame
+     */
+    @Override
+    protected void performInstructionLogic(Frame frame) {
+        // No operations performed here - comparison and branch handled in execute()
+    }
+
+    /**
+     * Overrides the template method to compare and branch in a single step.
+     *
+     * <p>Performs the greater-than comparison by:</p>
+     * <ul>
+     *   <li>Popping two values from the operand stack</li>
+     *   <li>Jumping to the target label if the first value is greater than the second</li>
+     *   <li>Advancing to the next sequential instruction otherwise</li>
+     * </ul>
+     *
+     * <p>After the first execution the site is quickened with the resolved target index.</p>
+     *
+     * @param machine The machine the instruction runs on
+     * @return Optional containing the next frame to execute
+     */
+    @Override
+    public Optional<Frame> execute(Machine machine) {
+        Frame frame = machine.frame();
+        int programCounter = frame.programCounter();
+        int value2 = frame.pop();
+        int value1 = frame.pop();
+        Frame next = value1 > value2 ? frame.jumpTo(jumpLabel) : frame.advance();
+        if (getClass() == IfCmpgtInstruction.class)
+            frame.method().labels().get(jumpLabel).ifPresent(target ->
+                    QuickenedInstruction.install(machine, frame, programCounter, this,
+                            new QuickBranchInstruction(this, QuickBranchInstruction.Condition.GREATER_THAN, target)));
+        return Optional.ofNullable(next);
+    }
+
+    /**
+     * Compares and branches as {@link #execute(Machine)} does, returning the next instruction
+     * index instead of a frame.
+     *
+     * @param machine the machine the instruction runs on
+     * @param frame   the current frame
+     * @return the target index if the comparison holds, otherwise the next instruction's
+     */
+    @Override
+    public int step(Machine machine, Frame frame) {
+        if (!hasPrimitiveStep()) return stepThroughExecute(machine, frame);
+        int value2 = frame.pop();
+        int value1 = frame.pop();
+        if (machine.isQuickeningEnabled() && getClass() == IfCmpgtInstruction.class)
+            frame.method().labels().get(jumpLabel).ifPresent(target ->
+                    QuickenedInstruction.install(machine, frame, frame.programCounter(), this,
+                            new QuickBranchInstruction(this, QuickBranchInstruction.Condition.GREATER_THAN, target)));
+        return value1 > value2 ? frame.labelIndex(jumpLabel) : fallThrough(frame);
+    }
+
+    /**
+     * Returns the label this instruction jumps to when the comparison holds.
+     *
+     * @return the jump target label
+     */
+    public Label jumpLabel() {
+        return jumpLabel;
+    }
+
+    /**
+     * Returns a string representation of the instruction's operands.
+     *
+     * <p>Formats the jump target label for program display and debugging.</p>
+     *
+     * @return String representation of the target label
+     */
+    @Override
+    protected String getOperandsString() {
+        return jumpLabel.toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        if (!super.equals(o)) return false;
+        IfCmpgtInstruction that = (IfCmpgtInstruction) o;
+        return Objects.equals(jumpLabel, that.jumpLabel);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(super.hashCode(), jumpLabel);
+    }
+}
@@ -0,0 +1,336 @@
+package sml.instructions;
+
+import sml.Frame;
+import sml.Label;
+import sml.Machine;
+import sml.Variable;
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Represents the base instruction type in the SML runtime environment.
+ *
+ * <p>The Instruction class provides a common framework for all SML instructions, with:</p>
+ * <ul>
+ *   <li>Template method pattern for execution flow control</li>
+ *   <li>Label identification and management</li>
+ *   <li>Operand handling and representation</li>
+ *   <li>Consistent execution semantics across instruction types</li>
+ * </ul>
+ *
+ * <p>Key responsibilities:</p>
+ * <ul>
+ *   <li>Standardizes instruction execution sequence</li>
+ *   <li>Manages program flow transitions between instructions</li>
+ *   <li>Provides extension points for instruction-specific behavior</li>
+ *   <li>Supports instruction introspection and debugging</li>
+ * </ul>
+ *
+ * @author Ricki Angel
+ */
+public abstract  class Instruction  {
+    /**
+     * Returned by {@link #step(Machine, Frame)} when control has moved to another frame, which has
+     * been made current with {@link Machine#transferTo(Frame)}.
+     */
+    public static final int CONTROL_TRANSFERRED = -1;
+
+    /**
+     * Returned by {@link #step(Machine, Frame)} when the program has finished.
+     */
+    public static final int HALT = -2;
+
+    /**
+     * Whether a class's {@link #step} was written for its {@link #execute} and
+     * {@link #determineNextFrame}, i.e. no class below the one implementing {@code step} overrides
+     * either of them.
+     */
+    private static final ClassValue<Boolean> PRIMITIVE_STEP = new ClassValue<>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            int step = depth(declaring(type, "step", Machine.class, Frame.class));
+            return step >= depth(declaring(type, "execute", Machine.class))
+                    && step >= depth(declaring(type, "determineNextFrame", Frame.class));
+        }
+    };
+
+    protected final Label label;
+    protected final String opcode;
+    private final boolean primitiveStep;
+
+    /**
+     * Constructs a new Instruction with specified label and opcode.
+     *
+     * <p>Initializes the instruction with:</p>
+     * <ul>
+     *   <li>An optional label for branching targets</li>
+     *   <li>A required operation code defining instruction type</li>
+     * </ul>
+     *
+     * @param label  Optional label identifying this instruction location
+     * @param opcode Required operation code indicating instruction type
+     * @throws NullPointerException if opcode is null
+     */
+    public Instruction(Label label, String opcode) {
+        this.label = label;
+        this.opcode = Objects.requireNonNull(opcode);
+        this.primitiveStep = PRIMITIVE_STEP.get(getClass());
+    }
+
+    /**
+     * Returns an Optional containing this instruction's label.
+     *
+     * <p>Provides safe access to the instruction's label which may be null.</p>
+     *
+     * @return Optional containing the label, or empty if no label
+     */
+    public Optional<Label> optionalLabel() {
+        return Optional.ofNullable(label);
+    }
+
+    /**
+     * Returns this instruction's operation code.
+     *
+     * <p>The opcode uniquely identifies the instruction type in the SML system.</p>
+     *
+     * @return String representation of the instruction's opcode
+     */
+    public String opcode() {
+        return opcode;
+    }
+
+    /**
+     * Returns the stream of variables in the instruction's operands.
+     *
+     * <p>Provides access to variable identifiers referenced by this instruction.
+     * Default implementation returns empty stream. Subclasses with variable
+     * operands must override.</p>
+     *
+     * @return Stream of variable identifiers referenced by this instruction
+     */
+    public Stream<Variable.Identifier> variables() {
+        return Stream.of();
+    }
+
+    /**
+     * Executes this instruction in the given machine context.
+     *
+     * <p>Template method that defines execution sequence:</p>
+     * <ul>
+     *   <li>Performs instruction-specific execution logic</li>
+     *   <li>Determines the next frame to execute</li>
+     *   <li>Returns the next frame wrapped in Optional</li>
+     * </ul>
+     *
+     * @param machine The machine the instruction runs on
+     * @return Optional containing the next frame, or empty if execution terminates
+     */
+    public Optional<Frame> execute(Machine machine) {
+        Frame frame = machine.frame();
+        performInstructionLogic(frame);
+        Frame nextFrame = determineNextFrame(frame);
+
+        if (nextFrame == null) {
+            // Handle this case, possibly by returning an empty Optional or logging the error:
+            return Optional.empty();
+        }
+
+        return Optional.of(nextFrame);
+    }
+
+    /**
+     * Executes this instruction and returns the index of the next instruction of the same frame.
+     *
+     * <p>The primitive counterpart of {@link #execute(Machine)}, and the one the {@link Machine}
+     * calls. It returns an {@code int} rather than an {@code Optional<Frame>} and leaves moving the
+     * program counter to the caller, so the common step - an instruction that falls through or
+     * branches within its method - allocates nothing. The result is one of:</p>
+     * <ul>
+     *   <li>the index of the next instruction to run in {@code frame}</li>
+     *   <li>{@link #CONTROL_TRANSFERRED} after an invocation or return, once the new frame has been
+     *       made current with {@link Machine#transferTo(Frame)}</li>
+     *   <li>{@link #HALT} when the program has finished</li>
+     * </ul>
+     *
+     * <p>The default implementation runs {@link #performInstructionLogic(Frame)} and falls through
+     * when the class inherits {@code execute} and {@code determineNextFrame}. Classes that override
+     * either are adapted: {@code execute} is called and its result translated, so existing
+     * instructions keep working unchanged and may override this method to avoid the
+     * {@code Optional}.</p>
+     *
+     * @param machine the machine the instruction runs on
+     * @param frame   the current frame, {@code machine.frame()}
+     * @return the next instruction index, {@link #CONTROL_TRANSFERRED} or {@link #HALT}
+     */
+    public int step(Machine machine, Frame frame) {
+        if (!primitiveStep) return stepThroughExecute(machine, frame);
+        performInstructionLogic(frame);
+        return fallThrough(frame);
+    }
+
+    /**
+     * Reports whether this instruction's class may run its {@link #step(Machine, Frame)}.
+     *
+     * <p>False when a subclass overrides {@link #execute(Machine)} or
+     * {@link #determineNextFrame(Frame)} below the class that implements {@code step}; overriding
+     * {@code step} implementations should then defer to {@link #stepThroughExecute}, so the
+     * subclass's behaviour is kept.</p>
+     *
+     * @return true if {@code step} is in force for this instruction's class
+     */
+    protected final boolean hasPrimitiveStep() {
+        return primitiveStep;
+    }
+
+    /**
+     * Runs {@link #execute(Machine)} and translates its result for {@link #step(Machine, Frame)}.
+     *
+     * @param machine the machine the instruction runs on
+     * @param frame   the current frame
+     * @return the next instruction index, {@link #CONTROL_TRANSFERRED} or {@link #HALT}
+     */
+    protected final int stepThroughExecute(Machine machine, Frame frame) {
+        Optional<Frame> next = execute(machine);
+        if (next.isEmpty()) return HALT;
+        Frame nextFrame = next.get();
+        if (nextFrame == frame) return frame.programCounter();
+        machine.transferTo(nextFrame);
+        return CONTROL_TRANSFERRED;
+    }
+
+    /**
+     * Returns the step result for falling through to the next instruction.
+     *
+     * @param frame the current frame
+     * @return the next instruction index, or {@link #HALT} after the method's last instruction
+     */
+    protected static int fallThrough(Frame frame) {
+        int next = frame.programCounter() + 1;
+        return next < frame.method().instructions().size() ? next : HALT;
+    }
+
+    /**
+     * Performs this instruction's logic without moving the program counter.
+     *
+     * <p>Used by basic-block dispatch ({@link sml.ExecutionMode#BASIC_BLOCK}) to run the
+     * straight-line instructions of a block back to back and move the program counter once at the
+     * end. Only meaningful for instructions that always fall through and inherit
+     * {@link #execute(Machine)}.</p>
+     *
+     * @param frame Current execution frame
+     */
+    public final void performInBlock(Frame frame) {
+        performInstructionLogic(frame);
+    }
+
+    /**
+     * Performs instruction-specific execution logic.
+     *
+     * <p>Hook method that must be implemented by concrete subclasses
+     * to provide the core behavior of the instruction.</p>
+     *
+     * @param frame Current execution frame
+     */
+    protected abstract void performInstructionLogic(Frame frame);
+
+    /**
+     * Determines the next frame after instruction execution.
+     *
+     * <p>Template method that controls program flow:</p>
+     * <ul>
+     *   <li>Default implementation advances to next sequential instruction</li>
+     *   <li>Subclasses override for special flow control (jumps, returns)</li>
+     * </ul>
+     *
+     * @param frame Current execution frame
+     * @return Next frame to execute
+     */
+    protected Frame determineNextFrame(Frame frame) {
+        return frame.advance();
+    }
+
+    /**
+     * Returns a string representation of the instruction's operands.
+     *
+     * <p>Must be implemented by concrete subclasses to provide
+     * string representation of instruction-specific operands.</p>
+     *
+     * @return String representation of operands
+     */
+    protected abstract String getOperandsString();
+
+    private static Class<?> declaring(Class<?> type, String name, Class<?>... parameters) {
+        for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+            try {
+                c.getDeclaredMethod(name, parameters);
+                return c;
+            } catch (NoSuchMethodException e) {
+                // keep looking in the superclass
+            }
+        }
+        throw new AssertionError("Instruction." + name + " not found (can never happen)");
+    }
+
+    private static int depth(Class<?> type) {
+        int depth = 0;
+        for (Class<?> c = type; c != null; c = c.getSuperclass())
+            depth++;
+        return depth;
+    }
+
+    /**
+     * Compares this instruction with another object for equality.
+     *
+     * <p>Two instructions are equal if they:</p>
+     * <ul>
+     *   <li>Are of the same concrete class</li>
+     *   <li>Have equal labels (or both have no label)</li>
+     *   <li>Have equal opcodes</li>
+     * </ul>
+     *
+     * @param o Object to compare with
+     * @return true if equal, false otherwise
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Instruction that = (Instruction) o;
+        return Objects.equals(label, that.label) &&
+                Objects.equals(opcode, that.opcode);
+    }
+
+    /**
+     * Computes a hash code for this instruction.
+     *
+     * <p>The hash code is based on the instruction's label and opcode.</p>
+     *
+     * @return Hash code value
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(label, opcode);
+    }
+
+    /**
+     * Returns a string representation of this instruction.
+     *
+     * <p>Format includes:</p>
+     * <ul>
+     *   <li>Label (if present) followed by colon</li>
+     *   <li>Opcode</li>
+     *   <li>String representation of operands</li>
+     * </ul>
+     *
+     * @return String representation of the instruction
+     */
+    @Override
+    public String toString() {
+        return String.join(" ",
+                optionalLabel().map(s -> s + ":").orElse(""),
+                opcode(),
+                getOperandsString());
+    }
+}
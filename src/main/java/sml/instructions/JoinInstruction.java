@@ -0,0 +1,68 @@
+package sml.instructions;
+
+import sml.Frame;
+import sml.Label;
+import sml.Machine;
+
+import java.util.Optional;
+
+/**
+ * Represents the instruction that waits for a spawned method call in the SML runtime environment.
+ *
+ * <p>Pops a handle pushed by {@link SpawnInstruction}, waits for that call to return and pushes
+ * the value it returned. Stack: {@code handle -> value}.</p>
+ *
+ * <p>Key responsibilities:</p>
+ * <ul>
+ *   <li>Brings the result of a parallel call back into the calling method</li>
+ *   <li>Rethrows the error a spawned call failed with, as if it had been invoked</li>
+ * </ul>
+ *
+ * @author Ricki Angel
+ */
+public class JoinInstruction extends Instruction {
+    public static final String OP_CODE = "join";
+
+    /**
+     * Constructs a new JoinInstruction with the specified label.
+     *
+     * @param label The label identifying this instruction (can be null)
+     */
+    public JoinInstruction(Label label) {
+        super(label, OP_CODE);
+    }
+
+    /**
+     * Overrides the template method to join the call through the machine.
+     *
+     * @param machine The machine the instruction runs on
+     * @return Optional containing the next frame to execute
+     * @throws IllegalStateException if the handle is unknown or has already been joined
+     */
+    @Override
+    public Optional<Frame> execute(Machine machine) {
+        Frame frame = machine.frame();
+        frame.push(machine.join(frame.pop()));
+        return Optional.ofNullable(frame.advance());
+    }
+
+    /**
+     * Not used, as spawned calls belong to the machine rather than the frame.
+     *
+     * @param frame The current execution frame
+     */
+    @Override
+    protected void performInstructionLogic(Frame frame) {
+        // No operations performed here - joining handled in execute()
+    }
+
+    /**
+     * Returns a string representation of the instruction's operands.
+     *
+     * @return Empty string as this instruction has no operands
+     */
+    @Override
+    protected String getOperandsString() {
+        return "";
+    }
+}
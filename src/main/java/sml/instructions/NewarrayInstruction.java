@@ -0,0 +1,37 @@
+package sml.instructions;
+
+import sml.Frame;
+import sml.Label;
+import sml.memory.ArrayHeap;
+
+/**
+ * Represents the array allocation instruction in the SML runtime environment.
+ *
+ * <p>Pops a length from the operand stack, allocates a zero-filled array of that many elements in
+ * the machine's off-heap {@link ArrayHeap} and pushes the new array's handle.</p>
+ *
+ * @author Ricki Angel
+ */
+public class NewarrayInstruction extends AbstractArrayInstruction {
+    public static final String OP_CODE = "newarray";
+
+    /**
+     * Constructs a new NewarrayInstruction with the specified label.
+     *
+     * @param label The label identifying this instruction (can be null)
+     */
+    public NewarrayInstruction(Label label) {
+        super(label, OP_CODE);
+    }
+
+    /**
+     * Executes the instruction's primary operation.
+     *
+     * @param frame The current execution frame
+     * @param heap  The machine's array heap
+     */
+    @Override
+    protected void performArrayLogic(Frame frame, ArrayHeap heap) {
+        frame.push(heap.allocate(frame.pop()));
+    }
+}
@@ -0,0 +1,70 @@
+package sml.instructions;
+
+import sml.Frame;
+import sml.Label;
+import sml.Machine;
+import sml.io.MappedIntInput;
+
+import java.util.Optional;
+
+/**
+ * Represents the integer input instruction in the SML runtime environment.
+ *
+ * <p>Reads the next integer from the machine's {@link MappedIntInput} and pushes it onto the operand
+ * stack. At end of input it pushes {@link MappedIntInput#EOF} ({@code -2147483648}) instead.
+ * Stack: {@code -> value}.</p>
+ *
+ * <p>Key responsibilities:</p>
+ * <ul>
+ *   <li>Brings external data into a program without baking it into the source</li>
+ *   <li>Signals end of input with a sentinel the program can compare against</li>
+ * </ul>
+ *
+ * @author Ricki Angel
+ */
+public class ReadInstruction extends Instruction {
+    public static final String OP_CODE = "read";
+
+    /**
+     * Constructs a new ReadInstruction with the specified label.
+     *
+     * @param label The label identifying this instruction (can be null)
+     */
+    public ReadInstruction(Label label) {
+        super(label, OP_CODE);
+    }
+
+    /**
+     * Overrides the template method to read from the machine's input.
+     *
+     * @param machine The machine the instruction runs on
+     * @return Optional containing the next frame to execute
+     * @throws IllegalStateException if the machine has no input attached
+     */
+    @Override
+    public Optional<Frame> execute(Machine machine) {
+        Frame frame = machine.frame();
+        frame.push(machine.input().next());
+        return Optional.ofNullable(frame.advance());
+    }
+
+    /**
+     * Not used, as the input belongs to the machine rather than the frame.
+     *
+     * @param frame The current execution frame
+     */
+    @Override
+    protected void performInstructionLogic(Frame frame) {
+        // No operations performed here - reading input handled in execute()
+    }
+
+    /**
+     * Returns a string representation of the instruction's operands.
+     *
+     * @return Empty string as this instruction has no operands
+     */
+    @Override
+    protected String getOperandsString() {
+        return "";
+    }
+}
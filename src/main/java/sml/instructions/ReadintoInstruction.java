@@ -0,0 +1,72 @@
+package sml.instructions;
+
+import sml.Frame;
+import sml.Label;
+import sml.Machine;
+import sml.io.MappedIntInput;
+import sml.memory.ArrayHeap;
+
+import java.util.Optional;
+
+/**
+ * Represents the bulk integer input instruction in the SML runtime environment.
+ *
+ * <p>Pops a count, a start index and an array handle from the operand stack, reads up to that many
+ * integers from the machine's {@link MappedIntInput} into the array range, and pushes the number
+ * actually read. A result smaller than the count means the input is exhausted.
+ * Stack: {@code handle, from, count -> read}.</p>
+ *
+ * <p>For binary input the whole range is filled by one copy out of the mapped file, so loading a
+ * large data set costs a single instruction dispatch.</p>
+ *
+ * @author Ricki Angel
+ */
+public class ReadintoInstruction extends Instruction {
+    public static final String OP_CODE = "readinto";
+
+    /**
+     * Constructs a new ReadintoInstruction with the specified label.
+     *
+     * @param label The label identifying this instruction (can be null)
+     */
+    public ReadintoInstruction(Label label) {
+        super(label, OP_CODE);
+    }
+
+    /**
+     * Overrides the template method to read from the machine's input into its heap.
+     *
+     * @param machine The machine the instruction runs on
+     * @return Optional containing the next frame to execute
+     * @throws IllegalStateException if the machine has no input attached
+     */
+    @Override
+    public Optional<Frame> execute(Machine machine) {
+        Frame frame = machine.frame();
+        ArrayHeap heap = machine.heap();
+        int count = frame.pop();
+        int from = frame.pop();
+        frame.push(machine.input().readInto(heap.segment(frame.pop(), from, count), from, count));
+        return Optional.ofNullable(frame.advance());
+    }
+
+    /**
+     * Not used, as this instruction needs the machine's input and heap rather than just the frame.
+     *
+     * @param frame The current execution frame
+     */
+    @Override
+    protected void performInstructionLogic(Frame frame) {
+        // No operations performed here - reading input handled in execute()
+    }
+
+    /**
+     * Returns a string representation of the instruction's operands.
+     *
+     * @return Empty string as this instruction takes its operands from the stack
+     */
+    @Override
+    protected String getOperandsString() {
+        return "";
+    }
+}
@@ -0,0 +1,41 @@
+package sml.instructions;
+
+import sml.Frame;
+import sml.Label;
+import sml.channel.Channel;
+import sml.channel.ChannelTable;
+import sml.io.MappedIntInput;
+
+/**
+ * Represents the blocking channel receive instruction in the SML runtime environment.
+ *
+ * <p>Pops a channel handle and pushes the next message, parking the machine's thread while the channel
+ * is empty. Once the channel is closed and drained it pushes {@link MappedIntInput#EOF}
+ * ({@code -2147483648}), as {@code read} does at end of input. Stack: {@code handle -> value}.</p>
+ *
+ * @author Ricki Angel
+ */
+public class RecvInstruction extends AbstractChannelInstruction {
+    public static final String OP_CODE = "recv";
+
+    /**
+     * Constructs a new RecvInstruction with the specified label.
+     *
+     * @param label The label identifying this instruction (can be null)
+     */
+    public RecvInstruction(Label label) {
+        super(label, OP_CODE);
+    }
+
+    /**
+     * Executes the instruction's primary operation.
+     *
+     * @param frame    The current execution frame
+     * @param channels The machine's channel table
+     */
+    @Override
+    protected void performChannelLogic(Frame frame, ChannelTable channels) {
+        long value = channels.get(frame.pop()).receive();
+        frame.push(value == Channel.CLOSED ? MappedIntInput.EOF : (int) value);
+    }
+}
@@ -0,0 +1,38 @@
+package sml.instructions;
+
+import sml.Frame;
+import sml.Label;
+import sml.channel.ChannelTable;
+
+/**
+ * Represents the blocking channel send instruction in the SML runtime environment.
+ *
+ * <p>Pops a value and a channel handle and sends the value, parking the machine's thread while the
+ * channel is full. Fails if the channel is closed. Stack: {@code handle, value ->}.</p>
+ *
+ * @author Ricki Angel
+ */
+public class SendInstruction extends AbstractChannelInstruction {
+    public static final String OP_CODE = "send";
+
+    /**
+     * Constructs a new SendInstruction with the specified label.
+     *
+     * @param label The label identifying this instruction (can be null)
+     */
+    public SendInstruction(Label label) {
+        super(label, OP_CODE);
+    }
+
+    /**
+     * Executes the instruction's primary operation.
+     *
+     * @param frame    The current execution frame
+     * @param channels The machine's channel table
+     */
+    @Override
+    protected void performChannelLogic(Frame frame, ChannelTable channels) {
+        int value = frame.pop();
+        channels.get(frame.pop()).send(value);
+    }
+}
@@ -0,0 +1,101 @@
+package sml.instructions;
+
+import sml.*;
+
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Represents the parallel method call instruction in the SML runtime environment.
+ *
+ * <p>Pops the method's arguments like {@link InvokeInstruction}, but rather than transferring
+ * control it starts the call in its own frame chain as a fork-join task and pushes a handle to
+ * it. The calling method carries on, and later passes the handle to {@link JoinInstruction} to wait
+ * for the result. Stack: {@code arguments -> handle}.</p>
+ *
+ * <p>Key responsibilities:</p>
+ * <ul>
+ *   <li>Lets divide-and-conquer methods run their independent calls on several cores</li>
+ *   <li>Leaves the scheduling, and running small calls inline, to {@link Machine#spawn(Method)}</li>
+ * </ul>
+ *
+ * <p>A forked call runs on a machine of its own: it shares the program but not the array heap or
+ * the input, and the output of calls running at the same time is interleaved. A call run inline
+ * transfers control like an invocation, and the calling method carries on once it returns.</p>
+ *
+ * @author Ricki Angel
+ */
+public class SpawnInstruction extends Instruction {
+    public static final String OP_CODE = "spawn";
+    private final Method.Identifier methodName;
+
+    /**
+     * Constructs a new SpawnInstruction with specified label and method name.
+     *
+     * @param label      The label identifying this instruction (can be null)
+     * @param methodName The identifier of the method to spawn
+     * @throws NullPointerException if methodName is null
+     */
+    public SpawnInstruction(Label label, Method.Identifier methodName) {
+        super(label, OP_CODE);
+        this.methodName = Objects.requireNonNull(methodName);
+    }
+
+    /**
+     * Overrides the template method to spawn the call through the machine.
+     *
+     * @param machine The machine the instruction runs on
+     * @return Optional containing the next frame to execute
+     * @throws MethodNotFoundException if the program has no such method
+     * @throws IllegalStateException   if there are not enough arguments on the stack
+     */
+    @Override
+    public Optional<Frame> execute(Machine machine) {
+        Method target = machine.method(methodName)
+                .orElseThrow(() -> new MethodNotFoundException(methodName));
+        return machine.spawn(target);
+    }
+
+    /**
+     * Not used, as spawning needs the machine rather than just the frame.
+     *
+     * @param frame The current execution frame
+     */
+    @Override
+    protected void performInstructionLogic(Frame frame) {
+        // No operations performed here - spawning handled in execute()
+    }
+
+    /**
+     * Returns the method this instruction spawns.
+     *
+     * @return the identifier of the spawned method
+     */
+    public Method.Identifier methodName() {
+        return methodName;
+    }
+
+    /**
+     * Returns a string representation of the instruction's operands.
+     *
+     * @return String representation of the method name
+     */
+    @Override
+    protected String getOperandsString() {
+        return "@" + methodName;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        if (!super.equals(o)) return false;
+        SpawnInstruction that = (SpawnInstruction) o;
+        return Objects.equals(methodName, that.methodName);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(super.hashCode(), methodName);
+    }
+}
@@ -0,0 +1,49 @@
+package sml.instructions;
+
+import sml.Frame;
+import sml.Label;
+import sml.channel.Channel;
+import sml.channel.ChannelTable;
+
+/**
+ * Represents the non-blocking channel receive instruction in the SML runtime environment.
+ *
+ * <p>Pops a channel handle and, without waiting, pushes a message and a status: the message and 1 if
+ * one was waiting, 0 and 0 if the channel is empty, or 0 and -1 if it is closed and drained.
+ * Stack: {@code handle -> value, status}.</p>
+ *
+ * @author Ricki Angel
+ */
+public class TryRecvInstruction extends AbstractChannelInstruction {
+    public static final String OP_CODE = "try_recv";
+
+    /**
+     * Constructs a new TryRecvInstruction with the specified label.
+     *
+     * @param label The label identifying this instruction (can be null)
+     */
+    public TryRecvInstruction(Label label) {
+        super(label, OP_CODE);
+    }
+
+    /**
+     * Executes the instruction's primary operation.
+     *
+     * @param frame    The current execution frame
+     * @param channels The machine's channel table
+     */
+    @Override
+    protected void performChannelLogic(Frame frame, ChannelTable channels) {
+        long value = channels.get(frame.pop()).tryReceive();
+        if (value == Channel.EMPTY) {
+            frame.push(0);
+            frame.push(0);
+        } else if (value == Channel.CLOSED) {
+            frame.push(0);
+            frame.push(-1);
+        } else {
+            frame.push((int) value);
+            frame.push(1);
+        }
+    }
+}
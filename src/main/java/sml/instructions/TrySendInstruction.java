@@ -0,0 +1,39 @@
+package sml.instructions;
+
+import sml.Frame;
+import sml.Label;
+import sml.channel.ChannelTable;
+
+/**
+ * Represents the non-blocking channel send instruction in the SML runtime environment.
+ *
+ * <p>Pops a value and a channel handle, sends the value if the channel has room and pushes 1 if it was
+ * sent or 0 if the channel was full. Fails if the channel is closed.
+ * Stack: {@code handle, value -> sent}.</p>
+ *
+ * @author Ricki Angel
+ */
+public class TrySendInstruction extends AbstractChannelInstruction {
+    public static final String OP_CODE = "try_send";
+
+    /**
+     * Constructs a new TrySendInstruction with the specified label.
+     *
+     * @param label The label identifying this instruction (can be null)
+     */
+    public TrySendInstruction(Label label) {
+        super(label, OP_CODE);
+    }
+
+    /**
+     * Executes the instruction's primary operation.
+     *
+     * @param frame    The current execution frame
+     * @param channels The machine's channel table
+     */
+    @Override
+    protected void performChannelLogic(Frame frame, ChannelTable channels) {
+        int value = frame.pop();
+        frame.push(channels.get(frame.pop()).trySend(value) ? 1 : 0);
+    }
+}
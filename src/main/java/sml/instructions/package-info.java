@@ -0,0 +1,57 @@
+/**
+ * The {@code sml.instructions} package defines the instruction set for the Simple Machine Language.
+ * <p>
+ * It includes arithmetic, branching, and stack-based operations. Each instruction extends
+ * {@link sml.instructions.Instruction} and implements specific behavior within the SML execution model.
+ * <p>
+ * Notable instructions:
+ * <ul>
+ *     <li>{@link sml.instructions.AddInstruction} - Adds two values from the stack.</li>
+ *     <li>{@link sml.instructions.DivInstruction} - Performs integer division.</li>
+ *     <li>{@link sml.instructions.GotoInstruction} - Jumps to a specified label.</li>
+ *     <li>{@link sml.instructions.InvokeInstruction} - Calls a method.</li>
+ *     <li>{@link sml.instructions.LoadInstruction} - Loads a variable from memory.</li>
+ *     <li>{@link sml.instructions.StoreInstruction} - Stores a value into a variable.</li>
+ *     <li>{@link sml.instructions.ReturnInstruction} - Method termination operation.</li>
+ * </ul>
+ * <p>
+ * This package forms the executable core of an SML program, as well as others...
+ * <p>
+ *   Also includes four supplementary test instruction classes, additional to the coursework assignment:
+ * <ul>
+ *     <li>{@link sml.instructions.NotEqInstruction} - Comparison instruction.</li>
+ *     <li>{@link sml.instructions.SqrtInstruction} - Square root calculation instruction.</li>
+ *     <li>{@link sml.instructions.ModInstruction} -  Modulo calculation instruction.</li>
+ *     <li>{@link sml.instructions.NumCharInstruction} -  Number to character conversion instruction.</li>
+ * </ul>
+ * <p>
+ * Array instructions extend {@link sml.instructions.AbstractArrayInstruction} and operate on the
+ * machine's off-heap {@link sml.memory.ArrayHeap}:
+ * <ul>
+ *     <li>{@link sml.instructions.NewarrayInstruction} - Allocates an array and pushes its handle.</li>
+ *     <li>{@link sml.instructions.AloadInstruction} - Loads an array element.</li>
+ *     <li>{@link sml.instructions.AstoreInstruction} - Stores an array element.</li>
+ *     <li>{@link sml.instructions.AlenInstruction} - Pushes an array's length.</li>
+ *     <li>{@link sml.instructions.AfreeInstruction} - Frees an array.</li>
+ * </ul>
+ * <p>
+ * Fork-join instructions run method calls in parallel through the machine:
+ * <ul>
+ *     <li>{@link sml.instructions.SpawnInstruction} - Starts a method call and pushes its handle.</li>
+ *     <li>{@link sml.instructions.JoinInstruction} - Waits for a spawned call and pushes its result.</li>
+ * </ul>
+ * <p>
+ * Channel instructions pass messages between concurrently running code through the machine's
+ * {@link sml.channel.ChannelTable}:
+ * <ul>
+ *     <li>{@link sml.instructions.ChanNewInstruction} - Opens a channel and pushes its handle.</li>
+ *     <li>{@link sml.instructions.SendInstruction} - Sends a message, waiting for room.</li>
+ *     <li>{@link sml.instructions.RecvInstruction} - Receives a message, waiting for one.</li>
+ *     <li>{@link sml.instructions.CloseInstruction} - Closes a channel.</li>
+ *     <li>{@link sml.instructions.TrySendInstruction} - Sends a message if there is room.</li>
+ *     <li>{@link sml.instructions.TryRecvInstruction} - Receives a message if one is waiting.</li>
+ * </ul>
+ *
+ * @author Ricki Angel
+ */
+package sml.instructions;
@@ -0,0 +1,64 @@
+package sml.instructions.quick;
+
+import sml.Frame;
+import sml.Machine;
+import sml.instructions.Instruction;
+
+import java.util.Optional;
+
+/**
+ * Quickened two-operand conditional branch bound to the index of its target instruction.
+ *
+ * <p>Stands in for {@code if_cmpgt}, {@code if_cmpeq} and the jumping form of {@code not_eq}.</p>
+ *
+ * @author Ricki Angel
+ */
+public final class QuickBranchInstruction extends QuickenedInstruction {
+    /**
+     * The comparison a branch takes when it holds between {@code value1} and {@code value2}.
+     */
+    public enum Condition {
+        GREATER_THAN, EQUAL, NOT_EQUAL
+    }
+
+    private final Condition condition;
+    private final int target;
+
+    /**
+     * Creates a quickened branch.
+     *
+     * @param original  the branch instruction being replaced
+     * @param condition the comparison the original performs
+     * @param target    the instruction index its label resolved to
+     */
+    public QuickBranchInstruction(Instruction original, Condition condition, int target) {
+        super(original);
+        this.condition = condition;
+        this.target = target;
+    }
+
+    @Override
+    public Optional<Frame> execute(Machine machine) {
+        Frame frame = machine.frame();
+        boolean taken = taken(frame);
+        dispatchSaved(machine);
+        return Optional.ofNullable(taken ? frame.resumeAt(target) : frame.advance());
+    }
+
+    @Override
+    public int step(Machine machine, Frame frame) {
+        boolean taken = taken(frame);
+        dispatchSaved(machine);
+        return taken ? target : fallThrough(frame);
+    }
+
+    private boolean taken(Frame frame) {
+        int value2 = frame.pop();
+        int value1 = frame.pop();
+        return switch (condition) {
+            case GREATER_THAN -> value1 > value2;
+            case EQUAL -> value1 == value2;
+            case NOT_EQUAL -> value1 != value2;
+        };
+    }
+}
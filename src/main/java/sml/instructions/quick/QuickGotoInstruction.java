@@ -0,0 +1,39 @@
+package sml.instructions.quick;
+
+import sml.Frame;
+import sml.Machine;
+import sml.instructions.GotoInstruction;
+
+import java.util.Optional;
+
+/**
+ * Quickened {@code goto} bound to the index of its target instruction.
+ *
+ * @author Ricki Angel
+ */
+public final class QuickGotoInstruction extends QuickenedInstruction {
+    private final int target;
+
+    /**
+     * Creates a quickened goto.
+     *
+     * @param original the goto instruction being replaced
+     * @param target   the instruction index its label resolved to
+     */
+    public QuickGotoInstruction(GotoInstruction original, int target) {
+        super(original);
+        this.target = target;
+    }
+
+    @Override
+    public Optional<Frame> execute(Machine machine) {
+        dispatchSaved(machine);
+        return Optional.of(machine.frame().resumeAt(target));
+    }
+
+    @Override
+    public int step(Machine machine, Frame frame) {
+        dispatchSaved(machine);
+        return target;
+    }
+}
@@ -0,0 +1,68 @@
+package sml.instructions.quick;
+
+import sml.Frame;
+import sml.Machine;
+import sml.Method;
+import sml.MethodNotFoundException;
+import sml.SymbolTable;
+import sml.instructions.InvokeInstruction;
+
+import java.util.Optional;
+
+/**
+ * Quickened {@code invoke} bound directly to its target {@link Method}.
+ *
+ * <p>The binding is only known to be valid in the {@linkplain Machine#methodTable() method table}
+ * it was resolved in, so each execution first compares the machine's table by identity. In any
+ * other table the target is looked up by name again: if it is still the bound method, as when
+ * several machines load the same methods, the call goes ahead and the site is left alone;
+ * otherwise the site is put back to the original instruction, which quickens it afresh.</p>
+ *
+ * @author Ricki Angel
+ */
+public final class QuickInvokeInstruction extends QuickenedInstruction {
+    private final Method target;
+    private final SymbolTable<Method.Identifier, Method> table;
+
+    /**
+     * Creates a quickened invoke.
+     *
+     * @param original the invoke instruction being replaced
+     * @param target   the method it resolved to
+     * @param table    the method table the target was resolved in
+     */
+    public QuickInvokeInstruction(InvokeInstruction original, Method target, SymbolTable<Method.Identifier, Method> table) {
+        super(original);
+        this.target = target;
+        this.table = table;
+    }
+
+    @Override
+    public Optional<Frame> execute(Machine machine) {
+        if (machine.methodTable() != table) {
+            Method.Identifier name = ((InvokeInstruction) original()).methodName();
+            Method current = machine.method(name).orElseThrow(() -> new MethodNotFoundException(name));
+            if (current != target) {
+                deoptimise(machine, machine.frame());
+                return original().execute(machine);
+            }
+            return machine.newFrameForMethodInvocation(target);
+        }
+        dispatchSaved(machine);
+        return machine.newFrameForMethodInvocation(target);
+    }
+
+    @Override
+    public int step(Machine machine, Frame frame) {
+        if (machine.methodTable() != table) {
+            if (machine.resolveMethod(((InvokeInstruction) original()).methodName()) != target) {
+                deoptimise(machine, frame);
+                return original().step(machine, frame);
+            }
+        } else {
+            dispatchSaved(machine);
+        }
+        machine.invoke(target);
+        return CONTROL_TRANSFERRED;
+    }
+}
@@ -0,0 +1,46 @@
+package sml.instructions.quick;
+
+import sml.Frame;
+import sml.Machine;
+import sml.instructions.LoadInstruction;
+
+import java.util.Optional;
+
+/**
+ * Quickened {@code load} bound to its variable's slot.
+ *
+ * @author Ricki Angel
+ */
+public final class QuickLoadInstruction extends QuickenedInstruction {
+    private final int slot;
+
+    /**
+     * Creates a quickened load.
+     *
+     * @param original the load instruction being replaced
+     * @param slot     the variable's index in {@link sml.Method#variableSlots()}
+     */
+    public QuickLoadInstruction(LoadInstruction original, int slot) {
+        super(original);
+        this.slot = slot;
+    }
+
+    @Override
+    public Optional<Frame> execute(Machine machine) {
+        Frame frame = machine.frame();
+        int value = frame.variableAt(slot).load();
+        frame.push(value);
+        System.out.println(value);
+        dispatchSaved(machine);
+        return Optional.ofNullable(frame.advance());
+    }
+
+    @Override
+    public int step(Machine machine, Frame frame) {
+        int value = frame.variableAt(slot).load();
+        frame.push(value);
+        System.out.println(value);
+        dispatchSaved(machine);
+        return fallThrough(frame);
+    }
+}
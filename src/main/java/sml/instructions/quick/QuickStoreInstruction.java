@@ -0,0 +1,42 @@
+package sml.instructions.quick;
+
+import sml.Frame;
+import sml.Machine;
+import sml.instructions.StoreInstruction;
+
+import java.util.Optional;
+
+/**
+ * Quickened {@code store} bound to its variable's slot.
+ *
+ * @author Ricki Angel
+ */
+public final class QuickStoreInstruction extends QuickenedInstruction {
+    private final int slot;
+
+    /**
+     * Creates a quickened store.
+     *
+     * @param original the store instruction being replaced
+     * @param slot     the variable's index in {@link sml.Method#variableSlots()}
+     */
+    public QuickStoreInstruction(StoreInstruction original, int slot) {
+        super(original);
+        this.slot = slot;
+    }
+
+    @Override
+    public Optional<Frame> execute(Machine machine) {
+        Frame frame = machine.frame();
+        frame.variableAt(slot).store(frame.pop());
+        dispatchSaved(machine);
+        return Optional.ofNullable(frame.advance());
+    }
+
+    @Override
+    public int step(Machine machine, Frame frame) {
+        frame.variableAt(slot).store(frame.pop());
+        dispatchSaved(machine);
+        return fallThrough(frame);
+    }
+}
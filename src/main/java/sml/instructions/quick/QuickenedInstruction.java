@@ -0,0 +1,116 @@
+package sml.instructions.quick;
+
+import sml.Frame;
+import sml.Machine;
+import sml.instructions.Instruction;
+
+import java.util.Objects;
+
+/**
+ * Base class for the specialised variants that instructions rewrite themselves into.
+ *
+ * <p>A quickened instruction stands in for the translated instruction it was created from: it
+ * prints, compares and hashes as that original, so traces, error messages and program listings
+ * are unchanged. Only {@link #execute(Machine)} differs, using operands bound when the site was
+ * first executed.</p>
+ *
+ * <p>Key responsibilities:</p>
+ * <ul>
+ *   <li>Installing a variant at a site via {@link #install(Machine, Frame, int, Instruction, QuickenedInstruction)}</li>
+ *   <li>Putting the original back via {@link #deoptimise(Machine, Frame)} when a binding turns stale</li>
+ *   <li>Counting both in the machine's {@link QuickeningStats}</li>
+ * </ul>
+ *
+ * <p>Variants are immutable, so a rewritten method can be shared by machines on different
+ * threads.</p>
+ *
+ * @author Ricki Angel
+ */
+public abstract class QuickenedInstruction extends Instruction {
+    private final Instruction original;
+
+    /**
+     * Creates a quickened variant of an instruction.
+     *
+     * @param original the translated instruction this variant replaces
+     * @throws NullPointerException if original is null
+     */
+    protected QuickenedInstruction(Instruction original) {
+        super(original.optionalLabel().orElse(null), original.opcode());
+        this.original = original;
+    }
+
+    /**
+     * Rewrites a site with its quickened variant, if quickening is enabled on the machine.
+     *
+     * <p>Called by an instruction after its first execution. Does nothing if the site has already
+     * been rewritten, for instance by another machine sharing the method.</p>
+     *
+     * @param machine        the machine that executed the instruction
+     * @param frame          the frame the instruction ran in
+     * @param programCounter the index of the instruction in its method
+     * @param original       the instruction that ran
+     * @param quickened      its quickened variant
+     */
+    public static void install(Machine machine, Frame frame, int programCounter,
+                               Instruction original, QuickenedInstruction quickened) {
+        if (machine.isQuickeningEnabled() && frame.method().rewrite(programCounter, original, quickened))
+            machine.quickeningStats().siteQuickened();
+    }
+
+    /**
+     * Returns the translated instruction this variant replaces.
+     *
+     * @return the original instruction
+     */
+    public Instruction original() {
+        return original;
+    }
+
+    /**
+     * Puts the original instruction back at this site in the frame's current method.
+     *
+     * @param machine the machine running the frame
+     * @param frame   the frame positioned at this instruction
+     */
+    protected void deoptimise(Machine machine, Frame frame) {
+        if (frame.method().rewrite(frame.programCounter(), this, original))
+            machine.quickeningStats().siteDeoptimised();
+    }
+
+    /**
+     * Records one execution that skipped a lookup by name.
+     *
+     * @param machine the machine running the instruction
+     */
+    protected static void dispatchSaved(Machine machine) {
+        machine.quickeningStats().dispatchSaved();
+    }
+
+    @Override
+    protected void performInstructionLogic(Frame frame) {
+        // Variants implement execute() directly
+    }
+
+    @Override
+    protected String getOperandsString() {
+        return "";
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return original.equals(((QuickenedInstruction) o).original);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(getClass(), original);
+    }
+
+    @Override
+    public String toString() {
+        return original.toString();
+    }
+}
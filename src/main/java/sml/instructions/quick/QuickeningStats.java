@@ -0,0 +1,72 @@
+package sml.instructions.quick;
+
+/**
+ * Counters describing the effect of quickening on one {@link sml.Machine}.
+ *
+ * <p>Like the rest of the machine state, the counters are only updated by the thread currently
+ * running the machine.</p>
+ *
+ * @author Ricki Angel
+ * @see sml.Machine#quickeningStats()
+ */
+public final class QuickeningStats {
+    private long quickenedSites;
+    private long savedDispatches;
+    private long deoptimisations;
+
+    /**
+     * Returns the number of instruction sites this machine has rewritten into quickened variants.
+     *
+     * @return the quickened site count
+     */
+    public long quickenedSites() {
+        return quickenedSites;
+    }
+
+    /**
+     * Returns the number of executions of quickened variants, each of which skipped a lookup of a
+     * method, label or variable by name.
+     *
+     * @return the saved dispatch count
+     */
+    public long savedDispatches() {
+        return savedDispatches;
+    }
+
+    /**
+     * Returns the number of quickened sites put back to their original instruction because their
+     * binding no longer held.
+     *
+     * @return the deoptimisation count
+     */
+    public long deoptimisations() {
+        return deoptimisations;
+    }
+
+    /**
+     * Resets every counter to zero.
+     */
+    public void reset() {
+        quickenedSites = 0;
+        savedDispatches = 0;
+        deoptimisations = 0;
+    }
+
+    void siteQuickened() {
+        quickenedSites++;
+    }
+
+    void dispatchSaved() {
+        savedDispatches++;
+    }
+
+    void siteDeoptimised() {
+        deoptimisations++;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Quickening: %d sites, %d dispatches saved, %d deoptimisations",
+                quickenedSites, savedDispatches, deoptimisations);
+    }
+}
@@ -0,0 +1,14 @@
+/**
+ * Quickened instruction variants.
+ *
+ * <p>On first execution, the built-in {@code invoke}, branch, {@code load} and {@code store}
+ * instructions replace themselves in their method's executable code with a variant from this
+ * package whose operands are already resolved: the target {@link sml.Method}, the target
+ * instruction index or the variable slot. Later executions skip the lookups by name.</p>
+ *
+ * <p>These classes deliberately live outside {@code sml.instructions}, so instruction discovery by
+ * package scan never mistakes them for opcodes of their own.</p>
+ *
+ * @author Ricki Angel
+ */
+package sml.instructions.quick;
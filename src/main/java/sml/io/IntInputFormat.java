@@ -0,0 +1,28 @@
+package sml.io;
+
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * The encodings understood by {@link MappedIntInput}.
+ *
+ * @author Ricki Angel
+ */
+public enum IntInputFormat {
+    /** Consecutive 32-bit little-endian two's complement integers, with no header or separators. */
+    BINARY,
+
+    /** Optionally signed decimal integers separated by any other characters (whitespace, commas...). */
+    TEXT;
+
+    /**
+     * Guesses the format from a file name: {@code .bin} files are binary, anything else is text.
+     *
+     * @param file the input file
+     * @return the inferred format
+     */
+    public static IntInputFormat forFile(Path file) {
+        Path name = file.getFileName();
+        return name != null && name.toString().toLowerCase(Locale.ROOT).endsWith(".bin") ? BINARY : TEXT;
+    }
+}
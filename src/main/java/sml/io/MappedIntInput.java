@@ -0,0 +1,230 @@
+package sml.io;
+
+import sml.memory.ArrayHeap;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+/**
+ * A sequential stream of {@code int}s read from a memory-mapped file.
+ *
+ * <p>The whole file is mapped read-only with {@link FileChannel#map(FileChannel.MapMode, long, long, Arena)}
+ * into a single {@link MemorySegment}, so inputs larger than 2 GB need no windowing and the Java
+ * heap cost is constant regardless of file size. Reads walk the mapping strictly front to back,
+ * which is the access pattern the operating system's read-ahead is tuned for.</p>
+ *
+ * <p>Key features:</p>
+ * <ul>
+ *   <li>{@link IntInputFormat#BINARY} files are consumed four bytes at a time, and bulk reads into
+ *       an array are a single {@link MemorySegment#copy} from the mapping</li>
+ *   <li>{@link IntInputFormat#TEXT} files are parsed in place without creating strings</li>
+ *   <li>{@link #next()} returns the {@link #EOF} sentinel once the input is exhausted</li>
+ *   <li>The read position can be saved and restored, so checkpoints can record it</li>
+ * </ul>
+ *
+ * <p>Reads and moves of the position are synchronised, so the machines of a spawn tree can share
+ * one input: each value is read by exactly one of them.</p>
+ *
+ * @author Ricki Angel
+ * @see sml.Machine#setInput(MappedIntInput)
+ */
+public final class MappedIntInput implements AutoCloseable {
+    /** Value returned by {@link #next()} at end of input. */
+    public static final int EOF = Integer.MIN_VALUE;
+
+    private static final ValueLayout.OfInt BINARY_INT = ValueLayout.JAVA_INT_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+
+    private final Path file;
+    private final IntInputFormat format;
+    private final Arena arena;
+    private final MemorySegment data;
+    private final long size;
+    private long position;
+
+    private MappedIntInput(Path file, IntInputFormat format, Arena arena, MemorySegment data) {
+        this.file = file;
+        this.format = format;
+        this.arena = arena;
+        this.data = data;
+        this.size = data.byteSize();
+    }
+
+    /**
+     * Maps a file for reading, inferring the format from its name.
+     *
+     * @param file the input file
+     * @return the input stream
+     * @throws IOException if the file cannot be opened or mapped
+     * @see IntInputFormat#forFile(Path)
+     */
+    public static MappedIntInput open(Path file) throws IOException {
+        return open(file, IntInputFormat.forFile(file));
+    }
+
+    /**
+     * Maps a file for reading in the given format.
+     *
+     * @param file   the input file
+     * @param format the encoding of the file
+     * @return the input stream
+     * @throws IOException if the file cannot be opened or mapped
+     */
+    public static MappedIntInput open(Path file, IntInputFormat format) throws IOException {
+        Objects.requireNonNull(format);
+        // Shared, because a scheduled machine may read on more than one carrier thread.
+        Arena arena = Arena.ofShared();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MemorySegment data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size(), arena);
+            return new MappedIntInput(file, format, arena, data);
+        } catch (IOException | RuntimeException e) {
+            arena.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Reads the next integer.
+     *
+     * <p>In binary files a trailing partial integer of fewer than four bytes is ignored.</p>
+     *
+     * @return the next value, or {@link #EOF} if the input is exhausted
+     * @throws NumberFormatException if a text number does not fit in an {@code int}
+     */
+    public synchronized int next() {
+        if (format == IntInputFormat.BINARY) {
+            if (size - position < Integer.BYTES) return EOF;
+            int value = data.get(BINARY_INT, position);
+            position += Integer.BYTES;
+            return value;
+        }
+        return nextText();
+    }
+
+    /**
+     * Reads up to {@code count} integers into a memory segment holding little-endian ints, such as
+     * an {@link ArrayHeap} array.
+     *
+     * @param destination the segment to fill
+     * @param from        the first element index to write
+     * @param count       the maximum number of integers to read
+     * @return the number of integers read, which is less than {@code count} only at end of input
+     * @throws NumberFormatException if a text number does not fit in an {@code int}
+     */
+    public synchronized int readInto(MemorySegment destination, int from, int count) {
+        if (format == IntInputFormat.BINARY) {
+            int available = (int) Math.min(count, (size - position) / Integer.BYTES);
+            MemorySegment.copy(data, position, destination, (long) from * Integer.BYTES,
+                    (long) available * Integer.BYTES);
+            position += (long) available * Integer.BYTES;
+            return available;
+        }
+
+        int read = 0;
+        while (read < count && skipToNumber()) {
+            destination.setAtIndex(ArrayHeap.ELEMENT, from + read, parseNumber());
+            read++;
+        }
+        return read;
+    }
+
+    /**
+     * Returns the current read position in bytes from the start of the file.
+     *
+     * @return the byte offset of the next read
+     */
+    public synchronized long position() {
+        return position;
+    }
+
+    /**
+     * Moves the read position, for example when resuming from a checkpoint.
+     *
+     * @param position the byte offset of the next read
+     * @throws IndexOutOfBoundsException if the position is outside the file
+     */
+    public synchronized void seek(long position) {
+        this.position = Objects.checkIndex(position, size + 1);
+    }
+
+    /**
+     * Returns the size of the mapped file.
+     *
+     * @return the file size in bytes
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Returns the encoding being read.
+     *
+     * @return the input format
+     */
+    public IntInputFormat format() {
+        return format;
+    }
+
+    /**
+     * Unmaps the file. Reads after closing fail with {@link IllegalStateException}.
+     */
+    @Override
+    public void close() {
+        arena.close();
+    }
+
+    @Override
+    public String toString() {
+        return file + " (" + format + ", " + position + "/" + size + " bytes)";
+    }
+
+    private int nextText() {
+        return skipToNumber() ? parseNumber() : EOF;
+    }
+
+    /**
+     * Advances past separators to the start of the next number.
+     *
+     * @return whether a number was found before end of input
+     */
+    private boolean skipToNumber() {
+        while (position < size) {
+            byte b = data.get(ValueLayout.JAVA_BYTE, position);
+            if (isDigit(b)) return true;
+            if (b == '-' && position + 1 < size && isDigit(data.get(ValueLayout.JAVA_BYTE, position + 1)))
+                return true;
+            position++;
+        }
+        return false;
+    }
+
+    private int parseNumber() {
+        long start = position;
+        boolean negative = data.get(ValueLayout.JAVA_BYTE, position) == '-';
+        if (negative) position++;
+
+        long value = 0;
+        while (position < size) {
+            byte b = data.get(ValueLayout.JAVA_BYTE, position);
+            if (!isDigit(b)) break;
+            value = value * 10 + (b - '0');
+            if (value > (long) Integer.MAX_VALUE + 1)
+                throw new NumberFormatException("Integer out of range at byte " + start + " of " + file);
+            position++;
+        }
+        value = negative ? -value : value;
+        if (value > Integer.MAX_VALUE)
+            throw new NumberFormatException("Integer out of range at byte " + start + " of " + file);
+        return (int) value;
+    }
+
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+}
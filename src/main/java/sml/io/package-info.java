@@ -0,0 +1,19 @@
+/**
+ * Provides bulk integer input for SML programs.
+ * <p>
+ * This package contains:
+ * <ul>
+ *   <li>{@link sml.io.MappedIntInput} - Streams integers from a memory-mapped file with constant
+ *       heap usage</li>
+ *   <li>{@link sml.io.IntInputFormat} - The binary and text encodings it understands</li>
+ * </ul>
+ * </p>
+ * <p>
+ * Programs read their input with the {@code read} and {@code readinto} instructions; the input file
+ * is attached to the {@link sml.Machine} by {@link sml.RunSml}'s {@code --input} option.
+ * </p>
+ *
+ * @author Ricki Angel
+ * @see sml.Machine#setInput(MappedIntInput)
+ */
+package sml.io;
@@ -0,0 +1,147 @@
+package sml.ir;
+
+import sml.Method;
+
+import java.util.Arrays;
+import java.util.StringJoiner;
+
+/**
+ * An SML method translated into register-based three-address code.
+ *
+ * <p>Each method gets a window of {@code int} registers laid out as its variable slots, then one
+ * register per operand stack position, then its constants. Every operand of an instruction is a
+ * register in that window, so {@code load i; load n; if_cmpgt L27} becomes the single instruction
+ * {@code if_gt r0, r1 -> 12}.</p>
+ *
+ * <p>Instructions are four {@code int}s wide - opcode, destination, two sources - and carry:</p>
+ * <ul>
+ *   <li>a weight, the number of stack instructions they stand for, so the interpreter can report
+ *       exact stack instruction counts</li>
+ *   <li>optionally, a list of registers to echo before executing, which preserves the output of
+ *       every {@code load} that was folded into an operand</li>
+ * </ul>
+ *
+ * <p>Instances are immutable.</p>
+ *
+ * @author Ricki Angel
+ * @see RegisterProgram
+ */
+public final class RegisterMethod {
+    static final int MOVE = 1;
+    static final int ADD = 2;
+    static final int SUB = 3;
+    static final int MUL = 4;
+    static final int DIV = 5;
+    static final int MOD = 6;
+    static final int NE = 7;
+    static final int PRINT = 8;
+    static final int GOTO = 9;
+    static final int IF_GT = 10;
+    static final int IF_EQ = 11;
+    static final int IF_NE = 12;
+    static final int INVOKE = 13;
+    static final int RETURN = 14;
+
+    /** Set on the opcode of instructions that echo registers before executing. */
+    static final int ECHO = 0x100;
+    static final int OP_MASK = 0xFF;
+    static final int WIDTH = 4;
+
+    private static final String[] NAMES = {"", "move", "add", "sub", "mul", "div", "mod", "ne", "print",
+            "goto", "if_gt", "if_eq", "if_ne", "invoke", "return"};
+
+    final Method.Identifier name;
+    final int[] code;
+    final int[] weights;
+    final int[][] echoes;
+    final int argumentCount;
+    final int variableCount;
+    final int constantBase;
+    final int[] constants;
+    final int frameSize;
+    final int sourceLength;
+
+    RegisterMethod(Method method, int[] code, int[] weights, int[][] echoes, int maxStack, int[] constants) {
+        this.name = method.name();
+        this.code = code;
+        this.weights = weights;
+        this.echoes = echoes;
+        this.argumentCount = method.arguments().size();
+        this.variableCount = method.variableSlots().size();
+        this.constantBase = variableCount + maxStack;
+        this.constants = constants;
+        this.frameSize = constantBase + constants.length;
+        this.sourceLength = method.instructions().size();
+    }
+
+    /**
+     * Returns the name of the method this code was translated from.
+     *
+     * @return the method identifier
+     */
+    public Method.Identifier name() {
+        return name;
+    }
+
+    /**
+     * Returns the number of register instructions.
+     *
+     * @return the static instruction count
+     */
+    public int length() {
+        return code.length / WIDTH;
+    }
+
+    /**
+     * Returns the number of stack instructions in the source method.
+     *
+     * @return the source instruction count
+     */
+    public int sourceLength() {
+        return sourceLength;
+    }
+
+    /**
+     * Returns the number of registers in one activation of the method.
+     *
+     * @return the register window size
+     */
+    public int frameSize() {
+        return frameSize;
+    }
+
+    /**
+     * Returns a listing of the register code, one instruction per line.
+     *
+     * <p>Registers are written {@code rN}; constants {@code #value}.</p>
+     *
+     * @return the disassembly
+     */
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder("@").append(name).append(": ")
+                .append(frameSize).append(" registers\n");
+        for (int i = 0; i < length(); i++) {
+            int p = i * WIDTH;
+            int op = code[p] & OP_MASK;
+            StringJoiner line = new StringJoiner(", ", String.format("%4d  %-7s", i, NAMES[op]), "");
+            switch (op) {
+                case MOVE -> line.add(register(code[p + 1])).add(register(code[p + 2]));
+                case PRINT, RETURN -> line.add(register(code[p + 2]));
+                case GOTO -> line.add("-> " + code[p + 1]);
+                case IF_GT, IF_EQ, IF_NE -> line.add(register(code[p + 2])).add(register(code[p + 3]) + " -> " + code[p + 1]);
+                case INVOKE -> line.add("method " + code[p + 1]).add(register(code[p + 2])).add(code[p + 3] + " args");
+                default -> line.add(register(code[p + 1])).add(register(code[p + 2])).add(register(code[p + 3]));
+            }
+            text.append(line);
+            if ((code[p] & ECHO) != 0)
+                text.append("  echo ").append(Arrays.stream(echoes[i]).mapToObj(this::register).toList());
+            text.append('\n');
+        }
+        return text.toString();
+    }
+
+    private String register(int register) {
+        return register >= constantBase ? "#" + constants[register - constantBase] : "r" + register;
+    }
+}
@@ -0,0 +1,384 @@
+package sml.ir;
+
+import sml.Label;
+import sml.Method;
+import sml.Variable;
+import sml.instructions.*;
+
+import java.util.*;
+
+import static sml.ir.RegisterMethod.*;
+
+/**
+ * Translates one stack-based method into a {@link RegisterMethod}.
+ *
+ * <p>The translation is a single pass over the instructions that simulates the operand stack with
+ * descriptors instead of values. {@code push} and {@code load} only push a descriptor naming a
+ * constant or variable register; the instruction that consumes it uses that register directly as
+ * an operand. A result is written to the register of the stack position it occupies, and a
+ * following {@code store} retargets it straight into the variable. Before a branch target, a
+ * branch or a call, every descriptor is materialised into its stack position register, so all
+ * paths agree on where each stack value lives.</p>
+ *
+ * <p>Methods are rejected when their stack depth cannot be determined statically, when they
+ * contain an instruction other than the built-in arithmetic, variable, branch, {@code print},
+ * {@code invoke} and {@code return} instructions, or when execution could run off their end.</p>
+ *
+ * @author Ricki Angel
+ */
+final class RegisterTranslator {
+    private static final int TEMP = 0;
+    private static final int LOCAL = 1;
+    private static final int CONST = 2;
+
+    private final Method method;
+    private final List<Instruction> instructions;
+    private final Map<Method.Identifier, Integer> methodIndex;
+    private final List<Method> methods;
+    private final Map<Variable.Identifier, Integer> slots = new HashMap<>();
+    private final int tempBase;
+
+    private int[] depths;
+    private int maxStack;
+
+    // Simulated operand stack
+    private int[] kinds;
+    private int[] values;
+    private boolean[] pendingEcho;
+    private int sp;
+
+    // Output
+    private int[] code = new int[64];
+    private int[] weights = new int[16];
+    private int[][] echoes = new int[16][];
+    private int length;
+    private int folded;
+    private int lastResult = -1;
+    private final Map<Integer, Integer> constants = new LinkedHashMap<>();
+
+    private RegisterTranslator(Method method, Map<Method.Identifier, Integer> methodIndex, List<Method> methods) {
+        this.method = method;
+        this.instructions = method.instructions();
+        this.methodIndex = methodIndex;
+        this.methods = methods;
+        List<Variable.Identifier> variableSlots = method.variableSlots();
+        for (int i = 0; i < variableSlots.size(); i++)
+            slots.put(variableSlots.get(i), i);
+        this.tempBase = variableSlots.size();
+    }
+
+    /**
+     * Translates a method.
+     *
+     * @param method      the method to translate
+     * @param methodIndex the index of every method of the program, used to resolve {@code invoke}
+     * @param methods     the methods of the program, in index order
+     * @return the register code
+     * @throws IllegalArgumentException if the method cannot be translated
+     */
+    static RegisterMethod translate(Method method, Map<Method.Identifier, Integer> methodIndex, List<Method> methods) {
+        return new RegisterTranslator(method, methodIndex, methods).translate();
+    }
+
+    private RegisterMethod translate() {
+        computeDepths();
+        kinds = new int[maxStack];
+        values = new int[maxStack];
+        pendingEcho = new boolean[maxStack];
+
+        Set<Integer> targets = branchTargets();
+        int[] start = new int[instructions.size()];
+        List<int[]> patches = new ArrayList<>(); // {instruction index, source target}
+        boolean reachedByFallThrough = false;
+
+        for (int pc = 0; pc < instructions.size(); pc++) {
+            if (depths[pc] < 0) {
+                reachedByFallThrough = false;
+                continue; // unreachable
+            }
+            if (!reachedByFallThrough) resetStack(depths[pc]);
+            else if (targets.contains(pc)) flush();
+            if (targets.contains(pc)) lastResult = -1;
+            start[pc] = length;
+            folded++;
+
+            Instruction instruction = instructions.get(pc);
+            Class<?> type = instruction.getClass();
+            reachedByFallThrough = true;
+
+            if (type == PushInstruction.class) {
+                push(CONST, ((PushInstruction) instruction).value());
+            } else if (type == LoadInstruction.class) {
+                push(LOCAL, slot(instruction));
+                pendingEcho[sp - 1] = true;
+            } else if (type == StoreInstruction.class) {
+                store(slot(instruction));
+            } else if (type == AddInstruction.class) {
+                binary(ADD);
+            } else if (type == SubInstruction.class) {
+                binary(SUB);
+            } else if (type == MulInstruction.class) {
+                binary(MUL);
+            } else if (type == DivInstruction.class) {
+                binary(DIV);
+            } else if (type == ModInstruction.class) {
+                binary(MOD);
+            } else if (type == NotEqInstruction.class && ((NotEqInstruction) instruction).jumpLabel() == null) {
+                binary(NE);
+            } else if (type == PrintInstruction.class) {
+                emit(PRINT, 0, register(sp - 1), 0);
+                sp--;
+            } else if (type == GotoInstruction.class) {
+                flush();
+                patches.add(new int[]{length, target(((GotoInstruction) instruction).branchLabel())});
+                emit(GOTO, 0, 0, 0);
+                reachedByFallThrough = false;
+            } else if (type == IfCmpgtInstruction.class || type == IfCmpeqInstruction.class || type == NotEqInstruction.class) {
+                Label label = type == IfCmpgtInstruction.class ? ((IfCmpgtInstruction) instruction).jumpLabel()
+                        : type == IfCmpeqInstruction.class ? ((IfCmpeqInstruction) instruction).jumpLabel()
+                        : ((NotEqInstruction) instruction).jumpLabel();
+                int op = type == IfCmpgtInstruction.class ? IF_GT : type == IfCmpeqInstruction.class ? IF_EQ : IF_NE;
+                branch(op, target(label));
+                patches.add(new int[]{length - 1, target(label)});
+            } else if (type == InvokeInstruction.class) {
+                invoke(((InvokeInstruction) instruction).methodName());
+            } else if (type == ReturnInstruction.class) {
+                emit(RETURN, 0, register(sp - 1), 0);
+                reachedByFallThrough = false;
+            } else {
+                throw reject("unsupported instruction " + instruction);
+            }
+        }
+
+        for (int[] patch : patches)
+            code[patch[0] * WIDTH + 1] = start[patch[1]];
+
+        int[] constantValues = constants.keySet().stream().mapToInt(Integer::intValue).toArray();
+        return new RegisterMethod(method, Arrays.copyOf(code, length * WIDTH), Arrays.copyOf(weights, length),
+                Arrays.copyOf(echoes, length), maxStack, constantValues);
+    }
+
+    /**
+     * Computes the operand stack depth before each instruction, or -1 where it is unreachable.
+     */
+    private void computeDepths() {
+        int size = instructions.size();
+        depths = new int[size];
+        Arrays.fill(depths, -1);
+        Deque<Integer> work = new ArrayDeque<>();
+        depths[0] = 0;
+        work.push(0);
+
+        while (!work.isEmpty()) {
+            int pc = work.pop();
+            int depth = depths[pc];
+            maxStack = Math.max(maxStack, depth);
+            Instruction instruction = instructions.get(pc);
+            Class<?> type = instruction.getClass();
+
+            int pops;
+            int pushes = 0;
+            int branchTo = -1;
+            boolean fallsThrough = true;
+            if (type == PushInstruction.class || type == LoadInstruction.class) {
+                pops = 0;
+                pushes = 1;
+            } else if (type == StoreInstruction.class || type == PrintInstruction.class) {
+                pops = 1;
+            } else if (type == AddInstruction.class || type == SubInstruction.class || type == MulInstruction.class
+                    || type == DivInstruction.class || type == ModInstruction.class
+                    || (type == NotEqInstruction.class && ((NotEqInstruction) instruction).jumpLabel() == null)) {
+                pops = 2;
+                pushes = 1;
+            } else if (type == GotoInstruction.class) {
+                pops = 0;
+                branchTo = target(((GotoInstruction) instruction).branchLabel());
+                fallsThrough = false;
+            } else if (type == IfCmpgtInstruction.class) {
+                pops = 2;
+                branchTo = target(((IfCmpgtInstruction) instruction).jumpLabel());
+            } else if (type == IfCmpeqInstruction.class) {
+                pops = 2;
+                branchTo = target(((IfCmpeqInstruction) instruction).jumpLabel());
+            } else if (type == NotEqInstruction.class) {
+                pops = 2;
+                branchTo = target(((NotEqInstruction) instruction).jumpLabel());
+            } else if (type == InvokeInstruction.class) {
+                pops = callee(((InvokeInstruction) instruction).methodName()).arguments().size();
+                pushes = 1;
+            } else if (type == ReturnInstruction.class) {
+                pops = 1;
+                fallsThrough = false;
+            } else {
+                throw reject("unsupported instruction " + instruction);
+            }
+
+            if (depth < pops) throw reject("operand stack underflow at instruction " + pc);
+            int after = depth - pops + pushes;
+            maxStack = Math.max(maxStack, after);
+            if (branchTo >= 0) propagate(work, branchTo, after);
+            if (fallsThrough) {
+                if (pc + 1 == size) throw reject("execution can run off the end of the method");
+                propagate(work, pc + 1, after);
+            }
+        }
+    }
+
+    private void propagate(Deque<Integer> work, int pc, int depth) {
+        if (depths[pc] == -1) {
+            depths[pc] = depth;
+            work.push(pc);
+        } else if (depths[pc] != depth) {
+            throw reject("inconsistent operand stack depth at instruction " + pc);
+        }
+    }
+
+    private Set<Integer> branchTargets() {
+        Set<Integer> targets = new HashSet<>();
+        for (Instruction instruction : instructions) {
+            if (instruction instanceof GotoInstruction g) targets.add(target(g.branchLabel()));
+            else if (instruction instanceof IfCmpgtInstruction i) targets.add(target(i.jumpLabel()));
+            else if (instruction instanceof IfCmpeqInstruction i) targets.add(target(i.jumpLabel()));
+            else if (instruction instanceof NotEqInstruction n && n.jumpLabel() != null) targets.add(target(n.jumpLabel()));
+        }
+        return targets;
+    }
+
+    private void store(int slot) {
+        int top = sp - 1;
+        boolean aliased = false;
+        for (int d = 0; d < top; d++)
+            aliased |= kinds[d] == LOCAL && values[d] == slot;
+
+        if (!aliased && kinds[top] == TEMP && lastResult == length - 1 && code[lastResult * WIDTH + 1] == tempBase + top) {
+            // The value was just computed: write it straight into the variable instead
+            code[lastResult * WIDTH + 1] = slot;
+            weights[lastResult] += folded;
+            folded = 0;
+            lastResult = -1;
+        } else {
+            for (int d = 0; d < top; d++)
+                if (kinds[d] == LOCAL && values[d] == slot) materialise(d);
+            emit(MOVE, slot, register(top), 0);
+        }
+        sp--;
+    }
+
+    private void binary(int op) {
+        int dest = tempBase + sp - 2;
+        emit(op, dest, register(sp - 2), register(sp - 1));
+        sp -= 2;
+        push(TEMP, 0);
+        lastResult = length - 1;
+    }
+
+    private void branch(int op, int target) {
+        int value1 = register(sp - 2);
+        int value2 = register(sp - 1);
+        sp -= 2;
+        flush();
+        sp += 2; // keep pending echoes of the operands visible to emit
+        emit(op, 0, value1, value2);
+        sp -= 2;
+    }
+
+    private void invoke(Method.Identifier name) {
+        int arguments = callee(name).arguments().size();
+        flush();
+        emit(INVOKE, methodIndex.get(name), tempBase + sp - arguments, arguments);
+        sp -= arguments;
+        push(TEMP, 0);
+    }
+
+    private void push(int kind, int value) {
+        kinds[sp] = kind;
+        values[sp] = kind == CONST ? constant(value) : value;
+        pendingEcho[sp] = false;
+        sp++;
+    }
+
+    private void resetStack(int depth) {
+        sp = depth;
+        for (int d = 0; d < depth; d++) {
+            kinds[d] = TEMP;
+            pendingEcho[d] = false;
+        }
+        lastResult = -1;
+    }
+
+    private void flush() {
+        for (int d = 0; d < sp; d++) materialise(d);
+    }
+
+    private void materialise(int position) {
+        if (kinds[position] == TEMP) return;
+        emit(MOVE, tempBase + position, register(position), 0);
+        kinds[position] = TEMP;
+    }
+
+    private int register(int position) {
+        return switch (kinds[position]) {
+            case TEMP -> tempBase + position;
+            case LOCAL -> values[position];
+            default -> tempBase + maxStack + values[position]; // constants follow the stack registers
+        };
+    }
+
+    /**
+     * Appends an instruction, echoing first every folded {@code load} still on the simulated stack.
+     */
+    private void emit(int op, int a, int b, int c) {
+        int[] echo = null;
+        int count = 0;
+        for (int d = 0; d < sp; d++)
+            if (pendingEcho[d]) count++;
+        if (count > 0) {
+            echo = new int[count];
+            for (int d = 0, i = 0; d < sp; d++) {
+                if (pendingEcho[d]) {
+                    echo[i++] = values[d];
+                    pendingEcho[d] = false;
+                }
+            }
+            op |= ECHO;
+        }
+
+        if (length == weights.length) {
+            code = Arrays.copyOf(code, code.length * 2);
+            weights = Arrays.copyOf(weights, weights.length * 2);
+            echoes = Arrays.copyOf(echoes, echoes.length * 2);
+        }
+        int p = length * WIDTH;
+        code[p] = op;
+        code[p + 1] = a;
+        code[p + 2] = b;
+        code[p + 3] = c;
+        weights[length] = folded;
+        echoes[length] = echo;
+        folded = 0;
+        length++;
+        lastResult = -1;
+    }
+
+    private int constant(int value) {
+        return constants.computeIfAbsent(value, v -> constants.size());
+    }
+
+    private int slot(Instruction instruction) {
+        return slots.get(((AbstractVarInstruction) instruction).variable());
+    }
+
+    private Method callee(Method.Identifier name) {
+        Integer index = methodIndex.get(name);
+        if (index == null) throw reject("invokes undefined method @" + name);
+        return methods.get(index);
+    }
+
+    private int target(Label label) {
+        return method.labels().get(label).orElseThrow(() -> reject("branches to undefined label " + label));
+    }
+
+    private IllegalArgumentException reject(String reason) {
+        return new IllegalArgumentException("Cannot translate @" + method.name() + " to register code: " + reason);
+    }
+}
@@ -0,0 +1,11 @@
+/**
+ * Register-based intermediate representation of SML methods.
+ *
+ * <p>{@link sml.ir.RegisterProgram} translates stack code into three-address
+ * {@link sml.ir.RegisterMethod} code, folding {@code push}, {@code load} and {@code store} into the
+ * operands of the instructions around them, and interprets it with far fewer dispatches than the
+ * stack interpreter.</p>
+ *
+ * @author Ricki Angel
+ */
+package sml.ir;
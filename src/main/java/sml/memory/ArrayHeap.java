@@ -0,0 +1,353 @@
+package sml.memory;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.IntConsumer;
+
+/**
+ * An off-heap store of {@code int} arrays owned by a {@link sml.Machine} and the calls it spawns.
+ *
+ * <p>SML values are plain {@code int}s, so arrays are referred to by integer handles that programs
+ * keep on the operand stack or in variables like any other value. Each array lives in its own
+ * {@link MemorySegment} outside the Java heap, so large data sets add nothing to GC marking work
+ * and are released deterministically by {@link #free(int)} rather than by the collector.</p>
+ *
+ * <p>Key features:</p>
+ * <ul>
+ *   <li>Handles combine a slot index with a generation tag, so a stale handle to a freed and reused
+ *       slot is rejected instead of silently reading another array</li>
+ *   <li>Bounds checks use {@link Objects#checkIndex(int, int)} against a plain {@code int[]} of
+ *       lengths, which the JIT treats as an intrinsic</li>
+ *   <li>The total number of bytes allocated is capped, and the cap is configurable per machine</li>
+ *   <li>Elements are stored little-endian so heap images are portable between platforms</li>
+ * </ul>
+ *
+ * <p>Each array is allocated in its own shared {@link Arena}: a machine may be resumed on a
+ * different thread by the {@link sml.scheduling.SmlScheduler}, which confined arenas would not
+ * allow. Closing a shared arena is comparatively expensive, so programs should free large arrays
+ * rather than churn through many small ones.</p>
+ *
+ * <p>Arenas are only closed by {@link #free(int)} and {@link #clear()}. The machine that loads a
+ * program owns its heap and clears it when the next program is loaded or the machine is
+ * {@linkplain sml.Machine#close() closed}; machines running spawned calls never do.</p>
+ *
+ * <p>A heap is shared by the machines of a spawn tree, whose calls may run on several fork-join
+ * workers at once. Allocating, freeing, restoring and the size accounting are synchronised.
+ * Element access is not, so it costs no more than on a single thread: a handle received through
+ * {@code spawn}, {@code join} or a channel is guaranteed to be visible, but, as with Java arrays,
+ * calls that write elements another call reads must order those accesses themselves. An access
+ * racing with a {@code free} of the same array fails rather than reading released memory, as
+ * closing a shared arena waits for accesses in progress.</p>
+ *
+ * @author Ricki Angel
+ * @see sml.Machine#heap()
+ */
+public final class ArrayHeap implements AutoCloseable {
+    /** Default cap on the total size of all live arrays: 64 MiB. */
+    public static final long DEFAULT_MAX_BYTES = 64L << 20;
+
+    /** Layout of one array element. */
+    public static final ValueLayout.OfInt ELEMENT = ValueLayout.JAVA_INT.withOrder(ByteOrder.LITTLE_ENDIAN);
+
+    private static final int SLOT_BITS = 24;
+    private static final int SLOT_MASK = (1 << SLOT_BITS) - 1;
+    private static final int GENERATION_MASK = 0x7F;
+
+    private long maxBytes;
+    private long bytesInUse;
+    private int liveArrays;
+
+    // Read without locking by element access; replaced, never resized in place, when full and
+    // published through the volatile fields, so a reader sees every slot allocated before it.
+    private volatile MemorySegment[] segments = new MemorySegment[16];
+    private Arena[] arenas = new Arena[16];
+    private volatile int[] lengths = new int[16];
+    private volatile int[] generations = new int[16];
+    private int[] freeSlots = new int[16];
+    private int freeCount;
+    private int nextSlot = 1; // slot 0 is never used, so handle 0 is never valid
+
+    /**
+     * Creates a heap with the {@linkplain #DEFAULT_MAX_BYTES default} size cap.
+     */
+    public ArrayHeap() {
+        this(DEFAULT_MAX_BYTES);
+    }
+
+    /**
+     * Creates a heap with the given size cap.
+     *
+     * @param maxBytes the maximum total size of all live arrays in bytes
+     * @throws IllegalArgumentException if the cap is negative
+     */
+    public ArrayHeap(long maxBytes) {
+        setMaxBytes(maxBytes);
+    }
+
+    /**
+     * Allocates a zero-filled array.
+     *
+     * @param length the number of elements
+     * @return the handle of the new array
+     * @throws ArrayHeapException if the length is negative or the allocation would exceed the cap
+     */
+    public synchronized int allocate(int length) {
+        checkAllocation(length);
+        return allocateInto(freeCount > 0 ? freeSlots[--freeCount] : newSlot(), length);
+    }
+
+    /**
+     * Reads one element of an array.
+     *
+     * @param handle the array handle
+     * @param index  the element index
+     * @return the element value
+     * @throws ArrayHeapException        if the handle is not a live array
+     * @throws IndexOutOfBoundsException if the index is outside the array
+     */
+    public int get(int handle, int index) {
+        int slot = slot(handle);
+        return segments[slot].getAtIndex(ELEMENT, Objects.checkIndex(index, lengths[slot]));
+    }
+
+    /**
+     * Writes one element of an array.
+     *
+     * @param handle the array handle
+     * @param index  the element index
+     * @param value  the value to store
+     * @throws ArrayHeapException        if the handle is not a live array
+     * @throws IndexOutOfBoundsException if the index is outside the array
+     */
+    public void set(int handle, int index, int value) {
+        int slot = slot(handle);
+        segments[slot].setAtIndex(ELEMENT, Objects.checkIndex(index, lengths[slot]), value);
+    }
+
+    /**
+     * Returns the length of an array.
+     *
+     * @param handle the array handle
+     * @return the number of elements
+     * @throws ArrayHeapException if the handle is not a live array
+     */
+    public int length(int handle) {
+        return lengths[slot(handle)];
+    }
+
+    /**
+     * Returns the memory backing an array, for bulk operations.
+     *
+     * <p>The segment is only valid until the array is freed.</p>
+     *
+     * @param handle the array handle
+     * @return the array's segment
+     * @throws ArrayHeapException if the handle is not a live array
+     */
+    public MemorySegment segment(int handle) {
+        return segments[slot(handle)];
+    }
+
+    /**
+     * Returns the memory backing an array after checking that a range of elements lies within it.
+     *
+     * @param handle the array handle
+     * @param from   the first element of the range
+     * @param count  the number of elements in the range
+     * @return the array's segment
+     * @throws ArrayHeapException        if the handle is not a live array
+     * @throws IndexOutOfBoundsException if the range is outside the array
+     */
+    public MemorySegment segment(int handle, int from, int count) {
+        int slot = slot(handle);
+        Objects.checkFromIndexSize(from, count, lengths[slot]);
+        return segments[slot];
+    }
+
+    /**
+     * Frees an array, returning its memory to the operating system.
+     *
+     * @param handle the array handle
+     * @throws ArrayHeapException if the handle is not a live array
+     */
+    public synchronized void free(int handle) {
+        int slot = slot(handle);
+        arenas[slot].close();
+        bytesInUse -= (long) lengths[slot] * Integer.BYTES;
+        liveArrays--;
+        segments[slot] = null;
+        arenas[slot] = null;
+        lengths[slot] = 0;
+        generations[slot] = (generations[slot] + 1) & GENERATION_MASK;
+        freeSlots[freeCount++] = slot;
+    }
+
+    /**
+     * Recreates an array under a specific handle, as captured by {@link #forEachLive(IntConsumer)}.
+     *
+     * <p>Used when restoring a machine from a snapshot into an empty heap.</p>
+     *
+     * @param handle the handle the array had when it was captured
+     * @param values the array contents
+     * @throws ArrayHeapException if the handle is malformed or already live, or the cap is exceeded
+     */
+    public synchronized void restore(int handle, int[] values) {
+        MemorySegment.copy(values, 0, restore(handle, values.length), ELEMENT, 0, values.length);
+    }
+
+    /**
+     * Recreates a zero-filled array under a specific handle and returns its memory for the caller
+     * to fill, so large contents can be copied in without an intermediate Java array.
+     *
+     * @param handle the handle the array had when it was captured
+     * @param length the number of elements
+     * @return the new array's segment
+     * @throws ArrayHeapException if the handle is malformed or already live, the length is negative
+     *                            or the cap is exceeded
+     */
+    public synchronized MemorySegment restore(int handle, int length) {
+        int slot = handle & SLOT_MASK;
+        if (handle <= 0 || slot == 0 || (slot < nextSlot && segments[slot] != null))
+            throw new ArrayHeapException("Cannot restore array handle " + handle);
+        checkAllocation(length);
+
+        while (nextSlot <= slot) {
+            int unused = newSlot(); // may grow freeSlots, so take it before indexing
+            freeSlots[freeCount++] = unused;
+        }
+        for (int i = 0; i < freeCount; i++) {
+            if (freeSlots[i] == slot) {
+                freeSlots[i] = freeSlots[--freeCount];
+                break;
+            }
+        }
+        generations[slot] = handle >>> SLOT_BITS;
+        allocateInto(slot, length);
+        return segments[slot];
+    }
+
+    /**
+     * Calls the action with the handle of every live array, in slot order.
+     *
+     * @param action the action to perform for each handle
+     */
+    public synchronized void forEachLive(IntConsumer action) {
+        for (int slot = 1; slot < nextSlot; slot++)
+            if (segments[slot] != null)
+                action.accept(generations[slot] << SLOT_BITS | slot);
+    }
+
+    /**
+     * Copies the contents of an array onto the Java heap.
+     *
+     * @param handle the array handle
+     * @return a copy of the array contents
+     * @throws ArrayHeapException if the handle is not a live array
+     */
+    public int[] toArray(int handle) {
+        return segment(handle).toArray(ELEMENT);
+    }
+
+    /**
+     * Frees every live array.
+     */
+    public synchronized void clear() {
+        forEachLive(this::free);
+    }
+
+    /**
+     * Frees every live array; the heap remains usable afterwards.
+     */
+    @Override
+    public void close() {
+        clear();
+    }
+
+    /**
+     * Sets the cap on the total size of live arrays.
+     *
+     * <p>Lowering the cap below the current usage does not free anything, it only prevents
+     * further allocation.</p>
+     *
+     * @param maxBytes the maximum total size in bytes
+     * @throws IllegalArgumentException if the cap is negative
+     */
+    public synchronized void setMaxBytes(long maxBytes) {
+        if (maxBytes < 0)
+            throw new IllegalArgumentException("Heap size must not be negative: " + maxBytes);
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Returns the cap on the total size of live arrays.
+     *
+     * @return the cap in bytes
+     */
+    public long maxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * Returns the total size of live arrays.
+     *
+     * @return the size in bytes
+     */
+    public synchronized long bytesInUse() {
+        return bytesInUse;
+    }
+
+    /**
+     * Returns the number of live arrays.
+     *
+     * @return the live array count
+     */
+    public synchronized int liveArrays() {
+        return liveArrays;
+    }
+
+    private void checkAllocation(int length) {
+        if (length < 0)
+            throw new ArrayHeapException("Negative array length: " + length);
+        long bytes = (long) length * Integer.BYTES;
+        if (bytes > maxBytes - bytesInUse)
+            throw new ArrayHeapException("Array heap exhausted: " + bytes + " bytes requested, "
+                    + (maxBytes - bytesInUse) + " of " + maxBytes + " available");
+    }
+
+    private int allocateInto(int slot, int length) {
+        long bytes = (long) length * Integer.BYTES;
+        Arena arena = Arena.ofShared();
+        segments[slot] = arena.allocate(bytes, Integer.BYTES);
+        arenas[slot] = arena;
+        lengths[slot] = length;
+        bytesInUse += bytes;
+        liveArrays++;
+        return generations[slot] << SLOT_BITS | slot;
+    }
+
+    private int slot(int handle) {
+        int slot = handle & SLOT_MASK;
+        if (handle <= 0 || slot >= nextSlot || segments[slot] == null
+                || generations[slot] != handle >>> SLOT_BITS)
+            throw new ArrayHeapException("Invalid array handle " + handle);
+        return slot;
+    }
+
+    private int newSlot() {
+        if (nextSlot > SLOT_MASK)
+            throw new ArrayHeapException("Too many live arrays");
+        if (nextSlot == segments.length) {
+            int capacity = segments.length * 2;
+            segments = Arrays.copyOf(segments, capacity);
+            arenas = Arrays.copyOf(arenas, capacity);
+            lengths = Arrays.copyOf(lengths, capacity);
+            generations = Arrays.copyOf(generations, capacity);
+            freeSlots = Arrays.copyOf(freeSlots, capacity);
+        }
+        return nextSlot++;
+    }
+}
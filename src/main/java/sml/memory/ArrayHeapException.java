@@ -0,0 +1,21 @@
+package sml.memory;
+
+/**
+ * Exception thrown when an {@link ArrayHeap} operation cannot be performed.
+ *
+ * <p>Raised for invalid or stale array handles, negative lengths and allocations that would exceed
+ * the heap's configured size cap. Index errors are reported separately as
+ * {@link IndexOutOfBoundsException}.</p>
+ *
+ * @author Ricki Angel
+ */
+public class ArrayHeapException extends RuntimeException {
+    /**
+     * Constructs a new {@code ArrayHeapException} with the given message.
+     *
+     * @param message the detail message
+     */
+    public ArrayHeapException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,133 @@
+package sml.memory;
+
+import java.lang.foreign.MemorySegment;
+
+/**
+ * Bulk operations over ranges of {@link ArrayHeap} arrays.
+ *
+ * <p>Ranges are given as an element index and count within a segment, and are assumed to have been
+ * bounds-checked already, typically by {@link ArrayHeap#segment(int, int, int)}. Arithmetic wraps on
+ * overflow exactly like the scalar SML instructions.</p>
+ *
+ * <p>Two implementations exist:</p>
+ * <ul>
+ *   <li>A SIMD implementation on the incubating {@code jdk.incubator.vector} API, used when the JVM
+ *       was started with {@code --add-modules jdk.incubator.vector}</li>
+ *   <li>A plain scalar implementation, used otherwise or when the {@code sml.kernels} system
+ *       property is set to {@code scalar}</li>
+ * </ul>
+ *
+ * <p>The SIMD implementation is loaded reflectively, so this interface and the scalar fallback never
+ * link against the incubator module when it is absent.</p>
+ *
+ * @author Ricki Angel
+ */
+public interface ArrayKernels {
+
+    /**
+     * Returns the fastest implementation available in this JVM.
+     *
+     * @return the preferred kernels
+     */
+    static ArrayKernels preferred() {
+        return KernelSelection.PREFERRED;
+    }
+
+    /**
+     * Returns the scalar implementation.
+     *
+     * @return the scalar kernels
+     */
+    static ArrayKernels scalar() {
+        return ScalarArrayKernels.INSTANCE;
+    }
+
+    /**
+     * Returns the SIMD implementation.
+     *
+     * @return the vector kernels
+     * @throws UnsupportedOperationException if the {@code jdk.incubator.vector} module is not loaded
+     */
+    static ArrayKernels simd() {
+        if (KernelSelection.SIMD == null)
+            throw new UnsupportedOperationException("jdk.incubator.vector is not available; "
+                    + "start the JVM with --add-modules jdk.incubator.vector");
+        return KernelSelection.SIMD;
+    }
+
+    /**
+     * Returns a short name for the implementation, for logs and benchmark reports.
+     *
+     * @return the implementation name
+     */
+    String name();
+
+    /**
+     * Sums a range of elements.
+     *
+     * @param array the array segment
+     * @param from  the first element
+     * @param count the number of elements
+     * @return the wrapped sum
+     */
+    int sum(MemorySegment array, int from, int count);
+
+    /**
+     * Computes the dot product of two equally sized ranges.
+     *
+     * @param a     the first array segment
+     * @param aFrom the first element in {@code a}
+     * @param b     the second array segment
+     * @param bFrom the first element in {@code b}
+     * @param count the number of elements
+     * @return the wrapped dot product
+     */
+    int dot(MemorySegment a, int aFrom, MemorySegment b, int bFrom, int count);
+
+    /**
+     * Sets every element of a range to a value.
+     *
+     * @param array the array segment
+     * @param from  the first element
+     * @param count the number of elements
+     * @param value the value to store
+     */
+    void fill(MemorySegment array, int from, int count, int value);
+
+    /**
+     * Adds a scalar to every element of a range in place.
+     *
+     * @param array  the array segment
+     * @param from   the first element
+     * @param count  the number of elements
+     * @param scalar the value to add
+     */
+    void addScalar(MemorySegment array, int from, int count, int scalar);
+
+    /**
+     * Multiplies every element of a range by a scalar in place.
+     *
+     * @param array  the array segment
+     * @param from   the first element
+     * @param count  the number of elements
+     * @param scalar the multiplier
+     */
+    void mulScalar(MemorySegment array, int from, int count, int scalar);
+
+    /**
+     * Copies a range of elements, behaving as if through a temporary buffer when the ranges overlap.
+     *
+     * <p>{@link MemorySegment#copy} is already an intrinsic bulk move, so both implementations share
+     * this default.</p>
+     *
+     * @param src     the source array segment
+     * @param srcFrom the first source element
+     * @param dst     the destination array segment
+     * @param dstFrom the first destination element
+     * @param count   the number of elements
+     */
+    default void copy(MemorySegment src, int srcFrom, MemorySegment dst, int dstFrom, int count) {
+        MemorySegment.copy(src, ArrayHeap.ELEMENT, (long) srcFrom * Integer.BYTES,
+                dst, ArrayHeap.ELEMENT, (long) dstFrom * Integer.BYTES, count);
+    }
+}
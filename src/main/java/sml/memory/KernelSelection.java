@@ -0,0 +1,34 @@
+package sml.memory;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Selects the {@link ArrayKernels} implementations once, on first use.
+ *
+ * <p>Kept out of the interface so the selection state is not part of the public API.</p>
+ *
+ * @author Ricki Angel
+ */
+final class KernelSelection {
+    private static final Logger LOGGER = Logger.getLogger(ArrayKernels.class.getName());
+
+    static final ArrayKernels SIMD = loadSimd();
+    static final ArrayKernels PREFERRED =
+            SIMD != null && !"scalar".equals(System.getProperty("sml.kernels")) ? SIMD : ScalarArrayKernels.INSTANCE;
+
+    private KernelSelection() {
+    }
+
+    private static ArrayKernels loadSimd() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty())
+            return null;
+        try {
+            return (ArrayKernels) Class.forName("sml.memory.VectorArrayKernels")
+                    .getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            LOGGER.log(Level.WARNING, "Vector kernels unavailable, using scalar fallback", e);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package sml.memory;
+
+import java.lang.foreign.MemorySegment;
+
+import static sml.memory.ArrayHeap.ELEMENT;
+
+/**
+ * Element-at-a-time {@link ArrayKernels}, used when the Vector API is unavailable.
+ *
+ * <p>The loops are simple enough for C2 to auto-vectorise some of them, so this is the baseline the
+ * explicit SIMD kernels have to beat rather than a naive worst case.</p>
+ *
+ * @author Ricki Angel
+ */
+final class ScalarArrayKernels implements ArrayKernels {
+    static final ScalarArrayKernels INSTANCE = new ScalarArrayKernels();
+
+    private ScalarArrayKernels() {
+    }
+
+    @Override
+    public String name() {
+        return "scalar";
+    }
+
+    @Override
+    public int sum(MemorySegment array, int from, int count) {
+        int sum = 0;
+        for (int i = from, end = from + count; i < end; i++)
+            sum += array.getAtIndex(ELEMENT, i);
+        return sum;
+    }
+
+    @Override
+    public int dot(MemorySegment a, int aFrom, MemorySegment b, int bFrom, int count) {
+        int dot = 0;
+        for (int i = 0; i < count; i++)
+            dot += a.getAtIndex(ELEMENT, aFrom + i) * b.getAtIndex(ELEMENT, bFrom + i);
+        return dot;
+    }
+
+    @Override
+    public void fill(MemorySegment array, int from, int count, int value) {
+        for (int i = from, end = from + count; i < end; i++)
+            array.setAtIndex(ELEMENT, i, value);
+    }
+
+    @Override
+    public void addScalar(MemorySegment array, int from, int count, int scalar) {
+        for (int i = from, end = from + count; i < end; i++)
+            array.setAtIndex(ELEMENT, i, array.getAtIndex(ELEMENT, i) + scalar);
+    }
+
+    @Override
+    public void mulScalar(MemorySegment array, int from, int count, int scalar) {
+        for (int i = from, end = from + count; i < end; i++)
+            array.setAtIndex(ELEMENT, i, array.getAtIndex(ELEMENT, i) * scalar);
+    }
+}
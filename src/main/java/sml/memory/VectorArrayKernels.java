@@ -0,0 +1,93 @@
+package sml.memory;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.lang.foreign.MemorySegment;
+import java.nio.ByteOrder;
+
+import static sml.memory.ArrayHeap.ELEMENT;
+
+/**
+ * SIMD {@link ArrayKernels} built on the incubating Vector API.
+ *
+ * <p>Each kernel processes {@link IntVector#SPECIES_PREFERRED} lanes per iteration straight from the
+ * off-heap segment and finishes the remainder with a scalar tail loop. Only loaded by
+ * {@link ArrayKernels#preferred()} once the {@code jdk.incubator.vector} module is known to be
+ * present.</p>
+ *
+ * @author Ricki Angel
+ */
+final class VectorArrayKernels implements ArrayKernels {
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+    private static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    VectorArrayKernels() {
+    }
+
+    @Override
+    public String name() {
+        return "simd-" + SPECIES.vectorBitSize();
+    }
+
+    @Override
+    public int sum(MemorySegment array, int from, int count) {
+        IntVector acc = IntVector.zero(SPECIES);
+        int i = 0;
+        for (int upper = SPECIES.loopBound(count); i < upper; i += SPECIES.length())
+            acc = acc.add(load(array, from + i));
+        int sum = acc.reduceLanes(VectorOperators.ADD);
+        for (; i < count; i++)
+            sum += array.getAtIndex(ELEMENT, from + i);
+        return sum;
+    }
+
+    @Override
+    public int dot(MemorySegment a, int aFrom, MemorySegment b, int bFrom, int count) {
+        IntVector acc = IntVector.zero(SPECIES);
+        int i = 0;
+        for (int upper = SPECIES.loopBound(count); i < upper; i += SPECIES.length())
+            acc = acc.add(load(a, aFrom + i).mul(load(b, bFrom + i)));
+        int dot = acc.reduceLanes(VectorOperators.ADD);
+        for (; i < count; i++)
+            dot += a.getAtIndex(ELEMENT, aFrom + i) * b.getAtIndex(ELEMENT, bFrom + i);
+        return dot;
+    }
+
+    @Override
+    public void fill(MemorySegment array, int from, int count, int value) {
+        IntVector broadcast = IntVector.broadcast(SPECIES, value);
+        int i = 0;
+        for (int upper = SPECIES.loopBound(count); i < upper; i += SPECIES.length())
+            broadcast.intoMemorySegment(array, offset(from + i), ORDER);
+        for (; i < count; i++)
+            array.setAtIndex(ELEMENT, from + i, value);
+    }
+
+    @Override
+    public void addScalar(MemorySegment array, int from, int count, int scalar) {
+        int i = 0;
+        for (int upper = SPECIES.loopBound(count); i < upper; i += SPECIES.length())
+            load(array, from + i).add(scalar).intoMemorySegment(array, offset(from + i), ORDER);
+        for (; i < count; i++)
+            array.setAtIndex(ELEMENT, from + i, array.getAtIndex(ELEMENT, from + i) + scalar);
+    }
+
+    @Override
+    public void mulScalar(MemorySegment array, int from, int count, int scalar) {
+        int i = 0;
+        for (int upper = SPECIES.loopBound(count); i < upper; i += SPECIES.length())
+            load(array, from + i).mul(scalar).intoMemorySegment(array, offset(from + i), ORDER);
+        for (; i < count; i++)
+            array.setAtIndex(ELEMENT, from + i, array.getAtIndex(ELEMENT, from + i) * scalar);
+    }
+
+    private static IntVector load(MemorySegment array, int index) {
+        return IntVector.fromMemorySegment(SPECIES, array, offset(index), ORDER);
+    }
+
+    private static long offset(int index) {
+        return (long) index * Integer.BYTES;
+    }
+}
@@ -0,0 +1,19 @@
+/**
+ * Provides off-heap array storage for SML programs.
+ * <p>
+ * This package contains:
+ * <ul>
+ *   <li>{@link sml.memory.ArrayHeap} - A per-machine store of {@code int} arrays backed by
+ *       {@link java.lang.foreign.MemorySegment}s and addressed by integer handles</li>
+ *   <li>{@link sml.memory.ArrayHeapException} - Signals invalid handles and heap exhaustion</li>
+ * </ul>
+ * </p>
+ * <p>
+ * Arrays are manipulated by the {@code newarray}, {@code aload}, {@code astore}, {@code alen} and
+ * {@code afree} instructions in {@link sml.instructions}.
+ * </p>
+ *
+ * @author Ricki Angel
+ * @see sml.Machine#heap()
+ */
+package sml.memory;
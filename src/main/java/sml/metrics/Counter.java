@@ -0,0 +1,52 @@
+package sml.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A monotonically increasing count, such as instructions executed.
+ *
+ * <p>Backed by a {@link LongAdder}, whose cells are striped across contending threads, so many
+ * machines can update the same counter without a shared cache line becoming a bottleneck.</p>
+ *
+ * @author Ricki Angel
+ */
+public final class Counter extends Metric implements CounterMXBean {
+    private final LongAdder value = new LongAdder();
+
+    Counter(String name, String help) {
+        super(name, help);
+    }
+
+    /**
+     * Adds one to the count.
+     */
+    public void increment() {
+        value.increment();
+    }
+
+    /**
+     * Adds to the count.
+     *
+     * @param amount the amount to add
+     * @throws IllegalArgumentException if the amount is negative
+     */
+    public void add(long amount) {
+        if (amount < 0) throw new IllegalArgumentException("Counters cannot decrease: " + amount);
+        if (amount > 0) value.add(amount);
+    }
+
+    @Override
+    public long getValue() {
+        return value.sum();
+    }
+
+    @Override
+    String type() {
+        return "counter";
+    }
+
+    @Override
+    void writeSamples(StringBuilder out) {
+        out.append(getName()).append(' ').append(getValue()).append('\n');
+    }
+}
@@ -0,0 +1,29 @@
+package sml.metrics;
+
+/**
+ * JMX view of a {@link Counter}.
+ *
+ * @author Ricki Angel
+ */
+public interface CounterMXBean {
+    /**
+     * Returns the metric name, as exported to Prometheus.
+     *
+     * @return the metric name
+     */
+    String getName();
+
+    /**
+     * Returns the description of the metric.
+     *
+     * @return the help text
+     */
+    String getHelp();
+
+    /**
+     * Returns the current value.
+     *
+     * @return the value
+     */
+    long getValue();
+}
@@ -0,0 +1,29 @@
+package sml.metrics;
+
+/**
+ * JMX view of a {@link MaxGauge}.
+ *
+ * @author Ricki Angel
+ */
+public interface GaugeMXBean {
+    /**
+     * Returns the metric name, as exported to Prometheus.
+     *
+     * @return the metric name
+     */
+    String getName();
+
+    /**
+     * Returns the description of the metric.
+     *
+     * @return the help text
+     */
+    String getHelp();
+
+    /**
+     * Returns the current value of the gauge.
+     *
+     * @return the value
+     */
+    long getValue();
+}
@@ -0,0 +1,82 @@
+package sml.metrics;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A distribution of durations over fixed buckets, such as translation times.
+ *
+ * <p>Durations are recorded in nanoseconds and exported in seconds, the Prometheus base unit. Each
+ * bucket, the count and the sum are separate {@link LongAdder}s, so recording is two striped
+ * increments after a short scan of the bucket bounds.</p>
+ *
+ * @author Ricki Angel
+ */
+public final class Histogram extends Metric implements HistogramMXBean {
+    /** Bucket bounds from 100 microseconds to 10 seconds, suited to translation and discovery. */
+    static final double[] DEFAULT_BOUNDS = {0.0001, 0.0005, 0.001, 0.005, 0.01, 0.05, 0.1, 0.5, 1, 5, 10};
+
+    private final String[] labels;
+    private final long[] boundNanos;
+    private final LongAdder[] buckets;
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sumNanos = new LongAdder();
+
+    Histogram(String name, String help, double[] bounds) {
+        super(name, help);
+        if (bounds.length == 0) throw new IllegalArgumentException("A histogram needs at least one bucket");
+        for (int i = 1; i < bounds.length; i++)
+            if (bounds[i] <= bounds[i - 1])
+                throw new IllegalArgumentException("Bucket bounds must increase: " + Arrays.toString(bounds));
+        this.labels = Arrays.stream(bounds)
+                .mapToObj(b -> BigDecimal.valueOf(b).stripTrailingZeros().toPlainString())
+                .toArray(String[]::new);
+        this.boundNanos = Arrays.stream(bounds).mapToLong(b -> (long) (b * 1e9)).toArray();
+        this.buckets = new LongAdder[bounds.length + 1];
+        for (int i = 0; i < buckets.length; i++)
+            buckets[i] = new LongAdder();
+    }
+
+    /**
+     * Records a duration.
+     *
+     * @param nanos the duration in nanoseconds
+     */
+    public void recordNanos(long nanos) {
+        int bucket = 0;
+        while (bucket < boundNanos.length && nanos > boundNanos[bucket]) bucket++;
+        buckets[bucket].increment();
+        count.increment();
+        sumNanos.add(nanos);
+    }
+
+    @Override
+    public long getCount() {
+        return count.sum();
+    }
+
+    @Override
+    public double getSum() {
+        return sumNanos.sum() / 1e9;
+    }
+
+    @Override
+    String type() {
+        return "histogram";
+    }
+
+    @Override
+    void writeSamples(StringBuilder out) {
+        long cumulative = 0;
+        for (int i = 0; i < labels.length; i++) {
+            cumulative += buckets[i].sum();
+            out.append(getName()).append("_bucket{le=\"").append(labels[i]).append("\"} ")
+                    .append(cumulative).append('\n');
+        }
+        cumulative += buckets[labels.length].sum();
+        out.append(getName()).append("_bucket{le=\"+Inf\"} ").append(cumulative).append('\n');
+        out.append(getName()).append("_sum ").append(getSum()).append('\n');
+        out.append(getName()).append("_count ").append(cumulative).append('\n');
+    }
+}
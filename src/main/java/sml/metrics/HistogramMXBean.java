@@ -0,0 +1,36 @@
+package sml.metrics;
+
+/**
+ * JMX view of a {@link Histogram}.
+ *
+ * @author Ricki Angel
+ */
+public interface HistogramMXBean {
+    /**
+     * Returns the metric name, as exported to Prometheus.
+     *
+     * @return the metric name
+     */
+    String getName();
+
+    /**
+     * Returns the description of the metric.
+     *
+     * @return the help text
+     */
+    String getHelp();
+
+    /**
+     * Returns the number of observations.
+     *
+     * @return the observation count
+     */
+    long getCount();
+
+    /**
+     * Returns the sum of all observations, in seconds.
+     *
+     * @return the total observed time
+     */
+    double getSum();
+}
@@ -0,0 +1,43 @@
+package sml.metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+
+/**
+ * A gauge holding the largest value ever recorded, such as the deepest call chain.
+ *
+ * <p>Backed by a striped {@link LongAccumulator}, so recording only contends when a new maximum is
+ * written to the same cell by two threads at once.</p>
+ *
+ * @author Ricki Angel
+ */
+public final class MaxGauge extends Metric implements GaugeMXBean {
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    MaxGauge(String name, String help) {
+        super(name, help);
+    }
+
+    /**
+     * Records a value, raising the maximum if it is larger.
+     *
+     * @param value the value observed
+     */
+    public void record(long value) {
+        max.accumulate(value);
+    }
+
+    @Override
+    public long getValue() {
+        return max.get();
+    }
+
+    @Override
+    String type() {
+        return "gauge";
+    }
+
+    @Override
+    void writeSamples(StringBuilder out) {
+        out.append(getName()).append(' ').append(getValue()).append('\n');
+    }
+}
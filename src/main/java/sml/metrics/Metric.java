@@ -0,0 +1,71 @@
+package sml.metrics;
+
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+/**
+ * A named metric that can be written in the Prometheus text exposition format.
+ *
+ * <p>Metrics are created through a {@link MetricsRegistry}, which exports them over HTTP and JMX.
+ * Updates are lock-free, and reads sum the current stripes without stopping writers, so a value
+ * read while updates are in flight is a close approximation rather than a snapshot.</p>
+ *
+ * @author Ricki Angel
+ */
+public abstract sealed class Metric permits Counter, MaxGauge, Histogram {
+    private static final Pattern NAME = Pattern.compile("[a-zA-Z_:][a-zA-Z0-9_:]*");
+
+    private final String name;
+    private final String help;
+
+    Metric(String name, String help) {
+        if (!NAME.matcher(name).matches())
+            throw new IllegalArgumentException("Invalid metric name: " + name);
+        this.name = name;
+        this.help = Objects.requireNonNull(help);
+    }
+
+    /**
+     * Returns the metric name, as exported to Prometheus.
+     *
+     * @return the metric name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the description of the metric.
+     *
+     * @return the help text
+     */
+    public String getHelp() {
+        return help;
+    }
+
+    /**
+     * Returns the Prometheus metric type.
+     *
+     * @return {@code counter}, {@code gauge} or {@code histogram}
+     */
+    abstract String type();
+
+    /**
+     * Appends the sample lines of this metric, without the {@code HELP} and {@code TYPE} lines.
+     *
+     * @param out the exposition being written
+     */
+    abstract void writeSamples(StringBuilder out);
+
+    /**
+     * Appends this metric in the Prometheus text exposition format.
+     *
+     * @param out the exposition being written
+     */
+    void writeTo(StringBuilder out) {
+        out.append("# HELP ").append(name).append(' ')
+                .append(help.replace("\\", "\\\\").replace("\n", "\\n")).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type()).append('\n');
+        writeSamples(out);
+    }
+}
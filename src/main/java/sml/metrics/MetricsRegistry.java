@@ -0,0 +1,152 @@
+package sml.metrics;
+
+import javax.management.*;
+import java.lang.management.ManagementFactory;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Function;
+
+/**
+ * A set of named metrics, exported in the Prometheus text format and as JMX MBeans.
+ *
+ * <p>Metrics are created once, usually into static fields, and updated directly; the registry is
+ * only consulted when they are exported. Asking for an existing name returns the metric already
+ * registered, provided it is of the same kind.</p>
+ *
+ * <p>Key features:</p>
+ * <ul>
+ *   <li>{@link #scrape()} renders every metric in the Prometheus text exposition format, in name
+ *       order, as served by {@link MetricsServer}</li>
+ *   <li>{@link #registerMBeans()} publishes each metric as an MBean named
+ *       {@code sml:type=Metrics,name=<metric>} on the platform MBean server</li>
+ * </ul>
+ *
+ * @author Ricki Angel
+ * @see SmlMetrics
+ */
+public final class MetricsRegistry {
+    /** Prometheus text exposition format content type. */
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final Map<String, Metric> metrics = new ConcurrentSkipListMap<>();
+
+    /**
+     * Returns the counter with a name, creating it if necessary.
+     *
+     * @param name the metric name, conventionally ending in {@code _total}
+     * @param help the description
+     * @return the counter
+     * @throws IllegalArgumentException if the name is invalid or taken by another kind of metric
+     */
+    public Counter counter(String name, String help) {
+        return register(name, Counter.class, n -> new Counter(n, help));
+    }
+
+    /**
+     * Returns the maximum gauge with a name, creating it if necessary.
+     *
+     * @param name the metric name
+     * @param help the description
+     * @return the gauge
+     * @throws IllegalArgumentException if the name is invalid or taken by another kind of metric
+     */
+    public MaxGauge maxGauge(String name, String help) {
+        return register(name, MaxGauge.class, n -> new MaxGauge(n, help));
+    }
+
+    /**
+     * Returns the duration histogram with a name, creating it with the default buckets if necessary.
+     *
+     * @param name the metric name, conventionally ending in {@code _seconds}
+     * @param help the description
+     * @return the histogram
+     * @throws IllegalArgumentException if the name is invalid or taken by another kind of metric
+     */
+    public Histogram histogram(String name, String help) {
+        return register(name, Histogram.class, n -> new Histogram(n, help, Histogram.DEFAULT_BOUNDS));
+    }
+
+    private <M extends Metric> M register(String name, Class<M> kind, Function<String, M> factory) {
+        Metric metric = metrics.computeIfAbsent(name, factory);
+        if (!kind.isInstance(metric))
+            throw new IllegalArgumentException("Metric " + name + " is already registered as a " + metric.type());
+        return kind.cast(metric);
+    }
+
+    /**
+     * Returns the registered metrics.
+     *
+     * @return the metrics, in name order
+     */
+    public Collection<Metric> metrics() {
+        return Collections.unmodifiableCollection(metrics.values());
+    }
+
+    /**
+     * Renders every metric in the Prometheus text exposition format.
+     *
+     * @return the exposition
+     */
+    public String scrape() {
+        StringBuilder out = new StringBuilder(4096);
+        for (Metric metric : metrics.values())
+            metric.writeTo(out);
+        return out.toString();
+    }
+
+    /**
+     * Publishes every metric registered so far as an MBean on the platform MBean server.
+     *
+     * <p>Metrics that are already published are skipped, so this may be called again after new
+     * metrics are registered.</p>
+     *
+     * @throws IllegalStateException if the MBean server rejects a metric
+     */
+    public void registerMBeans() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        for (Metric metric : metrics.values()) {
+            ObjectName name = objectName(metric);
+            if (server.isRegistered(name)) continue;
+            try {
+                server.registerMBean(metric, name);
+            } catch (InstanceAlreadyExistsException e) {
+                // registered concurrently; nothing to do
+            } catch (JMException e) {
+                throw new IllegalStateException("Cannot register MBean " + name, e);
+            }
+        }
+    }
+
+    /**
+     * Removes the MBeans of every metric from the platform MBean server.
+     */
+    public void unregisterMBeans() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        for (Metric metric : metrics.values()) {
+            try {
+                server.unregisterMBean(objectName(metric));
+            } catch (InstanceNotFoundException e) {
+                // never registered, or already removed
+            } catch (JMException e) {
+                throw new IllegalStateException("Cannot unregister MBean for " + metric.getName(), e);
+            }
+        }
+    }
+
+    /**
+     * Returns the JMX name a metric is published under.
+     *
+     * @param metric the metric
+     * @return {@code sml:type=Metrics,name=<metric name>}
+     */
+    public static ObjectName objectName(Metric metric) {
+        String name = metric.getName();
+        try {
+            return new ObjectName("sml:type=Metrics,name=" + (name.indexOf(':') < 0 ? name : ObjectName.quote(name)));
+        } catch (MalformedObjectNameException e) {
+            throw new AssertionError("Metric names are valid object name values (can never happen)", e);
+        }
+    }
+}
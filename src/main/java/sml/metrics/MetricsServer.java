@@ -0,0 +1,95 @@
+package sml.metrics;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+/**
+ * A local HTTP endpoint serving a {@link MetricsRegistry} in the Prometheus text format.
+ *
+ * <p>The server binds to the loopback address only, so the metrics are visible to a scraper or
+ * {@code curl} on the same host and to nobody else. It answers {@code GET /metrics} from a single
+ * background thread; anything else is a 404 or 405.</p>
+ *
+ * <p>Example:</p>
+ * <pre>
+ * try (MetricsServer server = MetricsServer.start(SmlMetrics.REGISTRY, 9400)) {
+ *     machine.execute();   // curl http://localhost:9400/metrics
+ * }
+ * </pre>
+ *
+ * @author Ricki Angel
+ */
+public final class MetricsServer implements AutoCloseable {
+    /** The path the metrics are served on. */
+    public static final String PATH = "/metrics";
+
+    private final HttpServer server;
+    private final MetricsRegistry registry;
+
+    private MetricsServer(HttpServer server, MetricsRegistry registry) {
+        this.server = server;
+        this.registry = registry;
+    }
+
+    /**
+     * Starts serving a registry on a loopback port.
+     *
+     * @param registry the metrics to serve
+     * @param port     the port, or 0 for any free port
+     * @return the running server
+     * @throws IOException if the port cannot be bound
+     */
+    public static MetricsServer start(MetricsRegistry registry, int port) throws IOException {
+        Objects.requireNonNull(registry);
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        MetricsServer metrics = new MetricsServer(server, registry);
+        server.createContext(PATH, metrics::handle);
+        server.start();
+        return metrics;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!exchange.getRequestURI().getPath().equals(PATH)) {
+                exchange.sendResponseHeaders(404, -1);
+            } else if (!exchange.getRequestMethod().equals("GET") && !exchange.getRequestMethod().equals("HEAD")) {
+                exchange.getResponseHeaders().set("Allow", "GET, HEAD");
+                exchange.sendResponseHeaders(405, -1);
+            } else {
+                byte[] body = registry.scrape().getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set("Content-Type", MetricsRegistry.CONTENT_TYPE);
+                boolean head = exchange.getRequestMethod().equals("HEAD");
+                exchange.sendResponseHeaders(200, head ? -1 : body.length);
+                if (!head) {
+                    try (OutputStream out = exchange.getResponseBody()) {
+                        out.write(body);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the port the server is listening on.
+     *
+     * @return the bound port
+     */
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Stops the server immediately.
+     */
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
@@ -0,0 +1,48 @@
+package sml.metrics;
+
+/**
+ * The metrics reported by the interpreter itself.
+ *
+ * <p>The {@link sml.Machine} publishes its counts once at the end of each run or quantum rather
+ * than per instruction, so the metrics cost nothing in the fetch-decode-execute loop and are
+ * always on. The {@link sml.Translator} and {@link sml.InstructionRegistrationManager} record one
+ * sample per translation and discovery.</p>
+ *
+ * @author Ricki Angel
+ * @see MetricsServer
+ */
+public final class SmlMetrics {
+    /** The registry holding every metric of the interpreter. */
+    public static final MetricsRegistry REGISTRY = new MetricsRegistry();
+
+    /** Instructions executed by all machines. */
+    public static final Counter INSTRUCTIONS_EXECUTED = REGISTRY.counter(
+            "sml_instructions_executed_total", "Instructions executed by all machines.");
+
+    /** Method invocations by all machines, not counting the entry into {@code @main}. */
+    public static final Counter INVOCATIONS = REGISTRY.counter(
+            "sml_invocations_total", "Method invocations, excluding the entry into @main.");
+
+    /** The deepest call chain reached by any machine. */
+    public static final MaxGauge MAX_CALL_DEPTH = REGISTRY.maxGauge(
+            "sml_max_call_depth", "Deepest call chain reached by any machine.");
+
+    /** Programs loaded into machines. */
+    public static final Counter PROGRAMS_LOADED = REGISTRY.counter(
+            "sml_programs_loaded_total", "Programs loaded into machines.");
+
+    /** Methods produced by the translator. */
+    public static final Counter METHODS_TRANSLATED = REGISTRY.counter(
+            "sml_methods_translated_total", "Methods produced by the translator.");
+
+    /** Time taken to translate a program. */
+    public static final Histogram TRANSLATION_TIME = REGISTRY.histogram(
+            "sml_translation_seconds", "Time taken to translate a program.");
+
+    /** Time taken to discover the instruction set. */
+    public static final Histogram DISCOVERY_TIME = REGISTRY.histogram(
+            "sml_discovery_seconds", "Time taken to discover the instruction set.");
+
+    private SmlMetrics() {
+    }
+}
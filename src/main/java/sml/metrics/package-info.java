@@ -0,0 +1,12 @@
+/**
+ * Always-on metrics for the interpreter, exported in the Prometheus text format and over JMX.
+ *
+ * <p>{@link sml.metrics.Counter}, {@link sml.metrics.MaxGauge} and {@link sml.metrics.Histogram}
+ * are built on the striped {@code LongAdder} and {@code LongAccumulator}, so concurrent machines
+ * update them without locks or contended cache lines. {@link sml.metrics.SmlMetrics} holds the
+ * metrics the interpreter reports, {@link sml.metrics.MetricsServer} serves them on a loopback
+ * HTTP port and {@link sml.metrics.MetricsRegistry#registerMBeans()} publishes them to JMX.</p>
+ *
+ * @author Ricki Angel
+ */
+package sml.metrics;
@@ -0,0 +1,297 @@
+package sml.profile;
+
+import sml.Method;
+
+import java.io.*;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+
+/**
+ * Execution counts of one run of a program, kept for the next run of the same program.
+ *
+ * <p>A profile holds how often each method was invoked, how often each branch was taken and not
+ * taken, and which pairs of instructions most often ran back to back. It is keyed by the
+ * {@link sml.ProgramHash} of the program it was collected from: a {@link sml.Machine} given a
+ * profile with {@link sml.Machine#setProfile(ExecutionProfile)} applies it when a program with the
+ * same hash is loaded, and ignores it otherwise, so a profile that has gone stale after an edit is
+ * never acted on.</p>
+ *
+ * <p>Key features:</p>
+ * <ul>
+ *   <li>Collected by a {@link ProfileCollector} during an interpreted run</li>
+ *   <li>{@link #hotMethods()} and {@link #hotLoopMethods()} name the methods worth preparing
+ *       before the first instruction runs</li>
+ *   <li>{@link #hotPairs()} lists the instruction sequences most worth fusing</li>
+ *   <li>Files are written to a temporary sibling and atomically moved into place</li>
+ * </ul>
+ *
+ * <p>Profiles are immutable.</p>
+ *
+ * @author Ricki Angel
+ * @see sml.Machine#setProfileCollector(ProfileCollector)
+ */
+public final class ExecutionProfile {
+    /** Invocations after which a method is considered hot. */
+    public static final long HOT_INVOCATIONS = 100;
+
+    /** Times a backward branch must have been taken for its loop to be considered hot. */
+    public static final long HOT_BACK_EDGES = 100;
+
+    private static final int MAGIC = 0x534D4C50; // "SMLP"
+    private static final int VERSION = 1;
+    private static final int HASH_BYTES = 32;
+
+    /**
+     * The counts of one method.
+     *
+     * @param invocations how often the method was invoked
+     * @param branches    the branches that ran, in program order
+     */
+    public record MethodProfile(long invocations, List<BranchProfile> branches) {
+        public MethodProfile {
+            branches = List.copyOf(branches);
+        }
+
+        /**
+         * Reports whether the method contains a loop whose back edge was taken at least
+         * {@link #HOT_BACK_EDGES} times.
+         *
+         * @return true if the method has a hot loop
+         */
+        public boolean hasHotLoop() {
+            return branches.stream().anyMatch(branch -> branch.isBackEdge() && branch.taken() >= HOT_BACK_EDGES);
+        }
+    }
+
+    /**
+     * The counts of one branch instruction.
+     *
+     * @param programCounter the branch's instruction index
+     * @param target         the instruction index it jumps to, or -1 if its label is undefined
+     * @param taken          how often it jumped
+     * @param notTaken       how often it fell through; always zero for {@code goto}
+     */
+    public record BranchProfile(int programCounter, int target, long taken, long notTaken) {
+        /**
+         * Returns the fraction of executions that jumped.
+         *
+         * @return the taken ratio, between 0 and 1
+         */
+        public double takenRatio() {
+            long total = taken + notTaken;
+            return total == 0 ? 0 : (double) taken / total;
+        }
+
+        /**
+         * Reports whether the branch jumps backwards, closing a loop.
+         *
+         * @return true if the target is at or before the branch
+         */
+        public boolean isBackEdge() {
+            return target >= 0 && target <= programCounter;
+        }
+    }
+
+    /**
+     * Two opcodes that ran back to back, and how often.
+     *
+     * @param first  the opcode of the first instruction
+     * @param second the opcode of the instruction that followed it
+     * @param count  how often the pair ran
+     */
+    public record InstructionPair(String first, String second, long count) {
+        @Override
+        public String toString() {
+            return first + " " + second + ": " + count;
+        }
+    }
+
+    private final String programHash;
+    private final Map<Method.Identifier, MethodProfile> methods;
+    private final List<InstructionPair> hotPairs;
+
+    /**
+     * Creates a profile.
+     *
+     * @param programHash the hash of the program it was collected from
+     * @param methods     the counts of each method that ran
+     * @param hotPairs    the most frequent instruction pairs, most frequent first
+     * @throws IllegalArgumentException if the hash is not a SHA-256 hash in hexadecimal
+     */
+    public ExecutionProfile(String programHash, Map<Method.Identifier, MethodProfile> methods,
+                            List<InstructionPair> hotPairs) {
+        if (programHash.length() != 2 * HASH_BYTES)
+            throw new IllegalArgumentException("Not a program hash: " + programHash);
+        HexFormat.of().parseHex(programHash);
+        this.programHash = programHash;
+        Map<Method.Identifier, MethodProfile> sorted = new TreeMap<>(Comparator.comparing(Method.Identifier::name));
+        sorted.putAll(methods);
+        this.methods = Collections.unmodifiableMap(sorted);
+        this.hotPairs = List.copyOf(hotPairs);
+    }
+
+    /**
+     * Returns the hash of the program the profile was collected from.
+     *
+     * @return the program hash
+     */
+    public String programHash() {
+        return programHash;
+    }
+
+    /**
+     * Returns the counts of every method that ran.
+     *
+     * @return the method profiles, by method name
+     */
+    public Map<Method.Identifier, MethodProfile> methods() {
+        return methods;
+    }
+
+    /**
+     * Returns the counts of one method.
+     *
+     * @param name the method identifier
+     * @return the method's profile, or empty if it never ran
+     */
+    public Optional<MethodProfile> method(Method.Identifier name) {
+        return Optional.ofNullable(methods.get(name));
+    }
+
+    /**
+     * Returns the methods invoked at least {@link #HOT_INVOCATIONS} times or containing a hot loop.
+     *
+     * @return the hot methods, by name
+     */
+    public List<Method.Identifier> hotMethods() {
+        return methods.entrySet().stream()
+                .filter(e -> e.getValue().invocations() >= HOT_INVOCATIONS || e.getValue().hasHotLoop())
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    /**
+     * Returns the methods containing a hot loop.
+     *
+     * @return the methods, by name
+     */
+    public List<Method.Identifier> hotLoopMethods() {
+        return methods.entrySet().stream()
+                .filter(e -> e.getValue().hasHotLoop())
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    /**
+     * Returns the instruction pairs that most often ran back to back.
+     *
+     * @return the pairs, most frequent first
+     */
+    public List<InstructionPair> hotPairs() {
+        return hotPairs;
+    }
+
+    /**
+     * Reads a profile previously written by {@link #writeTo(Path)}.
+     *
+     * @param file the profile file
+     * @return the profile
+     * @throws IOException if the file cannot be read or is not a valid profile
+     */
+    public static ExecutionProfile readFrom(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC)
+                throw new IOException("Not an SML profile: " + file);
+            int version = in.readUnsignedByte();
+            if (version != VERSION)
+                throw new IOException("Unsupported profile version " + version + ": " + file);
+            byte[] hash = new byte[HASH_BYTES];
+            in.readFully(hash);
+
+            Map<Method.Identifier, MethodProfile> methods = new HashMap<>();
+            int methodCount = in.readInt();
+            for (int i = 0; i < methodCount; i++) {
+                Method.Identifier name = new Method.Identifier("@" + in.readUTF());
+                long invocations = in.readLong();
+                List<BranchProfile> branches = new ArrayList<>();
+                int branchCount = in.readInt();
+                for (int j = 0; j < branchCount; j++)
+                    branches.add(new BranchProfile(in.readInt(), in.readInt(), in.readLong(), in.readLong()));
+                methods.put(name, new MethodProfile(invocations, branches));
+            }
+
+            List<InstructionPair> pairs = new ArrayList<>();
+            int pairCount = in.readInt();
+            for (int i = 0; i < pairCount; i++)
+                pairs.add(new InstructionPair(in.readUTF(), in.readUTF(), in.readLong()));
+            return new ExecutionProfile(HexFormat.of().formatHex(hash), methods, pairs);
+        } catch (EOFException | IllegalArgumentException | NegativeArraySizeException e) {
+            throw new IOException("Corrupt SML profile: " + file, e);
+        }
+    }
+
+    /**
+     * Writes the profile to a file, atomically replacing any previous profile there.
+     *
+     * @param file the destination file
+     * @throws IOException if the file cannot be written
+     */
+    public void writeTo(Path file) throws IOException {
+        Path absolute = file.toAbsolutePath();
+        Path temp = Files.createTempFile(absolute.getParent(), absolute.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeByte(VERSION);
+                out.write(HexFormat.of().parseHex(programHash));
+                out.writeInt(methods.size());
+                for (Map.Entry<Method.Identifier, MethodProfile> entry : methods.entrySet()) {
+                    out.writeUTF(entry.getKey().name());
+                    out.writeLong(entry.getValue().invocations());
+                    out.writeInt(entry.getValue().branches().size());
+                    for (BranchProfile branch : entry.getValue().branches()) {
+                        out.writeInt(branch.programCounter());
+                        out.writeInt(branch.target());
+                        out.writeLong(branch.taken());
+                        out.writeLong(branch.notTaken());
+                    }
+                }
+                out.writeInt(hotPairs.size());
+                for (InstructionPair pair : hotPairs) {
+                    out.writeUTF(pair.first());
+                    out.writeUTF(pair.second());
+                    out.writeLong(pair.count());
+                }
+            }
+            try {
+                Files.move(temp, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, absolute, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof ExecutionProfile other &&
+                programHash.equals(other.programHash) &&
+                methods.equals(other.methods) &&
+                hotPairs.equals(other.hotPairs);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(programHash, methods, hotPairs);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ExecutionProfile[%s..., %d methods, %d hot, %d with hot loops]",
+                programHash.substring(0, 12), methods.size(), hotMethods().size(), hotLoopMethods().size());
+    }
+}
@@ -0,0 +1,132 @@
+package sml.profile;
+
+import sml.Label;
+import sml.Method;
+import sml.instructions.*;
+
+import java.util.*;
+
+/**
+ * Counts invocations, branch outcomes and instruction pairs of a run, for an {@link ExecutionProfile}.
+ *
+ * <p>A {@link sml.Machine} with a collector installed reports every method it enters and every
+ * instruction that moves on within its frame. Counts are kept per {@link Method} in plain
+ * {@code long} arrays indexed by program counter, so recording is an array increment; names and
+ * opcodes are only looked at when the counts are turned into a profile by
+ * {@link #toProfile(String)}.</p>
+ *
+ * <p>Collect one program at a time: counts of methods with the same name are merged, as happens
+ * when one is hot reloaded. Instances are not thread-safe; each belongs to the machine that
+ * records into it.</p>
+ *
+ * @author Ricki Angel
+ * @see sml.Machine#setProfileCollector(ProfileCollector)
+ */
+public final class ProfileCollector {
+    /** Number of instruction pairs a profile keeps. */
+    public static final int HOT_PAIRS = 16;
+
+    /**
+     * The counts of one method.
+     */
+    private static final class Counts {
+        final Method method;
+        long invocations;
+        final long[] fallThroughs;
+        final long[] jumps;
+
+        Counts(Method method) {
+            this.method = method;
+            int size = method.instructions().size();
+            this.fallThroughs = new long[size];
+            this.jumps = new long[size];
+        }
+    }
+
+    private final Map<Method, Counts> counts = new IdentityHashMap<>();
+    private Method lastMethod;
+    private Counts lastCounts;
+
+    private Counts counts(Method method) {
+        if (method != lastMethod) {
+            lastCounts = counts.computeIfAbsent(method, Counts::new);
+            lastMethod = method;
+        }
+        return lastCounts;
+    }
+
+    /**
+     * Records an invocation of a method.
+     *
+     * @param method the method entered
+     */
+    public void invoked(Method method) {
+        counts(method).invocations++;
+    }
+
+    /**
+     * Records an instruction that continued in the same frame.
+     *
+     * @param method         the method it belongs to
+     * @param programCounter its instruction index
+     * @param next           the index execution continued at
+     */
+    public void stepped(Method method, int programCounter, int next) {
+        Counts c = counts(method);
+        if (next == programCounter + 1) c.fallThroughs[programCounter]++;
+        else c.jumps[programCounter]++;
+    }
+
+    /**
+     * Turns the counts recorded so far into a profile.
+     *
+     * @param programHash the hash of the program that ran
+     * @return the profile
+     */
+    public ExecutionProfile toProfile(String programHash) {
+        Map<Method.Identifier, Long> invocations = new HashMap<>();
+        Map<Method.Identifier, List<ExecutionProfile.BranchProfile>> branches = new HashMap<>();
+        Map<List<String>, Long> pairs = new HashMap<>();
+
+        for (Counts c : counts.values()) {
+            Method.Identifier name = c.method.name();
+            invocations.merge(name, c.invocations, Long::sum);
+            List<ExecutionProfile.BranchProfile> methodBranches = branches.computeIfAbsent(name, n -> new ArrayList<>());
+            List<Instruction> instructions = c.method.instructions();
+            for (int pc = 0; pc < instructions.size(); pc++) {
+                Instruction instruction = instructions.get(pc);
+                Label target = jumpLabel(instruction);
+                if (target != null && c.jumps[pc] + c.fallThroughs[pc] > 0)
+                    methodBranches.add(new ExecutionProfile.BranchProfile(pc,
+                            c.method.labels().get(target).orElse(-1), c.jumps[pc], c.fallThroughs[pc]));
+                if (c.fallThroughs[pc] > 0 && pc + 1 < instructions.size())
+                    pairs.merge(List.of(instruction.opcode(), instructions.get(pc + 1).opcode()),
+                            c.fallThroughs[pc], Long::sum);
+            }
+        }
+
+        Map<Method.Identifier, ExecutionProfile.MethodProfile> methods = new HashMap<>();
+        invocations.forEach((name, count) -> methods.put(name, new ExecutionProfile.MethodProfile(count, branches.get(name))));
+        List<ExecutionProfile.InstructionPair> hotPairs = pairs.entrySet().stream()
+                .map(e -> new ExecutionProfile.InstructionPair(e.getKey().get(0), e.getKey().get(1), e.getValue()))
+                .sorted(Comparator.comparingLong(ExecutionProfile.InstructionPair::count).reversed()
+                        .thenComparing(ExecutionProfile.InstructionPair::first)
+                        .thenComparing(ExecutionProfile.InstructionPair::second))
+                .limit(HOT_PAIRS)
+                .toList();
+        return new ExecutionProfile(programHash, methods, hotPairs);
+    }
+
+    /**
+     * Returns the label a branch instruction jumps to, or null if the instruction never jumps.
+     */
+    private static Label jumpLabel(Instruction instruction) {
+        return switch (instruction) {
+            case GotoInstruction jump -> jump.branchLabel();
+            case IfCmpgtInstruction jump -> jump.jumpLabel();
+            case IfCmpeqInstruction jump -> jump.jumpLabel();
+            case NotEqInstruction jump -> jump.jumpLabel();
+            default -> null;
+        };
+    }
+}
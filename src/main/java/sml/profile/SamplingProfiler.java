@@ -0,0 +1,206 @@
+package sml.profile;
+
+import sml.Frame;
+import sml.Machine;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.invoke.VarHandle;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A sampling profiler for SML programs that produces collapsed stacks for flame graphs.
+ *
+ * <p>A background thread wakes at a fixed interval and reads the call chain of every attached
+ * {@link Machine} through {@link Machine#runningFrame()} and {@link Frame#invoker()}. Machines
+ * publish their current frame only when control moves between frames and the sampler never locks
+ * them, so the cost to the interpreter stays at a release store per call and return, whatever the
+ * interval. Unlike counting every instruction, sampling does not distort very hot loops. A sample
+ * is dropped if the frame it started from returned while its callers were being read, so every
+ * recorded stack is one the machine actually had; the one exception is that a caller may already
+ * show the instruction after its call while the innermost frame is executing its
+ * {@code return}.</p>
+ *
+ * <p>Key features:</p>
+ * <ul>
+ *   <li>Samples are aggregated per distinct stack, outermost method first</li>
+ *   <li>Stacks can be keyed by method name alone, or by method and program counter to see which
+ *       instructions within a method are hot</li>
+ *   <li>{@link #writeCollapsed(Writer)} emits the {@code main;fib;fib 42} format read by
+ *       {@code flamegraph.pl}, speedscope and similar tools</li>
+ * </ul>
+ *
+ * <p>Example:</p>
+ * <pre>
+ * SamplingProfiler profiler = SamplingProfiler.start(Duration.ofMillis(1), false);
+ * try {
+ *     profiler.attach(machine);
+ *     machine.run(Long.MAX_VALUE);
+ * } finally {
+ *     profiler.close();
+ * }
+ * profiler.writeCollapsed(Path.of("sml.folded"));
+ * </pre>
+ *
+ * @author Ricki Angel
+ */
+public final class SamplingProfiler implements AutoCloseable {
+    private final long intervalNanos;
+    private final boolean programCounters;
+    private final Set<Machine> machines = ConcurrentHashMap.newKeySet();
+    private final Map<String, Long> stacks = new ConcurrentHashMap<>();
+    private final Thread sampler;
+    private volatile boolean running = true;
+    private volatile long samples;
+    private volatile long ticks;
+
+    private SamplingProfiler(Duration interval, boolean programCounters) {
+        this.intervalNanos = interval.toNanos();
+        this.programCounters = programCounters;
+        this.sampler = new Thread(this::sampleLoop, "sml-sampler");
+        sampler.setDaemon(true);
+    }
+
+    /**
+     * Starts a profiler that samples at a fixed interval.
+     *
+     * @param interval        the time between samples
+     * @param programCounters whether stack frames include the program counter, as {@code fib:7}
+     * @return the running profiler, with no machines attached
+     * @throws IllegalArgumentException if the interval is not positive
+     */
+    public static SamplingProfiler start(Duration interval, boolean programCounters) {
+        if (interval.isNegative() || interval.isZero())
+            throw new IllegalArgumentException("Sampling interval must be positive: " + interval);
+        SamplingProfiler profiler = new SamplingProfiler(interval, programCounters);
+        profiler.sampler.start();
+        return profiler;
+    }
+
+    /**
+     * Starts sampling a machine. Samples are only taken while it is running.
+     *
+     * @param machine the machine to sample
+     */
+    public void attach(Machine machine) {
+        machines.add(Objects.requireNonNull(machine));
+    }
+
+    /**
+     * Stops sampling a machine.
+     *
+     * @param machine the machine to stop sampling
+     */
+    public void detach(Machine machine) {
+        machines.remove(machine);
+    }
+
+    private void sampleLoop() {
+        long deadline = System.nanoTime();
+        StringBuilder stack = new StringBuilder();
+        List<Frame> chain = new ArrayList<>();
+        while (running) {
+            deadline += intervalNanos;
+            long delay;
+            while (running && (delay = deadline - System.nanoTime()) > 0)
+                LockSupport.parkNanos(this, delay);
+            if (!running) break;
+            ticks++;
+            for (Machine machine : machines) {
+                Optional<Frame> innermost = machine.runningFrame();
+                if (innermost.isEmpty()) continue;
+                chain.clear();
+                for (Optional<Frame> frame = innermost; frame.isPresent(); frame = frame.get().invoker())
+                    chain.add(frame.get());
+
+                stack.setLength(0);
+                for (int i = chain.size() - 1; i >= 0; i--) {
+                    Frame frame = chain.get(i);
+                    if (!stack.isEmpty()) stack.append(';');
+                    stack.append(frame.method().name());
+                    if (programCounters) stack.append(':').append(frame.programCounter());
+                }
+                // A frame never runs again once it has returned, so if it is still running its callers did not move.
+                VarHandle.acquireFence();
+                if (machine.runningFrame().orElse(null) != innermost.get()) continue;
+                stacks.merge(stack.toString(), 1L, Long::sum);
+                samples++;
+            }
+            // Fall behind rather than sample in a burst after a long pause such as a GC.
+            long now = System.nanoTime();
+            if (now - deadline > intervalNanos) deadline = now;
+        }
+    }
+
+    /**
+     * Returns the number of samples taken, across all machines.
+     *
+     * @return the sample count
+     */
+    public long samples() {
+        return samples;
+    }
+
+    /**
+     * Returns the number of times the sampler has woken, whether or not a machine was running.
+     *
+     * @return the tick count
+     */
+    public long ticks() {
+        return ticks;
+    }
+
+    /**
+     * Returns the samples aggregated per stack.
+     *
+     * @return sample counts keyed by collapsed stack, outermost frame first, in stack order
+     */
+    public SortedMap<String, Long> collapsedStacks() {
+        return Collections.unmodifiableSortedMap(new TreeMap<>(stacks));
+    }
+
+    /**
+     * Writes the samples in collapsed-stack format, one {@code stack count} line per stack.
+     *
+     * @param out the destination
+     * @throws IOException if writing fails
+     */
+    public void writeCollapsed(Writer out) throws IOException {
+        for (Map.Entry<String, Long> entry : collapsedStacks().entrySet())
+            out.write(entry.getKey() + " " + entry.getValue() + "\n");
+        out.flush();
+    }
+
+    /**
+     * Writes the samples in collapsed-stack format to a file, replacing it.
+     *
+     * @param file the destination
+     * @throws IOException if writing fails
+     */
+    public void writeCollapsed(Path file) throws IOException {
+        try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writeCollapsed(out);
+        }
+    }
+
+    /**
+     * Stops sampling and waits for the sampler thread to finish. The samples remain available.
+     */
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(sampler);
+        try {
+            sampler.join(TimeUnit.SECONDS.toMillis(1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
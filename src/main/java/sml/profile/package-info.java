@@ -0,0 +1,23 @@
+/**
+ * Profiling of running SML programs.
+ * <p>
+ * This package contains:
+ * <ul>
+ *   <li>{@link sml.profile.SamplingProfiler} - Periodically samples the call chains of running
+ *       machines from a background thread and aggregates them into collapsed stacks for
+ *       flame-graph tools</li>
+ *   <li>{@link sml.profile.ProfileCollector} - Counts every invocation, branch outcome and
+ *       instruction pair of an interpreted run</li>
+ *   <li>{@link sml.profile.ExecutionProfile} - Those counts saved against the program's hash, so a
+ *       later run of the same program can prepare its hot methods and loops before it starts</li>
+ * </ul>
+ * </p>
+ * <p>
+ * The profiler is attached by {@link sml.RunSml}'s {@code --profile} option, and execution profiles
+ * are collected and applied by its {@code --pgo} option.
+ * </p>
+ *
+ * @author Ricki Angel
+ * @see sml.Machine#runningFrame()
+ */
+package sml.profile;
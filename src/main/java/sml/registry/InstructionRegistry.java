@@ -0,0 +1,86 @@
+package sml.registry;
+
+import sml.Label;
+import sml.instructions.Instruction;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of available SML instruction classes.
+ * <p>
+ * Maintains a mapping of opcodes to their corresponding instruction classes
+ * and provides methods for instruction instantiation.
+ * </p>
+ * <p>
+ * The registry is the builder that discovery strategies fill, possibly from several threads at
+ * once; once discovery is complete, {@link #snapshot()} publishes its contents as an immutable
+ * {@link InstructionSet} for translators to read.
+ * </p>
+ *
+ * @author Ricki Angel
+ */
+public class InstructionRegistry {
+    private final Map<String, Class<? extends Instruction>> instructionMap = new ConcurrentHashMap<>();
+
+    /**
+     * Registers an instruction class with its corresponding opcode.
+     *
+     * @param opcode The opcode to register
+     * @param instructionClass The instruction class to register
+     */
+    public void register(String opcode, Class<? extends Instruction> instructionClass) {
+        instructionMap.put(opcode, instructionClass);
+    }
+
+    /**
+     * Registers an instruction class unless its opcode is already registered, atomically.
+     *
+     * @param opcode The opcode to register
+     * @param instructionClass The instruction class to register
+     * @return true if the class was registered, false if the opcode was already taken
+     */
+    public boolean registerIfAbsent(String opcode, Class<? extends Instruction> instructionClass) {
+        return instructionMap.putIfAbsent(opcode, instructionClass) == null;
+    }
+
+    /**
+     * Checks if an opcode is already registered.
+     *
+     * @param opcode The opcode to check
+     * @return true if the opcode is registered, false otherwise
+     */
+    public boolean isRegistered(String opcode) {
+        return instructionMap.containsKey(opcode);
+    }
+
+    /**
+     * Returns the number of registered instructions.
+     *
+     * @return The count of registered instructions
+     */
+    public int size() {
+        return instructionMap.size();
+    }
+
+    /**
+     * Creates an instruction instance for the given opcode.
+     *
+     * @param opcode The opcode of the instruction to create
+     * @param label The label for the instruction (can be null)
+     * @return The created instruction, or null if creation fails
+     * @see InstructionSet#createInstruction(String, Label)
+     */
+    public Instruction createInstruction(String opcode, Label label) {
+        return InstructionSet.createInstruction(instructionMap.get(opcode), opcode, label);
+    }
+
+    /**
+     * Returns an immutable snapshot of the registered instructions.
+     *
+     * @return the instruction set as registered at the time of the call
+     */
+    public InstructionSet snapshot() {
+        return new InstructionSet(instructionMap);
+    }
+}
@@ -0,0 +1,133 @@
+package sml.registry;
+
+import sml.Label;
+import sml.instructions.Instruction;
+
+import java.lang.reflect.Constructor;
+import java.util.*;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * An immutable snapshot of the instructions in an {@link InstructionRegistry}.
+ *
+ * <p>Discovery fills a registry; {@link InstructionRegistry#snapshot()} then publishes the result
+ * as an instruction set that never changes. Its maps are built once and only read afterwards, and
+ * every field is final, so any number of {@link sml.Translator} threads can share an instance
+ * without locks or volatile reads.</p>
+ *
+ * <p>Key features:</p>
+ * <ul>
+ *   <li>Opcode lookup of instruction classes</li>
+ *   <li>The constructor whose first parameter is the {@link Label}, resolved once per opcode
+ *       instead of by reflection on every instruction translated</li>
+ * </ul>
+ *
+ * @author Ricki Angel
+ * @see sml.InstructionRegistrationManager#instructions()
+ */
+public final class InstructionSet {
+    private static final Logger LOGGER = Logger.getLogger(InstructionSet.class.getName());
+
+    /** An instruction set with no instructions. */
+    public static final InstructionSet EMPTY = new InstructionSet(Map.of());
+
+    private final Map<String, Class<? extends Instruction>> classes;
+    private final Map<String, Constructor<? extends Instruction>> constructors;
+
+    InstructionSet(Map<String, Class<? extends Instruction>> classes) {
+        this.classes = Map.copyOf(classes);
+        Map<String, Constructor<? extends Instruction>> found = new HashMap<>();
+        this.classes.forEach((opcode, type) -> labelConstructor(type).ifPresent(c -> found.put(opcode, c)));
+        this.constructors = Map.copyOf(found);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Optional<Constructor<? extends Instruction>> labelConstructor(Class<? extends Instruction> type) {
+        return Arrays.stream(type.getDeclaredConstructors())
+                .filter(c -> c.getParameterCount() > 0 && c.getParameterTypes()[0] == Label.class)
+                .<Constructor<? extends Instruction>>map(c -> (Constructor<? extends Instruction>) c)
+                .findFirst();
+    }
+
+    /**
+     * Checks if an opcode is in the set.
+     *
+     * @param opcode The opcode to check
+     * @return true if the opcode is registered, false otherwise
+     */
+    public boolean isRegistered(String opcode) {
+        return classes.containsKey(opcode);
+    }
+
+    /**
+     * Returns the number of instructions in the set.
+     *
+     * @return The count of registered instructions
+     */
+    public int size() {
+        return classes.size();
+    }
+
+    /**
+     * Returns the opcodes in the set.
+     *
+     * @return the opcodes, in no particular order
+     */
+    public Set<String> opcodes() {
+        return classes.keySet();
+    }
+
+    /**
+     * Returns the instruction class registered for an opcode.
+     *
+     * @param opcode The opcode
+     * @return the instruction class, or empty if the opcode is not registered
+     */
+    public Optional<Class<? extends Instruction>> instructionClass(String opcode) {
+        return Optional.ofNullable(classes.get(opcode));
+    }
+
+    /**
+     * Returns the constructor of an opcode's instruction class that takes the label as its first
+     * parameter, followed by the instruction's operands.
+     *
+     * @param opcode The opcode
+     * @return the constructor, or empty if the opcode is not registered or has no such constructor
+     */
+    public Optional<Constructor<? extends Instruction>> labelConstructor(String opcode) {
+        return Optional.ofNullable(constructors.get(opcode));
+    }
+
+    /**
+     * Creates an instruction without operands for the given opcode.
+     *
+     * @param opcode The opcode of the instruction to create
+     * @param label The label for the instruction (can be null)
+     * @return The created instruction, or null if creation fails
+     */
+    public Instruction createInstruction(String opcode, Label label) {
+        return createInstruction(classes.get(opcode), opcode, label);
+    }
+
+    static Instruction createInstruction(Class<? extends Instruction> instructionClass, String opcode, Label label) {
+        if (instructionClass == null) {
+            LOGGER.log(Level.WARNING, "No instruction class found for opcode: " + opcode);
+            return null;
+        }
+
+        try {
+            return instructionClass.getConstructor(Label.class).newInstance(label);
+        } catch (NoSuchMethodException e) {
+            LOGGER.log(Level.SEVERE, "No constructor with Label parameter found for opcode: " + opcode, e);
+        } catch (ReflectiveOperationException e) {
+            LOGGER.log(Level.WARNING, "Error creating instruction for opcode: " + opcode, e);
+        }
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return new TreeSet<>(classes.keySet()).toString();
+    }
+}
@@ -0,0 +1,218 @@
+package sml.reload;
+
+import sml.Machine;
+import sml.Method;
+import sml.Translator;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Keeps a {@link Machine}'s program in step with its source file while it runs.
+ *
+ * <p>Every method's span of source text is fingerprinted. On reload the file is split and hashed
+ * again, and only methods whose hash changed are re-translated; they are swapped into the running
+ * program through {@link Machine#replaceMethods(Collection, Collection)}, while unchanged methods
+ * keep their existing {@link Method} objects together with anything attached to them, such as
+ * quickened code and loop profiles. Execution is never reset, and frames already running an old
+ * version of a method finish in that version.</p>
+ *
+ * <p>Key features:</p>
+ * <ul>
+ *   <li>Reload cost is dominated by one pass over the file text, not by translation, so a
+ *       one-method edit in a very large program reloads in milliseconds</li>
+ *   <li>A failed reload - unreadable file, invalid method, duplicate names - throws without
+ *       touching the running program</li>
+ *   <li>{@link #watch(Consumer)} reloads automatically whenever the file changes on disk</li>
+ * </ul>
+ *
+ * <p>Reloads are serialised, so {@link #reload()} may be called from any thread, including while a
+ * watch is active.</p>
+ *
+ * @author Ricki Angel
+ * @see sml.RunSml
+ */
+public final class HotReloader implements AutoCloseable {
+    private final Machine machine;
+    private final Translator translator;
+    private final Path file;
+    private Map<String, Loaded> loaded;
+    /** How long the file must stay unmodified before a watched change is reloaded. */
+    private static final long SETTLE_MILLIS = 50;
+
+    private WatchService watchService;
+
+    private record Loaded(long hash, Method method) {
+    }
+
+    /**
+     * Creates a reloader for a program file.
+     *
+     * @param machine    the machine to load the program into
+     * @param translator the translator to use; it is only used by this reloader afterwards
+     * @param file       the SML source file
+     */
+    public HotReloader(Machine machine, Translator translator, Path file) {
+        this.machine = Objects.requireNonNull(machine);
+        this.translator = Objects.requireNonNull(translator);
+        this.file = file.toAbsolutePath();
+    }
+
+    /**
+     * Translates the whole file and loads it into the machine with {@link Machine#setProgram(Collection)}.
+     *
+     * @return the result, with every method counted as added
+     * @throws IOException              if the file cannot be read
+     * @throws IllegalArgumentException if the source is invalid
+     */
+    public synchronized ReloadResult load() throws IOException {
+        long startNanos = System.nanoTime();
+        String source = Files.readString(file);
+        List<SourceSpans.Span> spans = SourceSpans.split(source);
+        Map<String, Method> methods = translate(source, spans);
+
+        Map<String, Loaded> next = HashMap.newHashMap(spans.size());
+        for (SourceSpans.Span span : spans)
+            next.put(span.name(), new Loaded(span.hash(), methods.get(span.name())));
+
+        machine.setProgram(methods.values());
+        loaded = next;
+        return new ReloadResult(next.size(), 0, 0, 0, Duration.ofNanos(System.nanoTime() - startNanos));
+    }
+
+    /**
+     * Re-reads the file and swaps changed, added and removed methods into the running program.
+     *
+     * @return what changed
+     * @throws IOException              if the file cannot be read
+     * @throws IllegalArgumentException if the changed source is invalid; the program is left as it was
+     * @throws IllegalStateException    if {@link #load()} has not been called
+     */
+    public synchronized ReloadResult reload() throws IOException {
+        if (loaded == null) throw new IllegalStateException("Call load() before reload()");
+        long startNanos = System.nanoTime();
+        String source = Files.readString(file);
+        List<SourceSpans.Span> spans = SourceSpans.split(source);
+
+        List<SourceSpans.Span> edited = new ArrayList<>();
+        Map<String, Loaded> next = HashMap.newHashMap(spans.size());
+        for (SourceSpans.Span span : spans) {
+            if (next.containsKey(span.name()))
+                throw new IllegalArgumentException("Duplicate method @" + span.name() + " in " + file);
+            Loaded previous = loaded.get(span.name());
+            if (previous != null && previous.hash() == span.hash()) {
+                next.put(span.name(), previous);
+            } else {
+                edited.add(span);
+                next.put(span.name(), null);
+            }
+        }
+
+        Map<String, Method> translated = translate(source, edited);
+        int added = 0;
+        for (SourceSpans.Span span : edited) {
+            next.put(span.name(), new Loaded(span.hash(), translated.get(span.name())));
+            if (!loaded.containsKey(span.name())) added++;
+        }
+        // Every surviving name is in both maps, so only scan for removals when the sizes say there are some
+        List<Method.Identifier> removed = loaded.size() == next.size() - added ? List.of() : loaded.keySet().stream()
+                .filter(name -> !next.containsKey(name))
+                .map(name -> new Method.Identifier("@" + name))
+                .toList();
+
+        if (!edited.isEmpty() || !removed.isEmpty())
+            machine.replaceMethods(translated.values(), removed);
+        loaded = next;
+        return new ReloadResult(added, edited.size() - added, removed.size(),
+                next.size() - edited.size(), Duration.ofNanos(System.nanoTime() - startNanos));
+    }
+
+    /**
+     * Starts reloading automatically whenever the file is modified or replaced.
+     *
+     * <p>Changes are picked up by a daemon thread once the file has been quiet for a moment, so an
+     * editor that truncates the file before writing it triggers one reload of the finished file
+     * rather than one of an empty file. Reloads that change something are reported to
+     * the listener; failed ones are reported on {@code System.err} and leave the program running as
+     * it was, so saving a fix reloads again.</p>
+     *
+     * @param listener called after each reload that changed the program
+     * @throws IOException           if the file's directory cannot be watched
+     * @throws IllegalStateException if already watching
+     */
+    public synchronized void watch(Consumer<ReloadResult> listener) throws IOException {
+        if (watchService != null) throw new IllegalStateException("Already watching " + file);
+        WatchService service = file.getFileSystem().newWatchService();
+        file.getParent().register(service, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        watchService = service;
+
+        Thread thread = new Thread(() -> watchLoop(service, listener), "sml-reloader");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stops watching the file. The loaded program is unaffected.
+     *
+     * @throws IOException if the watch service cannot be closed
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (watchService != null) {
+            watchService.close();
+            watchService = null;
+        }
+    }
+
+    private void watchLoop(WatchService service, Consumer<ReloadResult> listener) {
+        Path fileName = file.getFileName();
+        try {
+            while (true) {
+                WatchKey key = service.take();
+                boolean touched = key.pollEvents().stream().anyMatch(event -> fileName.equals(event.context()));
+                key.reset();
+                if (!touched) continue;
+
+                // Let the write finish: wait until no further events arrive for the settle period
+                for (WatchKey more; (more = service.poll(SETTLE_MILLIS, TimeUnit.MILLISECONDS)) != null; ) {
+                    more.pollEvents();
+                    more.reset();
+                }
+                try {
+                    ReloadResult result = reload();
+                    if (result.hasChanges()) listener.accept(result);
+                } catch (IOException | RuntimeException e) {
+                    System.err.println("Error: Reload of " + file + " failed - " + e.getMessage());
+                }
+            }
+        } catch (ClosedWatchServiceException | InterruptedException e) {
+            // Closed: stop watching
+        }
+    }
+
+    /**
+     * Translates the given spans in one pass and checks each produced exactly its own method.
+     */
+    private Map<String, Method> translate(String source, List<SourceSpans.Span> spans) {
+        StringBuilder text = new StringBuilder();
+        for (SourceSpans.Span span : spans) {
+            text.append(source, span.start(), span.end());
+            if (text.isEmpty() || text.charAt(text.length() - 1) != '\n') text.append('\n');
+        }
+
+        Map<String, Method> methods = HashMap.newHashMap(spans.size());
+        for (Method method : translator.translateSource(text.toString())) {
+            if (methods.put(method.name().name(), method) != null)
+                throw new IllegalArgumentException("Duplicate method @" + method.name() + " in " + file);
+        }
+        for (SourceSpans.Span span : spans) {
+            if (!methods.containsKey(span.name()))
+                throw new IllegalArgumentException("Method @" + span.name() + " could not be translated");
+        }
+        return methods;
+    }
+}
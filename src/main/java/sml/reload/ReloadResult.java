@@ -0,0 +1,30 @@
+package sml.reload;
+
+import java.time.Duration;
+
+/**
+ * What a call to {@link HotReloader#reload()} changed in the running program.
+ *
+ * @param added     methods that are new in the source
+ * @param changed   methods whose source changed and were re-translated
+ * @param removed   methods no longer in the source
+ * @param unchanged methods whose loaded {@link sml.Method} objects were kept
+ * @param elapsed   the time taken, from reading the file to swapping the methods in
+ * @author Ricki Angel
+ */
+public record ReloadResult(int added, int changed, int removed, int unchanged, Duration elapsed) {
+    /**
+     * Reports whether the reload altered the program at all.
+     *
+     * @return true if any method was added, changed or removed
+     */
+    public boolean hasChanges() {
+        return added + changed + removed > 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d added, %d changed, %d removed, %d unchanged in %.1f ms",
+                added, changed, removed, unchanged, elapsed.toNanos() / 1e6);
+    }
+}
@@ -0,0 +1,90 @@
+package sml.reload;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits SML source text into per-method spans and fingerprints each one.
+ *
+ * <p>A span runs from a method's {@code @name:} line up to the next method's, so a method's
+ * arguments, instructions and any blank lines after it belong to it. Splitting only looks at the
+ * first word of each line and hashes characters in place, so a large file is scanned without
+ * translating any instructions or allocating a string per line.</p>
+ *
+ * @author Ricki Angel
+ */
+final class SourceSpans {
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    /**
+     * One method's slice of the source.
+     *
+     * @param name  the method name without its {@code @}
+     * @param start the index of the first character of the method's label line
+     * @param end   the index just past the span
+     * @param hash  a 64-bit FNV-1a style hash of the span's characters
+     */
+    record Span(String name, int start, int end, long hash) {
+        String text(String source) {
+            return source.substring(start, end);
+        }
+    }
+
+    private SourceSpans() {
+    }
+
+    /**
+     * Splits source text into method spans, in source order.
+     *
+     * @param source the SML source text
+     * @return the spans
+     * @throws IllegalArgumentException if anything other than whitespace precedes the first method
+     */
+    static List<Span> split(String source) {
+        List<Span> spans = new ArrayList<>();
+        String name = null;
+        int start = 0;
+        int length = source.length();
+
+        for (int lineStart = 0; lineStart < length; ) {
+            int lineEnd = source.indexOf('\n', lineStart);
+            if (lineEnd < 0) lineEnd = length;
+
+            String method = methodLabel(source, lineStart, lineEnd);
+            if (method != null) {
+                if (name != null) spans.add(span(source, name, start, lineStart));
+                else if (!source.substring(0, lineStart).isBlank())
+                    throw new IllegalArgumentException("Instruction cannot appear outside methods");
+                name = method;
+                start = lineStart;
+            }
+            lineStart = lineEnd + 1;
+        }
+
+        if (name != null) spans.add(span(source, name, start, length));
+        else if (!source.isBlank()) throw new IllegalArgumentException("Instruction cannot appear outside methods");
+        return spans;
+    }
+
+    /**
+     * Returns the method name if a line starts with a method label, as the translator reads it.
+     */
+    private static String methodLabel(String source, int from, int to) {
+        int i = from;
+        while (i < to && Character.isWhitespace(source.charAt(i))) i++;
+        if (i == to || source.charAt(i) != '@') return null;
+
+        int wordEnd = i;
+        while (wordEnd < to && !Character.isWhitespace(source.charAt(wordEnd))) wordEnd++;
+        if (wordEnd - i < 3 || source.charAt(wordEnd - 1) != ':') return null;
+        return source.substring(i + 1, wordEnd - 1);
+    }
+
+    private static Span span(String source, String name, int start, int end) {
+        long hash = FNV_OFFSET;
+        for (int i = start; i < end; i++)
+            hash = (hash ^ source.charAt(i)) * FNV_PRIME; // FNV-1a over UTF-16 units rather than bytes
+        return new Span(name, start, end, hash);
+    }
+}
@@ -0,0 +1,9 @@
+/**
+ * Hot reloading of SML programs.
+ *
+ * <p>{@link sml.reload.HotReloader} re-translates only the methods whose source changed and swaps
+ * them into a running {@link sml.Machine}, optionally watching the source file for edits.</p>
+ *
+ * @author Ricki Angel
+ */
+package sml.reload;
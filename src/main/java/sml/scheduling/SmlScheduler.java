@@ -0,0 +1,271 @@
+package sml.scheduling;
+
+import sml.ExecutionStatus;
+import sml.Machine;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Multiplexes many SML executions over a small, fixed set of carrier threads.
+ *
+ * <p>Every SML execution keeps its entire state in its {@link sml.Frame} chain, so a suspended
+ * {@link Machine} costs only the heap its frames occupy. The scheduler exploits this by running each
+ * machine for an instruction quantum with {@link Machine#run(long)} and then moving on to the next
+ * one, instead of dedicating a platform thread to each program.</p>
+ *
+ * <p>Key features:</p>
+ * <ul>
+ *   <li>Fair round-robin: a suspended execution goes to the back of its carrier's run queue</li>
+ *   <li>Work stealing: an idle carrier takes work from the tail of a busy carrier's queue</li>
+ *   <li>Idle carriers park until work is submitted or left over, rather than polling</li>
+ *   <li>Per-execution results through {@link CompletableFuture}</li>
+ *   <li>Failures, including exceeded execution limits and errors, complete the future
+ *       exceptionally without stopping the carrier</li>
+ * </ul>
+ *
+ * <p>A machine must not be touched by other threads while it is scheduled. The translated program
+ * may be shared between machines, since instructions keep no per-execution state.</p>
+ *
+ * @author Ricki Angel
+ * @see Machine#run(long)
+ */
+public final class SmlScheduler implements AutoCloseable {
+    private static final Logger LOGGER = Logger.getLogger(SmlScheduler.class.getName());
+
+    /**
+     * Default number of instructions an execution runs before yielding its carrier.
+     */
+    public static final long DEFAULT_QUANTUM = 10_000;
+
+    private final Carrier[] carriers;
+    private final long quantum;
+    private final AtomicInteger nextCarrier = new AtomicInteger();
+    private final AtomicLong outstanding = new AtomicLong();
+    private final ConcurrentLinkedQueue<Carrier> idle = new ConcurrentLinkedQueue<>();
+    private final LongAdder steals = new LongAdder();
+    private final LongAdder quanta = new LongAdder();
+    private volatile boolean shutdown;
+
+    // An execution waiting for, or currently holding, a carrier:
+    private record Execution(Machine machine, CompletableFuture<Machine> result) {
+    }
+
+    /**
+     * A carrier thread together with its run queue.
+     */
+    private final class Carrier implements Runnable {
+        final ConcurrentLinkedDeque<Execution> runQueue = new ConcurrentLinkedDeque<>();
+        final int index;
+        Thread thread;
+
+        Carrier(int index) {
+            this.index = index;
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                Execution execution = next();
+                if (execution == null) {
+                    if (shutdown && outstanding.get() == 0) return;
+                    // Advertise as idle before looking again, so work added after the second look
+                    // finds this carrier to unpark and the permit is not lost.
+                    idle.add(this);
+                    execution = next();
+                    if (execution == null) {
+                        if (shutdown && outstanding.get() == 0) return;
+                        LockSupport.park(this);
+                    }
+                    idle.remove(this);
+                }
+                if (execution != null) runQuantum(this, execution);
+            }
+        }
+
+        private Execution next() {
+            Execution execution = runQueue.pollFirst();
+            return execution != null ? execution : steal(index);
+        }
+    }
+
+    /**
+     * Constructs a scheduler with one carrier per available processor and the default quantum.
+     */
+    public SmlScheduler() {
+        this(Runtime.getRuntime().availableProcessors(), DEFAULT_QUANTUM);
+    }
+
+    /**
+     * Constructs a scheduler and starts its carrier threads.
+     *
+     * @param carrierCount the number of carrier threads
+     * @param quantum      the number of instructions an execution runs before yielding
+     * @throws IllegalArgumentException if either argument is not positive
+     */
+    public SmlScheduler(int carrierCount, long quantum) {
+        if (carrierCount <= 0 || quantum <= 0)
+            throw new IllegalArgumentException("Carrier count and quantum must be positive");
+
+        this.quantum = quantum;
+        this.carriers = new Carrier[carrierCount];
+        for (int i = 0; i < carrierCount; i++) {
+            Carrier carrier = new Carrier(i);
+            carrier.thread = Thread.ofPlatform()
+                    .name("sml-carrier-" + i)
+                    .daemon(true)
+                    .unstarted(carrier);
+            carriers[i] = carrier;
+        }
+        for (Carrier carrier : carriers) carrier.thread.start();
+    }
+
+    /**
+     * Schedules a machine whose program has already been loaded.
+     *
+     * <p>Submissions are spread over the carriers round-robin; work stealing evens out the load
+     * afterwards.</p>
+     *
+     * @param machine the machine to run to completion
+     * @return a future completed with the machine once its program terminates
+     * @throws IllegalStateException if the scheduler has been closed
+     * @throws NullPointerException  if machine is null
+     */
+    public CompletableFuture<Machine> submit(Machine machine) {
+        Objects.requireNonNull(machine);
+        // Count the execution before checking for shutdown, so close() never sees it as finished.
+        outstanding.incrementAndGet();
+        if (shutdown) {
+            finished();
+            throw new IllegalStateException("Scheduler has been closed");
+        }
+
+        CompletableFuture<Machine> result = new CompletableFuture<>();
+        Carrier carrier = carriers[Math.floorMod(nextCarrier.getAndIncrement(), carriers.length)];
+        carrier.runQueue.addLast(new Execution(machine, result));
+        LockSupport.unpark(carrier.thread);
+        wakeIdle();
+        return result;
+    }
+
+    /**
+     * Runs one quantum of an execution and either completes it or requeues it at the back.
+     *
+     * @param carrier   the carrier running the execution
+     * @param execution the execution to run
+     */
+    private void runQuantum(Carrier carrier, Execution execution) {
+        quanta.increment();
+        try {
+            if (execution.machine().run(quantum) == ExecutionStatus.SUSPENDED) {
+                carrier.runQueue.addLast(execution);
+                if (carrier.runQueue.peekFirst() != execution) wakeIdle();
+                return;
+            }
+            finished();
+            execution.result().complete(execution.machine());
+        } catch (Throwable e) {
+            // Errors such as StackOverflowError end the execution, not the carrier.
+            LOGGER.log(Level.FINE, "SML execution failed: " + e.getMessage(), e);
+            finished();
+            execution.result().completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Unparks one idle carrier, if there is one, to take work left in a queue.
+     */
+    private void wakeIdle() {
+        Carrier carrier = idle.poll();
+        if (carrier != null) LockSupport.unpark(carrier.thread);
+    }
+
+    /**
+     * Counts an execution as finished, waking every carrier to exit if it was the last one after
+     * {@link #close()}.
+     */
+    private void finished() {
+        if (outstanding.decrementAndGet() == 0 && shutdown) {
+            for (Carrier carrier : carriers) LockSupport.unpark(carrier.thread);
+        }
+    }
+
+    /**
+     * Takes an execution from the tail of another carrier's queue, starting at a random victim.
+     *
+     * @param thief the index of the idle carrier
+     * @return a stolen execution, or null if every other queue is empty
+     */
+    private Execution steal(int thief) {
+        int start = ThreadLocalRandom.current().nextInt(carriers.length);
+        for (int i = 0; i < carriers.length; i++) {
+            int victim = (start + i) % carriers.length;
+            if (victim == thief) continue;
+
+            Execution execution = carriers[victim].runQueue.pollLast();
+            if (execution != null) {
+                steals.increment();
+                return execution;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the number of executions submitted but not yet finished.
+     *
+     * @return the outstanding execution count
+     */
+    public long outstanding() {
+        return outstanding.get();
+    }
+
+    /**
+     * Returns the number of executions taken from another carrier's queue.
+     *
+     * @return the steal count
+     */
+    public long steals() {
+        return steals.sum();
+    }
+
+    /**
+     * Returns the number of quanta run so far across all carriers.
+     *
+     * @return the quantum count
+     */
+    public long quanta() {
+        return quanta.sum();
+    }
+
+    /**
+     * Stops accepting submissions and waits for every outstanding execution to finish.
+     *
+     * <p>Programs that never terminate keep their carrier busy indefinitely, so long-running
+     * workloads should be given {@link sml.ExecutionLimits}.</p>
+     */
+    @Override
+    public void close() {
+        shutdown = true;
+        for (Carrier carrier : carriers) {
+            LockSupport.unpark(carrier.thread);
+        }
+        for (Carrier carrier : carriers) {
+            try {
+                carrier.thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+}
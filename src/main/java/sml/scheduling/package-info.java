@@ -0,0 +1,20 @@
+/**
+ * Provides an M:N scheduler that time-slices many SML executions over a few carrier threads.
+ * <p>
+ * This package contains:
+ * <ul>
+ *   <li>{@link sml.scheduling.SmlScheduler} - Runs suspended {@link sml.Machine} executions in
+ *       instruction quanta with round-robin run queues and work stealing between carriers</li>
+ * </ul>
+ * </p>
+ * <p>
+ * Scheduling relies on the fact that SML execution state lives entirely in {@link sml.Frame}
+ * objects rather than on the Java stack, so an execution can be parked at any safepoint and resumed
+ * later on a different carrier thread.
+ * </p>
+ *
+ * @author Ricki Angel
+ * @see sml.Machine#run(long)
+ * @see sml.ExecutionLimits
+ */
+package sml.scheduling;
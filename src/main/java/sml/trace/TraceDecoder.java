@@ -0,0 +1,221 @@
+package sml.trace;
+
+import sml.Method;
+import sml.Translator;
+import sml.instructions.Instruction;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import static sml.trace.TraceFormat.*;
+
+/**
+ * Decodes a binary trace written by {@link TraceRecorder} and renders it as text.
+ *
+ * <p>Rendered lines match the trace printed by {@link sml.Machine#execute()},
+ * {@code [method:pc < caller:pc → ...]  instruction}. The records hold no caller chain and no
+ * instruction text: callers are rebuilt from the most recent record at each shallower depth, and
+ * instructions are looked up in the program the trace was recorded from. Callers whose records
+ * were overwritten in the ring are shown as {@code ?}.</p>
+ *
+ * <p>Command line usage:</p>
+ * <pre>
+ *   java -cp "target/classes:target/dependency/*" sml.trace.TraceDecoder [--method name] [--pc from:to] trace.bin program.sml
+ * </pre>
+ *
+ * @author Ricki Angel
+ */
+public final class TraceDecoder {
+    /** Most records a decoder holds; older records of a larger ring are skipped. */
+    public static final int MAX_RECORDS = Integer.MAX_VALUE - 8;
+
+    private final List<TraceRecord> records;
+    private final long recorded;
+
+    private TraceDecoder(List<TraceRecord> records, long recorded) {
+        this.records = records;
+        this.recorded = recorded;
+    }
+
+    /**
+     * Reads a trace file.
+     *
+     * <p>A ring holding more than {@link #MAX_RECORDS} records, which is more than a list can hold,
+     * is read from its most recent {@link #MAX_RECORDS}.</p>
+     *
+     * @param file the trace file
+     * @return the decoder
+     * @throws IOException              if the file cannot be read
+     * @throws IllegalArgumentException if the file is not a trace of a supported version
+     */
+    public static TraceDecoder read(Path file) throws IOException {
+        try (Arena arena = Arena.ofConfined();
+             FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < RECORDS)
+                throw new IllegalArgumentException(file + " is not an SML trace");
+            MemorySegment data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size(), arena);
+            if (data.get(LONG, MAGIC_OFFSET) != MAGIC)
+                throw new IllegalArgumentException(file + " is not an SML trace");
+            if (data.get(INT, VERSION_OFFSET) != VERSION || data.get(INT, RECORD_SIZE_OFFSET) != RECORD_SIZE)
+                throw new IllegalArgumentException(file + " is a trace of an unsupported version");
+
+            List<Method.Identifier> methods = new ArrayList<>();
+            long offset = NAMES;
+            for (int i = data.get(INT, METHOD_COUNT_OFFSET); i > 0; i--) {
+                int length = data.get(SHORT, offset);
+                byte[] name = data.asSlice(offset + Short.BYTES, length).toArray(ValueLayout.JAVA_BYTE);
+                methods.add(new Method.Identifier("@" + new String(name, StandardCharsets.UTF_8)));
+                offset += Short.BYTES + length;
+            }
+
+            long capacity = data.get(LONG, CAPACITY_OFFSET);
+            long written = data.get(LONG, WRITTEN_OFFSET);
+            long first = Math.max(0, written - Math.min(capacity, MAX_RECORDS));
+            List<TraceRecord> records = new ArrayList<>((int) Math.min(written - first, 1 << 16));
+            for (long sequence = first; sequence < written; sequence++) {
+                long at = RECORDS + (sequence % capacity) * RECORD_SIZE;
+                int method = data.get(INT, at);
+                records.add(new TraceRecord(sequence, methods.get(method & ~EMPTY_STACK),
+                        data.get(INT, at + 4), data.get(INT, at + 8),
+                        (method & EMPTY_STACK) != 0 ? OptionalInt.empty() : OptionalInt.of(data.get(INT, at + 12))));
+            }
+            return new TraceDecoder(Collections.unmodifiableList(records), written);
+        }
+    }
+
+    /**
+     * Returns the records still held in the ring, oldest first.
+     *
+     * @return the records
+     */
+    public List<TraceRecord> records() {
+        return records;
+    }
+
+    /**
+     * Returns the number of instructions recorded, including those overwritten in the ring.
+     *
+     * @return the records ever written
+     */
+    public long recorded() {
+        return recorded;
+    }
+
+    /**
+     * Renders the records in the text trace format.
+     *
+     * @param program the methods of the traced program, used for the instruction text
+     * @param filter  selects the records to render; callers are rebuilt from all records regardless
+     * @param out     receives each rendered line
+     */
+    public void render(Collection<Method> program, Predicate<TraceRecord> filter, Consumer<String> out) {
+        Map<Method.Identifier, Method> methods = program.stream()
+                .collect(Collectors.toMap(Method::name, m -> m, (a, b) -> b));
+        List<TraceRecord> chain = new ArrayList<>();
+        for (TraceRecord record : records) {
+            int depth = record.depth();
+            while (chain.size() <= depth) chain.add(null);
+            chain.set(depth, record);
+            if (!filter.test(record)) continue;
+
+            StringBuilder line = new StringBuilder("[");
+            line.append(record.method()).append(':').append(record.programCounter());
+            for (int caller = depth - 1; caller >= 1; caller--) {
+                line.append(caller == depth - 1 ? " < " : " → ");
+                TraceRecord frame = chain.get(caller);
+                line.append(frame == null ? "?" : frame.method() + ":" + frame.programCounter());
+            }
+            line.append("]  ").append(instruction(methods.get(record.method()), record.programCounter()));
+            out.accept(line.toString());
+        }
+    }
+
+    private static String instruction(Method method, int programCounter) {
+        if (method == null || programCounter < 0 || programCounter >= method.instructions().size())
+            return "?";
+        Instruction instruction = method.instructions().get(programCounter);
+        return instruction.toString();
+    }
+
+    /**
+     * Selects records of one method.
+     *
+     * @param method the method
+     * @return the filter
+     */
+    public static Predicate<TraceRecord> inMethod(Method.Identifier method) {
+        return record -> record.method().equals(method);
+    }
+
+    /**
+     * Selects records whose program counter is in a range.
+     *
+     * @param from the first program counter, inclusive
+     * @param to   the last program counter, inclusive
+     * @return the filter
+     */
+    public static Predicate<TraceRecord> inRange(int from, int to) {
+        return record -> record.programCounter() >= from && record.programCounter() <= to;
+    }
+
+    /**
+     * Renders a trace file to standard output.
+     *
+     * <p>Options, which must precede the files:</p>
+     * <ul>
+     *   <li>{@code --method <name>} - only records of the method, with or without the {@code @}</li>
+     *   <li>{@code --pc <from>:<to>} - only records whose program counter is in the inclusive range</li>
+     * </ul>
+     *
+     * @param args Command-line arguments (options, then the trace file and the SML file it was recorded from)
+     */
+    public static void main(String... args) {
+        Predicate<TraceRecord> filter = record -> true;
+        int i = 0;
+        try {
+            for (; i < args.length && args[i].startsWith("--"); i++) {
+                switch (args[i]) {
+                    case "--method" -> {
+                        String name = args[++i];
+                        filter = filter.and(inMethod(new Method.Identifier(name.startsWith("@") ? name : "@" + name)));
+                    }
+                    case "--pc" -> {
+                        String[] range = args[++i].split(":", 2);
+                        filter = filter.and(inRange(Integer.parseInt(range[0]),
+                                range.length == 1 ? Integer.parseInt(range[0]) : Integer.parseInt(range[1])));
+                    }
+                    default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+                }
+            }
+        } catch (ArrayIndexOutOfBoundsException | IllegalArgumentException e) {
+            System.err.println("Error: " + (e instanceof ArrayIndexOutOfBoundsException
+                    ? "Missing value for " + args[i - 1] : e.getMessage()));
+            i = args.length;
+        }
+        if (args.length - i != 2) {
+            System.err.println("Usage: java sml.trace.TraceDecoder [--method name] [--pc from:to] trace.bin program.sml");
+            return;
+        }
+
+        try {
+            TraceDecoder decoder = read(Path.of(args[i]));
+            Collection<Method> program = new Translator().readAndTranslate(args[i + 1]);
+            long dropped = decoder.recorded() - decoder.records().size();
+            if (dropped > 0)
+                System.err.println("(" + dropped + " earlier records were overwritten)");
+            decoder.render(program, filter, System.out::println);
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Error: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package sml.trace;
+
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+
+/**
+ * The layout of a binary trace file, shared by {@link TraceRecorder} and {@link TraceDecoder}.
+ *
+ * <p>A trace file is a 64-byte header, a method name table and a ring of fixed-size records, all
+ * little-endian:</p>
+ * <pre>
+ *   0  long  magic "SMLTRACE"          32  int   methods named in the table
+ *   8  int   format version            36  int   bytes used in the name table
+ *  12  int   record size               64  name table: per method, a short length and UTF-8 bytes
+ *  16  long  ring capacity in records  RECORDS  the ring of records
+ *  24  long  records ever written
+ * </pre>
+ *
+ * <p>Each record is four ints: the method id (with {@link #EMPTY_STACK} set if the operand stack
+ * was empty), the program counter, the call depth and the top of the operand stack. Method ids are
+ * indices into the name table.</p>
+ *
+ * @author Ricki Angel
+ */
+final class TraceFormat {
+    static final ValueLayout.OfInt INT = ValueLayout.JAVA_INT.withOrder(ByteOrder.LITTLE_ENDIAN);
+    static final ValueLayout.OfLong LONG = ValueLayout.JAVA_LONG.withOrder(ByteOrder.LITTLE_ENDIAN);
+    static final ValueLayout.OfShort SHORT = ValueLayout.JAVA_SHORT_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+
+    static final long MAGIC = 0x45434152544C4D53L; // "SMLTRACE" read as a little-endian long
+    static final int VERSION = 1;
+
+    static final long MAGIC_OFFSET = 0;
+    static final long VERSION_OFFSET = 8;
+    static final long RECORD_SIZE_OFFSET = 12;
+    static final long CAPACITY_OFFSET = 16;
+    static final long WRITTEN_OFFSET = 24;
+    static final long METHOD_COUNT_OFFSET = 32;
+    static final long NAMES_SIZE_OFFSET = 36;
+
+    static final long NAMES = 64;
+    static final int NAMES_CAPACITY = 64 * 1024;
+    static final long RECORDS = NAMES + NAMES_CAPACITY;
+    static final int RECORD_SIZE = 16;
+
+    static final int EMPTY_STACK = 0x8000_0000;
+
+    private TraceFormat() {
+    }
+}
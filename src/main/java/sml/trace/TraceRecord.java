@@ -0,0 +1,19 @@
+package sml.trace;
+
+import sml.Method;
+
+import java.util.OptionalInt;
+
+/**
+ * One decoded record of a binary trace: the state of a frame just before an instruction ran.
+ *
+ * @param sequence       the position of the record in the whole run, counting from 0
+ * @param method         the method executing
+ * @param programCounter the index of the instruction about to run
+ * @param depth          the call depth of the frame, 1 for {@code @main}
+ * @param top            the top of the operand stack, or empty if the stack was empty
+ * @author Ricki Angel
+ * @see TraceDecoder
+ */
+public record TraceRecord(long sequence, Method.Identifier method, int programCounter, int depth, OptionalInt top) {
+}
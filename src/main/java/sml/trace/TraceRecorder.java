@@ -0,0 +1,168 @@
+package sml.trace;
+
+import sml.Frame;
+import sml.Method;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import static sml.trace.TraceFormat.*;
+
+/**
+ * Records an instruction trace as fixed-size binary records in a memory-mapped ring buffer.
+ *
+ * <p>Each instruction executed by a {@link sml.Machine} with a recorder installed becomes one
+ * 16-byte record of the method, program counter, call depth and top of stack before it ran. Records
+ * are plain stores into the mapping - no strings are built and no system calls are made - so a
+ * recorded run costs a small constant factor over an untraced interpreted one. Once the ring is
+ * full the oldest records are overwritten, so the file keeps the most recent
+ * {@link #capacity()} instructions of a run of any length.</p>
+ *
+ * <p>The operating system writes the mapping back to the file, so the trace survives the process
+ * being killed. {@link TraceDecoder} renders it in the text trace format of
+ * {@link sml.Machine#execute()}.</p>
+ *
+ * <p>Instances are not thread-safe; each belongs to the machine that records into it.</p>
+ *
+ * @author Ricki Angel
+ * @see sml.Machine#setTraceRecorder(TraceRecorder)
+ */
+public final class TraceRecorder implements AutoCloseable {
+    /** Default ring capacity: a million records, 16 MB. */
+    public static final long DEFAULT_CAPACITY = 1 << 20;
+
+    private final Path file;
+    private final Arena arena;
+    private final MemorySegment data;
+    private final long capacity;
+    private final Map<Method, Integer> methodIds = new IdentityHashMap<>();
+    private long written;
+    private long next = RECORDS;
+    private int namesSize;
+    private Method lastMethod;
+    private int lastId;
+
+    private TraceRecorder(Path file, Arena arena, MemorySegment data, long capacity) {
+        this.file = file;
+        this.arena = arena;
+        this.data = data;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Creates a trace file with the default capacity, replacing any existing file.
+     *
+     * @param file the trace file
+     * @return the recorder
+     * @throws IOException if the file cannot be created or mapped
+     */
+    public static TraceRecorder create(Path file) throws IOException {
+        return create(file, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a trace file holding up to {@code capacity} records, replacing any existing file.
+     *
+     * @param file     the trace file
+     * @param capacity the number of records kept
+     * @return the recorder
+     * @throws IOException              if the file cannot be created or mapped
+     * @throws IllegalArgumentException if the capacity is not positive
+     */
+    public static TraceRecorder create(Path file, long capacity) throws IOException {
+        if (capacity <= 0)
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        // Shared, because a scheduled machine may run on more than one carrier thread.
+        Arena arena = Arena.ofShared();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MemorySegment data = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                    RECORDS + capacity * RECORD_SIZE, arena);
+            data.set(LONG, MAGIC_OFFSET, MAGIC);
+            data.set(INT, VERSION_OFFSET, VERSION);
+            data.set(INT, RECORD_SIZE_OFFSET, RECORD_SIZE);
+            data.set(LONG, CAPACITY_OFFSET, capacity);
+            return new TraceRecorder(file, arena, data, capacity);
+        } catch (IOException | RuntimeException e) {
+            arena.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Records the instruction a frame is about to execute.
+     *
+     * @param frame the frame
+     * @throws IllegalStateException if the method names no longer fit in the name table
+     */
+    public void record(Frame frame) {
+        Method method = frame.method();
+        if (method != lastMethod) {
+            lastId = methodIds.computeIfAbsent(method, this::addName);
+            lastMethod = method;
+        }
+        int stackSize = frame.stackSize();
+        long offset = next;
+        data.set(INT, offset, stackSize == 0 ? lastId | EMPTY_STACK : lastId);
+        data.set(INT, offset + 4, frame.programCounter());
+        data.set(INT, offset + 8, frame.depth());
+        data.set(INT, offset + 12, stackSize == 0 ? 0 : frame.peek());
+        data.set(LONG, WRITTEN_OFFSET, ++written);
+        next = offset + RECORD_SIZE == RECORDS + capacity * RECORD_SIZE ? RECORDS : offset + RECORD_SIZE;
+    }
+
+    private int addName(Method method) {
+        byte[] name = method.name().name().getBytes(StandardCharsets.UTF_8);
+        if (namesSize + Short.BYTES + name.length > NAMES_CAPACITY)
+            throw new IllegalStateException("Too many methods to trace in " + file);
+        MemorySegment.copy(name, 0, data, ValueLayout.JAVA_BYTE,
+                NAMES + namesSize + Short.BYTES, name.length);
+        data.set(SHORT, NAMES + namesSize, (short) name.length);
+        namesSize += Short.BYTES + name.length;
+        int id = methodIds.size();
+        data.set(INT, NAMES_SIZE_OFFSET, namesSize);
+        data.set(INT, METHOD_COUNT_OFFSET, id + 1);
+        return id;
+    }
+
+    /**
+     * Returns the number of records the ring holds.
+     *
+     * @return the capacity in records
+     */
+    public long capacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the number of instructions recorded, including those since overwritten.
+     *
+     * @return the records written
+     */
+    public long recorded() {
+        return written;
+    }
+
+    /**
+     * Writes the trace to the file and unmaps it.
+     */
+    @Override
+    public void close() {
+        if (!arena.scope().isAlive()) return;
+        data.force();
+        arena.close();
+    }
+
+    @Override
+    public String toString() {
+        return file + " (" + Math.min(written, capacity) + "/" + capacity + " records)";
+    }
+}
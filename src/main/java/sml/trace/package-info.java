@@ -0,0 +1,20 @@
+/**
+ * Binary instruction traces.
+ * <p>
+ * This package contains:
+ * <ul>
+ *   <li>{@link sml.trace.TraceRecorder} - Records every instruction a machine runs as a fixed-size
+ *       record in a memory-mapped ring buffer, without formatting any text</li>
+ *   <li>{@link sml.trace.TraceDecoder} - Reads a trace file back and renders it in the text trace
+ *       format, optionally filtered by method or program counter range</li>
+ * </ul>
+ * </p>
+ * <p>
+ * A recorder is attached to the {@link sml.Machine} by {@link sml.RunSml}'s {@code --trace-file}
+ * option, and replaces the printed trace for that run.
+ * </p>
+ *
+ * @author Ricki Angel
+ * @see sml.Machine#setTraceRecorder(TraceRecorder)
+ */
+package sml.trace;
@@ -0,0 +1,40 @@
+package sml.workload;
+
+import sml.ExecutionMode;
+
+import java.util.Objects;
+
+/**
+ * The performance of one {@link Workload} under one {@link ExecutionMode}, as measured by the
+ * {@link PerformanceHarness}.
+ *
+ * @param workload       the workload's name
+ * @param mode           the execution mode
+ * @param translateNanos the time taken to translate the program's source
+ * @param wallNanos      the time taken to run the program
+ * @param instructions   the number of instructions the machine executed
+ * @param allocatedBytes the bytes allocated by the running thread during the run
+ * @param peakHeapBytes  the peak heap usage during the run
+ * @author Ricki Angel
+ */
+public record Measurement(String workload, ExecutionMode mode, long translateNanos, long wallNanos,
+                          long instructions, long allocatedBytes, long peakHeapBytes) {
+    /**
+     * Validates the measurement during instantiation.
+     *
+     * @throws NullPointerException if the workload or mode is null
+     */
+    public Measurement {
+        Objects.requireNonNull(workload, "Workload name cannot be null");
+        Objects.requireNonNull(mode, "Execution mode cannot be null");
+    }
+
+    /**
+     * Returns the rate at which the run executed instructions.
+     *
+     * @return instructions per second, or 0 if the run took no measurable time
+     */
+    public long instructionsPerSecond() {
+        return wallNanos == 0 ? 0 : (long) (instructions * 1e9 / wallNanos);
+    }
+}
@@ -0,0 +1,259 @@
+package sml.workload;
+
+import sml.ExecutionMode;
+import sml.ExecutionStatus;
+import sml.Machine;
+import sml.Method;
+import sml.Translator;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Runs generated {@link Workload}s under every {@link ExecutionMode} and compares the results with a
+ * stored baseline.
+ *
+ * <p>Each workload is translated and run once to warm up, then a number of times measured; the
+ * fastest run is kept, with the highest peak heap usage seen. Output is discarded, except that the
+ * value printed last is checked against {@link WorkloadGenerator#checksum(Workload)}, so a mode that
+ * computes a wrong result fails the run instead of reporting a misleading time.</p>
+ *
+ * <p>Key features:</p>
+ * <ul>
+ *   <li>Translation time, run time, instructions executed and instructions per second</li>
+ *   <li>Bytes allocated by the running thread, from {@code com.sun.management.ThreadMXBean}</li>
+ *   <li>Peak heap usage, summed over the heap memory pools after resetting their peaks</li>
+ *   <li>A JSON {@link PerformanceReport}, and the {@link Regression}s against a baseline report</li>
+ * </ul>
+ *
+ * <p>Measurements are made on the calling thread and are only as steady as the machine running
+ * them; thresholds of 10% or more suit run times, while instruction counts are exact.</p>
+ *
+ * @author Ricki Angel
+ */
+public final class PerformanceHarness {
+    /** Default number of measured runs of each workload and mode. */
+    public static final int DEFAULT_REPETITIONS = 5;
+
+    /** Default relative increase of a metric flagged as a regression. */
+    public static final double DEFAULT_THRESHOLD = 0.10;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private final Translator translator = new Translator();
+    private final int repetitions;
+
+    /**
+     * Creates a harness making {@link #DEFAULT_REPETITIONS} measured runs.
+     */
+    public PerformanceHarness() {
+        this(DEFAULT_REPETITIONS);
+    }
+
+    /**
+     * Creates a harness.
+     *
+     * @param repetitions the number of measured runs of each workload and mode
+     * @throws IllegalArgumentException if repetitions is not positive
+     */
+    public PerformanceHarness(int repetitions) {
+        if (repetitions <= 0)
+            throw new IllegalArgumentException("Repetitions must be positive: " + repetitions);
+        this.repetitions = repetitions;
+    }
+
+    /**
+     * Measures every workload under every mode.
+     *
+     * @param workloads the workloads
+     * @param modes     the execution modes
+     * @return the report, with measurements ordered by workload and then mode
+     * @throws IllegalStateException if a workload prints the wrong checksum
+     */
+    public PerformanceReport run(Collection<Workload> workloads, Collection<ExecutionMode> modes) {
+        List<Measurement> measurements = new ArrayList<>();
+        for (Workload workload : workloads)
+            for (ExecutionMode mode : modes)
+                measurements.add(measure(workload, mode));
+        return new PerformanceReport(Runtime.version().toString(), measurements);
+    }
+
+    /**
+     * Measures one workload under one mode.
+     *
+     * @param workload the workload
+     * @param mode     the execution mode
+     * @return the fastest measured run
+     * @throws IllegalStateException if the workload prints the wrong checksum
+     */
+    public Measurement measure(Workload workload, ExecutionMode mode) {
+        String source = WorkloadGenerator.generate(workload);
+        String expected = Integer.toString(WorkloadGenerator.checksum(workload));
+        LastLine output = new LastLine();
+        PrintStream originalOut = System.out;
+        System.setOut(new PrintStream(output, false, StandardCharsets.US_ASCII));
+        try {
+            Measurement best = null;
+            long peakHeap = 0;
+            for (int run = 0; run <= repetitions; run++) {
+                Measurement measurement = runOnce(workload.name(), source, mode);
+                if (!output.last().equals(expected))
+                    throw new IllegalStateException("Workload " + workload.name() + " under " + mode
+                            + " printed " + output.last() + ", expected " + expected);
+                if (run == 0) continue; // warm-up
+                peakHeap = Math.max(peakHeap, measurement.peakHeapBytes());
+                if (best == null || measurement.wallNanos() < best.wallNanos()) best = measurement;
+            }
+            return new Measurement(best.workload(), mode, best.translateNanos(), best.wallNanos(),
+                    best.instructions(), best.allocatedBytes(), peakHeap);
+        } finally {
+            System.setOut(originalOut);
+        }
+    }
+
+    private Measurement runOnce(String name, String source, ExecutionMode mode) {
+        long translateStart = System.nanoTime();
+        Collection<Method> program = translator.translateSource(source);
+        long translateNanos = System.nanoTime() - translateStart;
+
+        try (Machine machine = new Machine()) {
+            machine.setExecutionMode(mode);
+            List<MemoryPoolMXBean> pools = heapPools();
+            pools.forEach(MemoryPoolMXBean::resetPeakUsage);
+            long allocatedBefore = THREADS.getCurrentThreadAllocatedBytes();
+            long start = System.nanoTime();
+            machine.setProgram(program);
+            while (machine.run(Long.MAX_VALUE) == ExecutionStatus.SUSPENDED) {
+                // run to completion
+            }
+            long wallNanos = System.nanoTime() - start;
+            long allocated = THREADS.getCurrentThreadAllocatedBytes() - allocatedBefore;
+            long peakHeap = pools.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+
+            return new Measurement(name, mode, translateNanos, wallNanos, machine.instructionsExecuted(), allocated, peakHeap);
+        }
+    }
+
+    private static List<MemoryPoolMXBean> heapPools() {
+        return ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .toList();
+    }
+
+    /**
+     * Keeps the last complete line written to it, discarding everything else without allocating.
+     */
+    private static final class LastLine extends OutputStream {
+        private static final int WIDTH = 32;
+
+        private byte[] current = new byte[WIDTH];
+        private byte[] last = new byte[WIDTH];
+        private int currentLength;
+        private int lastLength;
+
+        @Override
+        public void write(int b) {
+            if (b == '\n') {
+                byte[] swap = last;
+                last = current;
+                current = swap;
+                lastLength = currentLength;
+                currentLength = 0;
+            } else if (b != '\r' && currentLength < WIDTH) {
+                current[currentLength++] = (byte) b;
+            }
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) {
+            for (int i = offset; i < offset + length; i++)
+                write(bytes[i]);
+        }
+
+        String last() {
+            return new String(last, 0, lastLength, StandardCharsets.US_ASCII);
+        }
+    }
+
+    /**
+     * Runs the harness, writing the report as JSON and failing on regressions.
+     *
+     * <p>Options:</p>
+     * <ul>
+     *   <li>{@code --workload <name>} - run only this standard workload (repeatable; default all)</li>
+     *   <li>{@code --mode <mode>} - run only this execution mode (repeatable; default all)</li>
+     *   <li>{@code --repetitions <n>} - measured runs of each workload and mode</li>
+     *   <li>{@code --output <file>} - write the report to the file rather than standard output</li>
+     *   <li>{@code --baseline <file>} - compare with an earlier report, exiting with status 1 on
+     *       regressions (as on errors)</li>
+     *   <li>{@code --threshold <percent>} - the increase flagged as a regression (default 10)</li>
+     * </ul>
+     *
+     * @param args Command-line arguments
+     */
+    public static void main(String... args) {
+        List<Workload> workloads = new ArrayList<>();
+        Set<ExecutionMode> modes = EnumSet.noneOf(ExecutionMode.class);
+        int repetitions = DEFAULT_REPETITIONS;
+        double threshold = DEFAULT_THRESHOLD;
+        Path output = null;
+        Path baseline = null;
+        int i = 0;
+        try {
+            for (; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--workload" -> {
+                        String name = args[++i];
+                        workloads.add(Workload.standard().stream().filter(w -> w.name().equals(name)).findFirst()
+                                .orElseThrow(() -> new IllegalArgumentException("Unknown workload " + name)));
+                    }
+                    case "--mode" -> modes.add(ExecutionMode.valueOf(args[++i].toUpperCase()));
+                    case "--repetitions" -> repetitions = Integer.parseInt(args[++i]);
+                    case "--output" -> output = Path.of(args[++i]);
+                    case "--baseline" -> baseline = Path.of(args[++i]);
+                    case "--threshold" -> threshold = Double.parseDouble(args[++i]) / 100;
+                    default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+                }
+            }
+        } catch (ArrayIndexOutOfBoundsException | IllegalArgumentException e) {
+            System.err.println("Error: " + (e instanceof ArrayIndexOutOfBoundsException
+                    ? "Missing value for " + args[i - 1] : e.getMessage()));
+            System.err.println("Usage: java sml.workload.PerformanceHarness [--workload name]... [--mode mode]..."
+                    + " [--repetitions n] [--output report.json] [--baseline baseline.json] [--threshold percent]");
+            return;
+        }
+        if (workloads.isEmpty()) workloads.addAll(Workload.standard());
+        if (modes.isEmpty()) modes.addAll(Arrays.asList(ExecutionMode.values()));
+
+        try {
+            PerformanceReport report = new PerformanceHarness(repetitions).run(workloads, modes);
+            for (Measurement m : report.measurements())
+                System.err.printf("%-10s %-12s %10.2f ms %,15d instructions %,15d /s%n", m.workload(), m.mode(),
+                        m.wallNanos() / 1e6, m.instructions(), m.instructionsPerSecond());
+            if (output == null) System.out.print(report.toJson());
+            else report.write(output);
+
+            if (baseline != null) {
+                List<Regression> regressions = report.regressionsFrom(PerformanceReport.read(baseline), threshold);
+                regressions.forEach(regression -> System.err.println("Regression: " + regression));
+                if (!regressions.isEmpty()) System.exit(1);
+            }
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
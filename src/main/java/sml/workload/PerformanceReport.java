@@ -0,0 +1,188 @@
+package sml.workload;
+
+import sml.ExecutionMode;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.ToLongFunction;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The measurements of one {@link PerformanceHarness} run, stored as JSON so that a later run can
+ * be compared against it.
+ *
+ * <p>Key features:</p>
+ * <ul>
+ *   <li>{@link #toJson()} and {@link #parse(String)}, one measurement object per line</li>
+ *   <li>{@link #regressionsFrom(PerformanceReport, double)}, flagging every metric that got worse
+ *       than the baseline by more than a threshold</li>
+ * </ul>
+ *
+ * <p>The compared metrics are translation time, run time, instructions executed, bytes allocated
+ * and peak heap usage; for each, higher is worse. Instructions per second is written for reading
+ * but not compared, as it only restates the run time. Measurements missing from either report are
+ * ignored, as are metrics whose baseline is zero and times under a millisecond.</p>
+ *
+ * @param javaVersion  the version of the JVM that made the measurements
+ * @param measurements the measurements
+ * @author Ricki Angel
+ */
+public record PerformanceReport(String javaVersion, List<Measurement> measurements) {
+    // Times shorter than this are left uncompared, being mostly timer and JIT noise:
+    private static final long MIN_COMPARED_NANOS = 1_000_000;
+    private static final List<Metric> COMPARED = List.of(
+            new Metric("translateNanos", Measurement::translateNanos, MIN_COMPARED_NANOS),
+            new Metric("wallNanos", Measurement::wallNanos, MIN_COMPARED_NANOS),
+            new Metric("instructions", Measurement::instructions, 1),
+            new Metric("allocatedBytes", Measurement::allocatedBytes, 1),
+            new Metric("peakHeapBytes", Measurement::peakHeapBytes, 1));
+
+    private static final Pattern OBJECT = Pattern.compile("\\{([^{}]*)}");
+    private static final Pattern FIELD = Pattern.compile("\"(\\w+)\"\\s*:\\s*(?:\"((?:[^\"\\\\]|\\\\.)*)\"|(-?\\d+))");
+
+    /**
+     * Copies the measurements during instantiation.
+     *
+     * @throws NullPointerException if either argument is null
+     */
+    public PerformanceReport {
+        Objects.requireNonNull(javaVersion, "Java version cannot be null");
+        measurements = List.copyOf(measurements);
+    }
+
+    /**
+     * Renders the report as JSON.
+     *
+     * @return the JSON text
+     */
+    public String toJson() {
+        StringBuilder json = new StringBuilder("{\n  \"javaVersion\": ").append(quote(javaVersion))
+                .append(",\n  \"measurements\": [");
+        for (int i = 0; i < measurements.size(); i++) {
+            Measurement m = measurements.get(i);
+            json.append(i == 0 ? "\n" : ",\n")
+                    .append("    {\"workload\": ").append(quote(m.workload()))
+                    .append(", \"mode\": ").append(quote(m.mode().name()))
+                    .append(", \"translateNanos\": ").append(m.translateNanos())
+                    .append(", \"wallNanos\": ").append(m.wallNanos())
+                    .append(", \"instructions\": ").append(m.instructions())
+                    .append(", \"instructionsPerSecond\": ").append(m.instructionsPerSecond())
+                    .append(", \"allocatedBytes\": ").append(m.allocatedBytes())
+                    .append(", \"peakHeapBytes\": ").append(m.peakHeapBytes())
+                    .append('}');
+        }
+        return json.append(measurements.isEmpty() ? "]\n}\n" : "\n  ]\n}\n").toString();
+    }
+
+    /**
+     * Parses a report written by {@link #toJson()}.
+     *
+     * @param json the JSON text
+     * @return the report
+     * @throws IllegalArgumentException if a measurement is missing a field or names an unknown mode
+     */
+    public static PerformanceReport parse(String json) {
+        int start = json.indexOf("\"measurements\"");
+        if (start < 0) throw new IllegalArgumentException("Not a performance report: no measurements");
+
+        Map<String, String> header = fields(json.substring(0, start));
+        List<Measurement> measurements = new ArrayList<>();
+        Matcher object = OBJECT.matcher(json);
+        object.region(start, json.length());
+        while (object.find()) {
+            Map<String, String> fields = fields(object.group(1));
+            measurements.add(new Measurement(required(fields, "workload"),
+                    ExecutionMode.valueOf(required(fields, "mode")),
+                    Long.parseLong(required(fields, "translateNanos")),
+                    Long.parseLong(required(fields, "wallNanos")),
+                    Long.parseLong(required(fields, "instructions")),
+                    Long.parseLong(required(fields, "allocatedBytes")),
+                    Long.parseLong(required(fields, "peakHeapBytes"))));
+        }
+        return new PerformanceReport(header.getOrDefault("javaVersion", "unknown"), measurements);
+    }
+
+    /**
+     * Reads a report from a file.
+     *
+     * @param file the file
+     * @return the report
+     * @throws IOException              if the file cannot be read
+     * @throws IllegalArgumentException if the file is not a report
+     */
+    public static PerformanceReport read(Path file) throws IOException {
+        return parse(Files.readString(file));
+    }
+
+    /**
+     * Writes the report to a file as JSON.
+     *
+     * @param file the file
+     * @throws IOException if the file cannot be written
+     */
+    public void write(Path file) throws IOException {
+        Files.writeString(file, toJson());
+    }
+
+    /**
+     * Compares this report against a baseline.
+     *
+     * @param baseline  the earlier report
+     * @param threshold the relative increase allowed before a metric is flagged, for example
+     *                  {@code 0.1} for 10%
+     * @return the regressions, in the order of this report's measurements
+     * @throws IllegalArgumentException if the threshold is negative
+     */
+    public List<Regression> regressionsFrom(PerformanceReport baseline, double threshold) {
+        if (threshold < 0) throw new IllegalArgumentException("Regression threshold cannot be negative: " + threshold);
+        Map<String, Measurement> before = new HashMap<>();
+        for (Measurement m : baseline.measurements)
+            before.put(m.workload() + '/' + m.mode(), m);
+
+        List<Regression> regressions = new ArrayList<>();
+        for (Measurement now : measurements) {
+            Measurement then = before.get(now.workload() + '/' + now.mode());
+            if (then == null) continue;
+            for (Metric metric : COMPARED) {
+                long old = metric.value().applyAsLong(then);
+                long current = metric.value().applyAsLong(now);
+                if (old >= metric.floor() && current > old * (1 + threshold))
+                    regressions.add(new Regression(now.workload(), now.mode(), metric.name(), old, current));
+            }
+        }
+        return regressions;
+    }
+
+    /**
+     * A compared metric, with the smallest baseline value it is compared at.
+     */
+    private record Metric(String name, ToLongFunction<Measurement> value, long floor) {
+    }
+
+    private static Map<String, String> fields(String text) {
+        Map<String, String> fields = new HashMap<>();
+        Matcher field = FIELD.matcher(text);
+        while (field.find()) {
+            String string = field.group(2);
+            fields.put(field.group(1), string != null ? string.replaceAll("\\\\(.)", "$1") : field.group(3));
+        }
+        return fields;
+    }
+
+    private static String required(Map<String, String> fields, String name) {
+        String value = fields.get(name);
+        if (value == null) throw new IllegalArgumentException("Measurement is missing \"" + name + "\"");
+        return value;
+    }
+
+    private static String quote(String text) {
+        return '"' + text.replace("\\", "\\\\").replace("\"", "\\\"") + '"';
+    }
+}
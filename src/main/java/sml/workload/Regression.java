@@ -0,0 +1,31 @@
+package sml.workload;
+
+import sml.ExecutionMode;
+
+/**
+ * A metric of one workload and execution mode that got worse than its baseline by more than the
+ * allowed threshold.
+ *
+ * @param workload the workload's name
+ * @param mode     the execution mode
+ * @param metric   the name of the metric, as written in the report
+ * @param baseline the baseline value
+ * @param current  the current value
+ * @author Ricki Angel
+ * @see PerformanceReport#regressionsFrom(PerformanceReport, double)
+ */
+public record Regression(String workload, ExecutionMode mode, String metric, long baseline, long current) {
+    /**
+     * Returns how much worse the current value is, relative to the baseline.
+     *
+     * @return the relative change, for example {@code 0.25} for 25% worse
+     */
+    public double change() {
+        return (double) current / baseline - 1;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s/%s %s: %d -> %d (%+.1f%%)", workload, mode, metric, baseline, current, change() * 100);
+    }
+}
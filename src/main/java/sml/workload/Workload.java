@@ -0,0 +1,133 @@
+package sml.workload;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The shape of a synthetic SML program built by {@link WorkloadGenerator}.
+ *
+ * <p>Each parameter scales one part of the program independently, so a workload can stress a
+ * single part of the translator or interpreter, or several at once. A parameter of zero leaves that
+ * part out.</p>
+ *
+ * <p>Key features:</p>
+ * <ul>
+ *   <li>Copy-on-write {@code with...} methods, starting from {@link #named(String)}</li>
+ *   <li>A {@link #standard()} suite with one workload per dimension, used by the
+ *       {@link PerformanceHarness} by default</li>
+ * </ul>
+ *
+ * @param name           the workload's name, used to match measurements against a baseline
+ * @param methods        the number of small methods, each invoked once from {@code @main}
+ * @param recursionDepth the depth of a chain of recursive calls
+ * @param loopIterations the number of iterations of an arithmetic loop
+ * @param arguments      the number of parameters of one wide method
+ * @param labels         the number of labels in each of the small methods
+ * @param prints         the number of values printed by a printing loop
+ * @author Ricki Angel
+ */
+public record Workload(String name, int methods, int recursionDepth, int loopIterations,
+                       int arguments, int labels, int prints) {
+    private static final List<Workload> STANDARD = List.of(
+            named("methods").withMethods(20_000),
+            named("recursion").withRecursionDepth(50_000),
+            named("loop").withLoopIterations(500_000),
+            named("arguments").withArguments(250),
+            named("labels").withMethods(200).withLabels(500),
+            named("prints").withPrints(200_000),
+            named("mixed").withMethods(2_000).withRecursionDepth(10_000).withLoopIterations(200_000)
+                    .withArguments(50).withLabels(20).withPrints(10_000));
+
+    /**
+     * Validates the workload during instantiation.
+     *
+     * @throws IllegalArgumentException if the name is blank or any parameter is negative
+     * @throws NullPointerException     if the name is null
+     */
+    public Workload {
+        Objects.requireNonNull(name, "Workload name cannot be null");
+        if (name.isBlank())
+            throw new IllegalArgumentException("Workload name cannot be blank");
+        if (methods < 0 || recursionDepth < 0 || loopIterations < 0 || arguments < 0 || labels < 0 || prints < 0)
+            throw new IllegalArgumentException("Workload parameters cannot be negative");
+    }
+
+    /**
+     * Returns an empty workload, whose {@code @main} only prints its checksum.
+     *
+     * @param name the workload's name
+     * @return the workload
+     */
+    public static Workload named(String name) {
+        return new Workload(name, 0, 0, 0, 0, 0, 0);
+    }
+
+    /**
+     * Returns the standard suite: one workload stressing each dimension, and one mixing them all.
+     *
+     * @return the standard workloads
+     */
+    public static List<Workload> standard() {
+        return STANDARD;
+    }
+
+    /**
+     * Returns a copy of this workload with a different number of small methods.
+     *
+     * @param methods the new number of methods
+     * @return the updated workload
+     */
+    public Workload withMethods(int methods) {
+        return new Workload(name, methods, recursionDepth, loopIterations, arguments, labels, prints);
+    }
+
+    /**
+     * Returns a copy of this workload with a different recursion depth.
+     *
+     * @param recursionDepth the new recursion depth
+     * @return the updated workload
+     */
+    public Workload withRecursionDepth(int recursionDepth) {
+        return new Workload(name, methods, recursionDepth, loopIterations, arguments, labels, prints);
+    }
+
+    /**
+     * Returns a copy of this workload with a different number of loop iterations.
+     *
+     * @param loopIterations the new number of loop iterations
+     * @return the updated workload
+     */
+    public Workload withLoopIterations(int loopIterations) {
+        return new Workload(name, methods, recursionDepth, loopIterations, arguments, labels, prints);
+    }
+
+    /**
+     * Returns a copy of this workload with a different width of the wide method.
+     *
+     * @param arguments the new number of parameters
+     * @return the updated workload
+     */
+    public Workload withArguments(int arguments) {
+        return new Workload(name, methods, recursionDepth, loopIterations, arguments, labels, prints);
+    }
+
+    /**
+     * Returns a copy of this workload with a different number of labels per small method.
+     *
+     * @param labels the new number of labels
+     * @return the updated workload
+     */
+    public Workload withLabels(int labels) {
+        return new Workload(name, methods, recursionDepth, loopIterations, arguments, labels, prints);
+    }
+
+    /**
+     * Returns a copy of this workload with a different number of printed values.
+     *
+     * @param prints the new number of printed values
+     * @return the updated workload
+     */
+    public Workload withPrints(int prints) {
+        return new Workload(name, methods, recursionDepth, loopIterations, arguments, labels, prints);
+    }
+}
@@ -0,0 +1,241 @@
+package sml.workload;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Generates synthetic SML programs of a given {@link Workload} shape.
+ *
+ * <p>A generated program consists of:</p>
+ * <ul>
+ *   <li>{@code @recurse} - counts down through {@code recursionDepth} nested calls</li>
+ *   <li>{@code @loop} - sums {@code 1..loopIterations} in a loop of plain arithmetic, which
+ *       on-stack replacement can compile</li>
+ *   <li>{@code @wide} - adds up its {@code arguments} parameters</li>
+ *   <li>{@code @m0 ...} - {@code methods} small methods, each adding one at each of its
+ *       {@code labels} labels on a chain of forward jumps</li>
+ *   <li>{@code @chatter} - prints {@code 1..prints}</li>
+ * </ul>
+ *
+ * <p>{@code @main} calls each of them once, adding their results modulo {@link #MODULUS}, and
+ * prints the total last. {@link #checksum(Workload)} computes the same total in Java, so every
+ * execution mode can be checked against it. Values stay small enough that no arithmetic overflows.</p>
+ *
+ * @author Ricki Angel
+ */
+public final class WorkloadGenerator {
+    /** Modulus keeping the checksum and loop sum within range. */
+    public static final int MODULUS = 1_000_003;
+
+    private WorkloadGenerator() {
+    }
+
+    /**
+     * Generates the source of a workload.
+     *
+     * @param workload the workload
+     * @return the SML source
+     */
+    public static String generate(Workload workload) {
+        StringBuilder main = new StringBuilder("@main:\n   push 0\n");
+        StringBuilder methods = new StringBuilder();
+
+        if (workload.recursionDepth() > 0) {
+            call(main, "recurse", workload.recursionDepth());
+            methods.append("""
+                    @recurse: n
+                       load n
+                       push 0
+                       if_cmpgt Down
+                       push 0
+                       return
+                    Down: load n
+                       push 1
+                       sub
+                       invoke @recurse
+                       push 1
+                       add
+                       return
+
+                    """);
+        }
+        if (workload.loopIterations() > 0) {
+            call(main, "loop", workload.loopIterations());
+            methods.append("""
+                    @loop: n
+                       push 0
+                       store s
+                       push 1
+                       store i
+                    Next: load i
+                       load n
+                       if_cmpgt Done
+                       load s
+                       load i
+                       add
+                       push %d
+                       mod
+                       store s
+                       load i
+                       push 1
+                       add
+                       store i
+                       goto Next
+                    Done: load s
+                       return
+
+                    """.formatted(MODULUS));
+        }
+        if (workload.arguments() > 0) {
+            methods.append("@wide: ");
+            for (int i = 1; i <= workload.arguments(); i++) {
+                main.append("   push ").append(i).append('\n');
+                methods.append(i > 1 ? ", a" : "a").append(i);
+            }
+            call(main, "wide");
+            methods.append("\n   load a1\n");
+            for (int i = 2; i <= workload.arguments(); i++)
+                methods.append("   load a").append(i).append("\n   add\n");
+            methods.append("   return\n\n");
+        }
+        for (int m = 0; m < workload.methods(); m++) {
+            call(main, "m" + m, m);
+            methods.append("@m").append(m).append(": x\n   load x\n   push ").append(m).append("\n   add\n");
+            if (workload.labels() > 0) {
+                methods.append("   goto L0\n");
+                for (int l = 0; l < workload.labels(); l++) {
+                    methods.append('L').append(l).append(": push 1\n   add\n   goto ")
+                            .append(l + 1 < workload.labels() ? "L" + (l + 1) : "End").append('\n');
+                }
+                methods.append("End: return\n\n");
+            } else {
+                methods.append("   return\n\n");
+            }
+        }
+        if (workload.prints() > 0) {
+            call(main, "chatter", workload.prints());
+            methods.append("""
+                    @chatter: n
+                       push 1
+                       store i
+                    Next: load i
+                       load n
+                       if_cmpgt Done
+                       load i
+                       print
+                       load i
+                       push 1
+                       add
+                       store i
+                       goto Next
+                    Done: load n
+                       return
+
+                    """);
+        }
+
+        return main.append("   print\n   push 0\n   return\n\n").append(methods).toString();
+    }
+
+    /**
+     * Appends the code invoking one method with a single argument and adding its result to the total.
+     */
+    private static void call(StringBuilder main, String method, int argument) {
+        main.append("   push ").append(argument).append('\n');
+        call(main, method);
+    }
+
+    /**
+     * Appends the code invoking a method whose arguments are already pushed and adding its result
+     * to the total.
+     */
+    private static void call(StringBuilder main, String method) {
+        main.append("   invoke @").append(method).append("\n   add\n   push ").append(MODULUS).append("\n   mod\n");
+    }
+
+    /**
+     * Computes the value a workload's program prints last.
+     *
+     * @param workload the workload
+     * @return the checksum
+     */
+    public static int checksum(Workload workload) {
+        long total = workload.recursionDepth();
+        long sum = 0;
+        for (int i = 1; i <= workload.loopIterations(); i++)
+            sum = (sum + i) % MODULUS;
+        total = (total + sum) % MODULUS;
+        long width = workload.arguments();
+        total = (total + width * (width + 1) / 2) % MODULUS;
+        for (int m = 0; m < workload.methods(); m++)
+            total = (total + 2L * m + workload.labels()) % MODULUS;
+        return (int) ((total + workload.prints()) % MODULUS);
+    }
+
+    /**
+     * Writes the source of a workload to a file.
+     *
+     * @param workload the workload
+     * @param file     the file to write
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(Workload workload, Path file) throws IOException {
+        Files.writeString(file, generate(workload));
+    }
+
+    /**
+     * Writes a generated program to a file, or to standard output.
+     *
+     * <p>Options, which must precede the file:</p>
+     * <ul>
+     *   <li>{@code --workload <name>} - start from the standard workload of that name</li>
+     *   <li>{@code --methods}, {@code --recursion}, {@code --loop}, {@code --arguments},
+     *       {@code --labels}, {@code --prints <n>} - set one parameter</li>
+     * </ul>
+     *
+     * @param args Command-line arguments (options, then the optional output file)
+     */
+    public static void main(String... args) {
+        Workload workload = Workload.named("custom");
+        int i = 0;
+        try {
+            for (; i < args.length && args[i].startsWith("--"); i++) {
+                String option = args[i];
+                if (option.equals("--workload")) {
+                    String name = args[++i];
+                    workload = Workload.standard().stream().filter(w -> w.name().equals(name)).findFirst()
+                            .orElseThrow(() -> new IllegalArgumentException("Unknown workload " + name + ", expected one of "
+                                    + Workload.standard().stream().map(Workload::name).toList()));
+                    continue;
+                }
+                int value = Integer.parseInt(args[++i]);
+                workload = switch (option) {
+                    case "--methods" -> workload.withMethods(value);
+                    case "--recursion" -> workload.withRecursionDepth(value);
+                    case "--loop" -> workload.withLoopIterations(value);
+                    case "--arguments" -> workload.withArguments(value);
+                    case "--labels" -> workload.withLabels(value);
+                    case "--prints" -> workload.withPrints(value);
+                    default -> throw new IllegalArgumentException("Unknown option " + option);
+                };
+            }
+        } catch (ArrayIndexOutOfBoundsException | IllegalArgumentException e) {
+            System.err.println("Error: " + (e instanceof ArrayIndexOutOfBoundsException
+                    ? "Missing value for " + args[i - 1] : e.getMessage()));
+            i = args.length + 1;
+        }
+        if (args.length - i > 1 || i > args.length) {
+            System.err.println("Usage: java sml.workload.WorkloadGenerator [--workload name] [--methods n] [--recursion n]"
+                    + " [--loop n] [--arguments n] [--labels n] [--prints n] [output.sml]");
+            return;
+        }
+
+        try {
+            if (i == args.length) System.out.print(generate(workload));
+            else write(workload, Path.of(args[i]));
+        } catch (IOException e) {
+            System.err.println("Error: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,19 @@
+/**
+ * Synthetic workloads and performance regression testing.
+ * <p>
+ * This package contains:
+ * <ul>
+ *   <li>{@link sml.workload.Workload} - The parameters of a generated program: methods, recursion
+ *       depth, loop iterations, argument width, labels and printed values</li>
+ *   <li>{@link sml.workload.WorkloadGenerator} - Generates the SML source of a workload, and the
+ *       checksum it prints</li>
+ *   <li>{@link sml.workload.PerformanceHarness} - Runs workloads under every execution mode and
+ *       measures time, instruction rate, allocation and peak heap</li>
+ *   <li>{@link sml.workload.PerformanceReport} - The JSON record of a harness run, compared against
+ *       a baseline to find {@link sml.workload.Regression}s</li>
+ * </ul>
+ * </p>
+ *
+ * @author Ricki Angel
+ */
+package sml.workload;
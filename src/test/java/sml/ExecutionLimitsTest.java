@@ -0,0 +1,179 @@
+package sml;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for execution limits and cooperative preemption in the {@link Machine}.
+ *
+ * <p>Key test objectives:</p>
+ * <ul>
+ *   <li>Stopping runaway loops with an instruction budget</li>
+ *   <li>Stopping unbounded recursion with a call-depth limit</li>
+ *   <li>Stopping long-running programs with a wall-time limit</li>
+ *   <li>Suspending and resuming an execution without losing frame state</li>
+ * </ul>
+ *
+ * @author Ricki Angel
+ */
+public class ExecutionLimitsTest {
+    private Translator translator;
+    private Machine machine;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setUp() {
+        translator = new Translator();
+        machine = new Machine();
+    }
+
+    private void load(String program) throws IOException {
+        Path filePath = tempDir.resolve("program.sml");
+        Files.writeString(filePath, program);
+        machine.setProgram(translator.readAndTranslate(filePath.toString()));
+    }
+
+    @Test
+    @DisplayName("A runaway goto loop should be stopped by the instruction budget")
+    void instructionBudgetStopsRunawayLoop() throws IOException {
+        load("""
+                @main:
+                spin: push 1
+                store x
+                goto spin
+                """);
+        machine.setLimits(ExecutionLimits.unlimited().withMaxInstructions(1_000));
+
+        ExecutionLimitExceededException ex =
+                assertThrows(ExecutionLimitExceededException.class, () -> machine.run(Long.MAX_VALUE));
+
+        assertEquals(ExecutionLimitExceededException.Limit.INSTRUCTIONS, ex.getLimit());
+        assertEquals(1_000, ex.getThreshold());
+        assertTrue(ex.getInstructionsExecuted() <= 1_003, "Overshoot should be bounded by one loop body");
+        assertEquals(List.of("main:0"), ex.getFrameChain());
+    }
+
+    @Test
+    @DisplayName("Unbounded recursion should be stopped by the call-depth limit with the full frame chain")
+    void callDepthLimitStopsRecursion() throws IOException {
+        load("""
+                @main:
+                push 0
+                invoke @down
+                return
+
+                @down: n
+                load n
+                invoke @down
+                return
+                """);
+        machine.setLimits(ExecutionLimits.unlimited().withMaxCallDepth(5));
+
+        ExecutionLimitExceededException ex =
+                assertThrows(ExecutionLimitExceededException.class, () -> machine.run(Long.MAX_VALUE));
+
+        assertEquals(ExecutionLimitExceededException.Limit.CALL_DEPTH, ex.getLimit());
+        assertEquals(6, ex.getFrameChain().size());
+        assertEquals("down:0", ex.getFrameChain().getFirst());
+        assertEquals("main:1", ex.getFrameChain().getLast());
+    }
+
+    @Test
+    @DisplayName("A long-running loop should be stopped by the wall-time limit")
+    void wallTimeLimitStopsLoop() throws IOException {
+        load("""
+                @main:
+                spin: goto spin
+                """);
+        machine.setLimits(ExecutionLimits.unlimited().withMaxWallTime(Duration.ofMillis(50)));
+
+        ExecutionLimitExceededException ex =
+                assertThrows(ExecutionLimitExceededException.class, () -> machine.run(Long.MAX_VALUE));
+
+        assertEquals(ExecutionLimitExceededException.Limit.WALL_TIME, ex.getLimit());
+    }
+
+    @Test
+    @DisplayName("A program run in small quanta should produce the same result as an uninterrupted run")
+    void suspendAndResumePreservesFrameState() throws IOException {
+        load("""
+                @main:
+                push 15
+                invoke @fib
+                store result
+                load result
+                return
+
+                @fib: n
+                load n
+                push 1
+                if_cmpgt recurse
+                push 1
+                return
+                recurse: load n
+                push 1
+                sub
+                invoke @fib
+                load n
+                push 2
+                sub
+                invoke @fib
+                add
+                return
+                """);
+
+        int suspensions = 0;
+        while (machine.run(100) == ExecutionStatus.SUSPENDED) {
+            assertFalse(machine.hasTerminated());
+            suspensions++;
+        }
+
+        assertTrue(machine.hasTerminated());
+        assertTrue(suspensions > 10, "A recursive program should be preempted many times");
+        long total = machine.instructionsExecuted();
+
+        machine.setProgram(reload());
+        assertEquals(ExecutionStatus.TERMINATED, machine.run(Long.MAX_VALUE));
+        assertEquals(total, machine.instructionsExecuted(), "Preemption must not change the work done");
+    }
+
+    @Test
+    @DisplayName("A pause request should suspend the execution at the next safepoint")
+    void pauseRequestSuspendsExecution() throws IOException {
+        load("""
+                @main:
+                spin: goto spin
+                """);
+
+        machine.requestPause();
+
+        assertEquals(ExecutionStatus.SUSPENDED, machine.run(Long.MAX_VALUE));
+        assertEquals(1, machine.instructionsExecuted());
+        assertEquals(ExecutionStatus.SUSPENDED, machine.run(10));
+    }
+
+    @Test
+    @DisplayName("Non-positive limits and quanta should be rejected")
+    void invalidLimitsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> ExecutionLimits.unlimited().withMaxInstructions(0));
+        assertThrows(IllegalArgumentException.class, () -> ExecutionLimits.unlimited().withMaxCallDepth(-1));
+        assertThrows(IllegalArgumentException.class, () -> machine.run(0));
+    }
+
+    private Collection<Method> reload() throws IOException {
+        return translator.readAndTranslate(tempDir.resolve("program.sml").toString());
+    }
+}
@@ -0,0 +1,196 @@
+package sml;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import sml.instructions.AbstractVarInstruction;
+import sml.instructions.GotoInstruction;
+import sml.instructions.Instruction;
+import sml.instructions.InvokeInstruction;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for interned identifiers and shared instructions in the {@link Translator}.
+ *
+ * <p>Key test objectives:</p>
+ * <ul>
+ *   <li>Creating each distinct label, variable and method identifier once per translation</li>
+ *   <li>Sharing identical unlabelled instructions, but never labelled or stateful ones</li>
+ *   <li>Running shared instructions correctly in every execution mode, despite quickening</li>
+ *   <li>Creating separate objects when interning is turned off</li>
+ * </ul>
+ *
+ * @author Ricki Angel
+ */
+public class InterningTest {
+    private static final String PROGRAM = """
+            @main:
+               push 3
+               push 4
+               invoke @add
+               push 5
+               invoke @twice
+               add
+               print
+               push 0
+               return
+
+            @add: x, n
+               load x
+               load n
+               add
+               return
+
+            @twice: n
+               push 0
+               store i
+            L1: load n
+               load n
+               add
+               load i
+               push 1
+               add
+               store i
+               load i
+               push 1
+               if_cmpgt L2
+               goto L1
+            L2: load n
+               load n
+               add
+               return
+            """;
+
+    private final ByteArrayOutputStream outContent = new ByteArrayOutputStream();
+    private final PrintStream originalOut = System.out;
+
+    @BeforeEach
+    void setUp() {
+        System.setOut(new PrintStream(outContent));
+    }
+
+    @AfterEach
+    void tearDown() {
+        System.setOut(originalOut);
+    }
+
+    private static Method method(Collection<Method> program, String name) {
+        return program.stream().filter(m -> m.name().toString().equals(name)).findFirst().orElseThrow();
+    }
+
+    @Test
+    @DisplayName("Each distinct identifier should be created once per translation")
+    void identifiersAreInterned() {
+        Collection<Method> program = new Translator().translateSource(PROGRAM);
+        Method main = method(program, "main");
+        Method add = method(program, "add");
+        Method twice = method(program, "twice");
+
+        assertSame(add.name(), ((InvokeInstruction) main.instructions().get(2)).methodName());
+        assertSame(add.arguments().get(1), twice.arguments().getFirst());
+        assertSame(twice.arguments().getFirst(), ((AbstractVarInstruction) twice.instructions().get(2)).variable());
+        assertSame(twice.instructions().get(2).optionalLabel().orElseThrow(),
+                ((GotoInstruction) twice.instructions().get(12)).branchLabel());
+    }
+
+    @Test
+    @DisplayName("Identical unlabelled instructions should be shared, labelled ones not")
+    void instructionsAreShared() {
+        Collection<Method> program = new Translator().translateSource(PROGRAM);
+        List<Instruction> main = method(program, "main").instructions();
+        List<Instruction> add = method(program, "add").instructions();
+        List<Instruction> twice = method(program, "twice").instructions();
+
+        assertSame(main.get(5), add.get(2));                 // add
+        assertSame(add.get(1), twice.get(3));                // load n
+        assertSame(twice.get(6), twice.get(10));             // push 1
+        assertSame(add.get(3), twice.get(16));               // return
+        assertNotSame(twice.get(2), twice.get(3));           // L1: load n, load n
+        assertNotSame(twice.get(2), twice.get(13));          // L1: load n, L2: load n
+        assertNotSame(main.get(0), main.get(1));             // push 3, push 4
+    }
+
+    @Test
+    @DisplayName("Shared instructions should run correctly in every execution mode")
+    void sharedInstructionsRunCorrectly() {
+        Translator plain = new Translator();
+        plain.setInterning(false);
+        Machine reference = new Machine();
+        reference.setProgram(plain.translateSource(PROGRAM));
+        reference.run(Long.MAX_VALUE);
+        String expected = outContent.toString();
+        assertEquals("17", expected.lines().toList().getLast());
+
+        for (ExecutionMode mode : ExecutionMode.values()) {
+            outContent.reset();
+            Machine machine = new Machine();
+            machine.setExecutionMode(mode);
+            machine.setProgram(new Translator().translateSource(PROGRAM));
+            assertEquals(ExecutionStatus.TERMINATED, machine.run(Long.MAX_VALUE));
+            assertEquals(expected, outContent.toString(), mode.name());
+        }
+    }
+
+    @Test
+    @DisplayName("Without interning every occurrence should be a separate object")
+    void interningCanBeTurnedOff() {
+        Translator translator = new Translator();
+        translator.setInterning(false);
+        Collection<Method> program = translator.translateSource(PROGRAM);
+        List<Instruction> add = method(program, "add").instructions();
+        List<Instruction> twice = method(program, "twice").instructions();
+
+        assertEquals(add.get(1), twice.get(3));
+        assertNotSame(add.get(1), twice.get(3));
+        assertNotSame(method(program, "add").arguments().get(1), method(program, "twice").arguments().getFirst());
+    }
+
+    @Test
+    @DisplayName("Instructions with mutable state should never be shared")
+    void statefulInstructionsAreNotShared() throws ReflectiveOperationException {
+        Interner interner = new Interner();
+        var counting = Counting.class.getDeclaredConstructor(Label.class);
+        var stateless = Stateless.class.getDeclaredConstructor(Label.class);
+        Object[] unlabelled = {null};
+
+        assertNotSame(interner.instruction(counting, unlabelled, args -> new Counting(null)),
+                interner.instruction(counting, unlabelled, args -> new Counting(null)));
+        assertSame(interner.instruction(stateless, unlabelled, args -> new Stateless(null)),
+                interner.instruction(stateless, unlabelled, args -> new Stateless(null)));
+    }
+
+    private static class Stateless extends Instruction {
+        Stateless(Label label) {
+            super(label, "stateless");
+        }
+
+        @Override
+        protected void performInstructionLogic(Frame frame) {
+        }
+
+        @Override
+        protected String getOperandsString() {
+            return "";
+        }
+    }
+
+    private static final class Counting extends Stateless {
+        private int executions;
+
+        Counting(Label label) {
+            super(label);
+        }
+
+        @Override
+        protected void performInstructionLogic(Frame frame) {
+            executions++;
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package sml;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import sml.instructions.Instruction;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for {@link LazyProgram} and lazily translated programs in the {@link Machine}.
+ *
+ * <p>Key test objectives:</p>
+ * <ul>
+ *   <li>Translating only the methods a run actually invokes</li>
+ *   <li>Producing the same output as an eagerly translated program</li>
+ *   <li>Translating a method once when it is first invoked from several threads</li>
+ *   <li>Reporting structural errors at scan time and body errors at first invocation</li>
+ *   <li>Translating with the translator it was given</li>
+ * </ul>
+ *
+ * @author Ricki Angel
+ */
+public class LazyProgramTest {
+    private static final String LIBRARY = """
+            @main:
+               push 10
+               invoke @square
+               print
+               push 3
+               push 4
+               invoke @add
+               print
+               push 0
+               return
+
+            @square: x
+               load x
+               load x
+               mul
+               return
+
+            @add: a, b
+               load a
+               load b
+               add
+               return
+
+            @unused: n
+               load n
+               return
+            """;
+
+    private final PrintStream originalOut = System.out;
+    private final ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+    @BeforeEach
+    void setUp() {
+        System.setOut(new PrintStream(output));
+    }
+
+    @AfterEach
+    void tearDown() {
+        System.setOut(originalOut);
+    }
+
+    private static LazyProgram scan(String source) {
+        return LazyProgram.scan(source.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("The pre-scan should record every header but translate nothing")
+    void scanTranslatesNothing() {
+        LazyProgram program = scan(LIBRARY);
+
+        assertEquals(4, program.size());
+        assertEquals(0, program.translatedCount());
+        LazyProgram.MethodHeader add = program.headers().stream()
+                .filter(h -> h.name().equals(new Method.Identifier("@add")))
+                .findFirst().orElseThrow();
+        assertEquals(List.of(new Variable.Identifier("a"), new Variable.Identifier("b")), add.arguments());
+    }
+
+    @Test
+    @DisplayName("Running a lazy program should translate only the invoked methods")
+    void onlyInvokedMethodsAreTranslated() {
+        LazyProgram program = scan(LIBRARY);
+        Machine machine = new Machine();
+
+        machine.setProgram(program);
+        assertEquals(1, program.translatedCount(), "Only @main should be translated on load");
+        machine.execute();
+
+        assertEquals(3, program.translatedCount());
+        assertTrue(program.method(new Method.Identifier("@missing")).isEmpty());
+    }
+
+    @Test
+    @DisplayName("A lazy program should behave exactly like the eagerly translated program")
+    void matchesEagerTranslation() {
+        Machine eager = new Machine();
+        eager.setProgram(new Translator().translateSource(LIBRARY));
+        eager.execute();
+        String expected = output.toString();
+        long expectedInstructions = eager.instructionsExecuted();
+
+        output.reset();
+        Machine lazy = new Machine();
+        lazy.setProgram(scan(LIBRARY));
+        lazy.execute();
+
+        assertEquals(expected, output.toString());
+        assertEquals(expectedInstructions, lazy.instructionsExecuted());
+        assertEquals(eager.programHash(), lazy.programHash());
+    }
+
+    @Test
+    @DisplayName("Concurrent first invocations should all see the same translated method")
+    void concurrentFirstInvocationTranslatesOnce() throws Exception {
+        LazyProgram program = scan(LIBRARY);
+        Method.Identifier square = new Method.Identifier("@square");
+        int threads = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Method>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++)
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return program.method(square).orElseThrow();
+                }));
+            start.countDown();
+
+            Method first = results.get(0).get();
+            for (Future<Method> result : results)
+                assertSame(first, result.get());
+            assertEquals(1, program.translatedCount());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Duplicate methods and instructions outside methods should be rejected by the scan")
+    void structuralErrorsAreFoundByScan() {
+        assertThrows(IllegalArgumentException.class, () -> scan(LIBRARY + "\n@add: x\n   load x\n   return\n"));
+        assertThrows(IllegalArgumentException.class, () -> scan("   push 1\n" + LIBRARY));
+    }
+
+    @Test
+    @DisplayName("An invalid method body should only be reported when the method is first invoked")
+    void bodyErrorsAreReportedOnFirstInvocation() {
+        LazyProgram program = scan(LIBRARY.replace("@unused: n", "@unused: n, n"));
+        Machine machine = new Machine();
+
+        machine.setProgram(program);
+        machine.execute();
+
+        assertThrows(IllegalArgumentException.class, () -> program.method(new Method.Identifier("@unused")));
+    }
+
+    @Test
+    @DisplayName("Methods should be translated by the translator given to the scan, with its settings")
+    void scanUsesGivenTranslator() {
+        Translator translator = new Translator();
+        translator.setInterning(false);
+        Method.Identifier square = new Method.Identifier("@square");
+
+        List<Instruction> interned = scan(LIBRARY).method(square).orElseThrow().instructions();
+        List<Instruction> separate = LazyProgram.scan(LIBRARY.getBytes(StandardCharsets.UTF_8), translator)
+                .method(square).orElseThrow().instructions();
+
+        assertSame(interned.get(0), interned.get(1));
+        assertNotSame(separate.get(0), separate.get(1));
+    }
+}
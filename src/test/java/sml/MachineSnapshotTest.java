@@ -0,0 +1,239 @@
+package sml;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for {@link MachineSnapshot} and {@link Checkpointer}.
+ *
+ * <p>Key test objectives:</p>
+ * <ul>
+ *   <li>Resuming a restored machine mid-recursion with identical output and instruction count</li>
+ *   <li>Preserving the contents of the array heap, through a file as well as in memory</li>
+ *   <li>Rejecting lengths that run past the end of the file or exceed the heap cap</li>
+ *   <li>Rejecting snapshots taken from a different program</li>
+ *   <li>Writing checkpoints during a run and cleaning up on completion</li>
+ *   <li>Carrying on past checkpoint writes that fail</li>
+ * </ul>
+ *
+ * @author Ricki Angel
+ */
+public class MachineSnapshotTest {
+    private static final String FIB = """
+            @main:
+               push 12
+               invoke @fib
+               print
+               push 1
+               return
+
+            @fib: n
+                load n
+                push 1
+                if_cmpgt L7
+                push 1
+                return
+            L7: load n
+                push 1
+                sub
+                invoke @fib
+                load n
+                push 2
+                sub
+                invoke @fib
+                add
+                return
+            """;
+
+    private final PrintStream originalOut = System.out;
+    private final ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setUp() {
+        System.setOut(new PrintStream(output));
+    }
+
+    @AfterEach
+    void tearDown() {
+        System.setOut(originalOut);
+    }
+
+    private Collection<Method> translate(String source) throws IOException {
+        Path filePath = tempDir.resolve("program.sml");
+        Files.writeString(filePath, source);
+        return new Translator().readAndTranslate(filePath.toString());
+    }
+
+    private Machine load(String source) throws IOException {
+        Machine machine = new Machine();
+        machine.setProgram(translate(source));
+        return machine;
+    }
+
+    private String runToCompletion(Machine machine) {
+        output.reset();
+        while (machine.run(Long.MAX_VALUE) == ExecutionStatus.SUSPENDED) {
+            // keep going
+        }
+        return output.toString();
+    }
+
+    @Test
+    @DisplayName("A machine restored mid-recursion should finish exactly like the original")
+    void restoredMachineMatchesOriginal() throws IOException {
+        Machine original = load(FIB);
+        assertEquals(ExecutionStatus.SUSPENDED, original.run(500));
+        assertTrue(original.frame().depth() > 2, "Snapshot should be taken inside the recursion");
+
+        Path file = tempDir.resolve("fib.snapshot");
+        MachineSnapshot.capture(original).writeTo(file);
+
+        Machine restored = load(FIB);
+        MachineSnapshot.readFrom(file).restoreInto(restored);
+        assertEquals(original.instructionsExecuted(), restored.instructionsExecuted());
+        assertEquals(original.frame().toString(), restored.frame().toString());
+
+        String expected = runToCompletion(original);
+        String actual = runToCompletion(restored);
+
+        assertTrue(expected.endsWith("233" + System.lineSeparator()), "fib(12) should print 233");
+        assertEquals(expected, actual);
+        assertEquals(original.instructionsExecuted(), restored.instructionsExecuted());
+    }
+
+    @Test
+    @DisplayName("Arrays in the machine's heap should survive a snapshot and restore")
+    void heapIsRestored() throws IOException {
+        Machine original = load(FIB);
+        original.run(500);
+        int handle = original.heap().allocate(4);
+        original.heap().set(handle, 2, -5);
+
+        Machine restored = load(FIB);
+        restored.heap().allocate(16);
+        MachineSnapshot.capture(original).restoreInto(restored);
+
+        assertEquals(1, restored.heap().liveArrays());
+        assertEquals(-5, restored.heap().get(handle, 2));
+        assertEquals(4, restored.heap().length(handle));
+    }
+
+    @Test
+    @DisplayName("Arrays written to a file should be read back, and the reported size should match the file")
+    void heapIsWrittenAndRead() throws IOException {
+        Machine original = load(FIB);
+        original.run(500);
+        int handle = original.heap().allocate(100_000);
+        for (int i = 0; i < 100_000; i++)
+            original.heap().set(handle, i, i * 31 - 50_000);
+
+        Path file = tempDir.resolve("heap.snapshot");
+        MachineSnapshot snapshot = MachineSnapshot.capture(original);
+        snapshot.writeTo(file);
+        assertEquals(Files.size(file), snapshot.size());
+
+        Machine restored = load(FIB);
+        MachineSnapshot.readFrom(file).restoreInto(restored);
+        assertArrayEquals(original.heap().toArray(handle), restored.heap().toArray(handle));
+        assertThrows(IOException.class, () -> MachineSnapshot.readFrom(file, 100_000));
+    }
+
+    @Test
+    @DisplayName("Lengths beyond the end of the file should fail with an IOException before allocating")
+    void oversizedLengthIsRejected() throws IOException {
+        Machine machine = load(FIB);
+        machine.run(500);
+        Path file = tempDir.resolve("fib.snapshot");
+        MachineSnapshot.capture(machine).writeTo(file);
+
+        byte[] header = Arrays.copyOf(Files.readAllBytes(file), 10);
+        header[5] = (byte) 0xFF; // a state length of Integer.MAX_VALUE
+        header[6] = (byte) 0xFF;
+        header[7] = (byte) 0xFF;
+        header[8] = (byte) 0xFF;
+        header[9] = 0x07;
+        Files.write(file, header);
+
+        IOException e = assertThrows(IOException.class, () -> MachineSnapshot.readFrom(file));
+        assertTrue(e.getMessage().contains("remaining"), e.getMessage());
+    }
+
+    @Test
+    @DisplayName("Snapshots should be a few bytes per frame")
+    void snapshotIsCompact() throws IOException {
+        Machine machine = load(FIB);
+        machine.run(500);
+
+        long size = MachineSnapshot.capture(machine).size();
+
+        assertTrue(size < 48 + machine.frame().depth() * 8,
+                "Snapshot of " + machine.frame().depth() + " frames took " + size + " bytes");
+    }
+
+    @Test
+    @DisplayName("Restoring into a different program should be rejected")
+    void hashMismatchIsRejected() throws IOException {
+        Machine machine = load(FIB);
+        machine.run(500);
+        MachineSnapshot snapshot = MachineSnapshot.capture(machine);
+
+        Machine other = load(FIB.replace("push 12", "push 11"));
+
+        assertThrows(IllegalStateException.class, () -> snapshot.restoreInto(other));
+    }
+
+    @Test
+    @DisplayName("Reading a file that is not a snapshot should fail with an IOException")
+    void badMagicIsRejected() throws IOException {
+        Path file = tempDir.resolve("junk.snapshot");
+        Files.writeString(file, "not a snapshot");
+
+        assertThrows(IOException.class, () -> MachineSnapshot.readFrom(file));
+    }
+
+    @Test
+    @DisplayName("The checkpointer should write checkpoints during a run and remove them on completion")
+    void checkpointerWritesAndCleansUp() throws IOException {
+        Machine machine = load(FIB);
+        Path file = tempDir.resolve("fib.checkpoint");
+        Checkpointer checkpointer = new Checkpointer(machine, file, Duration.ZERO, 200);
+
+        checkpointer.run();
+
+        assertTrue(machine.hasTerminated());
+        assertTrue(checkpointer.checkpointsWritten() > 0);
+        assertFalse(Files.exists(file));
+        assertFalse(Checkpointer.resume(load(FIB), file));
+    }
+
+    @Test
+    @DisplayName("A failed checkpoint write should be reported without stopping later checkpoints or the run")
+    void failedWritesDoNotStopTheRun() throws IOException {
+        Machine machine = load(FIB);
+        Path file = tempDir.resolve("missing").resolve("fib.checkpoint");
+        Checkpointer checkpointer = new Checkpointer(machine, file, Duration.ZERO, 200);
+
+        checkpointer.run();
+
+        assertTrue(machine.hasTerminated());
+        assertEquals(0, checkpointer.checkpointsWritten());
+        assertTrue(checkpointer.checkpointsFailed() > 1, "every checkpoint is attempted");
+    }
+}
@@ -0,0 +1,157 @@
+package sml;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import sml.instructions.Instruction;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for {@link StreamingProgram}.
+ *
+ * <p>Key test objectives:</p>
+ * <ul>
+ *   <li>Starting {@code @main} before the rest of the source has been read</li>
+ *   <li>Blocking an {@code invoke} until the parser reaches the method</li>
+ *   <li>Failing an {@code invoke} of a missing method once the source has ended</li>
+ *   <li>Producing the same output as an eagerly translated program</li>
+ *   <li>Translating with the translator it was given</li>
+ * </ul>
+ *
+ * @author Ricki Angel
+ */
+public class StreamingProgramTest {
+    private static final String MAIN = """
+            @main:
+               push 10
+               invoke @square
+               print
+               push 0
+               return
+            """;
+
+    private static final String SQUARE = """
+            @square: x
+               load x
+               load x
+               mul
+               return
+            """;
+
+    private final PrintStream originalOut = System.out;
+    private final ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+    @BeforeEach
+    void setUp() {
+        System.setOut(new PrintStream(output));
+    }
+
+    @AfterEach
+    void tearDown() {
+        System.setOut(originalOut);
+    }
+
+    private static void write(OutputStream out, String text) throws IOException {
+        out.write(text.getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+
+    @Test
+    @DisplayName("Execution should start before the source ends and wait for methods not yet parsed")
+    void executionOverlapsParsing() throws Exception {
+        PipedOutputStream source = new PipedOutputStream();
+        StreamingProgram program = StreamingProgram.start(new PipedInputStream(source, 1 << 16));
+        // @main is only complete once the next header has been read
+        write(source, MAIN + "@square: x\n");
+
+        Machine machine = new Machine();
+        machine.setProgram(program);
+        assertFalse(program.isComplete());
+
+        CompletableFuture<ExecutionStatus> run = CompletableFuture.supplyAsync(() -> machine.run(Long.MAX_VALUE));
+        Thread.sleep(100);
+        assertFalse(run.isDone(), "invoke @square should wait for the parser");
+
+        write(source, SQUARE.substring(SQUARE.indexOf('\n') + 1));
+        source.close();
+        assertEquals(ExecutionStatus.TERMINATED, run.get(10, TimeUnit.SECONDS));
+
+        assertEquals("100", output.toString().lines().reduce((a, b) -> b).orElseThrow());
+        assertEquals(2, program.methods().size());
+        assertTrue(program.isComplete());
+        assertEquals(2, program.publishedCount());
+    }
+
+    @Test
+    @DisplayName("Invoking a method missing from the whole source should fail once parsing ends")
+    void missingMethodFailsAtEndOfSource() throws Exception {
+        PipedOutputStream source = new PipedOutputStream();
+        StreamingProgram program = StreamingProgram.start(new PipedInputStream(source));
+        write(source, MAIN);
+
+        CompletableFuture<ExecutionStatus> run = CompletableFuture.supplyAsync(() -> {
+            Machine machine = new Machine();
+            machine.setProgram(program);
+            return machine.run(Long.MAX_VALUE);
+        });
+        source.close();
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> run.get(10, TimeUnit.SECONDS));
+        assertInstanceOf(MethodNotFoundException.class, e.getCause());
+        assertTrue(program.method(new Method.Identifier("@square")).isEmpty());
+    }
+
+    @Test
+    @DisplayName("A parse error should fail lookups instead of leaving them waiting")
+    void parseErrorFailsWaitingLookups() {
+        StreamingProgram program = StreamingProgram.start(new ByteArrayInputStream(
+                (MAIN + SQUARE + SQUARE).getBytes(StandardCharsets.UTF_8)));
+
+        assertThrows(IllegalArgumentException.class, () -> program.method(new Method.Identifier("@other")));
+        assertThrows(IllegalArgumentException.class, program::methods);
+    }
+
+    @Test
+    @DisplayName("A streamed program should behave exactly like the eagerly translated program")
+    void matchesEagerTranslation() throws IOException {
+        Machine eager = new Machine();
+        eager.setProgram(new Translator().translateSource(MAIN + SQUARE));
+        eager.execute();
+        String expected = output.toString();
+
+        output.reset();
+        Machine streamed = new Machine();
+        streamed.setProgram(StreamingProgram.start(new ByteArrayInputStream(
+                (MAIN + SQUARE).getBytes(StandardCharsets.UTF_8))));
+        streamed.execute();
+
+        assertEquals(expected, output.toString());
+        assertEquals(eager.instructionsExecuted(), streamed.instructionsExecuted());
+        assertEquals(eager.programHash(), streamed.programHash());
+    }
+
+    @Test
+    @DisplayName("Methods should be translated by the translator given to start, with its settings")
+    void startUsesGivenTranslator() {
+        Translator translator = new Translator();
+        translator.setInterning(false);
+        Method.Identifier square = new Method.Identifier("@square");
+
+        List<Instruction> interned = StreamingProgram.start(new ByteArrayInputStream(
+                (MAIN + SQUARE).getBytes(StandardCharsets.UTF_8))).method(square).orElseThrow().instructions();
+        List<Instruction> separate = StreamingProgram.start(new ByteArrayInputStream(
+                (MAIN + SQUARE).getBytes(StandardCharsets.UTF_8)), translator).method(square).orElseThrow().instructions();
+
+        assertSame(interned.get(0), interned.get(1));
+        assertNotSame(separate.get(0), separate.get(1));
+    }
+}
@@ -0,0 +1,151 @@
+package sml.analysis;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import sml.Machine;
+import sml.Method;
+import sml.Translator;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for {@link CallGraph} and whole-program analysis in the {@link Machine}.
+ *
+ * <p>Key test objectives:</p>
+ * <ul>
+ *   <li>Finding the methods reachable from {@code @main}, leaf methods and recursion cycles</li>
+ *   <li>Dropping unreachable methods when a program is loaded</li>
+ *   <li>Reporting calls to undefined methods before the program runs</li>
+ *   <li>Handling call chains too deep for a recursive traversal</li>
+ * </ul>
+ *
+ * @author Ricki Angel
+ */
+public class CallGraphTest {
+    private static final String PROGRAM = """
+            @main:
+               push 5
+               invoke @even
+               invoke @report
+               push 0
+               return
+
+            @even: n
+               load n
+               push 0
+               if_cmpeq Yes
+               load n
+               push 1
+               sub
+               invoke @odd
+               return
+            Yes: push 1
+               return
+
+            @odd: n
+               load n
+               push 0
+               if_cmpeq No
+               load n
+               push 1
+               sub
+               invoke @even
+               return
+            No: push 0
+               return
+
+            @report: x
+               load x
+               print
+               push 0
+               return
+
+            @fact: n
+               load n
+               invoke @fact
+               return
+
+            @unused:
+               invoke @missing
+               return
+            """;
+
+    private static Method.Identifier id(String name) {
+        return new Method.Identifier("@" + name);
+    }
+
+    private static Collection<Method> translate(String source) {
+        return new Translator().translateSource(source);
+    }
+
+    @Test
+    @DisplayName("Reachability, leaves and recursion cycles should reflect the invoke instructions")
+    void summarisesProgram() {
+        CallGraph graph = CallGraph.of(translate(PROGRAM));
+
+        assertEquals(Set.of(id("main"), id("even"), id("odd"), id("report")),
+                Set.copyOf(graph.reachableFrom(id("main")).stream().map(Method::name).toList()));
+        assertEquals(Set.of(id("report")), graph.leaves());
+        assertEquals(Set.of(Set.of(id("even"), id("odd")), Set.of(id("fact"))), Set.copyOf(graph.recursionCycles()));
+        assertTrue(graph.isRecursive(id("odd")));
+        assertFalse(graph.isRecursive(id("main")));
+        assertEquals(Set.of(id("main"), id("odd")), graph.callers(id("even")));
+    }
+
+    @Test
+    @DisplayName("Undefined calls should only be reported for reachable methods")
+    void undefinedCallsAreFoundFromEntry() {
+        CallGraph graph = CallGraph.of(translate(PROGRAM));
+
+        assertEquals(List.of(), graph.undefinedCallsFrom(id("main")));
+        assertEquals(List.of(new CallGraph.UndefinedCall(id("unused"), id("missing"))),
+                graph.undefinedCallsFrom(id("unused")));
+    }
+
+    @Test
+    @DisplayName("Loading with analysis should drop unreachable methods and still run correctly")
+    void unreachableMethodsAreDropped() {
+        Machine machine = new Machine();
+        machine.setWholeProgramAnalysis(true);
+
+        machine.setProgram(translate(PROGRAM));
+
+        assertTrue(machine.method(id("fact")).isEmpty());
+        assertTrue(machine.method(id("unused")).isEmpty());
+        assertEquals(4, machine.callGraph().size());
+        machine.execute();
+        assertTrue(machine.hasTerminated());
+    }
+
+    @Test
+    @DisplayName("Loading with analysis should reject calls to undefined methods before running")
+    void undefinedCallsFailTheLoad() {
+        Machine machine = new Machine();
+        machine.setWholeProgramAnalysis(true);
+        String broken = PROGRAM.replace("invoke @report", "invoke @reprot");
+
+        UndefinedMethodException e = assertThrows(UndefinedMethodException.class,
+                () -> machine.setProgram(translate(broken)));
+
+        assertEquals(List.of(new CallGraph.UndefinedCall(id("main"), id("reprot"))), e.calls());
+    }
+
+    @Test
+    @DisplayName("Long call chains should be analysed without overflowing the stack")
+    void deepChainsAreIterative() {
+        int length = 50_000;
+        StringBuilder source = new StringBuilder("@main:\n   invoke @m0\n   return\n");
+        for (int i = 0; i < length; i++)
+            source.append("@m").append(i).append(":\n   invoke @m").append((i + 1) % length).append("\n   return\n");
+
+        CallGraph graph = CallGraph.of(translate(source.toString()));
+
+        assertEquals(length + 1, graph.reachableFrom(id("main")).size());
+        assertEquals(1, graph.recursionCycles().size());
+        assertEquals(length, graph.recursionCycles().get(0).size());
+    }
+}
@@ -0,0 +1,199 @@
+package sml.analysis;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import sml.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for {@link ControlFlowGraph} and basic-block dispatch in the {@link Machine}.
+ *
+ * <p>Key test objectives:</p>
+ * <ul>
+ *   <li>Splitting methods into blocks with the right edges, dominators and natural loops</li>
+ *   <li>Computing live variables and operand stack heights per block</li>
+ *   <li>Running programs in {@link ExecutionMode#BASIC_BLOCK} with the same output and counts as
+ *       the interpreter, including when an instruction fails mid-block</li>
+ * </ul>
+ *
+ * @author Ricki Angel
+ */
+public class ControlFlowGraphTest {
+    private final PrintStream originalOut = System.out;
+    private final ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+    @BeforeEach
+    void setUp() {
+        System.setOut(new PrintStream(output));
+    }
+
+    @AfterEach
+    void tearDown() {
+        System.setOut(originalOut);
+    }
+
+    private static Map<Method.Identifier, Method> resource(String name, int n) throws IOException {
+        String source = Files.readString(Path.of("src/main/resources", name)).replace("push 10", "push " + n);
+        return new Translator().translateSource(source).stream()
+                .collect(Collectors.toMap(Method::name, m -> m));
+    }
+
+    private static Method.Identifier id(String name) {
+        return new Method.Identifier("@" + name);
+    }
+
+    private static Set<Variable.Identifier> variables(String... names) {
+        return Arrays.stream(names).map(Variable.Identifier::new).collect(Collectors.toSet());
+    }
+
+    @Test
+    @DisplayName("The Fibonacci loop should split into four blocks with one natural loop")
+    void blocksDominatorsAndLoops() throws IOException {
+        ControlFlowGraph graph = resource("test2.sml", 10).get(id("fib2")).controlFlowGraph();
+        List<BasicBlock> blocks = graph.blocks();
+
+        assertEquals(List.of(0, 6, 9, 22), blocks.stream().map(BasicBlock::start).toList());
+        BasicBlock init = blocks.get(0), test = blocks.get(1), body = blocks.get(2), exit = blocks.get(3);
+        assertEquals(List.of(test), init.successors());
+        assertEquals(List.of(body, exit), test.successors());
+        assertEquals(List.of(test), body.successors());
+        assertEquals(List.of(), exit.successors());
+        assertSame(body, graph.blockAt(15));
+
+        assertEquals(Optional.empty(), graph.immediateDominator(init));
+        assertEquals(Optional.of(test), graph.immediateDominator(body));
+        assertEquals(Optional.of(test), graph.immediateDominator(exit));
+        assertTrue(graph.dominates(init, exit));
+        assertFalse(graph.dominates(body, exit));
+
+        assertEquals(1, graph.loops().size());
+        NaturalLoop loop = graph.loops().get(0);
+        assertSame(test, loop.header());
+        assertEquals(Set.of(test, body), loop.body());
+        assertEquals(List.of(body), loop.backEdgeSources());
+    }
+
+    @Test
+    @DisplayName("Liveness should follow loads and stores around the loop")
+    void liveVariables() throws IOException {
+        ControlFlowGraph graph = resource("test2.sml", 10).get(id("fib2")).controlFlowGraph();
+        List<BasicBlock> blocks = graph.blocks();
+
+        assertEquals(variables("n"), graph.liveIn(blocks.get(0)));
+        assertEquals(variables("n", "fm1", "fm2", "i"), graph.liveIn(blocks.get(1)));
+        assertEquals(graph.liveIn(blocks.get(1)), graph.liveOut(blocks.get(2)));
+        assertEquals(variables("fm1"), graph.liveIn(blocks.get(3)));
+        assertEquals(Set.of(), graph.liveOut(blocks.get(3)));
+    }
+
+    @Test
+    @DisplayName("Stack heights should be tracked through calls when callees can be resolved")
+    void stackHeights() throws IOException {
+        Map<Method.Identifier, Method> program = resource("test2.sml", 10);
+        Method main = program.get(id("main"));
+
+        ControlFlowGraph alone = ControlFlowGraph.of(main);
+        ControlFlowGraph resolved = ControlFlowGraph.of(main, name -> Optional.ofNullable(program.get(name)));
+
+        assertEquals(OptionalInt.of(0), alone.stackHeightAtEntry(alone.entry()));
+        assertEquals(OptionalInt.empty(), alone.stackHeightAtExit(alone.entry()));
+        assertEquals(OptionalInt.of(0), resolved.stackHeightAtExit(resolved.entry()));
+
+        ControlFlowGraph fib2 = program.get(id("fib2")).controlFlowGraph();
+        fib2.blocks().forEach(block -> assertEquals(OptionalInt.of(0), fib2.stackHeightAtEntry(block)));
+
+        Method unbalanced = new Translator().translateSource("""
+                @main:
+                   push 1
+                   push 1
+                   if_cmpeq Two
+                   push 7
+                Two: push 0
+                   return
+                """).iterator().next();
+        ControlFlowGraph conflict = unbalanced.controlFlowGraph();
+        assertEquals(OptionalInt.empty(), conflict.stackHeightAtEntry(conflict.blocks().get(2)));
+    }
+
+    @Test
+    @DisplayName("Unreachable blocks and undefined labels should not break the analyses")
+    void unreachableCode() {
+        Method method = new Translator().translateSource("""
+                @main:
+                   goto End
+                   push 1
+                   goto Nowhere
+                End: push 0
+                   return
+                """).iterator().next();
+        ControlFlowGraph graph = method.controlFlowGraph();
+        BasicBlock dead = graph.blocks().get(1);
+
+        assertEquals(3, graph.blocks().size());
+        assertEquals(List.of(), dead.successors());
+        assertEquals(Optional.empty(), graph.immediateDominator(dead));
+        assertFalse(graph.dominates(dead, dead));
+        assertEquals(OptionalInt.empty(), graph.stackHeightAtEntry(dead));
+        assertEquals(List.of(), graph.loops());
+    }
+
+    private String run(Collection<Method> program, ExecutionMode mode, long[] instructions) {
+        Machine machine = new Machine();
+        machine.setExecutionMode(mode);
+        machine.setProgram(program);
+        output.reset();
+        assertEquals(ExecutionStatus.TERMINATED, machine.run(Long.MAX_VALUE));
+        instructions[0] = machine.instructionsExecuted();
+        return output.toString();
+    }
+
+    @Test
+    @DisplayName("Basic-block dispatch should print and count exactly as the interpreter does")
+    void basicBlockDispatchMatchesInterpreter() throws IOException {
+        for (Collection<Method> program : List.of(resource("test1.sml", 12).values(), resource("test2.sml", 200).values())) {
+            long[] interpreted = new long[1];
+            long[] blocks = new long[1];
+
+            String expected = run(program, ExecutionMode.INTERPRETED, interpreted);
+            String actual = run(program, ExecutionMode.BASIC_BLOCK, blocks);
+
+            assertEquals(expected, actual);
+            assertEquals(interpreted[0], blocks[0]);
+        }
+    }
+
+    @Test
+    @DisplayName("A failure mid-block should leave the frame at the failing instruction")
+    void failureInsideBlock() {
+        Machine machine = new Machine();
+        machine.setExecutionMode(ExecutionMode.BASIC_BLOCK);
+        machine.setProgram(new Translator().translateSource("""
+                @main:
+                   push 1
+                   store x
+                   push 1
+                   push 0
+                   div
+                   print
+                   push 0
+                   return
+                """));
+
+        ArithmeticException e = assertThrows(ArithmeticException.class, () -> machine.run(Long.MAX_VALUE));
+
+        assertEquals("Division by zero", e.getMessage());
+        assertEquals(4, machine.frame().programCounter());
+        assertEquals(4, machine.instructionsExecuted());
+    }
+}
@@ -0,0 +1,187 @@
+package sml.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import sml.Machine;
+import sml.Method;
+import sml.Translator;
+import sml.memory.ArrayHeap;
+import sml.memory.ArrayKernels;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.foreign.MemorySegment;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for the bulk array kernels on 1M-element arrays.
+ *
+ * <p>Compares the SIMD and scalar {@link ArrayKernels} directly, and the {@code asum} instruction
+ * against the equivalent element-by-element SML loop. The SML programs allocate and fill their array
+ * first; that setup is identical in both and small next to the loop.</p>
+ *
+ * <p>Running the benchmarks:</p>
+ * <pre>
+ *   mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ *   java --add-modules jdk.incubator.vector -cp "target/test-classes:target/classes:$(cat target/cp.txt)" \
+ *       org.openjdk.jmh.Main ArrayKernelsBenchmark
+ * </pre>
+ *
+ * @author Ricki Angel
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class ArrayKernelsBenchmark {
+    private static final String SML_LOOP = """
+            @main:
+                  push %1$d
+                  newarray
+                  store a
+                  load a
+                  push 0
+                  push %1$d
+                  push 1
+                  afill
+                  push 0
+                  store s
+                  push 0
+                  store i
+            loop: load i
+                  push %1$d
+                  if_cmpeq done
+                  load s
+                  load a
+                  load i
+                  aload
+                  add
+                  store s
+                  load i
+                  push 1
+                  add
+                  store i
+                  goto loop
+            done: push 0
+                  return
+            """;
+
+    private static final String SML_ASUM = """
+            @main:
+                  push %1$d
+                  newarray
+                  store a
+                  load a
+                  push 0
+                  push %1$d
+                  push 1
+                  afill
+                  load a
+                  push 0
+                  push %1$d
+                  asum
+                  store s
+                  push 0
+                  return
+            """;
+
+    @Param({"1000000"})
+    public int length;
+
+    private final ArrayKernels simd = ArrayKernels.simd();
+    private final ArrayKernels scalar = ArrayKernels.scalar();
+    private ArrayHeap heap;
+    private MemorySegment a;
+    private MemorySegment b;
+    private Collection<Method> smlLoop;
+    private Collection<Method> smlAsum;
+    private Machine machine;
+    private PrintStream originalOut;
+
+    @Setup
+    public void setUp() throws IOException {
+        heap = new ArrayHeap(ArrayHeap.DEFAULT_MAX_BYTES);
+        a = heap.segment(heap.allocate(length));
+        b = heap.segment(heap.allocate(length));
+        for (int i = 0; i < length; i++) {
+            a.setAtIndex(ArrayHeap.ELEMENT, i, i);
+            b.setAtIndex(ArrayHeap.ELEMENT, i, length - i);
+        }
+
+        smlLoop = translate(SML_LOOP.formatted(length));
+        smlAsum = translate(SML_ASUM.formatted(length));
+        machine = new Machine();
+
+        // LoadInstruction echoes every value it loads; keep the console out of the measurement.
+        originalOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.setOut(originalOut);
+        heap.close();
+        machine.heap().close();
+    }
+
+    private static Collection<Method> translate(String source) throws IOException {
+        Path file = Files.createTempFile("array-benchmark", ".sml");
+        Files.writeString(file, source);
+        try {
+            return new Translator().readAndTranslate(file.toString());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    private long run(Collection<Method> program) {
+        machine.setProgram(program);
+        machine.run(Long.MAX_VALUE);
+        return machine.instructionsExecuted();
+    }
+
+    @Benchmark
+    public int sumSimd() {
+        return simd.sum(a, 0, length);
+    }
+
+    @Benchmark
+    public int sumScalar() {
+        return scalar.sum(a, 0, length);
+    }
+
+    @Benchmark
+    public int dotSimd() {
+        return simd.dot(a, 0, b, 0, length);
+    }
+
+    @Benchmark
+    public int dotScalar() {
+        return scalar.dot(a, 0, b, 0, length);
+    }
+
+    @Benchmark
+    public void addScalarSimd() {
+        simd.addScalar(a, 0, length, 1);
+    }
+
+    @Benchmark
+    public void addScalarScalar() {
+        scalar.addScalar(a, 0, length, 1);
+    }
+
+    @Benchmark
+    public long sumSmlLoop() {
+        return run(smlLoop);
+    }
+
+    @Benchmark
+    public long sumSmlAsum() {
+        return run(smlAsum);
+    }
+}
@@ -0,0 +1,95 @@
+package sml.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import sml.ExecutionMode;
+import sml.ExecutionStatus;
+import sml.Machine;
+import sml.Method;
+import sml.Translator;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for basic-block dispatch.
+ *
+ * <p>Runs the iterative Fibonacci loop of {@code test2.sml} with a large {@code n}, once with every
+ * instruction dispatched on its own and once with {@link ExecutionMode#BASIC_BLOCK}, which runs the
+ * twelve straight-line instructions of the loop body as one block. A second loop runs 24 stack-only
+ * arithmetic instructions per iteration, where dispatch rather than the echo of each {@code load}
+ * dominates. {@code System.out} is replaced by a discarding stream for the measurement.</p>
+ *
+ * <p>Running the benchmarks:</p>
+ * <pre>
+ *   mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ *   java -cp "target/test-classes:target/classes:$(cat target/cp.txt)" org.openjdk.jmh.Main BasicBlockBenchmark
+ * </pre>
+ *
+ * @author Ricki Angel
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BasicBlockBenchmark {
+    @Param({"1000000"})
+    public int n;
+
+    @Param({"INTERPRETED", "BASIC_BLOCK"})
+    public ExecutionMode mode;
+
+    private Collection<Method> program;
+    private Collection<Method> arithmetic;
+    private PrintStream originalOut;
+
+    @Setup
+    public void setUp() throws IOException {
+        Path source = Path.of("src/main/resources/test2.sml");
+        Path file = Files.createTempFile("basic-block-benchmark", ".sml");
+        Files.writeString(file, Files.readString(source).replace("push 10", "push " + n));
+        program = new Translator().readAndTranslate(file.toString());
+        Files.delete(file);
+
+        StringBuilder text = new StringBuilder("@main:\n   push 0\n   store i\nLoop: push ").append(n)
+                .append("\n   load i\n   if_cmpgt Body\n   push 0\n   return\nBody: ");
+        for (int i = 0; i < 3; i++)
+            text.append("push 3\n   push 4\n   mul\n   push 5\n   add\n   push 7\n   mod\n   store x\n   ");
+        text.append("load i\n   push 1\n   add\n   store i\n   goto Loop\n");
+        arithmetic = new Translator().translateSource(text.toString());
+
+        originalOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.setOut(originalOut);
+    }
+
+    @Benchmark
+    public long fibLoop() {
+        return run(program);
+    }
+
+    @Benchmark
+    public long arithmeticLoop() {
+        return run(arithmetic);
+    }
+
+    private long run(Collection<Method> methods) {
+        Machine machine = new Machine();
+        machine.setProgram(methods);
+        machine.setExecutionMode(mode);
+        while (machine.run(Long.MAX_VALUE) == ExecutionStatus.SUSPENDED) {
+            // run to completion
+        }
+        return machine.instructionsExecuted();
+    }
+}
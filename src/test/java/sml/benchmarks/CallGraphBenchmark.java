@@ -0,0 +1,83 @@
+package sml.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import sml.Machine;
+import sml.Method;
+import sml.Translator;
+import sml.analysis.CallGraph;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for whole-program analysis when a program is loaded.
+ *
+ * <p>Translates a generated program of 100k small methods, of which {@code @main} reaches ten, and
+ * measures building its {@link CallGraph} on its own, and {@link Machine#setProgram} with
+ * whole-program analysis off and on. With analysis on, only the eleven reachable methods stay
+ * loaded.</p>
+ *
+ * <p>Running the benchmarks:</p>
+ * <pre>
+ *   mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ *   java -cp "target/test-classes:target/classes:$(cat target/cp.txt)" org.openjdk.jmh.Main CallGraphBenchmark
+ * </pre>
+ *
+ * @author Ricki Angel
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CallGraphBenchmark {
+    private static final int CALLS = 10;
+
+    @Param({"100000"})
+    public int methods;
+
+    private Collection<Method> program;
+
+    @Setup
+    public void setUp() throws IOException {
+        StringBuilder text = new StringBuilder("@main:\n");
+        for (int i = 0; i < CALLS; i++)
+            text.append("   push ").append(i).append("\n   invoke @m").append(i * (methods / CALLS)).append("\n");
+        text.append("   push 0\n   return\n\n");
+        for (int i = 0; i < methods; i++) {
+            text.append("@m").append(i).append(": x\n")
+                    .append("   load x\n   push ").append(i).append("\n   add\n   return\n\n");
+        }
+        Path file = Files.createTempFile("callgraph-benchmark", ".sml");
+        try {
+            Files.writeString(file, text);
+            program = new Translator().readAndTranslate(file.toString());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Benchmark
+    public CallGraph buildCallGraph() {
+        return CallGraph.of(program);
+    }
+
+    @Benchmark
+    public Machine loadWithoutAnalysis() {
+        Machine machine = new Machine();
+        machine.setProgram(program);
+        return machine;
+    }
+
+    @Benchmark
+    public Machine loadWithAnalysis() {
+        Machine machine = new Machine();
+        machine.setWholeProgramAnalysis(true);
+        machine.setProgram(program);
+        return machine;
+    }
+}
@@ -0,0 +1,161 @@
+package sml.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import sml.Method;
+import sml.Translator;
+import sml.channel.Channel;
+import sml.channel.Pipeline;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Collection;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for channels between concurrently running machines.
+ *
+ * <p>Passes {@value #MESSAGES} messages from a producer virtual thread to the benchmark thread
+ * through a single-producer and a multi-producer {@link Channel}, against an
+ * {@link ArrayBlockingQueue} of the same capacity, and runs a three-stage SML {@link Pipeline}
+ * that counts as many messages relayed through its middle stage. Results are in messages per
+ * second.
+ * {@code System.out} is replaced by a discarding stream for the measurement.</p>
+ *
+ * <p>Running the benchmarks:</p>
+ * <pre>
+ *   mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ *   java -cp "target/test-classes:target/classes:$(cat target/cp.txt)" org.openjdk.jmh.Main ChannelBenchmark
+ * </pre>
+ *
+ * @author Ricki Angel
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ChannelBenchmark {
+    private static final int MESSAGES = 1_000_000;
+
+    private static final String PIPELINE = """
+            @stage_produce: out
+                   push %d
+                   store n
+            Next:  load out
+                   load n
+                   send
+                   load n
+                   push 1
+                   sub
+                   store n
+                   load n
+                   push 0
+                   if_cmpgt Next
+                   push 0
+                   return
+
+            @stage_relay: in, out
+            Next:  load in
+                   recv
+                   store x
+                   load x
+                   push -2147483648
+                   if_cmpeq Done
+                   load out
+                   load x
+                   send
+                   goto Next
+            Done:  push 0
+                   return
+
+            @stage_count: in
+                   push 0
+                   store count
+            Next:  load in
+                   recv
+                   push -2147483648
+                   if_cmpeq Done
+                   load count
+                   push 1
+                   add
+                   store count
+                   goto Next
+            Done:  load count
+                   print
+                   push 0
+                   return
+            """;
+
+    @Param({"1024"})
+    public int capacity;
+
+    private Collection<Method> pipeline;
+    private PrintStream originalOut;
+
+    @Setup
+    public void setUp() {
+        pipeline = new Translator().translateSource(PIPELINE.formatted(MESSAGES));
+
+        originalOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.setOut(originalOut);
+    }
+
+    private static long transfer(Channel channel) throws InterruptedException {
+        Thread producer = Thread.ofVirtual().start(() -> {
+            for (int i = 0; i < MESSAGES; i++) channel.send(i);
+            channel.close();
+        });
+        long sum = 0;
+        long value;
+        while ((value = channel.receive()) != Channel.CLOSED)
+            sum += value;
+        producer.join();
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MESSAGES)
+    public long spsc() throws InterruptedException {
+        return transfer(Channel.spsc(capacity));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MESSAGES)
+    public long mpmc() throws InterruptedException {
+        return transfer(Channel.mpmc(capacity));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MESSAGES)
+    public long arrayBlockingQueue() throws InterruptedException {
+        BlockingQueue<Integer> queue = new ArrayBlockingQueue<>(capacity);
+        Thread producer = Thread.ofVirtual().start(() -> {
+            try {
+                for (int i = 0; i < MESSAGES; i++) queue.put(i);
+                queue.put(-1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        long sum = 0;
+        int value;
+        while ((value = queue.take()) >= 0)
+            sum += value;
+        producer.join();
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MESSAGES)
+    public int smlPipeline() throws InterruptedException {
+        return Pipeline.of(pipeline, capacity).run().size();
+    }
+}
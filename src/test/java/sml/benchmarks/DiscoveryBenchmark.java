@@ -0,0 +1,51 @@
+package sml.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import sml.InstructionRegistrationManager;
+import sml.discovery.ConfigDiscovery;
+import sml.discovery.PackageScanDiscovery;
+import sml.helperfiles.DefaultInstructionRegistrationLogger;
+import sml.helperfiles.InstructionRegistrationLogger;
+import sml.registry.InstructionRegistry;
+import sml.registry.InstructionSet;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for instruction discovery at startup.
+ *
+ * <p>Each measurement is the first discovery in a fresh JVM, so it includes loading the
+ * instruction classes. {@code sequential} runs the configuration file strategy and then package
+ * scanning on the calling thread, one after the other, into a single registry.
+ * {@code parallel} is {@link InstructionRegistrationManager#discoverInstructions()}, which runs
+ * them at once on virtual threads and publishes an immutable snapshot.</p>
+ *
+ * <p>Running the benchmarks:</p>
+ * <pre>
+ *   mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ *   java -cp "target/test-classes:target/classes:$(cat target/cp.txt)" org.openjdk.jmh.Main DiscoveryBenchmark
+ * </pre>
+ *
+ * @author Ricki Angel
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(20)
+public class DiscoveryBenchmark {
+    @Benchmark
+    public InstructionSet sequential() {
+        InstructionRegistrationLogger logger = new DefaultInstructionRegistrationLogger();
+        InstructionRegistry registry = new InstructionRegistry();
+        new ConfigDiscovery(logger).discoverInstructions(registry);
+        new PackageScanDiscovery(logger).discoverInstructions(registry);
+        return registry.snapshot();
+    }
+
+    @Benchmark
+    public InstructionSet parallel() {
+        return new InstructionRegistrationManager(new DefaultInstructionRegistrationLogger()).discoverInstructions();
+    }
+}
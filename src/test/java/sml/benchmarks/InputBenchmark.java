@@ -0,0 +1,128 @@
+package sml.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import sml.io.IntInputFormat;
+import sml.io.MappedIntInput;
+import sml.memory.ArrayHeap;
+
+import java.io.BufferedWriter;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.foreign.MemorySegment;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.Scanner;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for reading 10M integers from a file.
+ *
+ * <p>Compares {@link MappedIntInput} on binary and text files, one value at a time and in bulk into
+ * an {@link ArrayHeap} array, against {@link Scanner#nextInt()} on the same text file. Each
+ * operation sums the whole input so nothing can be optimised away.</p>
+ *
+ * <p>Running the benchmarks:</p>
+ * <pre>
+ *   mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ *   java -cp "target/test-classes:target/classes:$(cat target/cp.txt)" org.openjdk.jmh.Main InputBenchmark
+ * </pre>
+ *
+ * @author Ricki Angel
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InputBenchmark {
+    private static final int CHUNK = 64 * 1024;
+
+    @Param({"10000000"})
+    public int values;
+
+    private Path binary;
+    private Path text;
+    private ArrayHeap heap;
+    private int chunk;
+
+    @Setup
+    public void setUp() throws IOException {
+        binary = Files.createTempFile("input-benchmark", ".bin");
+        text = Files.createTempFile("input-benchmark", ".txt");
+        Random random = new Random(1);
+        try (DataOutputStream bin = new DataOutputStream(Files.newOutputStream(binary));
+             BufferedWriter txt = Files.newBufferedWriter(text)) {
+            for (int i = 0; i < values; i++) {
+                int value = random.nextInt(2_000_000) - 1_000_000;
+                bin.writeInt(Integer.reverseBytes(value)); // DataOutputStream is big-endian
+                txt.write(Integer.toString(value));
+                txt.write('\n');
+            }
+        }
+        heap = new ArrayHeap();
+        chunk = heap.allocate(CHUNK);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        heap.close();
+        Files.deleteIfExists(binary);
+        Files.deleteIfExists(text);
+    }
+
+    private static long sumEach(MappedIntInput input) {
+        long sum = 0;
+        for (int value = input.next(); value != MappedIntInput.EOF; value = input.next())
+            sum += value;
+        return sum;
+    }
+
+    private long sumChunks(MappedIntInput input) {
+        MemorySegment segment = heap.segment(chunk);
+        long sum = 0;
+        for (int read = input.readInto(segment, 0, CHUNK); read > 0; read = input.readInto(segment, 0, CHUNK))
+            for (int i = 0; i < read; i++)
+                sum += segment.getAtIndex(ArrayHeap.ELEMENT, i);
+        return sum;
+    }
+
+    @Benchmark
+    public long mappedBinaryNext() throws IOException {
+        try (MappedIntInput input = MappedIntInput.open(binary, IntInputFormat.BINARY)) {
+            return sumEach(input);
+        }
+    }
+
+    @Benchmark
+    public long mappedBinaryReadInto() throws IOException {
+        try (MappedIntInput input = MappedIntInput.open(binary, IntInputFormat.BINARY)) {
+            return sumChunks(input);
+        }
+    }
+
+    @Benchmark
+    public long mappedTextNext() throws IOException {
+        try (MappedIntInput input = MappedIntInput.open(text, IntInputFormat.TEXT)) {
+            return sumEach(input);
+        }
+    }
+
+    @Benchmark
+    public long mappedTextReadInto() throws IOException {
+        try (MappedIntInput input = MappedIntInput.open(text, IntInputFormat.TEXT)) {
+            return sumChunks(input);
+        }
+    }
+
+    @Benchmark
+    public long scannerText() throws IOException {
+        try (Scanner scanner = new Scanner(text)) {
+            long sum = 0;
+            while (scanner.hasNextInt())
+                sum += scanner.nextInt();
+            return sum;
+        }
+    }
+}
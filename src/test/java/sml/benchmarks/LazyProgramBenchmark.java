@@ -0,0 +1,84 @@
+package sml.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import sml.LazyProgram;
+import sml.Machine;
+import sml.Translator;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for running a program that calls a few methods of a large library.
+ *
+ * <p>Generates a program of 100k small methods whose {@code @main} invokes ten of them, and
+ * measures loading and running it from the file with every method translated up front
+ * ({@link Translator#readAndTranslate(String)}) against translating each method on its first
+ * invocation ({@link LazyProgram}).</p>
+ *
+ * <p>Running the benchmarks:</p>
+ * <pre>
+ *   mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ *   java -cp "target/test-classes:target/classes:$(cat target/cp.txt)" org.openjdk.jmh.Main LazyProgramBenchmark
+ * </pre>
+ *
+ * @author Ricki Angel
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LazyProgramBenchmark {
+    private static final int CALLS = 10;
+
+    @Param({"100000"})
+    public int methods;
+
+    private Path file;
+    private PrintStream originalOut;
+
+    @Setup
+    public void setUp() throws IOException {
+        StringBuilder text = new StringBuilder("@main:\n");
+        for (int i = 0; i < CALLS; i++)
+            text.append("   push ").append(i).append("\n   invoke @m").append(i * (methods / CALLS)).append("\n");
+        text.append("   push 0\n   return\n\n");
+        for (int i = 0; i < methods; i++) {
+            text.append("@m").append(i).append(": x\n")
+                    .append("   load x\n   push ").append(i).append("\n   add\n   return\n\n");
+        }
+        file = Files.createTempFile("lazy-benchmark", ".sml");
+        Files.writeString(file, text);
+
+        originalOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        System.setOut(originalOut);
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public Machine eager() throws IOException {
+        Machine machine = new Machine();
+        machine.setProgram(new Translator().readAndTranslate(file.toString()));
+        machine.execute();
+        return machine;
+    }
+
+    @Benchmark
+    public Machine lazy() throws IOException {
+        Machine machine = new Machine();
+        machine.setProgram(LazyProgram.scan(file));
+        machine.execute();
+        return machine;
+    }
+}
@@ -0,0 +1,76 @@
+package sml.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import sml.ExecutionMode;
+import sml.ExecutionStatus;
+import sml.Machine;
+import sml.Method;
+import sml.Translator;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for on-stack replacement of a hot loop.
+ *
+ * <p>Runs the iterative Fibonacci loop of {@code test2.sml} with a large {@code n}, once fully
+ * interpreted and once with {@link ExecutionMode#OSR}. The loop echoes every {@code load}, so
+ * {@code System.out} is replaced by a discarding stream for the measurement.</p>
+ *
+ * <p>Running the benchmarks:</p>
+ * <pre>
+ *   mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ *   java -cp "target/test-classes:target/classes:$(cat target/cp.txt)" org.openjdk.jmh.Main OsrBenchmark
+ * </pre>
+ *
+ * @author Ricki Angel
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OsrBenchmark {
+    @Param({"1000000"})
+    public int n;
+
+    @Param({"INTERPRETED", "OSR"})
+    public ExecutionMode mode;
+
+    private Collection<Method> program;
+    private PrintStream originalOut;
+
+    @Setup
+    public void setUp() throws IOException {
+        Path source = Path.of("src/main/resources/test2.sml");
+        Path file = Files.createTempFile("osr-benchmark", ".sml");
+        Files.writeString(file, Files.readString(source).replace("push 10", "push " + n));
+        program = new Translator().readAndTranslate(file.toString());
+        Files.delete(file);
+
+        originalOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.setOut(originalOut);
+    }
+
+    @Benchmark
+    public long fibLoop() {
+        Machine machine = new Machine();
+        machine.setProgram(program);
+        machine.setExecutionMode(mode);
+        while (machine.run(Long.MAX_VALUE) == ExecutionStatus.SUSPENDED) {
+            // run to completion
+        }
+        return machine.instructionsExecuted();
+    }
+}
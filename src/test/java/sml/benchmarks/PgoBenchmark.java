@@ -0,0 +1,96 @@
+package sml.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import sml.ExecutionMode;
+import sml.Machine;
+import sml.Method;
+import sml.Translator;
+import sml.profile.ExecutionProfile;
+import sml.profile.ProfileCollector;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for a profile-guided run, as {@code RunSml --pgo} makes once its profile applies, with and
+ * without {@code --no-trace}.
+ *
+ * <p>Runs the iterative Fibonacci loop of {@code test2.sml} through {@link Machine#execute(boolean)}
+ * with a freshly translated program each time, so no loop is compiled before the run starts:</p>
+ * <ul>
+ *   <li>{@code TRACED} - the profile applied, but the run printing its trace as {@code --pgo} alone
+ *       does, which keeps it interpreted</li>
+ *   <li>{@code COLD} - untraced in {@link ExecutionMode#OSR} mode without a profile, compiling the
+ *       loop after 1,000 back edges</li>
+ *   <li>{@code PROFILED} - untraced in OSR mode with the profile applied, as {@code --no-trace --pgo}
+ *       runs, entering compiled code on the first back edge</li>
+ * </ul>
+ * <p>{@code System.out} is replaced by a discarding stream for the measurement.</p>
+ *
+ * <p>Running the benchmarks:</p>
+ * <pre>
+ *   mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ *   java -cp "target/test-classes:target/classes:$(cat target/cp.txt)" org.openjdk.jmh.Main PgoBenchmark
+ * </pre>
+ *
+ * @author Ricki Angel
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PgoBenchmark {
+    public enum Run { TRACED, COLD, PROFILED }
+
+    @Param({"2000", "20000"})
+    public int n;
+
+    @Param({"TRACED", "COLD", "PROFILED"})
+    public Run run;
+
+    private String source;
+    private ExecutionProfile profile;
+    private Collection<Method> program;
+    private PrintStream originalOut;
+
+    @Setup
+    public void setUp() throws IOException {
+        source = Files.readString(Path.of("src/main/resources/test2.sml")).replace("push 10", "push " + n);
+        originalOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+        Machine machine = new Machine();
+        ProfileCollector collector = new ProfileCollector();
+        machine.setProfileCollector(collector);
+        machine.setProgram(new Translator().translateSource(source));
+        machine.execute();
+        profile = collector.toProfile(machine.programHash());
+    }
+
+    @Setup(Level.Invocation)
+    public void translate() {
+        program = new Translator().translateSource(source);
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.setOut(originalOut);
+    }
+
+    @Benchmark
+    public long fibLoop() {
+        Machine machine = new Machine();
+        machine.setExecutionMode(ExecutionMode.OSR);
+        if (run != Run.COLD) machine.setProfile(profile);
+        machine.setProgram(program);
+        machine.execute(run == Run.TRACED);
+        return machine.instructionsExecuted();
+    }
+}
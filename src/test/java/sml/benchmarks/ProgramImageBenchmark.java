@@ -0,0 +1,117 @@
+package sml.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import sml.ExecutionMode;
+import sml.ExecutionStatus;
+import sml.Machine;
+import sml.Method;
+import sml.Translator;
+import sml.image.ProgramImage;
+import sml.workload.Workload;
+import sml.workload.WorkloadGenerator;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for program images against the stack interpreter.
+ *
+ * <p>Runs recursive Fibonacci ({@code test1.sml}, n = 22), the iterative Fibonacci loop
+ * ({@code test2.sml}, n = 1M) and a generated program of 20,000 methods of 20 labelled blocks each,
+ * whose code is too large to stay in cache, on an interpreted {@link Machine} and from a
+ * {@link ProgramImage}. Both print the echo of every {@code load}, so {@code System.out} is
+ * replaced by a discarding stream for the measurement.</p>
+ *
+ * <p>Running the benchmarks:</p>
+ * <pre>
+ *   mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ *   java -cp "target/test-classes:target/classes:$(cat target/cp.txt)" org.openjdk.jmh.Main ProgramImageBenchmark
+ * </pre>
+ *
+ * @author Ricki Angel
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProgramImageBenchmark {
+    private Collection<Method> recursive;
+    private Collection<Method> loop;
+    private Collection<Method> large;
+    private ProgramImage recursiveImage;
+    private ProgramImage loopImage;
+    private ProgramImage largeImage;
+    private PrintStream originalOut;
+
+    @Setup
+    public void setUp() throws IOException {
+        String recursiveSource = source("test1.sml", 22);
+        String loopSource = source("test2.sml", 1_000_000);
+        String largeSource = WorkloadGenerator.generate(Workload.named("large").withMethods(20_000).withLabels(20));
+        recursive = new Translator().translateSource(recursiveSource);
+        loop = new Translator().translateSource(loopSource);
+        large = new Translator().translateSource(largeSource);
+        recursiveImage = ProgramImage.parse(recursiveSource);
+        loopImage = ProgramImage.parse(loopSource);
+        largeImage = ProgramImage.parse(largeSource);
+
+        originalOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.setOut(originalOut);
+    }
+
+    private static String source(String name, int n) throws IOException {
+        return Files.readString(Path.of("src/main/resources", name)).replace("push 10", "push " + n);
+    }
+
+    private static long interpret(Collection<Method> program) {
+        Machine machine = new Machine();
+        machine.setProgram(program);
+        machine.setExecutionMode(ExecutionMode.INTERPRETED);
+        while (machine.run(Long.MAX_VALUE) == ExecutionStatus.SUSPENDED) {
+            // run to completion
+        }
+        return machine.instructionsExecuted();
+    }
+
+    @Benchmark
+    public long recursiveMachine() {
+        return interpret(recursive);
+    }
+
+    @Benchmark
+    public long recursiveImage() {
+        return recursiveImage.execute();
+    }
+
+    @Benchmark
+    public long loopMachine() {
+        return interpret(loop);
+    }
+
+    @Benchmark
+    public long loopImage() {
+        return loopImage.execute();
+    }
+
+    @Benchmark
+    public long largeMachine() {
+        return interpret(large);
+    }
+
+    @Benchmark
+    public long largeImage() {
+        return largeImage.execute();
+    }
+}
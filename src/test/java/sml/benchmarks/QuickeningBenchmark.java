@@ -0,0 +1,78 @@
+package sml.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import sml.ExecutionMode;
+import sml.ExecutionStatus;
+import sml.Machine;
+import sml.Method;
+import sml.Translator;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for instruction quickening.
+ *
+ * <p>Runs the recursive Fibonacci of {@code test1.sml} with a larger {@code n}, with quickening
+ * enabled and disabled. The program is translated per trial, since quickened code belongs to the
+ * translated methods. Loops are kept interpreted so only quickening is measured, and
+ * {@code System.out} is replaced by a discarding stream because every {@code load} echoes.</p>
+ *
+ * <p>Running the benchmarks:</p>
+ * <pre>
+ *   mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ *   java -cp "target/test-classes:target/classes:$(cat target/cp.txt)" org.openjdk.jmh.Main QuickeningBenchmark
+ * </pre>
+ *
+ * @author Ricki Angel
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QuickeningBenchmark {
+    @Param({"22"})
+    public int n;
+
+    @Param({"false", "true"})
+    public boolean quickening;
+
+    private Collection<Method> program;
+    private PrintStream originalOut;
+
+    @Setup
+    public void setUp() throws IOException {
+        Path source = Path.of("src/main/resources/test1.sml");
+        Path file = Files.createTempFile("quickening-benchmark", ".sml");
+        Files.writeString(file, Files.readString(source).replace("push 10", "push " + n));
+        program = new Translator().readAndTranslate(file.toString());
+        Files.delete(file);
+
+        originalOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.setOut(originalOut);
+    }
+
+    @Benchmark
+    public long recursiveFib() {
+        Machine machine = new Machine();
+        machine.setProgram(program);
+        machine.setExecutionMode(ExecutionMode.INTERPRETED);
+        machine.setQuickeningEnabled(quickening);
+        while (machine.run(Long.MAX_VALUE) == ExecutionStatus.SUSPENDED) {
+            // run to completion
+        }
+        return machine.instructionsExecuted();
+    }
+}
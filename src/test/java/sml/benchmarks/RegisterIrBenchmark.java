@@ -0,0 +1,98 @@
+package sml.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import sml.ExecutionMode;
+import sml.ExecutionStatus;
+import sml.Machine;
+import sml.Method;
+import sml.Translator;
+import sml.ir.RegisterProgram;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for the register IR against the stack interpreter.
+ *
+ * <p>Runs recursive Fibonacci ({@code test1.sml}, n = 22) and the iterative Fibonacci loop
+ * ({@code test2.sml}, n = 1M) on an interpreted {@link Machine} and as a compiled
+ * {@link RegisterProgram}. Both print the echo of every {@code load}, so {@code System.out} is
+ * replaced by a discarding stream for the measurement.</p>
+ *
+ * <p>Running the benchmarks:</p>
+ * <pre>
+ *   mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ *   java -cp "target/test-classes:target/classes:$(cat target/cp.txt)" org.openjdk.jmh.Main RegisterIrBenchmark
+ * </pre>
+ *
+ * @author Ricki Angel
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RegisterIrBenchmark {
+    private Collection<Method> recursive;
+    private Collection<Method> loop;
+    private RegisterProgram recursiveRegisters;
+    private RegisterProgram loopRegisters;
+    private PrintStream originalOut;
+
+    @Setup
+    public void setUp() throws IOException {
+        recursive = program("test1.sml", 22);
+        loop = program("test2.sml", 1_000_000);
+        recursiveRegisters = RegisterProgram.compile(recursive);
+        loopRegisters = RegisterProgram.compile(loop);
+
+        originalOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.setOut(originalOut);
+    }
+
+    private static Collection<Method> program(String name, int n) throws IOException {
+        String source = Files.readString(Path.of("src/main/resources", name));
+        return new Translator().translateSource(source.replace("push 10", "push " + n));
+    }
+
+    private static long interpret(Collection<Method> program) {
+        Machine machine = new Machine();
+        machine.setProgram(program);
+        machine.setExecutionMode(ExecutionMode.INTERPRETED);
+        while (machine.run(Long.MAX_VALUE) == ExecutionStatus.SUSPENDED) {
+            // run to completion
+        }
+        return machine.instructionsExecuted();
+    }
+
+    @Benchmark
+    public long recursiveStack() {
+        return interpret(recursive);
+    }
+
+    @Benchmark
+    public RegisterProgram.RunCounts recursiveRegister() {
+        return recursiveRegisters.execute();
+    }
+
+    @Benchmark
+    public long loopStack() {
+        return interpret(loop);
+    }
+
+    @Benchmark
+    public RegisterProgram.RunCounts loopRegister() {
+        return loopRegisters.execute();
+    }
+}
@@ -0,0 +1,85 @@
+package sml.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import sml.Machine;
+import sml.Translator;
+import sml.reload.HotReloader;
+import sml.reload.ReloadResult;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for hot reloading a one-method edit in a large program.
+ *
+ * <p>Generates a program of 100k small methods, loads it once, and measures
+ * {@link HotReloader#reload()} after one method has been edited, against translating the whole file
+ * again with {@link Translator#readAndTranslate(String)} and calling {@link Machine#setProgram}.
+ * The edit is written to disk before each invocation and is not part of the measurement.</p>
+ *
+ * <p>Running the benchmarks:</p>
+ * <pre>
+ *   mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ *   java -cp "target/test-classes:target/classes:$(cat target/cp.txt)" org.openjdk.jmh.Main ReloadBenchmark
+ * </pre>
+ *
+ * @author Ricki Angel
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReloadBenchmark {
+    @Param({"100000"})
+    public int methods;
+
+    private Path file;
+    private String source;
+    private Machine machine;
+    private HotReloader reloader;
+    private int edits;
+
+    @Setup
+    public void setUp() throws IOException {
+        StringBuilder text = new StringBuilder("@main:\n   push 1\n   return\n\n");
+        for (int i = 0; i < methods; i++) {
+            text.append("@m").append(i).append(": x\n")
+                    .append("   load x\n   push ").append(i).append("\n   add\n   return\n\n");
+        }
+        source = text.toString();
+        file = Files.createTempFile("reload-benchmark", ".sml");
+        Files.writeString(file, source);
+
+        machine = new Machine();
+        reloader = new HotReloader(machine, new Translator(), file);
+        reloader.load();
+    }
+
+    @Setup(Level.Invocation)
+    public void editOneMethod() throws IOException {
+        edits++;
+        Files.writeString(file, source.replace("   push " + (methods / 2) + "\n", "   push " + -edits + "\n"));
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        reloader.close();
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public ReloadResult incrementalReload() throws IOException {
+        return reloader.reload();
+    }
+
+    @Benchmark
+    public Machine fullReload() throws IOException {
+        Machine fresh = new Machine();
+        fresh.setProgram(new Translator().readAndTranslate(file.toString()));
+        return fresh;
+    }
+}
@@ -0,0 +1,81 @@
+package sml.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import sml.ExecutionStatus;
+import sml.Machine;
+import sml.Method;
+import sml.Translator;
+import sml.profile.SamplingProfiler;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for the overhead of the sampling profiler.
+ *
+ * <p>Runs the recursive Fibonacci of {@code test1.sml}, which calls and returns constantly and so
+ * publishes its running frame as often as any program can, with and without a
+ * {@link SamplingProfiler} sampling it every millisecond. {@code System.out} is replaced by a
+ * discarding stream for the measurement.</p>
+ *
+ * <p>Running the benchmarks:</p>
+ * <pre>
+ *   mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ *   java -cp "target/test-classes:target/classes:$(cat target/cp.txt)" org.openjdk.jmh.Main SamplingProfilerBenchmark
+ * </pre>
+ *
+ * @author Ricki Angel
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SamplingProfilerBenchmark {
+    @Param({"24"})
+    public int n;
+
+    @Param({"false", "true"})
+    public boolean profiled;
+
+    private Collection<Method> program;
+    private Machine machine;
+    private SamplingProfiler profiler;
+    private PrintStream originalOut;
+
+    @Setup
+    public void setUp() throws IOException {
+        String source = Files.readString(Path.of("src/main/resources/test1.sml")).replace("push 10", "push " + n);
+        program = new Translator().translateSource(source);
+        machine = new Machine();
+        if (profiled) {
+            profiler = SamplingProfiler.start(Duration.ofMillis(1), false);
+            profiler.attach(machine);
+        }
+
+        originalOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.setOut(originalOut);
+        if (profiler != null) profiler.close();
+    }
+
+    @Benchmark
+    public long recursiveFib() {
+        machine.setProgram(program);
+        while (machine.run(Long.MAX_VALUE) == ExecutionStatus.SUSPENDED) {
+            // run to completion
+        }
+        return machine.instructionsExecuted();
+    }
+}
@@ -0,0 +1,117 @@
+package sml.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import sml.Machine;
+import sml.Method;
+import sml.Translator;
+import sml.scheduling.SmlScheduler;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for running 100k concurrent, short SML programs.
+ *
+ * <p>Compares the {@link SmlScheduler} (all executions multiplexed over one carrier per core) with
+ * a virtual thread per program. A platform thread per program is not measured: 100k platform
+ * threads exhaust native memory on typical hosts, which is the motivation for the scheduler.</p>
+ *
+ * <p>Running the benchmarks:</p>
+ * <pre>
+ *   mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ *   java -cp "target/test-classes:target/classes:$(cat target/cp.txt)" org.openjdk.jmh.Main SchedulerBenchmark
+ * </pre>
+ *
+ * @author Ricki Angel
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SchedulerBenchmark {
+    private static final String PROGRAM = """
+            @main:
+            push 8
+            invoke @fib
+            store result
+            push 0
+            return
+
+            @fib: n
+            load n
+            push 1
+            if_cmpgt recurse
+            push 1
+            return
+            recurse: load n
+            push 1
+            sub
+            invoke @fib
+            load n
+            push 2
+            sub
+            invoke @fib
+            add
+            return
+            """;
+
+    @Param({"100000"})
+    public int programs;
+
+    private Collection<Method> program;
+    private PrintStream originalOut;
+
+    @Setup
+    public void setUp() throws IOException {
+        Path source = Files.createTempFile("scheduler-benchmark", ".sml");
+        Files.writeString(source, PROGRAM);
+        program = new Translator().readAndTranslate(source.toString());
+        Files.delete(source);
+
+        // LoadInstruction echoes every value it loads; keep the console out of the measurement.
+        originalOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.setOut(originalOut);
+    }
+
+    private Machine newMachine() {
+        Machine machine = new Machine();
+        machine.setProgram(program);
+        return machine;
+    }
+
+    @Benchmark
+    public long scheduler() {
+        try (SmlScheduler scheduler = new SmlScheduler()) {
+            CompletableFuture<?>[] results = new CompletableFuture<?>[programs];
+            for (int i = 0; i < programs; i++)
+                results[i] = scheduler.submit(newMachine());
+            CompletableFuture.allOf(results).join();
+            return scheduler.steals();
+        }
+    }
+
+    @Benchmark
+    public void virtualThreadPerProgram() {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < programs; i++) {
+                Machine machine = newMachine();
+                executor.submit(() -> machine.run(Long.MAX_VALUE));
+            }
+        }
+    }
+}
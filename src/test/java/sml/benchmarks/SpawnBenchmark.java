@@ -0,0 +1,93 @@
+package sml.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import sml.ExecutionStatus;
+import sml.Machine;
+import sml.Method;
+import sml.Translator;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for fork-join parallel calls with {@code spawn} and {@code join}.
+ *
+ * <p>Compares the recursive Fibonacci of {@code test1.sml}, which calls itself with
+ * {@code invoke}, against {@code spawnfib.sml}, which spawns one of its two recursive calls, in
+ * fork-join pools of increasing parallelism. {@code System.out} is replaced by a discarding stream
+ * for the measurement.</p>
+ *
+ * <p>Running the benchmarks:</p>
+ * <pre>
+ *   mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ *   java -cp "target/test-classes:target/classes:$(cat target/cp.txt)" org.openjdk.jmh.Main SpawnBenchmark
+ * </pre>
+ *
+ * @author Ricki Angel
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SpawnBenchmark {
+    @Param({"24"})
+    public int n;
+
+    @Param({"1", "2", "4"})
+    public int parallelism;
+
+    private Collection<Method> invoking;
+    private Collection<Method> spawning;
+    private Machine machine;
+    private ForkJoinPool pool;
+    private PrintStream originalOut;
+
+    private Collection<Method> translate(String resource) throws IOException {
+        String source = Files.readString(Path.of("src/main/resources", resource)).replace("push 10", "push " + n);
+        return new Translator().translateSource(source);
+    }
+
+    @Setup
+    public void setUp() throws IOException {
+        invoking = translate("test1.sml");
+        spawning = translate("spawnfib.sml");
+        pool = new ForkJoinPool(parallelism);
+        machine = new Machine();
+        machine.setForkJoinPool(pool);
+
+        originalOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.setOut(originalOut);
+        pool.shutdown();
+    }
+
+    private long run(Collection<Method> program) {
+        machine.setProgram(program);
+        while (machine.run(Long.MAX_VALUE) == ExecutionStatus.SUSPENDED) {
+            // run to completion
+        }
+        return machine.instructionsExecuted();
+    }
+
+    @Benchmark
+    public long invokeFib() {
+        return run(invoking);
+    }
+
+    @Benchmark
+    public long spawnFib() {
+        return run(spawning);
+    }
+}
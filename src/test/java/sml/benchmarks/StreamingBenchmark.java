@@ -0,0 +1,87 @@
+package sml.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import sml.Machine;
+import sml.StreamingProgram;
+import sml.Translator;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for overlapping translation of a large program with its execution.
+ *
+ * <p>Generates a program of 100k small methods whose {@code @main} runs a counting loop and then
+ * invokes the last method in the file. Measures loading and running it with every method translated
+ * up front ({@link Translator#readAndTranslate(String)}) against a {@link StreamingProgram}, where
+ * the loop runs while the rest of the file is parsed on another thread. The overlap needs a second
+ * core: on a single core the two take about the same time.</p>
+ *
+ * <p>Running the benchmarks:</p>
+ * <pre>
+ *   mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ *   java -cp "target/test-classes:target/classes:$(cat target/cp.txt)" org.openjdk.jmh.Main StreamingBenchmark
+ * </pre>
+ *
+ * @author Ricki Angel
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StreamingBenchmark {
+    @Param({"100000"})
+    public int methods;
+
+    @Param({"200000"})
+    public int iterations;
+
+    private Path file;
+    private PrintStream originalOut;
+
+    @Setup
+    public void setUp() throws IOException {
+        StringBuilder text = new StringBuilder()
+                .append("@main:\n   push 0\n   store i\n")
+                .append("L1: load i\n   push 1\n   add\n   store i\n")
+                .append("   push ").append(iterations).append("\n   load i\n   if_cmpgt L1\n")
+                .append("   push 1\n   invoke @m").append(methods - 1).append("\n   return\n\n");
+        for (int i = 0; i < methods; i++) {
+            text.append("@m").append(i).append(": x\n")
+                    .append("   load x\n   push ").append(i).append("\n   add\n   return\n\n");
+        }
+        file = Files.createTempFile("streaming-benchmark", ".sml");
+        Files.writeString(file, text);
+
+        originalOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        System.setOut(originalOut);
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public Machine eager() throws IOException {
+        Machine machine = new Machine();
+        machine.setProgram(new Translator().readAndTranslate(file.toString()));
+        machine.execute();
+        return machine;
+    }
+
+    @Benchmark
+    public Machine streaming() throws IOException {
+        Machine machine = new Machine();
+        machine.setProgram(StreamingProgram.start(file));
+        machine.execute();
+        return machine;
+    }
+}
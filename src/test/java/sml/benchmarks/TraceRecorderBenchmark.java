@@ -0,0 +1,88 @@
+package sml.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import sml.ExecutionMode;
+import sml.ExecutionStatus;
+import sml.Machine;
+import sml.Method;
+import sml.Translator;
+import sml.trace.TraceRecorder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for binary trace recording.
+ *
+ * <p>Runs a loop of stack-only arithmetic in {@link ExecutionMode#INTERPRETED} mode, once untraced
+ * and once with a {@link TraceRecorder} writing every instruction to a memory-mapped ring. The
+ * difference is the cost of recording; {@code System.out} is replaced by a discarding stream so
+ * that the echo of each {@code load} does not hide it, and both runs are fully interpreted, as recorded runs always
+ * are.</p>
+ *
+ * <p>Running the benchmarks:</p>
+ * <pre>
+ *   mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ *   java -cp "target/test-classes:target/classes:$(cat target/cp.txt)" org.openjdk.jmh.Main TraceRecorderBenchmark
+ * </pre>
+ *
+ * @author Ricki Angel
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TraceRecorderBenchmark {
+    @Param({"1000000"})
+    public int n;
+
+    @Param({"false", "true"})
+    public boolean recorded;
+
+    private Collection<Method> program;
+    private Path file;
+    private TraceRecorder recorder;
+    private PrintStream originalOut;
+
+    @Setup
+    public void setUp() throws IOException {
+        StringBuilder text = new StringBuilder("@main:\n   push 0\n   store i\nLoop: push ").append(n)
+                .append("\n   load i\n   if_cmpgt Body\n   push 0\n   return\nBody: ");
+        for (int i = 0; i < 3; i++)
+            text.append("push 3\n   push 4\n   mul\n   push 5\n   add\n   push 7\n   mod\n   store x\n   ");
+        text.append("load i\n   push 1\n   add\n   store i\n   goto Loop\n");
+        program = new Translator().translateSource(text.toString());
+
+        file = Files.createTempFile("trace-recorder-benchmark", ".trace");
+        recorder = TraceRecorder.create(file);
+
+        originalOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        System.setOut(originalOut);
+        recorder.close();
+        Files.delete(file);
+    }
+
+    @Benchmark
+    public long arithmeticLoop() {
+        Machine machine = new Machine();
+        machine.setProgram(program);
+        machine.setExecutionMode(ExecutionMode.INTERPRETED);
+        if (recorded) machine.setTraceRecorder(recorder);
+        while (machine.run(Long.MAX_VALUE) == ExecutionStatus.SUSPENDED) {
+            // run to completion
+        }
+        return machine.instructionsExecuted();
+    }
+}
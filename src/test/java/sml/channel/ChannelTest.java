@@ -0,0 +1,279 @@
+package sml.channel;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import sml.ExecutionStatus;
+import sml.Machine;
+import sml.Method;
+import sml.Translator;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for channels, the channel instructions and pipelines of machines.
+ *
+ * <p>Key test objectives:</p>
+ * <ul>
+ *   <li>Delivering every message exactly once, in order for a single producer</li>
+ *   <li>Draining a closed channel before reporting end of input, and rejecting sends to it</li>
+ *   <li>Reporting full, empty and closed through the non-blocking instructions</li>
+ *   <li>Running a pipeline of stages to completion, and stopping every stage when one fails</li>
+ * </ul>
+ *
+ * @author Ricki Angel
+ */
+@Timeout(30)
+public class ChannelTest {
+    private static final int MESSAGES = 100_000;
+
+    private final ByteArrayOutputStream outContent = new ByteArrayOutputStream();
+    private final PrintStream originalOut = System.out;
+
+    @BeforeEach
+    void setUp() {
+        System.setOut(new PrintStream(outContent));
+    }
+
+    @AfterEach
+    void tearDown() {
+        System.setOut(originalOut);
+    }
+
+    private static Thread start(Runnable task) {
+        return Thread.ofVirtual().start(task);
+    }
+
+    @Test
+    @DisplayName("A single-producer channel should deliver every message in order")
+    void spscPreservesOrder() throws InterruptedException {
+        Channel channel = Channel.spsc(16);
+        assertEquals(16, channel.capacity());
+
+        Thread producer = start(() -> {
+            for (int i = 0; i < MESSAGES; i++) channel.send(i);
+            channel.close();
+        });
+        List<Long> received = new ArrayList<>(MESSAGES);
+        long value;
+        while ((value = channel.receive()) != Channel.CLOSED)
+            received.add(value);
+        producer.join();
+
+        assertEquals(MESSAGES, received.size());
+        for (int i = 0; i < MESSAGES; i++)
+            assertEquals(i, received.get(i));
+    }
+
+    @Test
+    @DisplayName("A multi-producer channel should deliver every message exactly once")
+    void mpmcDeliversEveryMessageOnce() throws InterruptedException {
+        Channel channel = Channel.mpmc(64);
+        AtomicLong sum = new AtomicLong();
+        AtomicLong count = new AtomicLong();
+
+        List<Thread> producers = new ArrayList<>();
+        List<Thread> consumers = new ArrayList<>();
+        for (int p = 0; p < 4; p++) {
+            int base = p * MESSAGES;
+            producers.add(start(() -> {
+                for (int i = 1; i <= MESSAGES; i++) channel.send(base + i);
+            }));
+        }
+        for (int c = 0; c < 4; c++) {
+            consumers.add(start(() -> {
+                long value;
+                while ((value = channel.receive()) != Channel.CLOSED) {
+                    sum.addAndGet(value);
+                    count.incrementAndGet();
+                }
+            }));
+        }
+        for (Thread producer : producers) producer.join();
+        channel.close();
+        for (Thread consumer : consumers) consumer.join();
+
+        long n = 4L * MESSAGES;
+        assertEquals(n, count.get());
+        assertEquals(n * (n + 1) / 2, sum.get());
+    }
+
+    @Test
+    @DisplayName("A closed channel should drain, then report end of input, and reject sends")
+    void closedChannelsDrain() {
+        Channel channel = Channel.spsc(3);
+        assertEquals(4, channel.capacity());
+        assertThrows(IllegalArgumentException.class, () -> Channel.mpmc(0));
+
+        for (int i = 0; i < 4; i++) assertTrue(channel.trySend(i));
+        assertFalse(channel.trySend(4));
+        channel.close();
+
+        assertThrows(IllegalStateException.class, () -> channel.trySend(5));
+        assertThrows(IllegalStateException.class, () -> channel.send(5));
+        for (int i = 0; i < 4; i++) assertEquals(i, channel.tryReceive());
+        assertEquals(Channel.CLOSED, channel.tryReceive());
+        assertEquals(Channel.CLOSED, channel.receive());
+    }
+
+    @Test
+    @DisplayName("The channel instructions should send, receive and report full, empty and closed")
+    void channelInstructions() {
+        Machine machine = new Machine();
+        machine.setProgram(new Translator().translateSource("""
+                @main:
+                   push 2
+                   chan_new
+                   print
+                   push 0
+                   push 7
+                   try_send
+                   print
+                   push 0
+                   push 8
+                   send
+                   push 0
+                   push 9
+                   try_send
+                   print
+                   push 0
+                   recv
+                   print
+                   push 0
+                   try_recv
+                   print
+                   print
+                   push 0
+                   try_recv
+                   print
+                   print
+                   push 0
+                   close
+                   push 0
+                   try_recv
+                   print
+                   print
+                   push 0
+                   recv
+                   print
+                   push 0
+                   return
+                """));
+
+        assertEquals(ExecutionStatus.TERMINATED, machine.run(Long.MAX_VALUE));
+        assertEquals(List.of("0", "1", "0", "7", "1", "8", "0", "0", "-1", "0", "-2147483648"),
+                outContent.toString().lines().toList());
+        assertEquals(1, machine.channels().size());
+    }
+
+    @Test
+    @DisplayName("Spawned calls should share their machine's channels")
+    void spawnedCallsShareChannels() {
+        Machine machine = new Machine();
+        machine.setSpawnCutoff(64);
+        machine.setProgram(new Translator().translateSource("""
+                @main:
+                   push 4
+                   chan_new
+                   store c
+                   load c
+                   spawn @produce
+                   store h
+                   push 0
+                   store s
+                Next: load c
+                   recv
+                   store x
+                   load x
+                   push -2147483648
+                   if_cmpeq Done
+                   load s
+                   load x
+                   add
+                   store s
+                   goto Next
+                Done: load h
+                   join
+                   load s
+                   add
+                   print
+                   push 0
+                   return
+
+                @produce: c
+                   push 1
+                   store i
+                Next: load i
+                   push 50
+                   if_cmpgt Done
+                   load c
+                   load i
+                   send
+                   load i
+                   push 1
+                   add
+                   store i
+                   goto Next
+                Done: load c
+                   close
+                   push 1000
+                   return
+                """));
+
+        assertEquals(ExecutionStatus.TERMINATED, machine.run(Long.MAX_VALUE));
+        assertEquals("2275", outContent.toString().lines().toList().getLast());
+    }
+
+    @Test
+    @DisplayName("A pipeline should run its stages concurrently to completion")
+    void pipelineRuns() throws IOException, InterruptedException {
+        Collection<Method> program = new Translator().readAndTranslate("src/main/resources/pipeline.sml");
+        Pipeline pipeline = Pipeline.of(program, 8);
+        assertEquals(List.of("stage_numbers", "stage_square", "stage_sum"),
+                pipeline.stages().stream().map(stage -> stage.name().toString()).toList());
+
+        List<Machine> machines = pipeline.run();
+
+        assertEquals(3, machines.size());
+        assertEquals("338350", outContent.toString().lines().toList().getLast());
+        machines.forEach(machine -> assertTrue(machine.instructionsExecuted() > 100));
+    }
+
+    @Test
+    @DisplayName("A failing stage should stop the others and be rethrown")
+    void pipelineFailuresPropagate() {
+        Collection<Method> program = new Translator().translateSource("""
+                @stage_forever: out
+                Next: load out
+                   push 1
+                   send
+                   goto Next
+
+                @stage_fail: in
+                   load in
+                   recv
+                   push 0
+                   div
+                   return
+                """);
+
+        ArithmeticException e = assertThrows(ArithmeticException.class, () -> Pipeline.of(program, 2).run());
+        assertTrue(e.getMessage().contains("Division by zero"), e.getMessage());
+
+        assertThrows(IllegalArgumentException.class, () -> Pipeline.of(new Translator().translateSource("""
+                @stage_only: in, out
+                   push 0
+                   return
+                """)));
+    }
+}
@@ -0,0 +1,224 @@
+package sml.compiler;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import sml.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for on-stack replacement via {@link OsrCompiler} and {@link CompiledMethod}.
+ *
+ * <p>Key test objectives:</p>
+ * <ul>
+ *   <li>Producing the same output and instruction count as the interpreter</li>
+ *   <li>Entering hot loops only when their whole body can be compiled</li>
+ *   <li>Leaving errors such as division by zero to the interpreter</li>
+ *   <li>Keeping compiled loops suspendable by quantum and instruction limits</li>
+ * </ul>
+ *
+ * @author Ricki Angel
+ */
+public class OsrTest {
+    private static final String FIB_LOOP = """
+            @main:
+               push 5000
+               invoke @fib2
+               print
+               push 1
+               return
+
+            @fib2: n
+                 push 1
+                 store fm2
+                 push 1
+                 store fm1
+                 push 2
+                 store i
+            L6:  load i
+                 load n
+                 if_cmpgt L27
+                 load fm2
+                 load fm1
+                 add
+                 store f
+                 load fm1
+                 store fm2
+                 load f
+                 store fm1
+                 push 1
+                 load i
+                 add
+                 store i
+                 goto  L6
+            L27: load fm1
+                 return
+            """;
+
+    private static final String CALL_LOOP = """
+            @main:
+                 push 0
+                 store i
+            L1:  load i
+                 invoke @inc
+                 store i
+                 load i
+                 push 3000
+                 if_cmpgt L2
+                 goto L1
+            L2:  push 1
+                 return
+
+            @inc: x
+                 load x
+                 push 1
+                 add
+                 return
+            """;
+
+    private static final String DIVIDE_LOOP = """
+            @main:
+                 push 2000
+                 store i
+            L1:  push 100
+                 load i
+                 div
+                 store q
+                 load i
+                 push 1
+                 sub
+                 store i
+                 goto L1
+            """;
+
+    private final PrintStream originalOut = System.out;
+    private final ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setUp() {
+        System.setOut(new PrintStream(output));
+    }
+
+    @AfterEach
+    void tearDown() {
+        System.setOut(originalOut);
+    }
+
+    private Machine load(String source, ExecutionMode mode) throws IOException {
+        Path filePath = tempDir.resolve("program.sml");
+        Files.writeString(filePath, source);
+        Machine machine = new Machine();
+        machine.setProgram(new Translator().readAndTranslate(filePath.toString()));
+        machine.setExecutionMode(mode);
+        return machine;
+    }
+
+    private String runToCompletion(Machine machine, long quantum) {
+        output.reset();
+        while (machine.run(quantum) == ExecutionStatus.SUSPENDED) {
+            // keep going
+        }
+        return output.toString();
+    }
+
+    @Test
+    @DisplayName("A hot loop should be compiled and give the interpreter's output and instruction count")
+    void compiledLoopMatchesInterpreter() throws IOException {
+        Machine interpreted = load(FIB_LOOP, ExecutionMode.INTERPRETED);
+        Machine compiled = load(FIB_LOOP, ExecutionMode.OSR);
+
+        String expected = runToCompletion(interpreted, Long.MAX_VALUE);
+        String actual = runToCompletion(compiled, Long.MAX_VALUE);
+
+        assertEquals(expected, actual);
+        assertEquals(interpreted.instructionsExecuted(), compiled.instructionsExecuted());
+        assertEquals(0, interpreted.osrEntries());
+        assertTrue(compiled.osrEntries() > 0, "The fib2 loop should have been entered in compiled code");
+    }
+
+    @Test
+    @DisplayName("Suspending by quantum inside a compiled loop should stop at the interpreter's safepoints")
+    void quantumSuspendsCompiledLoop() throws IOException {
+        Machine interpreted = load(FIB_LOOP, ExecutionMode.INTERPRETED);
+        Machine compiled = load(FIB_LOOP, ExecutionMode.OSR);
+        compiled.setOsrThreshold(10);
+
+        for (int i = 0; i < 20; i++) {
+            assertEquals(ExecutionStatus.SUSPENDED, interpreted.run(997));
+            assertEquals(ExecutionStatus.SUSPENDED, compiled.run(997));
+            assertEquals(interpreted.instructionsExecuted(), compiled.instructionsExecuted());
+            assertEquals(interpreted.frame().toString(), compiled.frame().toString());
+        }
+        assertTrue(compiled.osrEntries() > 0);
+        assertEquals(runToCompletion(interpreted, 997), runToCompletion(compiled, 997));
+    }
+
+    @Test
+    @DisplayName("An instruction limit should be reported at the same count as in the interpreter")
+    void instructionLimitIsExact() throws IOException {
+        Machine interpreted = load(FIB_LOOP, ExecutionMode.INTERPRETED);
+        Machine compiled = load(FIB_LOOP, ExecutionMode.OSR);
+        interpreted.setLimits(ExecutionLimits.unlimited().withMaxInstructions(50_000));
+        compiled.setLimits(ExecutionLimits.unlimited().withMaxInstructions(50_000));
+
+        ExecutionLimitExceededException expected =
+                assertThrows(ExecutionLimitExceededException.class, () -> interpreted.run(Long.MAX_VALUE));
+        ExecutionLimitExceededException actual =
+                assertThrows(ExecutionLimitExceededException.class, () -> compiled.run(Long.MAX_VALUE));
+
+        assertEquals(expected.getMessage(), actual.getMessage());
+        assertEquals(interpreted.instructionsExecuted(), compiled.instructionsExecuted());
+    }
+
+    @Test
+    @DisplayName("Loops that invoke methods should stay in the interpreter")
+    void loopWithInvokeIsNotEntered() throws IOException {
+        Machine machine = load(CALL_LOOP, ExecutionMode.OSR);
+        machine.setOsrThreshold(10);
+
+        runToCompletion(machine, Long.MAX_VALUE);
+
+        assertTrue(machine.hasTerminated());
+        assertEquals(0, machine.osrEntries());
+    }
+
+    @Test
+    @DisplayName("Division by zero in a compiled loop should raise the interpreter's exception")
+    void divisionByZeroLeavesCompiledCode() throws IOException {
+        Machine interpreted = load(DIVIDE_LOOP, ExecutionMode.INTERPRETED);
+        Machine compiled = load(DIVIDE_LOOP, ExecutionMode.OSR);
+        compiled.setOsrThreshold(10);
+
+        ArithmeticException expected = assertThrows(ArithmeticException.class, () -> interpreted.run(Long.MAX_VALUE));
+        ArithmeticException actual = assertThrows(ArithmeticException.class, () -> compiled.run(Long.MAX_VALUE));
+
+        assertEquals(expected.getMessage(), actual.getMessage());
+        assertTrue(compiled.osrEntries() > 0);
+        assertEquals(interpreted.instructionsExecuted(), compiled.instructionsExecuted());
+    }
+
+    @Test
+    @DisplayName("Compilation should exit before unsupported instructions and at the end of the method")
+    void unsupportedInstructionsExit() throws IOException {
+        Machine machine = load(CALL_LOOP, ExecutionMode.OSR);
+        Method main = machine.frame().method();
+
+        CompiledMethod code = OsrCompiler.compile(main);
+
+        assertFalse(code.canEnterLoop(2, 8), "The loop body contains invoke");
+        assertTrue(code.canEnterLoop(5, 7));
+        assertFalse(code.canEnterLoop(7, 5));
+    }
+}
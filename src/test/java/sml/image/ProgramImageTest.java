@@ -0,0 +1,145 @@
+package sml.image;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import sml.*;
+import sml.workload.Workload;
+import sml.workload.WorkloadGenerator;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for {@link ProgramImage}.
+ *
+ * <p>Key test objectives:</p>
+ * <ul>
+ *   <li>Producing the same output and instruction count as the {@link Machine}</li>
+ *   <li>Building the same image from source as from translated methods</li>
+ *   <li>Materialising instructions and methods equal to the translated ones</li>
+ *   <li>Matching the stack instructions' errors</li>
+ *   <li>Rejecting programs that cannot be imaged</li>
+ * </ul>
+ *
+ * @author Ricki Angel
+ */
+public class ProgramImageTest {
+    private final PrintStream originalOut = System.out;
+    private final ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+    @BeforeEach
+    void setUp() {
+        System.setOut(new PrintStream(output));
+    }
+
+    @AfterEach
+    void tearDown() {
+        System.setOut(originalOut);
+    }
+
+    private static String resource(String name) throws IOException {
+        return Files.readString(Path.of("src/main/resources", name));
+    }
+
+    /**
+     * Runs a program on the machine and from both kinds of image, and checks they print the same
+     * and count the same.
+     */
+    private void assertSameAsMachine(String source) {
+        Collection<Method> program = new Translator().translateSource(source);
+        Machine machine = new Machine();
+        machine.setExecutionMode(ExecutionMode.INTERPRETED);
+        machine.setProgram(program);
+        output.reset();
+        assertEquals(ExecutionStatus.TERMINATED, machine.run(Long.MAX_VALUE));
+        String expected = output.toString();
+
+        for (ProgramImage image : List.of(ProgramImage.parse(source), ProgramImage.of(program))) {
+            output.reset();
+            assertEquals(machine.instructionsExecuted(), image.execute());
+            assertEquals(expected, output.toString());
+        }
+    }
+
+    @Test
+    @DisplayName("The example programs should behave exactly as on the machine")
+    void examplesMatchMachine() throws IOException {
+        assertSameAsMachine(resource("test1.sml").replace("push 10", "push 15"));
+        assertSameAsMachine(resource("test2.sml").replace("push 10", "push 500"));
+        assertSameAsMachine(resource("simplecalc.sml"));
+        assertSameAsMachine(resource("sqrtest.sml"));
+    }
+
+    @Test
+    @DisplayName("A generated workload of deep recursion, wide calls and label chains should match the machine")
+    void generatedWorkloadMatchesMachine() {
+        Workload workload = Workload.named("image").withMethods(50).withRecursionDepth(200)
+                .withLoopIterations(1000).withArguments(20).withLabels(30).withPrints(10);
+
+        assertSameAsMachine(WorkloadGenerator.generate(workload));
+        assertTrue(output.toString().endsWith(WorkloadGenerator.checksum(workload) + System.lineSeparator()));
+    }
+
+    @Test
+    @DisplayName("Materialised methods should equal the translated ones, labels and jump targets included")
+    void methodsRoundTrip() throws IOException {
+        String source = resource("test2.sml") + resource("test1.sml").replace("@main", "@other");
+        List<Method> translated = List.copyOf(new Translator().translateSource(source));
+
+        ProgramImage image = ProgramImage.parse(source);
+
+        assertEquals(translated, image.methods());
+        assertEquals(translated, ProgramImage.of(translated).methods());
+        Method fib = translated.get(image.methodIndex(new Method.Identifier("@fib")).orElseThrow());
+        assertEquals(fib.instructions().get(7).toString(),
+                image.instruction(image.methodIndex(fib.name()).orElseThrow(), 7).toString());
+        assertTrue(image.methodIndex(new Method.Identifier("@missing")).isEmpty());
+    }
+
+    @Test
+    @DisplayName("A packed program should be far smaller than its instruction objects")
+    void imageIsCompact() {
+        ProgramImage image = ProgramImage.parse(WorkloadGenerator.generate(
+                Workload.named("labels").withMethods(100).withLabels(100)));
+
+        assertTrue(image.instructionCount() > 10_000);
+        assertTrue(image.sizeInBytes() < 8L * image.instructionCount(), image.toString());
+    }
+
+    @Test
+    @DisplayName("Stack underflow, missing arguments, undefined methods and division by zero should fail as on the machine")
+    void runtimeErrorsMatch() {
+        assertEquals("Cannot pop from an empty stack in method main", assertThrows(NoSuchElementException.class,
+                () -> ProgramImage.parse("@main:\n   push 1\n   add\n").execute()).getMessage());
+        assertEquals("Not enough arguments on the stack for method f. Required: 2, Available: 1",
+                assertThrows(IllegalStateException.class, () -> ProgramImage.parse(
+                        "@main:\n   push 1\n   invoke @f\n@f: a, b\n   load a\n   return\n").execute()).getMessage());
+        assertThrows(MethodNotFoundException.class,
+                () -> ProgramImage.parse("@main:\n   invoke @nowhere\n").execute());
+        assertEquals("Division by zero", assertThrows(ArithmeticException.class,
+                () -> ProgramImage.parse("@main:\n   push 1\n   push 0\n   div\n").execute()).getMessage());
+        assertThrows(IllegalStateException.class, () -> ProgramImage.parse("@other:\n   push 1\n").execute());
+    }
+
+    @Test
+    @DisplayName("Programs outside the core instruction set or with broken structure should be rejected")
+    void malformedProgramsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> ProgramImage.parse("@main:\n   push 4\n   newarray\n"));
+        assertThrows(IllegalArgumentException.class, () -> ProgramImage.of(new Translator().translateSource(
+                "@main:\n   push 4\n   newarray\n   return\n")));
+        assertThrows(IllegalArgumentException.class, () -> ProgramImage.parse("@main:\n   goto L1\n"));
+        assertThrows(IllegalArgumentException.class, () -> ProgramImage.parse("@main:\n   push 1\n@main:\n   push 2\n"));
+        assertThrows(IllegalArgumentException.class, () -> ProgramImage.parse("   push 1\n@main:\n   push 2\n"));
+        assertThrows(IllegalArgumentException.class, () -> ProgramImage.parse("@main:\n   push\n"));
+    }
+}
@@ -0,0 +1,276 @@
+package sml.instructions;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import sml.ExecutionStatus;
+import sml.Machine;
+import sml.Translator;
+import sml.memory.ArrayHeapException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for the array instructions: {@code newarray}, {@code aload}, {@code astore},
+ * {@code alen}, {@code afree} and the bulk range instructions.
+ *
+ * <p>Key test objectives:</p>
+ * <ul>
+ *   <li>Filling and summing an array from an SML loop</li>
+ *   <li>Running the bulk range instructions on the SIMD kernels</li>
+ *   <li>Reporting out-of-bounds accesses and use after free</li>
+ *   <li>Clearing the heap when a new program is loaded or the machine is closed</li>
+ * </ul>
+ *
+ * @author Ricki Angel
+ */
+public class ArrayInstructionsTest {
+    private final ByteArrayOutputStream outContent = new ByteArrayOutputStream();
+    private final PrintStream originalOut = System.out;
+    private Machine machine;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setUp() {
+        System.setOut(new PrintStream(outContent));
+        machine = new Machine();
+    }
+
+    @AfterEach
+    void tearDown() {
+        System.setOut(originalOut);
+    }
+
+    private void load(String program) throws IOException {
+        Path filePath = tempDir.resolve("program.sml");
+        Files.writeString(filePath, program);
+        machine.setProgram(new Translator().readAndTranslate(filePath.toString()));
+    }
+
+    private void run() {
+        while (machine.run(Long.MAX_VALUE) == ExecutionStatus.SUSPENDED) {
+            // keep going
+        }
+    }
+
+    @Test
+    @DisplayName("An SML loop should fill an array with squares and sum them")
+    void fillAndSum() throws IOException {
+        load("""
+                @main:
+                      push 10
+                      newarray
+                      store a
+                      push 0
+                      store i
+                fill: load i
+                      push 10
+                      if_cmpeq sum
+                      load a
+                      load i
+                      load i
+                      load i
+                      mul
+                      astore
+                      load i
+                      push 1
+                      add
+                      store i
+                      goto fill
+                sum:  push 0
+                      store s
+                      load a
+                      alen
+                      store n
+                      push 0
+                      store i
+                loop: load i
+                      load n
+                      if_cmpeq done
+                      load s
+                      load a
+                      load i
+                      aload
+                      add
+                      store s
+                      load i
+                      push 1
+                      add
+                      store i
+                      goto loop
+                done: load s
+                      print
+                      load a
+                      afree
+                      push 0
+                      return
+                """);
+
+        run();
+
+        assertTrue(outContent.toString().contains("285"), "Sum of squares 0..9 should be printed");
+        assertEquals(0, machine.heap().liveArrays());
+    }
+
+    @Test
+    @DisplayName("Bulk instructions should fill, scale, copy, sum and dot whole ranges")
+    void bulkInstructions() throws IOException {
+        load("""
+                @main:
+                    push 100
+                    newarray
+                    store a
+                    push 100
+                    newarray
+                    store b
+                    load a
+                    push 0
+                    push 100
+                    push 3
+                    afill
+                    load a
+                    push 0
+                    push 50
+                    push 2
+                    amulscalar
+                    load a
+                    push 50
+                    push 50
+                    push -1
+                    aaddscalar
+                    load a
+                    push 0
+                    load b
+                    push 0
+                    push 100
+                    acopy
+                    load b
+                    push 0
+                    push 100
+                    asum
+                    print
+                    load a
+                    push 0
+                    load b
+                    push 0
+                    push 100
+                    adot
+                    print
+                    push 0
+                    return
+                """);
+
+        run();
+
+        int[] handles = new int[2];
+        int[] live = {0};
+        machine.heap().forEachLive(handle -> handles[live[0]++] = handle);
+        int[] a = machine.heap().toArray(handles[0]);
+        assertEquals(6, a[0]);
+        assertEquals(2, a[99]);
+        assertTrue(outContent.toString().contains("400"), "sum should be 50*6 + 50*2");
+        assertTrue(outContent.toString().contains("2000"), "dot should be 50*36 + 50*4");
+    }
+
+    @Test
+    @DisplayName("Bulk instructions should reject ranges outside the array")
+    void bulkRangeIsChecked() throws IOException {
+        load("""
+                @main:
+                    push 10
+                    newarray
+                    push 5
+                    push 6
+                    asum
+                    return
+                """);
+
+        assertThrows(IndexOutOfBoundsException.class, this::run);
+    }
+
+    @Test
+    @DisplayName("Reading past the end of an array should fail")
+    void outOfBoundsReadFails() throws IOException {
+        load("""
+                @main:
+                    push 3
+                    newarray
+                    push 3
+                    aload
+                    return
+                """);
+
+        assertThrows(IndexOutOfBoundsException.class, this::run);
+    }
+
+    @Test
+    @DisplayName("Using an array after afree should fail")
+    void useAfterFreeFails() throws IOException {
+        load("""
+                @main:
+                    push 3
+                    newarray
+                    store a
+                    load a
+                    afree
+                    load a
+                    alen
+                    return
+                """);
+
+        assertThrows(ArrayHeapException.class, this::run);
+    }
+
+    @Test
+    @DisplayName("Loading a new program should release the previous program's arrays")
+    void setProgramClearsHeap() throws IOException {
+        load("""
+                @main:
+                    push 1000
+                    newarray
+                    push 0
+                    return
+                """);
+        run();
+        assertEquals(1, machine.heap().liveArrays());
+
+        load("""
+                @main:
+                    push 0
+                    return
+                """);
+
+        assertEquals(0, machine.heap().liveArrays());
+        assertEquals(0, machine.heap().bytesInUse());
+    }
+
+    @Test
+    @DisplayName("Closing the machine should release the arrays a finished run left allocated")
+    void closeClearsHeap() throws IOException {
+        load("""
+                @main:
+                    push 1000
+                    newarray
+                    push 0
+                    return
+                """);
+        run();
+        assertEquals(1, machine.heap().liveArrays(), "arrays outlive the run until the machine is closed");
+
+        machine.close();
+
+        assertEquals(0, machine.heap().liveArrays());
+        assertEquals(0, machine.heap().bytesInUse());
+        assertTrue(machine.hasTerminated());
+    }
+}
@@ -0,0 +1,144 @@
+package sml.instructions;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import sml.ExecutionStatus;
+import sml.Machine;
+import sml.RunSml;
+import sml.Translator;
+import sml.io.MappedIntInput;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for the input instructions {@code read} and {@code readinto}.
+ *
+ * <p>Key test objectives:</p>
+ * <ul>
+ *   <li>Summing a stream of integers until the EOF sentinel</li>
+ *   <li>Loading input straight into an array</li>
+ *   <li>Failing clearly when no input is attached</li>
+ *   <li>Supplying input through the {@code RunSml --input} option</li>
+ * </ul>
+ *
+ * @author Ricki Angel
+ */
+public class InputInstructionsTest {
+    private static final String SUM_UNTIL_EOF = """
+            @main:
+                  push 0
+                  store s
+            loop: read
+                  store x
+                  load x
+                  push -2147483648
+                  if_cmpeq done
+                  load s
+                  load x
+                  add
+                  store s
+                  goto loop
+            done: load s
+                  print
+                  push 0
+                  return
+            """;
+
+    private final ByteArrayOutputStream outContent = new ByteArrayOutputStream();
+    private final PrintStream originalOut = System.out;
+    private Machine machine;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setUp() {
+        System.setOut(new PrintStream(outContent));
+        machine = new Machine();
+    }
+
+    @AfterEach
+    void tearDown() {
+        System.setOut(originalOut);
+    }
+
+    private Path write(String name, String content) throws IOException {
+        Path file = tempDir.resolve(name);
+        Files.writeString(file, content);
+        return file;
+    }
+
+    private void run(String program) throws IOException {
+        machine.setProgram(new Translator().readAndTranslate(write("program.sml", program).toString()));
+        while (machine.run(Long.MAX_VALUE) == ExecutionStatus.SUSPENDED) {
+            // keep going
+        }
+    }
+
+    @Test
+    @DisplayName("read should stream integers until the EOF sentinel")
+    void readUntilEof() throws IOException {
+        try (MappedIntInput input = MappedIntInput.open(write("data.txt", "1 2 3 4 100"))) {
+            machine.setInput(input);
+            run(SUM_UNTIL_EOF);
+        }
+
+        assertTrue(outContent.toString().contains("110"));
+    }
+
+    @Test
+    @DisplayName("readinto should fill an array range and push the count read")
+    void readIntoArray() throws IOException {
+        try (MappedIntInput input = MappedIntInput.open(write("data.txt", "5\n6\n7\n"))) {
+            machine.setInput(input);
+            run("""
+                    @main:
+                        push 10
+                        newarray
+                        store a
+                        load a
+                        push 2
+                        push 8
+                        readinto
+                        print
+                        load a
+                        push 0
+                        push 10
+                        asum
+                        print
+                        push 0
+                        return
+                    """);
+        }
+
+        String[] lines = outContent.toString().split("\\R");
+        assertTrue(outContent.toString().contains("3" + System.lineSeparator()), "three values read");
+        assertEquals("18", lines[lines.length - 1].trim());
+    }
+
+    @Test
+    @DisplayName("read without an attached input should fail")
+    void readWithoutInputFails() {
+        assertThrows(IllegalStateException.class, () -> run(SUM_UNTIL_EOF));
+    }
+
+    @Test
+    @DisplayName("RunSml --input should attach the file to the machine")
+    void runSmlInputOption() throws IOException {
+        Path program = write("sum.sml", SUM_UNTIL_EOF);
+        Path data = write("data.txt", "40 2");
+
+        RunSml.main("--input", data.toString(), program.toString());
+
+        assertTrue(outContent.toString().contains("42"));
+    }
+}
@@ -1,5 +1,6 @@
 package sml.instructions;
 
+import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -8,6 +9,8 @@ import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.junit.jupiter.params.provider.ValueSource;
 import sml.*;
+import sml.helperfiles.DefaultInstructionRegistrationLogger;
+import sml.registry.InstructionSet;
 
 import java.util.stream.Stream;
 
@@ -30,8 +33,14 @@ import static org.junit.jupiter.api.Assertions.*;
  * @author Ricki Angel
  */
 public class InstructionRegistrationManagerTest {
+    private static InstructionSet INSTRUCTIONS;
     private Label label;
 
+    @BeforeAll
+    static void discover() {
+        INSTRUCTIONS = new InstructionRegistrationManager(new DefaultInstructionRegistrationLogger()).instructions();
+    }
+
     @BeforeEach
     void setUp() {
         label = new Label("L1");
@@ -60,7 +69,7 @@ public class InstructionRegistrationManagerTest {
     @DisplayName("Simple instructions with just Label parameter should be created successfully")
     @MethodSource("provideSimpleInstructionsData")
     void testSimpleInstructionsCreation(String opcode, Class<? extends Instruction> expectedClass) {
-        Instruction instruction = InstructionRegistrationManager.createInstruction(opcode, label);
+        Instruction instruction = INSTRUCTIONS.createInstruction(opcode, label);
 
         assertNotNull(instruction, "Failed to create instruction for opcode: " + opcode);
         assertEquals(opcode, instruction.opcode(), "Created instruction has incorrect opcode");
@@ -99,7 +108,7 @@ public class InstructionRegistrationManagerTest {
     @Test
     @DisplayName("Returns null when attempting to create instruction with invalid opcode")
     void testCreateInstructionWithUnknownOpcode() {
-        Instruction instruction = InstructionRegistrationManager.createInstruction("unknownOpcode", label);
+        Instruction instruction = INSTRUCTIONS.createInstruction("unknownOpcode", label);
         assertNull(instruction, "Instruction should be null for unknown opcode");
     }
 
@@ -107,7 +116,7 @@ public class InstructionRegistrationManagerTest {
     @DisplayName("Created instructions should preserve their labels")
     void testInstructionLabelsArePreserved() {
         Label customLabel = new Label("CUSTOM_LABEL");
-        Instruction instruction = InstructionRegistrationManager.createInstruction("add", customLabel);
+        Instruction instruction = INSTRUCTIONS.createInstruction("add", customLabel);
 
         assertTrue(instruction.optionalLabel().isPresent(), "Label should be present");
         assertEquals(customLabel, instruction.optionalLabel().get(), "Label should match the provided label");
@@ -116,7 +125,7 @@ public class InstructionRegistrationManagerTest {
     @Test
     @DisplayName("Can create instruction with null label")
     void testCreateInstructionWithNullLabel() {
-        Instruction instruction = InstructionRegistrationManager.createInstruction("add", null);
+        Instruction instruction = INSTRUCTIONS.createInstruction("add", null);
 
         assertNotNull(instruction, "Should create instruction even with null label");
         assertFalse(instruction.optionalLabel().isPresent(), "Label should not be present");
@@ -125,15 +134,15 @@ public class InstructionRegistrationManagerTest {
     @Test
     @DisplayName("Supplementary instructions should be created correctly")
     void testSupplementaryInstructions() {
-        Instruction modInstruction = InstructionRegistrationManager.createInstruction("mod", label);
+        Instruction modInstruction = INSTRUCTIONS.createInstruction("mod", label);
         assertNotNull(modInstruction, "ModInstruction was not registered properly");
         assertTrue(modInstruction instanceof ModInstruction, "Should create a ModInstruction for mod opcode");
 
-        Instruction notEqInstruction = InstructionRegistrationManager.createInstruction("not_eq", label);
+        Instruction notEqInstruction = INSTRUCTIONS.createInstruction("not_eq", label);
         assertNotNull(notEqInstruction, "NotEqInstruction was not registered properly");
         assertTrue(notEqInstruction instanceof NotEqInstruction, "Should create a NotEqInstruction for not_eq opcode");
 
-        Instruction sqrtInstruction = InstructionRegistrationManager.createInstruction("sqrt", label);
+        Instruction sqrtInstruction = INSTRUCTIONS.createInstruction("sqrt", label);
         assertNotNull(sqrtInstruction, "SqrtInstruction was not registered properly");
         assertTrue(sqrtInstruction instanceof SqrtInstruction, "Should create a SqrtInstruction for sqrt opcode");
         
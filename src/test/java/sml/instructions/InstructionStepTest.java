@@ -0,0 +1,229 @@
+package sml.instructions;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import sml.*;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for the primitive {@link Instruction#step(Machine, Frame)} execution SPI.
+ *
+ * <p>Key test objectives:</p>
+ * <ul>
+ *   <li>Returning the next instruction index, {@link Instruction#CONTROL_TRANSFERRED} or
+ *       {@link Instruction#HALT}</li>
+ *   <li>Running instructions that only override {@link Instruction#execute(Machine)} through the
+ *       adapter, unchanged</li>
+ *   <li>Allocating nothing per instruction on straight-line code or in a branching loop</li>
+ * </ul>
+ *
+ * @author Ricki Angel
+ */
+public class InstructionStepTest {
+    /**
+     * An old-style instruction that skips the next instruction by overriding {@code execute}.
+     */
+    static class SkipInstruction extends Instruction {
+        SkipInstruction() {
+            super(null, "skip");
+        }
+
+        @Override
+        public Optional<Frame> execute(Machine machine) {
+            Frame frame = machine.frame();
+            return Optional.of(frame.resumeAt(frame.programCounter() + 2));
+        }
+
+        @Override
+        protected void performInstructionLogic(Frame frame) {
+        }
+
+        @Override
+        protected String getOperandsString() {
+            return "";
+        }
+    }
+
+    /**
+     * Duplicates the top of the stack, so a loop can test its counter without a printing {@code load}.
+     */
+    static class DupInstruction extends Instruction {
+        DupInstruction(Label label) {
+            super(label, "dup");
+        }
+
+        @Override
+        protected void performInstructionLogic(Frame frame) {
+            int value = frame.pop();
+            frame.push(value);
+            frame.push(value);
+        }
+
+        @Override
+        protected String getOperandsString() {
+            return "";
+        }
+    }
+
+    /**
+     * A subclass of a built-in instruction that changes its result by overriding {@code execute}.
+     */
+    static class DoublingAddInstruction extends AddInstruction {
+        DoublingAddInstruction() {
+            super(null);
+        }
+
+        @Override
+        public Optional<Frame> execute(Machine machine) {
+            Optional<Frame> next = super.execute(machine);
+            machine.frame().push(machine.frame().pop() * 2);
+            return next;
+        }
+    }
+
+    private static Method main(Instruction... instructions) {
+        return new Method(new Method.Identifier("@main"), List.of(), List.of(instructions));
+    }
+
+    @Test
+    @DisplayName("Step should return the next index, or HALT after the last instruction")
+    void stepReturnsNextIndex() {
+        Machine machine = new Machine();
+        AddInstruction add = new AddInstruction(null);
+        SubInstruction sub = new SubInstruction(null);
+        machine.setProgram(List.of(main(add, sub)));
+        Frame frame = machine.frame();
+        frame.push(1);
+        frame.push(2);
+        frame.push(3);
+
+        assertEquals(1, add.step(machine, frame));
+        assertEquals(0, frame.programCounter(), "step leaves moving the program counter to the caller");
+        frame.resumeAt(1);
+        assertEquals(Instruction.HALT, sub.step(machine, frame));
+        assertEquals(-4, frame.pop());
+    }
+
+    @Test
+    @DisplayName("Invoke and return should transfer control through the machine")
+    void invokeAndReturnTransferControl() {
+        Machine machine = new Machine();
+        Collection<Method> program = new Translator().translateSource("""
+                @main:
+                   push 4
+                   invoke @inc
+                   return
+
+                @inc: x
+                   load x
+                   push 1
+                   add
+                   return
+                """);
+        machine.setProgram(program);
+        Frame main = machine.frame();
+        main.push(4);
+        main.resumeAt(1);
+
+        assertEquals(Instruction.CONTROL_TRANSFERRED, main.currentInstruction().step(machine, main));
+        Frame inc = machine.frame();
+        assertNotSame(main, inc);
+        inc.push(5);
+        inc.resumeAt(3);
+
+        assertEquals(Instruction.CONTROL_TRANSFERRED, inc.currentInstruction().step(machine, inc));
+        assertSame(main, machine.frame());
+        assertEquals(2, main.programCounter());
+        assertEquals(5, main.pop());
+    }
+
+    @Test
+    @DisplayName("Instructions that only override execute should keep their behaviour")
+    void oldStyleInstructionsAreAdapted() {
+        Machine machine = new Machine();
+        machine.setProgram(List.of(main(
+                new PushInstruction(null, 20),
+                new PushInstruction(null, 1),
+                new SkipInstruction(),
+                new PushInstruction(null, 100),
+                new DoublingAddInstruction(),
+                new ReturnInstruction(null))));
+
+        assertFalse(new DoublingAddInstruction().hasPrimitiveStep());
+        assertTrue(new AddInstruction(null).hasPrimitiveStep());
+        assertEquals(ExecutionStatus.TERMINATED, machine.run(Long.MAX_VALUE));
+        assertEquals(5, machine.instructionsExecuted());
+    }
+
+    @Test
+    @DisplayName("Straight-line code should run without allocating per instruction")
+    void straightLineCodeDoesNotAllocate() {
+        StringBuilder source = new StringBuilder("@main:\n");
+        for (int i = 0; i < 5_000; i++)
+            source.append("   push 1000\n   push ").append(i).append("\n   add\n   push 3\n   mul\n   store x\n");
+        source.append("   push 0\n   return\n");
+        Collection<Method> program = new Translator().translateSource(source.toString());
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long bytes = Long.MAX_VALUE;
+        long instructions = 0;
+        for (int round = 0; round < 20; round++) { // warm up: quicken the stores and let the JIT compile the loop
+            Machine machine = new Machine();
+            machine.setExecutionMode(ExecutionMode.INTERPRETED);
+            machine.setProgram(program);
+
+            long before = threads.getCurrentThreadAllocatedBytes();
+            machine.run(Long.MAX_VALUE);
+            bytes = Math.min(bytes, threads.getCurrentThreadAllocatedBytes() - before);
+            instructions = machine.instructionsExecuted();
+        }
+
+        assertEquals(30_002, instructions);
+        // A run allocates a little bookkeeping of its own, but nothing per instruction
+        assertTrue(bytes < 1024, bytes + " bytes allocated for " + instructions + " instructions");
+    }
+
+    @Test
+    @DisplayName("A loop of branches should run without allocating per instruction")
+    void branchLoopDoesNotAllocate() {
+        Label loop = new Label("L1");
+        Label next = new Label("L2");
+        Label done = new Label("L3");
+        Method method = main(
+                new PushInstruction(null, 0),
+                new PushInstruction(loop, 1),
+                new AddInstruction(null),
+                new DupInstruction(null),
+                new PushInstruction(null, 10_000),
+                new IfCmpeqInstruction(null, done),
+                new GotoInstruction(null, next),
+                new DupInstruction(next),
+                new PushInstruction(null, -1),
+                new NotEqInstruction(null, loop),
+                new ReturnInstruction(done));
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long bytes = Long.MAX_VALUE;
+        long instructions = 0;
+        for (int round = 0; round < 20; round++) { // warm up: let the JIT compile the loop
+            Machine machine = new Machine();
+            machine.setExecutionMode(ExecutionMode.INTERPRETED);
+            machine.setQuickeningEnabled(false); // keep every branch on its own step
+            machine.setProgram(List.of(method));
+
+            long before = threads.getCurrentThreadAllocatedBytes();
+            machine.run(Long.MAX_VALUE);
+            bytes = Math.min(bytes, threads.getCurrentThreadAllocatedBytes() - before);
+            instructions = machine.instructionsExecuted();
+        }
+
+        assertEquals(89_998, instructions);
+        assertTrue(bytes < 1024, bytes + " bytes allocated for " + instructions + " instructions");
+    }
+}
@@ -0,0 +1,354 @@
+package sml.instructions;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import sml.*;
+import sml.analysis.CallGraph;
+import sml.io.MappedIntInput;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for the fork-join instructions {@code spawn} and {@code join}.
+ *
+ * <p>Key test objectives:</p>
+ * <ul>
+ *   <li>Computing the same results whether spawned calls are forked or run inline</li>
+ *   <li>Sharing the spawning machine's arrays and input with forked and inline calls alike</li>
+ *   <li>Refusing to snapshot a machine with calls not yet joined</li>
+ *   <li>Rethrowing a spawned call's failure when it is joined</li>
+ *   <li>Rejecting unknown handles and handles joined twice</li>
+ *   <li>Charging spawned calls, forked or inline, to the spawning machine's limits</li>
+ *   <li>Running deep inline spawns on the frame chain rather than the Java stack</li>
+ *   <li>Treating spawned methods as callees in whole-program analysis</li>
+ * </ul>
+ *
+ * @author Ricki Angel
+ */
+public class SpawnJoinInstructionsTest {
+    @TempDir
+    Path directory;
+
+    private final ByteArrayOutputStream outContent = new ByteArrayOutputStream();
+    private final PrintStream originalOut = System.out;
+
+    @BeforeEach
+    void setUp() {
+        System.setOut(new PrintStream(outContent));
+    }
+
+    @AfterEach
+    void tearDown() {
+        System.setOut(originalOut);
+    }
+
+    private static Collection<Method> resource(String name, int n) throws IOException {
+        String source = Files.readString(Path.of("src/main/resources", name)).replace("push 10", "push " + n);
+        return new Translator().translateSource(source);
+    }
+
+    private List<String> run(Collection<Method> program, Machine machine) {
+        outContent.reset();
+        machine.setProgram(program);
+        assertEquals(ExecutionStatus.TERMINATED, machine.run(Long.MAX_VALUE));
+        return outContent.toString().lines().toList();
+    }
+
+    @Test
+    @DisplayName("Spawned Fibonacci should print the same values whether calls are forked or inline")
+    void forkedAndInlineAgree() throws IOException {
+        Collection<Method> program = resource("spawnfib.sml", 16);
+
+        Machine inline = new Machine();
+        inline.setSpawnCutoff(0);
+        List<String> expected = run(program, inline);
+        assertEquals("1597", expected.get(expected.size() - 1));
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            Machine forked = new Machine();
+            forked.setForkJoinPool(pool);
+            forked.setSpawnCutoff(64);
+            List<String> actual = run(program, forked);
+
+            assertEquals("1597", actual.get(actual.size() - 1));
+            // load prints handles too, which are numbered per machine, so compare how much ran
+            assertEquals(expected.size(), actual.size());
+        } finally {
+            pool.shutdown();
+        }
+
+        List<String> sequential = run(resource("test1.sml", 16), new Machine());
+        assertEquals(sequential.get(sequential.size() - 1), expected.get(expected.size() - 1));
+    }
+
+    @Test
+    @DisplayName("A failure in a spawned call should be rethrown by join")
+    void failuresPropagateToJoin() {
+        Machine machine = new Machine();
+        machine.setProgram(new Translator().translateSource("""
+                @main:
+                   push 7
+                   spawn @half
+                   push 0
+                   spawn @half
+                   store bad
+                   join
+                   print
+                   load bad
+                   join
+                   return
+
+                @half: x
+                   push 14
+                   load x
+                   div
+                   return
+                """));
+
+        ArithmeticException e = assertThrows(ArithmeticException.class, () -> machine.run(Long.MAX_VALUE));
+        assertTrue(e.getMessage().contains("Division by zero"), e.getMessage());
+        assertEquals(List.of("0", "1", "2", "7"), outContent.toString().lines().sorted().toList());
+    }
+
+    @Test
+    @DisplayName("Joining an unknown handle, or one already joined, should fail")
+    void handlesAreJoinedOnce() {
+        Machine machine = new Machine();
+        machine.setProgram(new Translator().translateSource("""
+                @main:
+                   spawn @one
+                   store h
+                   load h
+                   join
+                   load h
+                   join
+                   return
+
+                @one:
+                   push 1
+                   return
+                """));
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> machine.run(Long.MAX_VALUE));
+        assertEquals("No spawned call with handle 0", e.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> machine.setSpawnCutoff(-1));
+    }
+
+    @Test
+    @DisplayName("Spawned methods should be callees in the call graph")
+    void spawnedMethodsAreReachable() throws IOException {
+        Collection<Method> program = resource("spawnfib.sml", 10);
+        CallGraph graph = CallGraph.of(program);
+        Method.Identifier fib = new Method.Identifier("@fib");
+
+        assertEquals(Set.of(fib), graph.callees(fib));
+        assertEquals(2, graph.reachableFrom(new Method.Identifier("@main")).size());
+
+        Machine machine = new Machine();
+        machine.setWholeProgramAnalysis(true);
+        assertEquals("89", run(program, machine).getLast());
+    }
+
+    private static final String DOWN = """
+            @main:
+               push %d
+               spawn @down
+               join
+               print
+               push 0
+               return
+
+            @down: n
+               load n
+               push 0
+               if_cmpeq Done
+               load n
+               push 1
+               sub
+               spawn @down
+               join
+               return
+            Done: push 0
+               return
+            """;
+
+    @Test
+    @DisplayName("Deep inline spawns should run on the frame chain and stop at the call depth limit")
+    void inlineSpawnsUseFrameChain() {
+        Machine machine = new Machine();
+        machine.setSpawnCutoff(0);
+        assertEquals("0", run(new Translator().translateSource(DOWN.formatted(50_000)), machine).getLast());
+
+        machine.setLimits(ExecutionLimits.unlimited().withMaxCallDepth(500));
+        machine.setProgram(new Translator().translateSource(DOWN.formatted(50_000)));
+        ExecutionLimitExceededException e = assertThrows(ExecutionLimitExceededException.class,
+                () -> machine.run(Long.MAX_VALUE));
+        assertEquals(ExecutionLimitExceededException.Limit.CALL_DEPTH, e.getLimit());
+    }
+
+    @Test
+    @DisplayName("Forked calls should be charged the spawning machine's depth and instructions")
+    void forkedCallsShareLimits() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            Machine deep = new Machine();
+            deep.setForkJoinPool(pool);
+            deep.setSpawnCutoff(64);
+            deep.setLimits(ExecutionLimits.unlimited().withMaxCallDepth(50));
+            deep.setProgram(new Translator().translateSource(DOWN.formatted(100)));
+            assertEquals(ExecutionLimitExceededException.Limit.CALL_DEPTH, assertThrows(
+                    ExecutionLimitExceededException.class, () -> deep.run(Long.MAX_VALUE)).getLimit());
+
+            // four counting loops of about 40,000 instructions, each within the limit on its own
+            String spawns = IntStream.range(0, 4).mapToObj(i -> "   push 5000\n   spawn @count\n")
+                    .collect(Collectors.joining());
+            Machine wide = new Machine();
+            wide.setForkJoinPool(pool);
+            wide.setExecutionMode(ExecutionMode.INTERPRETED);
+            wide.setLimits(ExecutionLimits.unlimited().withMaxInstructions(60_000));
+            wide.setProgram(new Translator().translateSource("@main:\n" + spawns + """
+                       join
+                       join
+                       join
+                       join
+                       push 0
+                       return
+
+                    @count: n
+                    Next: load n
+                       push 0
+                       if_cmpeq Done
+                       load n
+                       push 1
+                       sub
+                       store n
+                       goto Next
+                    Done: push 0
+                       return
+                    """));
+            assertEquals(ExecutionLimitExceededException.Limit.INSTRUCTIONS, assertThrows(
+                    ExecutionLimitExceededException.class, () -> wide.run(Long.MAX_VALUE)).getLimit());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Spawning more calls than may be left unjoined should fail")
+    void unjoinedSpawnsAreBounded() {
+        Machine machine = new Machine();
+        machine.setSpawnCutoff(0);
+        machine.setProgram(new Translator().translateSource("""
+                @main:
+                Next: spawn @one
+                   goto Next
+
+                @one:
+                   push 1
+                   return
+                """));
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> machine.run(Long.MAX_VALUE));
+        assertTrue(e.getMessage().contains(String.valueOf(Machine.MAX_UNJOINED_SPAWNS)), e.getMessage());
+    }
+
+    @Test
+    @DisplayName("Forked and inline calls should both fill the spawner's arrays and read on from its input")
+    void spawnedCallsShareHeapAndInput() throws IOException {
+        Collection<Method> program = new Translator().translateSource("""
+                @main:
+                   push 2
+                   newarray
+                   store a
+                   load a
+                   spawn @fill
+                   join
+                   load a
+                   push 1
+                   aload
+                   print
+                   spawn @next
+                   join
+                   print
+                   read
+                   print
+                   push 0
+                   return
+
+                @fill: arr
+                   load arr
+                   push 1
+                   read
+                   astore
+                   push 0
+                   return
+
+                @next:
+                   read
+                   return
+                """);
+        Path data = directory.resolve("data.txt");
+        Files.writeString(data, "11 22 33");
+
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try (MappedIntInput input = MappedIntInput.open(data)) {
+            for (int cutoff : new int[]{0, 64}) {
+                Machine machine = new Machine();
+                machine.setForkJoinPool(pool);
+                machine.setSpawnCutoff(cutoff);
+                machine.setInput(input);
+                input.seek(0);
+                List<String> lines = run(program, machine);
+
+                assertEquals(List.of("11", "22", "33"), lines.subList(lines.size() - 3, lines.size()),
+                        "cutoff " + cutoff + ": " + lines);
+                assertEquals(1, machine.heap().liveArrays(), "the array outlives the call that filled it");
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("A machine with a forked or inline call not yet joined should not be snapshotted")
+    void unjoinedCallsBlockSnapshots() {
+        String source = """
+                @main:
+                   spawn @one
+                   store h
+                Spin: push 1
+                   push 1
+                   if_cmpeq Spin
+                   return
+
+                @one:
+                   push 1
+                   return
+                """;
+        for (int cutoff : new int[]{0, 64}) {
+            Machine machine = new Machine();
+            machine.setSpawnCutoff(cutoff);
+            machine.setProgram(new Translator().translateSource(source));
+            assertEquals(ExecutionStatus.SUSPENDED, machine.run(100));
+
+            IllegalStateException e = assertThrows(IllegalStateException.class, () -> MachineSnapshot.capture(machine));
+            assertTrue(e.getMessage().contains("not been joined"), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package sml.instructions.quick;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import sml.*;
+import sml.instructions.Instruction;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for instruction quickening.
+ *
+ * <p>Key test objectives:</p>
+ * <ul>
+ *   <li>Rewriting invoke, branch, load and store sites after their first execution</li>
+ *   <li>Keeping output, instruction counts and listings identical to unquickened runs</li>
+ *   <li>Falling back to lookups by name when a method is loaded into a different program</li>
+ *   <li>Leaving invoke sites alone when machines load the same methods</li>
+ *   <li>Counting quickened sites and saved dispatches per machine</li>
+ * </ul>
+ *
+ * @author Ricki Angel
+ */
+public class QuickeningTest {
+    private static final String FIB = """
+            @main:
+               push 10
+               invoke @fib
+               print
+               push 1
+               return
+
+            @fib: n
+                load n
+                push 1
+                if_cmpgt L7
+                push 1
+                return
+            L7: load n
+                push 1
+                sub
+                invoke @fib
+                load n
+                push 2
+                sub
+                invoke @fib
+                add
+                return
+            """;
+
+    private static final String CALLER = """
+            @main:
+               push 20
+               invoke @f
+               print
+               push 1
+               return
+
+            @f: x
+               load x
+               push 1
+               add
+               return
+            """;
+
+    private final PrintStream originalOut = System.out;
+    private final ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setUp() {
+        System.setOut(new PrintStream(output));
+    }
+
+    @AfterEach
+    void tearDown() {
+        System.setOut(originalOut);
+    }
+
+    private Map<String, Method> translate(String source) throws IOException {
+        Path filePath = tempDir.resolve("program.sml");
+        Files.writeString(filePath, source);
+        return new Translator().readAndTranslate(filePath.toString()).stream()
+                .collect(Collectors.toMap(m -> m.name().name(), Function.identity()));
+    }
+
+    private String run(Machine machine, Collection<Method> program) {
+        output.reset();
+        machine.setProgram(program);
+        while (machine.run(Long.MAX_VALUE) == ExecutionStatus.SUSPENDED) {
+            // keep going
+        }
+        return output.toString();
+    }
+
+    @Test
+    @DisplayName("Quickened runs should match unquickened ones and count the sites and dispatches")
+    void quickenedRunMatchesPlainRun() throws IOException {
+        Machine plain = new Machine();
+        plain.setQuickeningEnabled(false);
+        Machine quick = new Machine();
+
+        String expected = run(plain, translate(FIB).values());
+        String actual = run(quick, translate(FIB).values());
+
+        assertEquals(expected, actual);
+        assertTrue(actual.endsWith("89" + System.lineSeparator()));
+        assertEquals(plain.instructionsExecuted(), quick.instructionsExecuted());
+        assertEquals(0, plain.quickeningStats().quickenedSites());
+        // @main's invoke, plus @fib's two loads of n in L7, if_cmpgt and two invokes
+        assertEquals(7, quick.quickeningStats().quickenedSites());
+        assertTrue(quick.quickeningStats().savedDispatches() > 500);
+    }
+
+    @Test
+    @DisplayName("Quickened sites should replace the executable code but not the translated instructions")
+    void sitesAreRewrittenInPlace() throws IOException {
+        Method fib = translate(FIB).get("fib");
+        List<Instruction> translated = List.copyOf(fib.instructions());
+
+        run(new Machine(), translate(FIB).values().stream()
+                .map(m -> m.name().name().equals("fib") ? fib : m).toList());
+
+        assertInstanceOf(QuickLoadInstruction.class, fib.instructionAt(0));
+        assertInstanceOf(QuickBranchInstruction.class, fib.instructionAt(2));
+        assertInstanceOf(QuickInvokeInstruction.class, fib.instructionAt(8));
+        assertSame(fib.instructions().get(1), fib.instructionAt(1), "push has nothing to quicken");
+        assertEquals(translated, fib.instructions());
+        for (int pc = 0; pc < translated.size(); pc++)
+            assertEquals(translated.get(pc).toString(), fib.instructionAt(pc).toString());
+    }
+
+    @Test
+    @DisplayName("An invoke quickened in one program should re-resolve when loaded with a different callee")
+    void reloadInvalidatesInvokeBinding() throws IOException {
+        Map<String, Method> first = translate(CALLER);
+        Map<String, Method> second = translate(CALLER.replace("push 1\n   add", "push 2\n   mul"));
+        Method main = first.get("main");
+        Machine machine = new Machine();
+
+        assertTrue(run(machine, List.of(main, first.get("f"))).endsWith("21" + System.lineSeparator()));
+        assertInstanceOf(QuickInvokeInstruction.class, main.instructionAt(1));
+
+        String output = run(machine, List.of(main, second.get("f")));
+
+        assertTrue(output.endsWith("40" + System.lineSeparator()), output);
+        assertEquals(1, machine.quickeningStats().deoptimisations());
+        assertInstanceOf(QuickInvokeInstruction.class, main.instructionAt(1), "The site should quicken again");
+    }
+
+    @Test
+    @DisplayName("Machines loading the same methods separately should share an invoke site without rewriting it")
+    void sharedMethodsKeepInvokeBinding() throws IOException {
+        Map<String, Method> program = translate(CALLER);
+        Machine first = new Machine();
+        Machine second = new Machine();
+
+        run(first, program.values());
+        Instruction bound = program.get("main").instructionAt(1);
+        assertInstanceOf(QuickInvokeInstruction.class, bound);
+        String output = run(second, program.values());
+
+        assertTrue(output.endsWith("21" + System.lineSeparator()), output);
+        assertSame(bound, program.get("main").instructionAt(1));
+        assertEquals(0, second.quickeningStats().deoptimisations());
+    }
+
+    @Test
+    @DisplayName("Disabling quickening should leave every site untouched")
+    void disabledQuickeningLeavesCode() throws IOException {
+        Method fib = translate(FIB).get("fib");
+        Machine machine = new Machine();
+        machine.setQuickeningEnabled(false);
+
+        run(machine, translate(FIB).values().stream()
+                .map(m -> m.name().name().equals("fib") ? fib : m).toList());
+
+        for (int pc = 0; pc < fib.instructions().size(); pc++)
+            assertSame(fib.instructions().get(pc), fib.instructionAt(pc));
+        assertEquals(0, machine.quickeningStats().savedDispatches());
+    }
+}
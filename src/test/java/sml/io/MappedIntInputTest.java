@@ -0,0 +1,109 @@
+package sml.io;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import sml.memory.ArrayHeap;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for {@link MappedIntInput}.
+ *
+ * <p>Key test objectives:</p>
+ * <ul>
+ *   <li>Reading little-endian binary and decimal text inputs</li>
+ *   <li>Returning the EOF sentinel and short bulk reads at end of input</li>
+ *   <li>Saving and restoring the read position</li>
+ * </ul>
+ *
+ * @author Ricki Angel
+ */
+public class MappedIntInputTest {
+    @TempDir
+    Path tempDir;
+
+    private Path binaryFile(int... values) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(values.length * Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        for (int value : values) buffer.putInt(value);
+        Path file = tempDir.resolve("input.bin");
+        Files.write(file, buffer.array());
+        return file;
+    }
+
+    @Test
+    @DisplayName("Binary input should be read as little-endian ints followed by EOF")
+    void readsBinary() throws IOException {
+        try (MappedIntInput input = MappedIntInput.open(binaryFile(1, -2, 0x01020304))) {
+            assertEquals(IntInputFormat.BINARY, input.format());
+            assertEquals(1, input.next());
+            assertEquals(-2, input.next());
+            assertEquals(0x01020304, input.next());
+            assertEquals(MappedIntInput.EOF, input.next());
+        }
+    }
+
+    @Test
+    @DisplayName("Text input should accept signs and any separators")
+    void readsText() throws IOException {
+        Path file = tempDir.resolve("input.txt");
+        Files.writeString(file, "12 -7\n\n  2147483647,-2147483648;x 5-");
+        try (MappedIntInput input = MappedIntInput.open(file)) {
+            assertEquals(IntInputFormat.TEXT, input.format());
+            assertEquals(12, input.next());
+            assertEquals(-7, input.next());
+            assertEquals(Integer.MAX_VALUE, input.next());
+            assertEquals(Integer.MIN_VALUE, input.next());
+            assertEquals(5, input.next());
+            assertEquals(MappedIntInput.EOF, input.next());
+        }
+    }
+
+    @Test
+    @DisplayName("Out-of-range text numbers should be rejected")
+    void rejectsOverflow() throws IOException {
+        Path file = tempDir.resolve("input.txt");
+        Files.writeString(file, "2147483648");
+        try (MappedIntInput input = MappedIntInput.open(file)) {
+            assertThrows(NumberFormatException.class, input::next);
+        }
+    }
+
+    @Test
+    @DisplayName("Bulk reads should fill an array and report short reads at end of input")
+    void readsIntoArrays() throws IOException {
+        Path text = tempDir.resolve("input.txt");
+        Files.writeString(text, "4 5 6");
+        try (ArrayHeap heap = new ArrayHeap();
+             MappedIntInput binary = MappedIntInput.open(binaryFile(1, 2, 3));
+             MappedIntInput decimal = MappedIntInput.open(text)) {
+            int handle = heap.allocate(8);
+
+            assertEquals(2, binary.readInto(heap.segment(handle), 0, 2));
+            assertEquals(1, binary.readInto(heap.segment(handle), 2, 5));
+            assertEquals(3, decimal.readInto(heap.segment(handle), 3, 5));
+            assertArrayEquals(new int[]{1, 2, 3, 4, 5, 6, 0, 0}, heap.toArray(handle));
+        }
+    }
+
+    @Test
+    @DisplayName("Seeking to a saved position should replay the input from there")
+    void seekRestoresPosition() throws IOException {
+        try (MappedIntInput input = MappedIntInput.open(binaryFile(10, 20, 30), IntInputFormat.BINARY)) {
+            input.next();
+            long saved = input.position();
+            assertEquals(20, input.next());
+
+            input.seek(saved);
+
+            assertEquals(20, input.next());
+            assertThrows(IndexOutOfBoundsException.class, () -> input.seek(input.size() + 1));
+        }
+    }
+}
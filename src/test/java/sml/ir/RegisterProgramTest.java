@@ -0,0 +1,143 @@
+package sml.ir;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import sml.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for {@link RegisterProgram} and the stack-to-register translation.
+ *
+ * <p>Key test objectives:</p>
+ * <ul>
+ *   <li>Producing the same output and stack instruction count as the {@link Machine}</li>
+ *   <li>Folding loads, pushes and stores into three-address instructions</li>
+ *   <li>Preserving the order of {@code load} echoes and values across stores</li>
+ *   <li>Matching the stack instructions' arithmetic errors</li>
+ *   <li>Rejecting methods that cannot be translated</li>
+ * </ul>
+ *
+ * @author Ricki Angel
+ */
+public class RegisterProgramTest {
+    private final PrintStream originalOut = System.out;
+    private final ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+    @BeforeEach
+    void setUp() {
+        System.setOut(new PrintStream(output));
+    }
+
+    @AfterEach
+    void tearDown() {
+        System.setOut(originalOut);
+    }
+
+    private static Collection<Method> resource(String name, int n) throws IOException {
+        String source = Files.readString(Path.of("src/main/resources", name));
+        return new Translator().translateSource(source.replace("push 10", "push " + n));
+    }
+
+    /**
+     * Runs a program on both interpreters and checks they print the same and count the same.
+     */
+    private RegisterProgram.RunCounts assertSameAsMachine(Collection<Method> program) {
+        Machine machine = new Machine();
+        machine.setExecutionMode(ExecutionMode.INTERPRETED);
+        machine.setProgram(program);
+        output.reset();
+        assertEquals(ExecutionStatus.TERMINATED, machine.run(Long.MAX_VALUE));
+        String expected = output.toString();
+
+        output.reset();
+        RegisterProgram.RunCounts counts = RegisterProgram.compile(program).execute();
+
+        assertEquals(expected, output.toString());
+        assertEquals(machine.instructionsExecuted(), counts.stackInstructions());
+        return counts;
+    }
+
+    @Test
+    @DisplayName("Recursive Fibonacci (test1.sml) should behave exactly as on the machine")
+    void recursiveFibonacci() throws IOException {
+        RegisterProgram.RunCounts counts = assertSameAsMachine(resource("test1.sml", 15));
+
+        assertTrue(counts.reduction() > 0.4, "Dispatch reduction was " + counts.reduction());
+    }
+
+    @Test
+    @DisplayName("Iterative Fibonacci (test2.sml) should behave exactly as on the machine")
+    void iterativeFibonacci() throws IOException {
+        RegisterProgram.RunCounts counts = assertSameAsMachine(resource("test2.sml", 500));
+
+        assertTrue(counts.reduction() > 0.6, "Dispatch reduction was " + counts.reduction());
+    }
+
+    @Test
+    @DisplayName("A comparison of two variables should become a single branch instruction")
+    void comparisonIsOneInstruction() throws IOException {
+        RegisterMethod fib2 = RegisterProgram.compile(resource("test2.sml", 10))
+                .method(new Method.Identifier("@fib2")).orElseThrow();
+
+        // The 16-instruction loop body becomes: if_gt, add, move, move, add, goto
+        assertEquals(24, fib2.sourceLength());
+        assertEquals(10, fib2.length(), fib2.toString());
+        assertTrue(fib2.toString().contains("if_gt  r4, r0 -> 9"), fib2.toString());
+    }
+
+    @Test
+    @DisplayName("Loads folded past a store to the same variable should keep the value they loaded")
+    void storesDoNotOverwriteFoldedLoads() {
+        Collection<Method> program = new Translator().translateSource("""
+                @main:
+                   push 3
+                   store x
+                   load x
+                   load x
+                   push 4
+                   store x
+                   load x
+                   add
+                   add
+                   print
+                   push 0
+                   return
+                """);
+
+        assertSameAsMachine(program);
+        assertTrue(output.toString().endsWith("10" + System.lineSeparator()));
+    }
+
+    @Test
+    @DisplayName("Division by zero and multiplication overflow should fail as on the machine")
+    void arithmeticErrorsMatch() {
+        RegisterProgram division = RegisterProgram.compile(new Translator().translateSource(
+                "@main:\n   push 1\n   push 0\n   div\n   return\n"));
+        RegisterProgram overflow = RegisterProgram.compile(new Translator().translateSource(
+                "@main:\n   push 65536\n   push 65536\n   mul\n   return\n"));
+
+        assertEquals("Division by zero", assertThrows(ArithmeticException.class, division::execute).getMessage());
+        assertThrows(ArithmeticException.class, overflow::execute);
+    }
+
+    @Test
+    @DisplayName("Methods with unsupported instructions or unbalanced stacks should be rejected")
+    void untranslatableMethodsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> RegisterProgram.compile(new Translator().translateSource(
+                "@main:\n   push 4\n   newarray\n   return\n")));
+        assertThrows(IllegalArgumentException.class, () -> RegisterProgram.compile(new Translator().translateSource(
+                "@main:\n   add\n   return\n")));
+        assertThrows(IllegalArgumentException.class, () -> RegisterProgram.compile(new Translator().translateSource(
+                "@main:\n   push 1\n   print\n")));
+    }
+}
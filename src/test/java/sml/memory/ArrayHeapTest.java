@@ -0,0 +1,109 @@
+package sml.memory;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for the off-heap {@link ArrayHeap}.
+ *
+ * <p>Key test objectives:</p>
+ * <ul>
+ *   <li>Reading and writing elements with bounds checking</li>
+ *   <li>Rejecting freed and stale handles</li>
+ *   <li>Enforcing the configured size cap</li>
+ *   <li>Restoring arrays under their original handles</li>
+ * </ul>
+ *
+ * @author Ricki Angel
+ */
+public class ArrayHeapTest {
+    private ArrayHeap heap;
+
+    @BeforeEach
+    void setUp() {
+        heap = new ArrayHeap(1024);
+    }
+
+    @AfterEach
+    void tearDown() {
+        heap.close();
+    }
+
+    @Test
+    @DisplayName("New arrays should be zero-filled and hold written values")
+    void getAndSet() {
+        int handle = heap.allocate(8);
+
+        assertEquals(8, heap.length(handle));
+        assertEquals(0, heap.get(handle, 7));
+        heap.set(handle, 3, -42);
+        assertEquals(-42, heap.get(handle, 3));
+        assertEquals(32, heap.bytesInUse());
+    }
+
+    @Test
+    @DisplayName("Out-of-range indices should be rejected")
+    void boundsAreChecked() {
+        int handle = heap.allocate(4);
+
+        assertThrows(IndexOutOfBoundsException.class, () -> heap.get(handle, 4));
+        assertThrows(IndexOutOfBoundsException.class, () -> heap.set(handle, -1, 0));
+    }
+
+    @Test
+    @DisplayName("A freed handle should stay invalid even after its slot is reused")
+    void staleHandlesAreRejected() {
+        int first = heap.allocate(4);
+        heap.free(first);
+        int second = heap.allocate(4);
+
+        assertNotEquals(first, second);
+        assertThrows(ArrayHeapException.class, () -> heap.get(first, 0));
+        assertThrows(ArrayHeapException.class, () -> heap.free(first));
+        assertThrows(ArrayHeapException.class, () -> heap.length(0));
+        assertEquals(1, heap.liveArrays());
+    }
+
+    @Test
+    @DisplayName("Allocations beyond the size cap should fail and freeing should make room again")
+    void sizeCapIsEnforced() {
+        int handle = heap.allocate(200);
+
+        assertThrows(ArrayHeapException.class, () -> heap.allocate(100));
+        assertThrows(ArrayHeapException.class, () -> heap.allocate(-1));
+        heap.free(handle);
+        assertDoesNotThrow(() -> heap.allocate(256));
+    }
+
+    @Test
+    @DisplayName("Restored arrays should keep their handles and contents")
+    void restoreKeepsHandles() {
+        int a = heap.allocate(2);
+        int b = heap.allocate(3);
+        heap.free(a);
+        a = heap.allocate(2);
+        heap.set(a, 1, 7);
+        heap.set(b, 2, 9);
+
+        List<Integer> handles = new ArrayList<>();
+        heap.forEachLive(handles::add);
+        List<int[]> contents = handles.stream().map(heap::toArray).toList();
+
+        ArrayHeap copy = new ArrayHeap(1024);
+        for (int i = handles.size() - 1; i >= 0; i--)
+            copy.restore(handles.get(i), contents.get(i));
+
+        assertEquals(7, copy.get(a, 1));
+        assertEquals(9, copy.get(b, 2));
+        assertEquals(heap.bytesInUse(), copy.bytesInUse());
+        assertNotEquals(a, copy.allocate(1));
+        copy.close();
+    }
+}
@@ -0,0 +1,108 @@
+package sml.memory;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.lang.foreign.MemorySegment;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for the scalar and SIMD {@link ArrayKernels}.
+ *
+ * <p>Every kernel is checked against a plain Java reference on ranges whose bounds are not multiples
+ * of the vector length, so both the vector body and the scalar tail are exercised.</p>
+ *
+ * @author Ricki Angel
+ */
+public class ArrayKernelsTest {
+    private static final int LENGTH = 1003;
+    private static final int FROM = 5;
+    private static final int COUNT = 997;
+
+    private ArrayHeap heap;
+    private int a;
+    private int b;
+    private int[] aValues;
+    private int[] bValues;
+
+    static Stream<ArrayKernels> kernels() {
+        return Stream.of(ArrayKernels.scalar(), ArrayKernels.simd());
+    }
+
+    @BeforeEach
+    void setUp() {
+        heap = new ArrayHeap();
+        a = heap.allocate(LENGTH);
+        b = heap.allocate(LENGTH);
+        Random random = new Random(42);
+        aValues = random.ints(LENGTH).toArray();
+        bValues = random.ints(LENGTH).toArray();
+        MemorySegment.copy(aValues, 0, heap.segment(a), ArrayHeap.ELEMENT, 0, LENGTH);
+        MemorySegment.copy(bValues, 0, heap.segment(b), ArrayHeap.ELEMENT, 0, LENGTH);
+    }
+
+    @AfterEach
+    void tearDown() {
+        heap.close();
+    }
+
+    @Test
+    @DisplayName("The SIMD kernels should be preferred when the vector module is loaded")
+    void simdIsPreferred() {
+        assertSame(ArrayKernels.simd(), ArrayKernels.preferred());
+        assertTrue(ArrayKernels.preferred().name().startsWith("simd"));
+    }
+
+    @ParameterizedTest
+    @MethodSource("kernels")
+    @DisplayName("sum should match a plain loop, including wrap-around")
+    void sum(ArrayKernels kernels) {
+        int expected = 0;
+        for (int i = FROM; i < FROM + COUNT; i++) expected += aValues[i];
+
+        assertEquals(expected, kernels.sum(heap.segment(a), FROM, COUNT));
+    }
+
+    @ParameterizedTest
+    @MethodSource("kernels")
+    @DisplayName("dot should match a plain loop over offset ranges")
+    void dot(ArrayKernels kernels) {
+        int expected = 0;
+        for (int i = 0; i < COUNT; i++) expected += aValues[FROM + i] * bValues[i + 1];
+
+        assertEquals(expected, kernels.dot(heap.segment(a), FROM, heap.segment(b), 1, COUNT));
+    }
+
+    @ParameterizedTest
+    @MethodSource("kernels")
+    @DisplayName("fill, addScalar and mulScalar should only touch the given range")
+    void inPlaceKernels(ArrayKernels kernels) {
+        kernels.fill(heap.segment(a), FROM, COUNT, 3);
+        kernels.addScalar(heap.segment(a), FROM, COUNT, 4);
+        kernels.mulScalar(heap.segment(a), FROM, COUNT, -2);
+
+        int[] result = heap.toArray(a);
+        for (int i = 0; i < LENGTH; i++) {
+            int expected = i >= FROM && i < FROM + COUNT ? -14 : aValues[i];
+            assertEquals(expected, result[i], "element " + i);
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("kernels")
+    @DisplayName("copy should behave like System.arraycopy for overlapping ranges")
+    void overlappingCopy(ArrayKernels kernels) {
+        kernels.copy(heap.segment(a), 0, heap.segment(a), 3, 1000);
+
+        int[] expected = aValues.clone();
+        System.arraycopy(expected, 0, expected, 3, 1000);
+        assertArrayEquals(expected, heap.toArray(a));
+    }
+}
@@ -0,0 +1,215 @@
+package sml.metrics;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import sml.ExecutionStatus;
+import sml.Machine;
+import sml.Translator;
+
+import javax.management.MBeanServer;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for the {@link MetricsRegistry} and the interpreter's {@link SmlMetrics}.
+ *
+ * <p>Key test objectives:</p>
+ * <ul>
+ *   <li>Updating the interpreter metrics when programs are translated and run</li>
+ *   <li>Publishing a long run's counts while it is still running</li>
+ *   <li>Rendering counters, gauges and cumulative histogram buckets in the Prometheus format</li>
+ *   <li>Serving the metrics over loopback HTTP and publishing them as MBeans</li>
+ *   <li>Counting exactly under concurrent updates</li>
+ * </ul>
+ *
+ * @author Ricki Angel
+ */
+public class MetricsTest {
+    private final PrintStream originalOut = System.out;
+
+    @BeforeEach
+    void setUp() {
+        System.setOut(new PrintStream(new ByteArrayOutputStream()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        System.setOut(originalOut);
+    }
+
+    @Test
+    @DisplayName("Translating and running a program should update the interpreter metrics")
+    void interpreterMetrics() {
+        long instructions = SmlMetrics.INSTRUCTIONS_EXECUTED.getValue();
+        long invocations = SmlMetrics.INVOCATIONS.getValue();
+        long programs = SmlMetrics.PROGRAMS_LOADED.getValue();
+        long methods = SmlMetrics.METHODS_TRANSLATED.getValue();
+        long translations = SmlMetrics.TRANSLATION_TIME.getCount();
+
+        Machine machine = new Machine();
+        machine.setProgram(new Translator().translateSource("""
+                @main:
+                   push 3
+                   invoke @down
+                   return
+
+                @down: n
+                   load n
+                   push 0
+                   if_cmpeq Done
+                   load n
+                   push 1
+                   sub
+                   invoke @down
+                Done: push 0
+                   return
+                """));
+        assertEquals(ExecutionStatus.TERMINATED, machine.run(Long.MAX_VALUE));
+
+        assertEquals(machine.instructionsExecuted(), SmlMetrics.INSTRUCTIONS_EXECUTED.getValue() - instructions);
+        assertEquals(4, SmlMetrics.INVOCATIONS.getValue() - invocations);
+        assertTrue(SmlMetrics.MAX_CALL_DEPTH.getValue() >= 5);
+        assertEquals(1, SmlMetrics.PROGRAMS_LOADED.getValue() - programs);
+        assertEquals(2, SmlMetrics.METHODS_TRANSLATED.getValue() - methods);
+        assertEquals(1, SmlMetrics.TRANSLATION_TIME.getCount() - translations);
+    }
+
+    @Test
+    @DisplayName("A long run should publish its instruction count before it returns")
+    void metricsPublishedDuringRun() throws InterruptedException {
+        long instructions = SmlMetrics.INSTRUCTIONS_EXECUTED.getValue();
+        Machine machine = new Machine();
+        machine.setProgram(new Translator().translateSource("""
+                @main:
+                Next: push 1
+                   store x
+                   goto Next
+                """));
+        ExecutionStatus[] status = new ExecutionStatus[1];
+        Thread runner = Thread.ofPlatform().start(() -> status[0] = machine.run(Long.MAX_VALUE));
+
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (SmlMetrics.INSTRUCTIONS_EXECUTED.getValue() - instructions < 1 << 20 && System.nanoTime() < deadline)
+            Thread.sleep(1);
+        long published = SmlMetrics.INSTRUCTIONS_EXECUTED.getValue() - instructions;
+        boolean running = runner.isAlive();
+        machine.requestPause();
+        runner.join();
+
+        assertTrue(published >= 1 << 20, "Published " + published + " instructions");
+        assertTrue(running, "The run should still be going when its count is published");
+        assertEquals(ExecutionStatus.SUSPENDED, status[0]);
+    }
+
+    @Test
+    @DisplayName("Scrapes should follow the Prometheus text format with cumulative buckets")
+    void prometheusFormat() {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.counter("jobs_total", "Jobs run.").add(3);
+        registry.maxGauge("depth", "Deepest.").record(7);
+        Histogram latency = registry.histogram("latency_seconds", "Latency.");
+        latency.recordNanos(50_000);        // 0.00005s
+        latency.recordNanos(2_000_000);     // 0.002s
+        latency.recordNanos(20_000_000_000L);
+
+        String text = registry.scrape();
+
+        assertTrue(text.contains("# HELP jobs_total Jobs run.\n# TYPE jobs_total counter\njobs_total 3\n"), text);
+        assertTrue(text.contains("# TYPE depth gauge\ndepth 7\n"), text);
+        assertTrue(text.contains("latency_seconds_bucket{le=\"0.0001\"} 1\n"), text);
+        assertTrue(text.contains("latency_seconds_bucket{le=\"0.001\"} 1\n"), text);
+        assertTrue(text.contains("latency_seconds_bucket{le=\"0.005\"} 2\n"), text);
+        assertTrue(text.contains("latency_seconds_bucket{le=\"10\"} 2\n"), text);
+        assertTrue(text.contains("latency_seconds_bucket{le=\"+Inf\"} 3\n"), text);
+        assertTrue(text.contains("latency_seconds_count 3\n"), text);
+        assertTrue(text.indexOf("depth") < text.indexOf("jobs_total"), "metrics are rendered in name order");
+
+        assertSame(registry.counter("jobs_total", "Jobs run."), registry.counter("jobs_total", "Jobs run."));
+        assertThrows(IllegalArgumentException.class, () -> registry.histogram("jobs_total", "Clash."));
+        assertThrows(IllegalArgumentException.class, () -> registry.counter("bad-name", "Invalid."));
+        assertThrows(IllegalArgumentException.class, () -> registry.counter("jobs_total", "").add(-1));
+    }
+
+    @Test
+    @DisplayName("The server should serve the metrics on loopback")
+    void httpEndpoint() throws Exception {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.counter("requests_total", "Requests.").increment();
+
+        try (MetricsServer server = MetricsServer.start(registry, 0)) {
+            HttpClient client = HttpClient.newHttpClient();
+            URI base = URI.create("http://127.0.0.1:" + server.port());
+
+            HttpResponse<String> response = client.send(HttpRequest.newBuilder(base.resolve(MetricsServer.PATH)).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            assertEquals(200, response.statusCode());
+            assertEquals(MetricsRegistry.CONTENT_TYPE, response.headers().firstValue("Content-Type").orElseThrow());
+            assertTrue(response.body().contains("requests_total 1\n"), response.body());
+
+            HttpResponse<String> missing = client.send(HttpRequest.newBuilder(base.resolve("/metrics/other")).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            assertEquals(404, missing.statusCode());
+        }
+    }
+
+    @Test
+    @DisplayName("Metrics should be readable as MBean attributes")
+    void mbeans() throws Exception {
+        MetricsRegistry registry = new MetricsRegistry();
+        Counter counter = registry.counter("sml_test_mbean_total", "Test counter.");
+        Histogram histogram = registry.histogram("sml_test_mbean_seconds", "Test histogram.");
+        MaxGauge gauge = registry.maxGauge("sml_test_mbean_max", "Test gauge.");
+        counter.add(5);
+        histogram.recordNanos(1_500_000_000L);
+        gauge.record(9);
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        registry.registerMBeans();
+        registry.registerMBeans(); // idempotent
+        try {
+            assertEquals(5L, server.getAttribute(MetricsRegistry.objectName(counter), "Value"));
+            assertEquals(1L, server.getAttribute(MetricsRegistry.objectName(histogram), "Count"));
+            assertEquals(1.5, (Double) server.getAttribute(MetricsRegistry.objectName(histogram), "Sum"), 1e-9);
+            assertEquals("Test counter.", server.getAttribute(MetricsRegistry.objectName(counter), "Help"));
+            assertEquals(9L, server.getAttribute(MetricsRegistry.objectName(gauge), "Value"));
+            assertTrue(server.isInstanceOf(MetricsRegistry.objectName(gauge), GaugeMXBean.class.getName()));
+            assertFalse(server.isInstanceOf(MetricsRegistry.objectName(gauge), CounterMXBean.class.getName()));
+        } finally {
+            registry.unregisterMBeans();
+        }
+        assertFalse(server.isRegistered(MetricsRegistry.objectName(counter)));
+    }
+
+    @Test
+    @DisplayName("Concurrent updates should not lose counts")
+    void concurrentUpdates() throws InterruptedException {
+        MetricsRegistry registry = new MetricsRegistry();
+        Counter counter = registry.counter("hits_total", "Hits.");
+        MaxGauge max = registry.maxGauge("max_hit", "Largest hit.");
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            int id = t;
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < 100_000; i++) {
+                    counter.increment();
+                    max.record(id * 100_000L + i);
+                }
+            }));
+        }
+        for (Thread thread : threads) thread.join();
+
+        assertEquals(800_000, counter.getValue());
+        assertEquals(799_999, max.getValue());
+    }
+}
@@ -0,0 +1,224 @@
+package sml.profile;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import sml.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for {@link ExecutionProfile} and the {@link ProfileCollector}.
+ *
+ * <p>Key test objectives:</p>
+ * <ul>
+ *   <li>Counting invocations, branch outcomes and instruction pairs of a run</li>
+ *   <li>Writing and reading profiles, and rejecting files that are not profiles</li>
+ *   <li>Applying a profile of the same program before it starts, so hot loops run compiled at once</li>
+ *   <li>Ignoring a profile of a different program</li>
+ *   <li>Keeping the output of {@code RunSml --pgo} the same whether or not its profile applies, and
+ *       using the compiled loops when the run is untraced</li>
+ * </ul>
+ *
+ * @author Ricki Angel
+ */
+public class ExecutionProfileTest {
+    private static final String LOOP = """
+            @main:
+               push 0
+               store i
+               push 0
+               store s
+            L1: load i
+               push 500
+               if_cmpeq L2
+               load s
+               load i
+               add
+               store s
+               load i
+               push 1
+               add
+               store i
+               goto L1
+            L2: load s
+               print
+               push 0
+               return
+            """;
+
+    private final PrintStream originalOut = System.out;
+    private final ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+    @TempDir
+    Path directory;
+
+    @BeforeEach
+    void setUp() {
+        System.setOut(new PrintStream(output));
+    }
+
+    @AfterEach
+    void tearDown() {
+        System.setOut(originalOut);
+    }
+
+    private static Collection<Method> fib(int n) throws IOException {
+        String source = Files.readString(Path.of("src/main/resources/test1.sml")).replace("push 10", "push " + n);
+        return new Translator().translateSource(source);
+    }
+
+    /**
+     * Runs a program to completion with a collector installed and returns its profile.
+     */
+    private static ExecutionProfile collect(Collection<Method> program) {
+        Machine machine = new Machine();
+        ProfileCollector collector = new ProfileCollector();
+        machine.setProfileCollector(collector);
+        machine.setProgram(program);
+        assertEquals(ExecutionStatus.TERMINATED, machine.run(Long.MAX_VALUE));
+        return collector.toProfile(machine.programHash());
+    }
+
+    private static Machine run(Collection<Method> program, ExecutionProfile profile) {
+        Machine machine = new Machine();
+        machine.setExecutionMode(ExecutionMode.OSR);
+        machine.setProfile(profile);
+        machine.setProgram(program);
+        assertEquals(ExecutionStatus.TERMINATED, machine.run(Long.MAX_VALUE));
+        return machine;
+    }
+
+    @Test
+    @DisplayName("Invocations and branch outcomes of recursive Fibonacci should be counted exactly")
+    void countsInvocationsAndBranches() throws IOException {
+        ExecutionProfile profile = collect(fib(10));
+
+        ExecutionProfile.MethodProfile fib = profile.method(new Method.Identifier("@fib")).orElseThrow();
+        assertEquals(177, fib.invocations());
+        // if_cmpgt L7 at 2 jumps to 5 for the 88 calls with n > 1
+        assertEquals(List.of(new ExecutionProfile.BranchProfile(2, 5, 88, 89)), fib.branches());
+        assertFalse(fib.branches().getFirst().isBackEdge());
+        assertEquals(List.of(new Method.Identifier("@fib")), profile.hotMethods());
+        assertTrue(profile.hotLoopMethods().isEmpty());
+
+        List<ExecutionProfile.InstructionPair> pairs = profile.hotPairs();
+        assertFalse(pairs.isEmpty());
+        for (int i = 1; i < pairs.size(); i++)
+            assertTrue(pairs.get(i - 1).count() >= pairs.get(i).count(), pairs.toString());
+    }
+
+    @Test
+    @DisplayName("A loop's back edge should be counted and make its method a hot loop")
+    void findsHotLoops() {
+        ExecutionProfile profile = collect(new Translator().translateSource(LOOP));
+
+        ExecutionProfile.MethodProfile main = profile.method(new Method.Identifier("@main")).orElseThrow();
+        assertEquals(List.of(new ExecutionProfile.BranchProfile(6, 16, 1, 500),
+                new ExecutionProfile.BranchProfile(15, 4, 500, 0)), main.branches());
+        assertTrue(main.hasHotLoop());
+        assertEquals(List.of(new Method.Identifier("@main")), profile.hotLoopMethods());
+        assertEquals(1.0 / 501, main.branches().getFirst().takenRatio(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Profiles should survive being written and read back, and other files should be rejected")
+    void roundTrip() throws IOException {
+        ExecutionProfile profile = collect(fib(12));
+        Path file = directory.resolve("fib.profile");
+
+        profile.writeTo(file);
+
+        assertEquals(profile, ExecutionProfile.readFrom(file));
+        Files.writeString(file, "@main:\n   push 1\n");
+        assertThrows(IOException.class, () -> ExecutionProfile.readFrom(file));
+        profile.writeTo(file);
+        byte[] truncated = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(truncated, truncated.length - 10));
+        assertThrows(IOException.class, () -> ExecutionProfile.readFrom(file));
+    }
+
+    @Test
+    @DisplayName("A profile of the same program should be applied, entering compiled code before the loop turns hot")
+    void appliesMatchingProfile() {
+        ExecutionProfile profile = collect(new Translator().translateSource(LOOP));
+        String profiledOutput = output.toString();
+
+        output.reset();
+        Machine cold = run(new Translator().translateSource(LOOP), null);
+        String coldOutput = output.toString();
+        output.reset();
+        Machine warm = run(new Translator().translateSource(LOOP), profile);
+
+        assertTrue(warm.isProfileApplied());
+        assertFalse(cold.isProfileApplied());
+        assertEquals(0, cold.osrEntries(), "500 iterations stay below the OSR threshold");
+        assertTrue(warm.osrEntries() > 0);
+        assertEquals(coldOutput, output.toString());
+        assertEquals(profiledOutput, coldOutput);
+        assertEquals(cold.instructionsExecuted(), warm.instructionsExecuted());
+    }
+
+    @Test
+    @DisplayName("A profile of a different program should be ignored")
+    void ignoresStaleProfile() {
+        ExecutionProfile profile = collect(new Translator().translateSource(LOOP));
+
+        Machine machine = run(new Translator().translateSource(LOOP.replace("push 500", "push 400")), profile);
+
+        assertFalse(machine.isProfileApplied());
+        assertEquals(0, machine.osrEntries());
+        assertTrue(output.toString().endsWith("79800" + System.lineSeparator()));
+    }
+
+    @Test
+    @DisplayName("Applying a profile in RunSml should not change what the run prints, and untraced runs should use compiled code")
+    void profileGuidedRunKeepsOutput() throws IOException {
+        Path program = directory.resolve("loop.sml");
+        Files.writeString(program, LOOP);
+        Path pgo = directory.resolve("loop.profile");
+
+        Machine collecting = new Machine();
+        RunSml first = new RunSml(new Translator(), collecting);
+        first.setProfileGuided(pgo);
+        first.run(program.toString());
+        assertTrue(Files.exists(pgo));
+        String collected = output.toString();
+        assertTrue(collected.contains("]  "), "collecting prints the trace");
+
+        output.reset();
+        Machine applying = new Machine();
+        RunSml second = new RunSml(new Translator(), applying);
+        second.setProfileGuided(pgo);
+        second.run(program.toString());
+
+        assertTrue(applying.isProfileApplied());
+        assertEquals(ExecutionMode.OSR, applying.executionMode(), "the mode is left as configured");
+        assertEquals(collected, output.toString(), "an applied profile prints exactly what the collecting run did");
+        assertEquals(collecting.instructionsExecuted(), applying.instructionsExecuted());
+
+        output.reset();
+        Machine untraced = new Machine();
+        RunSml third = new RunSml(new Translator(), untraced);
+        third.setProfileGuided(pgo);
+        third.setPrintTrace(false);
+        third.run(program.toString());
+
+        assertTrue(untraced.isProfileApplied());
+        assertTrue(untraced.osrEntries() > 0);
+        assertEquals(collecting.instructionsExecuted(), untraced.instructionsExecuted());
+        assertFalse(output.toString().contains("]  "), "--no-trace runs untraced");
+        assertTrue(output.toString().contains("124750"));
+    }
+}
@@ -0,0 +1,120 @@
+package sml.profile;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import sml.ExecutionStatus;
+import sml.Machine;
+import sml.Method;
+import sml.Translator;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for the {@link SamplingProfiler}.
+ *
+ * <p>Key test objectives:</p>
+ * <ul>
+ *   <li>Sampling the call chains of a running machine into collapsed stacks</li>
+ *   <li>Keying stacks by program counter when asked to</li>
+ *   <li>Taking no samples of machines that are not running</li>
+ * </ul>
+ *
+ * @author Ricki Angel
+ */
+public class SamplingProfilerTest {
+    private final PrintStream originalOut = System.out;
+
+    @BeforeEach
+    void setUp() {
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        System.setOut(originalOut);
+    }
+
+    private static Collection<Method> fib(int n) throws IOException {
+        String source = Files.readString(Path.of("src/main/resources/test1.sml")).replace("push 10", "push " + n);
+        return new Translator().translateSource(source);
+    }
+
+    private static SamplingProfiler profile(Collection<Method> program, boolean programCounters) {
+        Machine machine = new Machine();
+        SamplingProfiler profiler = SamplingProfiler.start(Duration.ofMillis(1), programCounters);
+        try {
+            profiler.attach(machine);
+            while (profiler.samples() < 50) {
+                machine.setProgram(program);
+                assertEquals(ExecutionStatus.TERMINATED, machine.run(Long.MAX_VALUE));
+                assertTrue(machine.runningFrame().isEmpty(), "a finished machine publishes no frame");
+            }
+        } finally {
+            profiler.close();
+        }
+        return profiler;
+    }
+
+    @Test
+    @DisplayName("Samples should be aggregated into collapsed stacks rooted at main")
+    void collapsedStacks() throws IOException {
+        SamplingProfiler profiler = profile(fib(18), false);
+        Map<String, Long> stacks = profiler.collapsedStacks();
+
+        assertEquals(profiler.samples(), stacks.values().stream().mapToLong(Long::longValue).sum());
+        assertTrue(stacks.keySet().stream().allMatch(stack -> stack.equals("main") || stack.startsWith("main;fib")),
+                stacks.keySet()::toString);
+        assertTrue(stacks.keySet().stream().anyMatch(stack -> stack.startsWith("main;fib;fib;fib")),
+                "recursion shows up as deeper stacks");
+
+        StringWriter out = new StringWriter();
+        profiler.writeCollapsed(out);
+        assertTrue(out.toString().lines().allMatch(line -> line.matches("main(;fib)* \\d+")), out::toString);
+    }
+
+    @Test
+    @DisplayName("Stacks should include program counters when requested")
+    void programCounters() throws IOException {
+        SamplingProfiler profiler = profile(fib(18), true);
+
+        // Callers are suspended at an invoke - main:1, fib:8 or fib:12 - except that the innermost
+        // frame's caller may already be past it while the innermost frame executes its return.
+        for (String stack : profiler.collapsedStacks().keySet()) {
+            String[] frames = stack.split(";");
+            int innermost = frames.length - 1;
+            assertTrue(frames[innermost].matches("(main|fib):\\d+"), stack);
+            boolean returning = frames[innermost].matches("fib:(4|14)");
+            for (int i = 0; i < innermost; i++) {
+                boolean resumed = returning && i == innermost - 1;
+                assertTrue(frames[i].matches(i == 0 ? (resumed ? "main:[12]" : "main:1")
+                        : (resumed ? "fib:(8|9|12|13)" : "fib:(8|12)")), stack);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Machines that are not running should not be sampled")
+    void idleMachines() throws IOException, InterruptedException {
+        Machine machine = new Machine();
+        machine.setProgram(fib(5));
+        try (SamplingProfiler profiler = SamplingProfiler.start(Duration.ofMillis(1), false)) {
+            profiler.attach(machine);
+            while (profiler.ticks() < 10) Thread.sleep(1);
+            assertEquals(0, profiler.samples());
+            assertTrue(profiler.collapsedStacks().isEmpty());
+        }
+        assertThrows(IllegalArgumentException.class, () -> SamplingProfiler.start(Duration.ZERO, false));
+    }
+}
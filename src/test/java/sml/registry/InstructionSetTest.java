@@ -0,0 +1,154 @@
+package sml.registry;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import sml.InstructionRegistrationManager;
+import sml.Method;
+import sml.Translator;
+import sml.helperfiles.DefaultInstructionRegistrationLogger;
+import sml.helperfiles.InstructionRegistrationLogger;
+import sml.instructions.AddInstruction;
+import sml.instructions.Instruction;
+import sml.instructions.NumCharInstruction;
+import sml.instructions.SubInstruction;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.TreeSet;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for {@link InstructionSet} snapshots and concurrent instruction discovery.
+ *
+ * <p>Key test objectives:</p>
+ * <ul>
+ *   <li>Giving each {@link InstructionRegistrationManager} its own published instruction set</li>
+ *   <li>Merging discovery strategies in priority order, with configured opcodes winning and
+ *       package scanning adding only unconfigured ones</li>
+ *   <li>Reporting each opcode once, against the class it was registered with</li>
+ *   <li>Registering atomically when several threads share a registry</li>
+ *   <li>Translating on many threads from one immutable snapshot</li>
+ * </ul>
+ *
+ * @author Ricki Angel
+ */
+public class InstructionSetTest {
+    private final PrintStream originalErr = System.err;
+
+    @BeforeEach
+    void setUp() {
+        System.setErr(new PrintStream(new ByteArrayOutputStream()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        System.setErr(originalErr);
+    }
+
+    private static InstructionRegistrationManager manager() {
+        return new InstructionRegistrationManager(new DefaultInstructionRegistrationLogger());
+    }
+
+    @Test
+    @DisplayName("Each manager should discover and publish its own instruction set once")
+    void managersOwnTheirInstructions() {
+        InstructionRegistrationManager first = manager();
+        InstructionRegistrationManager second = manager();
+
+        InstructionSet instructions = first.instructions();
+        assertSame(instructions, first.instructions(), "published once");
+        assertNotSame(instructions, second.instructions());
+        assertEquals(instructions.opcodes(), second.instructions().opcodes());
+
+        assertTrue(instructions.isRegistered("add"));
+        assertTrue(instructions.isRegistered("readinto"));
+        assertEquals(AddInstruction.class, instructions.instructionClass("add").orElseThrow());
+        assertTrue(instructions.labelConstructor("push").isPresent());
+        assertThrows(UnsupportedOperationException.class, () -> instructions.opcodes().add("nop"));
+    }
+
+    @Test
+    @DisplayName("Package scanning should only add unconfigured opcodes, and each opcode should be reported once against its class")
+    void strategiesMergeInPriorityOrder() throws IOException {
+        List<String> reported = new CopyOnWriteArrayList<>();
+        InstructionRegistrationLogger logger = new DefaultInstructionRegistrationLogger() {
+            @Override
+            public void trackSuccessfulRegistration(String instructionName, String opcode) {
+                reported.add(opcode + "=" + instructionName);
+            }
+        };
+        Properties configured = new Properties();
+        try (var in = Files.newInputStream(Path.of("src/main/resources/config/opcode.properties"))) {
+            configured.load(in);
+        }
+
+        InstructionSet instructions = new InstructionRegistrationManager(logger).instructions();
+
+        assertFalse(configured.containsKey("num_char"));
+        assertEquals(NumCharInstruction.class, instructions.instructionClass("num_char").orElseThrow());
+        for (String opcode : configured.stringPropertyNames())
+            assertEquals(configured.getProperty(opcode).trim(),
+                    instructions.instructionClass(opcode).orElseThrow().getName(), opcode);
+        List<String> expected = new TreeSet<>(instructions.opcodes()).stream()
+                .map(opcode -> opcode + "=" + instructions.instructionClass(opcode).orElseThrow().getSimpleName())
+                .toList();
+        assertEquals(expected, reported);
+    }
+
+    @Test
+    @DisplayName("Concurrent registration should let exactly one class win each opcode")
+    void concurrentRegistration() throws Exception {
+        InstructionRegistry registry = new InstructionRegistry();
+        AtomicInteger wins = new AtomicInteger();
+        CyclicBarrier start = new CyclicBarrier(8);
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            List<Future<?>> tasks = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                Class<? extends Instruction> type = t % 2 == 0 ? AddInstruction.class : SubInstruction.class;
+                tasks.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 1_000; i++)
+                        if (registry.registerIfAbsent("op" + i, type)) wins.incrementAndGet();
+                    return null;
+                }));
+            }
+            for (Future<?> task : tasks) task.get();
+        }
+
+        assertEquals(1_000, wins.get());
+        InstructionSet snapshot = registry.snapshot();
+        assertEquals(1_000, snapshot.size());
+        registry.register("extra", AddInstruction.class);
+        assertFalse(snapshot.isRegistered("extra"), "snapshots do not see later registrations");
+    }
+
+    @Test
+    @DisplayName("Translators on many threads should share one instruction set")
+    void concurrentTranslation() throws Exception {
+        String source = Files.readString(Path.of("src/main/resources/test1.sml"));
+        InstructionSet instructions = manager().instructions();
+        String expected = new Translator().translateSource(source).toString();
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 64; i++)
+                results.add(executor.submit(() -> new Translator(instructions).translateSource(source).toString()));
+            for (Future<String> result : results)
+                assertEquals(expected, result.get());
+        }
+
+        Method main = new Translator(instructions).translateSource("@main:\n   push 7\n   return\n").iterator().next();
+        assertEquals("push", main.instructions().get(0).opcode());
+    }
+}
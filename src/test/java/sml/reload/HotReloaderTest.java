@@ -0,0 +1,230 @@
+package sml.reload;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import sml.ExecutionStatus;
+import sml.Machine;
+import sml.Method;
+import sml.ProgramHash;
+import sml.SymbolTable;
+import sml.Translator;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for {@link HotReloader}.
+ *
+ * <p>Key test objectives:</p>
+ * <ul>
+ *   <li>Re-translating only edited methods and reusing unchanged {@link Method} objects</li>
+ *   <li>Leaving frames that are already executing undisturbed</li>
+ *   <li>Adding and removing methods, and rejecting invalid edits without touching the program</li>
+ *   <li>Reloading automatically when the watched file changes</li>
+ *   <li>Never reporting the hash of a replaced program, even while it is computed concurrently</li>
+ * </ul>
+ *
+ * @author Ricki Angel
+ */
+public class HotReloaderTest {
+    private static final String PROGRAM = """
+            @main:
+               push 0
+               store i
+            L1:  load i
+               invoke @step
+               store i
+               load i
+               push 6
+               if_cmpgt L2
+               goto L1
+            L2:  load i
+               print
+               push 1
+               return
+
+            @step: x
+               load x
+               push 1
+               add
+               return
+
+            @unused:
+               push 7
+               return
+            """;
+
+    private final PrintStream originalOut = System.out;
+    private final ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+    @TempDir
+    Path tempDir;
+
+    private Path file;
+    private Machine machine;
+    private HotReloader reloader;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        System.setOut(new PrintStream(output));
+        file = tempDir.resolve("program.sml");
+        Files.writeString(file, PROGRAM);
+        machine = new Machine();
+        reloader = new HotReloader(machine, new Translator(), file);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        reloader.close();
+        System.setOut(originalOut);
+    }
+
+    private Method method(String name) {
+        return machine.method(new Method.Identifier("@" + name)).orElse(null);
+    }
+
+    private String lastLine() {
+        String[] lines = output.toString().split(System.lineSeparator());
+        return lines[lines.length - 1];
+    }
+
+    private void runToCompletion() {
+        while (machine.run(Long.MAX_VALUE) == ExecutionStatus.SUSPENDED) {
+            // keep going
+        }
+    }
+
+    @Test
+    @DisplayName("Editing one method should re-translate only that method")
+    void onlyEditedMethodIsReplaced() throws IOException {
+        assertEquals(3, reloader.load().added());
+        Method main = method("main");
+        Method step = method("step");
+        Method unused = method("unused");
+
+        Files.writeString(file, PROGRAM.replace("push 1\n   add", "push 3\n   add"));
+        ReloadResult result = reloader.reload();
+
+        assertEquals(1, result.changed());
+        assertEquals(2, result.unchanged());
+        assertSame(main, method("main"));
+        assertSame(unused, method("unused"));
+        assertNotSame(step, method("step"));
+        runToCompletion();
+        assertEquals("9", lastLine());
+    }
+
+    @Test
+    @DisplayName("A reload while running should not disturb executing frames")
+    void runningFramesAreUndisturbed() throws IOException {
+        reloader.load();
+        assertEquals(ExecutionStatus.SUSPENDED, machine.run(20));
+        Method running = machine.frame().method();
+        long instructions = machine.instructionsExecuted();
+
+        Files.writeString(file, PROGRAM.replace("push 6", "push 60").replace("push 1\n   add", "push 2\n   add"));
+        reloader.reload();
+
+        assertSame(running, machine.frame().method(), "@main keeps running its original version");
+        assertEquals(instructions, machine.instructionsExecuted());
+        runToCompletion();
+        // @main still stops above 6, but every later @step call adds 2
+        int result = Integer.parseInt(lastLine());
+        assertTrue(result > 6 && result <= 8, "Unexpected result " + result);
+    }
+
+    @Test
+    @DisplayName("Added and removed methods should be reflected in the program")
+    void methodsAreAddedAndRemoved() throws IOException {
+        reloader.load();
+
+        Files.writeString(file, PROGRAM.replace("@unused:", "@other:"));
+        ReloadResult result = reloader.reload();
+
+        assertEquals(1, result.added());
+        assertEquals(1, result.removed());
+        assertNull(method("unused"));
+        assertNotNull(method("other"));
+    }
+
+    @Test
+    @DisplayName("An invalid edit should be rejected and leave the program untouched")
+    void invalidEditIsRejected() throws IOException {
+        reloader.load();
+        Method step = method("step");
+        String hash = machine.programHash();
+
+        Files.writeString(file, PROGRAM.replace("@step: x", "@step: x, x"));
+        assertThrows(IllegalArgumentException.class, () -> reloader.reload());
+        Files.writeString(file, PROGRAM + "\n@main:\n   return\n");
+        assertThrows(IllegalArgumentException.class, () -> reloader.reload());
+
+        assertSame(step, method("step"));
+        assertEquals(hash, machine.programHash());
+    }
+
+    @Test
+    @DisplayName("Reloading an unchanged file should change nothing")
+    void unchangedFileIsNoOp() throws IOException {
+        reloader.load();
+        SymbolTable<Method.Identifier, Method> table = machine.methodTable();
+
+        ReloadResult result = reloader.reload();
+
+        assertFalse(result.hasChanges());
+        assertSame(table, machine.methodTable());
+    }
+
+    @Test
+    @DisplayName("A watched file should be reloaded when it is saved")
+    void watchReloadsOnSave() throws Exception {
+        reloader.load();
+        BlockingQueue<ReloadResult> results = new ArrayBlockingQueue<>(4);
+        reloader.watch(results::offer);
+
+        Files.writeString(file, PROGRAM.replace("push 7", "push 8"));
+
+        ReloadResult result = results.poll(30, TimeUnit.SECONDS);
+        assertNotNull(result, "No reload within 30 seconds");
+        assertEquals(1, result.changed());
+    }
+
+    @Test
+    @DisplayName("The program hash should follow replaced methods, even while another thread computes it")
+    void programHashFollowsReplacements() throws InterruptedException {
+        Translator translator = new Translator();
+        Collection<Method> original = translator.translateSource(PROGRAM);
+        Collection<Method> edited = translator.translateSource(PROGRAM.replace("push 1\n   add", "push 3\n   add"));
+        machine.setProgram(original);
+        String before = machine.programHash();
+
+        AtomicBoolean stop = new AtomicBoolean();
+        Thread hasher = Thread.ofPlatform().start(() -> {
+            while (!stop.get()) machine.programHash();
+        });
+        try {
+            for (int i = 0; i < 500; i++) {
+                machine.replaceMethods(i % 2 == 0 ? edited : original, List.of());
+                assertEquals(ProgramHash.of(machine.methodTable().values()), machine.programHash());
+            }
+        } finally {
+            stop.set(true);
+            hasher.join();
+        }
+        assertEquals(before, machine.programHash());
+    }
+}
@@ -0,0 +1,158 @@
+package sml.scheduling;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import sml.*;
+import sml.instructions.Instruction;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for the {@link SmlScheduler}.
+ *
+ * <p>Key test objectives:</p>
+ * <ul>
+ *   <li>Running many executions of a shared program to completion on few carriers</li>
+ *   <li>Time-slicing, so a long-running program cannot starve short ones</li>
+ *   <li>Reporting failed executions, errors included, through their futures</li>
+ *   <li>Rejecting submissions once closed without leaving them outstanding</li>
+ * </ul>
+ *
+ * @author Ricki Angel
+ */
+public class SmlSchedulerTest {
+    private static final String COUNTDOWN = """
+            @main:
+            push 200
+            store n
+            loop: load n
+            push 0
+            if_cmpeq done
+            load n
+            push 1
+            sub
+            store n
+            goto loop
+            done: push 0
+            return
+            """;
+
+    private Translator translator;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setUp() {
+        translator = new Translator();
+    }
+
+    private Collection<Method> translate(String program) throws IOException {
+        Path filePath = tempDir.resolve("program" + System.nanoTime() + ".sml");
+        Files.writeString(filePath, program);
+        return translator.readAndTranslate(filePath.toString());
+    }
+
+    private Machine load(Collection<Method> program) {
+        Machine machine = new Machine();
+        machine.setProgram(program);
+        return machine;
+    }
+
+    @Test
+    @DisplayName("Many executions sharing one program should all run to completion")
+    void runsManyExecutionsToCompletion() throws Exception {
+        Collection<Method> program = translate(COUNTDOWN);
+        Machine reference = load(program);
+        reference.run(Long.MAX_VALUE);
+
+        List<CompletableFuture<Machine>> results = new ArrayList<>();
+        try (SmlScheduler scheduler = new SmlScheduler(3, 50)) {
+            for (int i = 0; i < 500; i++)
+                results.add(scheduler.submit(load(program)));
+
+            CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)).get(30, TimeUnit.SECONDS);
+            assertEquals(0, scheduler.outstanding());
+            assertTrue(scheduler.quanta() > results.size(), "Executions should have been time-sliced");
+        }
+
+        for (CompletableFuture<Machine> result : results) {
+            Machine machine = result.get();
+            assertTrue(machine.hasTerminated());
+            assertEquals(reference.instructionsExecuted(), machine.instructionsExecuted());
+        }
+    }
+
+    @Test
+    @DisplayName("A runaway program should not starve short programs on a single carrier")
+    void runawayProgramDoesNotStarveOthers() throws Exception {
+        Machine runaway = load(translate("""
+                @main:
+                spin: goto spin
+                """));
+        runaway.setLimits(ExecutionLimits.unlimited().withMaxInstructions(50_000_000));
+
+        try (SmlScheduler scheduler = new SmlScheduler(1, 100)) {
+            CompletableFuture<Machine> spinning = scheduler.submit(runaway);
+            CompletableFuture<Machine> shortProgram = scheduler.submit(load(translate(COUNTDOWN)));
+
+            assertTrue(shortProgram.get(10, TimeUnit.SECONDS).hasTerminated());
+            assertFalse(spinning.isDone(), "The runaway program should still be running");
+            runaway.requestPause();
+
+            ExecutionException ex = assertThrows(ExecutionException.class, () -> spinning.get(60, TimeUnit.SECONDS));
+            assertInstanceOf(ExecutionLimitExceededException.class, ex.getCause());
+        }
+    }
+
+    @Test
+    @DisplayName("Submitting to a closed scheduler should be rejected")
+    void closedSchedulerRejectsSubmissions() throws IOException {
+        SmlScheduler scheduler = new SmlScheduler(1, 10);
+        scheduler.close();
+
+        Machine machine = load(translate(COUNTDOWN));
+        assertThrows(IllegalStateException.class, () -> scheduler.submit(machine));
+        assertEquals(0, scheduler.outstanding());
+    }
+
+    @Test
+    @DisplayName("An execution failing with an Error should fail its future and leave the carrier running")
+    void errorsDoNotKillCarriers() throws Exception {
+        Instruction crash = new Instruction(null, "crash") {
+            @Override
+            protected void performInstructionLogic(Frame frame) {
+                throw new AssertionError("crashed");
+            }
+
+            @Override
+            protected String getOperandsString() {
+                return "";
+            }
+        };
+        Machine failing = load(List.of(new Method(new Method.Identifier("@main"), List.of(), List.of(crash))));
+        SmlScheduler scheduler = new SmlScheduler(1, 10);
+
+        CompletableFuture<Machine> failed = scheduler.submit(failing);
+        CompletableFuture<Machine> next = scheduler.submit(load(translate(COUNTDOWN)));
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> failed.get(10, TimeUnit.SECONDS));
+        assertInstanceOf(AssertionError.class, e.getCause());
+        assertTrue(next.get(10, TimeUnit.SECONDS).hasTerminated());
+        assertTimeoutPreemptively(Duration.ofSeconds(10), scheduler::close);
+        assertEquals(0, scheduler.outstanding());
+    }
+}
@@ -0,0 +1,150 @@
+package sml.trace;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import sml.ExecutionStatus;
+import sml.Machine;
+import sml.Method;
+import sml.Translator;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.OptionalInt;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for {@link TraceRecorder} and {@link TraceDecoder}.
+ *
+ * <p>Key test objectives:</p>
+ * <ul>
+ *   <li>Decoding a recorded run into exactly the text trace {@link Machine#execute()} prints</li>
+ *   <li>Keeping only the most recent records once the ring wraps</li>
+ *   <li>Filtering rendered records by method and program counter range</li>
+ * </ul>
+ *
+ * @author Ricki Angel
+ */
+public class TraceRecorderTest {
+    private final PrintStream originalOut = System.out;
+    private final ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+    @TempDir
+    Path directory;
+
+    @BeforeEach
+    void setUp() {
+        System.setOut(new PrintStream(output));
+    }
+
+    @AfterEach
+    void tearDown() {
+        System.setOut(originalOut);
+    }
+
+    private static Collection<Method> fib(int n) throws IOException {
+        String source = Files.readString(Path.of("src/main/resources/test1.sml")).replace("push 10", "push " + n);
+        return new Translator().translateSource(source);
+    }
+
+    private static List<String> render(TraceDecoder decoder, Collection<Method> program,
+                                       Predicate<TraceRecord> filter) {
+        List<String> lines = new ArrayList<>();
+        decoder.render(program, filter, lines::add);
+        return lines;
+    }
+
+    @Test
+    @DisplayName("A decoded trace should match the printed trace line for line")
+    void decodesToTextTrace() throws IOException {
+        Machine machine = new Machine();
+        machine.setProgram(fib(5));
+        machine.execute();
+        List<String> printed = output.toString().lines().filter(line -> line.startsWith("[")).toList();
+
+        Path file = directory.resolve("fib.trace");
+        Collection<Method> program = fib(5);
+        try (TraceRecorder recorder = TraceRecorder.create(file)) {
+            machine.setProgram(program);
+            machine.setTraceRecorder(recorder);
+            output.reset();
+            machine.execute();
+            assertEquals(printed.size(), recorder.recorded());
+        }
+        assertTrue(output.toString().lines().noneMatch(line -> line.startsWith("[")), "recording replaces printing");
+
+        TraceDecoder decoder = TraceDecoder.read(file);
+        assertEquals(printed, render(decoder, fib(5), record -> true));
+
+        TraceRecord first = decoder.records().get(0);
+        assertEquals(new TraceRecord(0, new Method.Identifier("@main"), 0, 1, OptionalInt.empty()), first);
+        assertEquals(OptionalInt.of(5), decoder.records().get(1).top());
+    }
+
+    @Test
+    @DisplayName("A full ring should keep the most recent records")
+    void ringWrapsAround() throws IOException {
+        Path file = directory.resolve("wrapped.trace");
+        Machine machine = new Machine();
+        machine.setProgram(fib(6));
+        long executed;
+        try (TraceRecorder recorder = TraceRecorder.create(file, 16)) {
+            machine.setTraceRecorder(recorder);
+            assertEquals(ExecutionStatus.TERMINATED, machine.run(Long.MAX_VALUE));
+            executed = machine.instructionsExecuted();
+            assertEquals(executed, recorder.recorded());
+        }
+
+        TraceDecoder decoder = TraceDecoder.read(file);
+        assertEquals(executed, decoder.recorded());
+        assertEquals(16, decoder.records().size());
+        assertEquals(executed - 16, decoder.records().get(0).sequence());
+        assertEquals(executed - 1, decoder.records().get(15).sequence());
+
+        List<String> lines = render(decoder, fib(6), record -> true);
+        assertEquals("[main:4]   return ", lines.get(15));
+        assertTrue(lines.get(0).contains("?"), "callers overwritten in the ring are unknown: " + lines.get(0));
+    }
+
+    @Test
+    @DisplayName("Rendering should filter by method and program counter range")
+    void filters() throws IOException {
+        Path file = directory.resolve("filtered.trace");
+        Machine machine = new Machine();
+        machine.setProgram(fib(4));
+        try (TraceRecorder recorder = TraceRecorder.create(file)) {
+            machine.setTraceRecorder(recorder);
+            machine.run(Long.MAX_VALUE);
+        }
+        TraceDecoder decoder = TraceDecoder.read(file);
+
+        List<String> main = render(decoder, fib(4), TraceDecoder.inMethod(new Method.Identifier("@main")));
+        assertEquals(List.of("[main:0]   push 4", "[main:1]   invoke @fib", "[main:2]   print ",
+                "[main:3]   push 1", "[main:4]   return "), main);
+
+        List<String> bases = render(decoder, fib(4),
+                TraceDecoder.inMethod(new Method.Identifier("@fib")).and(TraceDecoder.inRange(3, 4)));
+        assertFalse(bases.isEmpty());
+        assertTrue(bases.stream().allMatch(line -> line.startsWith("[fib:3 < ") || line.startsWith("[fib:4 < ")), bases::toString);
+    }
+
+    @Test
+    @DisplayName("Files that are not traces should be rejected")
+    void rejectsOtherFiles() throws IOException {
+        Path file = directory.resolve("not.trace");
+        Files.write(file, new byte[128 * 1024]);
+
+        assertThrows(IllegalArgumentException.class, () -> TraceDecoder.read(file));
+        assertThrows(IllegalArgumentException.class, () -> TraceRecorder.create(directory.resolve("empty.trace"), 0));
+    }
+}
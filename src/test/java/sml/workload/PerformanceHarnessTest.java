@@ -0,0 +1,93 @@
+package sml.workload;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import sml.ExecutionMode;
+import sml.Method;
+import sml.Translator;
+
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for the workload generator and the performance harness.
+ *
+ * <p>Key test objectives:</p>
+ * <ul>
+ *   <li>Generating programs of the requested shape that print the predicted checksum</li>
+ *   <li>Measuring every execution mode with identical results and instruction counts</li>
+ *   <li>Writing reports to JSON and reading them back unchanged</li>
+ *   <li>Flagging metrics that worsen beyond the threshold, and nothing else</li>
+ * </ul>
+ *
+ * @author Ricki Angel
+ */
+public class PerformanceHarnessTest {
+    private static final Workload SMALL = Workload.named("small").withMethods(30).withRecursionDepth(200)
+            .withLoopIterations(5_000).withArguments(12).withLabels(4).withPrints(50);
+
+    @Test
+    @DisplayName("Generated programs should have the requested shape")
+    void generatesRequestedShape() {
+        Collection<Method> program = new Translator().translateSource(WorkloadGenerator.generate(SMALL));
+
+        assertEquals(1 + 1 + 1 + 1 + 30 + 1, program.size());
+        Method wide = program.stream().filter(m -> m.name().toString().equals("wide")).findFirst().orElseThrow();
+        assertEquals(12, wide.arguments().size());
+        Method m7 = program.stream().filter(m -> m.name().toString().equals("m7")).findFirst().orElseThrow();
+        assertEquals(4 + 4 * 3 + 1, m7.instructions().size());
+
+        assertEquals(0, WorkloadGenerator.checksum(Workload.named("empty")));
+        assertThrows(IllegalArgumentException.class, () -> SMALL.withLabels(-1));
+        assertThrows(IllegalArgumentException.class, () -> Workload.named(" "));
+    }
+
+    @Test
+    @DisplayName("Every execution mode should print the checksum and execute the same instructions")
+    void measuresEveryMode() {
+        PerformanceReport report = new PerformanceHarness(1).run(List.of(SMALL), List.of(ExecutionMode.values()));
+
+        assertEquals(ExecutionMode.values().length, report.measurements().size());
+        long instructions = report.measurements().getFirst().instructions();
+        for (Measurement m : report.measurements()) {
+            assertEquals("small", m.workload());
+            assertEquals(instructions, m.instructions(), m.mode().name());
+            assertTrue(m.wallNanos() > 0 && m.translateNanos() > 0);
+            assertTrue(m.instructionsPerSecond() > 0);
+            assertTrue(m.allocatedBytes() > 0 && m.peakHeapBytes() > 0);
+        }
+    }
+
+    @Test
+    @DisplayName("Reports should survive a round trip through JSON")
+    void jsonRoundTrip() {
+        PerformanceReport report = new PerformanceReport("21 \"ea\"", List.of(
+                new Measurement("loop", ExecutionMode.OSR, 1, 2, 3, 4, 5),
+                new Measurement("a\\b", ExecutionMode.INTERPRETED, 10, 20, 30, 40, 50)));
+
+        assertEquals(report, PerformanceReport.parse(report.toJson()));
+        assertTrue(report.toJson().contains("\"instructionsPerSecond\": 1500000000"));
+        assertEquals(List.of(), PerformanceReport.parse(new PerformanceReport("21", List.of()).toJson()).measurements());
+        assertThrows(IllegalArgumentException.class, () -> PerformanceReport.parse("{\"measurements\": [{\"workload\": \"x\"}]}"));
+    }
+
+    @Test
+    @DisplayName("Only metrics worse than the threshold should be flagged")
+    void flagsRegressions() {
+        PerformanceReport baseline = new PerformanceReport("21", List.of(
+                new Measurement("loop", ExecutionMode.OSR, 100, 1_000_000, 500, 0, 1_000),
+                new Measurement("gone", ExecutionMode.OSR, 100, 1_000_000, 500, 100, 1_000)));
+        PerformanceReport current = new PerformanceReport("21", List.of(
+                new Measurement("loop", ExecutionMode.OSR, 900, 1_250_000, 505, 9_999, 1_050),
+                new Measurement("loop", ExecutionMode.INTERPRETED, 100, 9_000_000, 500, 100, 1_000)));
+
+        List<Regression> regressions = current.regressionsFrom(baseline, 0.10);
+
+        assertEquals(List.of(new Regression("loop", ExecutionMode.OSR, "wallNanos", 1_000_000, 1_250_000)), regressions);
+        assertEquals(0.25, regressions.getFirst().change(), 1e-9);
+        assertEquals(2, current.regressionsFrom(baseline, 0.01).size());
+        assertThrows(IllegalArgumentException.class, () -> current.regressionsFrom(baseline, -1));
+    }
+}